@@ -0,0 +1,238 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.benchmark;
+
+import java.io.BufferedReader;
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.net.ServerSocket;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.benchmark.FunctionExecutionBenchmark.GetValueFunction;
+import org.apache.geode.cache.client.ClientCache;
+import org.apache.geode.cache.client.ClientCacheFactory;
+import org.apache.geode.cache.client.ClientRegionShortcut;
+import org.apache.geode.cache.execute.FunctionService;
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.server.CacheServer;
+
+/**
+ * Measures client operations going through the client pool to a cache server. A JVM can only host
+ * one cache, so the server is started in a child JVM from the benchmark class path by
+ * {@link #main(String[])}.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class ClientServerBenchmark {
+
+  public static final int BULK_SIZE = 100;
+
+  private static final String READY = "ready";
+
+  @State(Scope.Benchmark)
+  public static class ClientState {
+
+    /**
+     * PARTITION_SINGLE_HOP is a PARTITION region accessed with single hop enabled in the client
+     * pool. Single hop only applies to partitioned regions, so it is not combined with REPLICATE.
+     */
+    @Param({"REPLICATE", "PARTITION", "PARTITION_SINGLE_HOP"})
+    public String regionType;
+
+    @Param({"1000", "100000"})
+    public int keySpace;
+
+    @Param({"100", "10000"})
+    public int valueSize;
+
+    private Process server;
+    private ClientCache cache;
+    private Region<Integer, byte[]> region;
+    private Query query;
+    private byte[] value;
+
+    @Setup
+    public void setup() throws Exception {
+      int port;
+      try (ServerSocket socket = new ServerSocket(0)) {
+        port = socket.getLocalPort();
+      }
+      boolean singleHop = regionType.equals("PARTITION_SINGLE_HOP");
+      server = startServer(port, singleHop ? "PARTITION" : regionType);
+
+      cache = new ClientCacheFactory().set("log-level", "warn").addPoolServer("localhost", port)
+          .setPoolPRSingleHopEnabled(singleHop).create();
+      region = cache.<Integer, byte[]>createClientRegionFactory(ClientRegionShortcut.PROXY)
+          .create("region");
+
+      value = new byte[valueSize];
+      ThreadLocalRandom.current().nextBytes(value);
+      for (int i = 0; i < keySpace; i++) {
+        region.put(i, value);
+      }
+      query = cache.getQueryService().newQuery("select count(*) from /region");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws Exception {
+      cache.close();
+      server.getOutputStream().close();
+      if (!server.waitFor(1, TimeUnit.MINUTES)) {
+        server.destroyForcibly();
+      }
+    }
+
+    private Process startServer(int port, String regionType) throws IOException {
+      String java = System.getProperty("java.home") + File.separator + "bin" + File.separator
+          + "java";
+      Process process = new ProcessBuilder(java, "-cp", System.getProperty("java.class.path"),
+          ClientServerBenchmark.class.getName(), String.valueOf(port), regionType)
+              .redirectError(ProcessBuilder.Redirect.INHERIT).start();
+
+      BufferedReader reader = new BufferedReader(new InputStreamReader(process.getInputStream()));
+      String line;
+      while ((line = reader.readLine()) != null) {
+        if (READY.equals(line)) {
+          discardRemainingOutput(reader);
+          return process;
+        }
+      }
+      throw new IllegalStateException("Benchmark server exited with " + process.exitValue());
+    }
+
+    /**
+     * Keeps reading the server's standard output so that the server never blocks on a full pipe.
+     */
+    private void discardRemainingOutput(BufferedReader reader) {
+      Thread thread = new Thread(() -> {
+        try {
+          while (reader.readLine() != null) {
+          }
+        } catch (IOException ignored) {
+          // the server has exited
+        }
+      }, "ClientServerBenchmark server output");
+      thread.setDaemon(true);
+      thread.start();
+    }
+
+    int randomKey() {
+      return ThreadLocalRandom.current().nextInt(keySpace);
+    }
+
+    List<Integer> randomKeys() {
+      List<Integer> keys = new ArrayList<>(BULK_SIZE);
+      for (int i = 0; i < BULK_SIZE; i++) {
+        keys.add(randomKey());
+      }
+      return keys;
+    }
+
+    Map<Integer, byte[]> randomEntries() {
+      Map<Integer, byte[]> entries = new HashMap<>();
+      for (int i = 0; i < BULK_SIZE; i++) {
+        entries.put(randomKey(), value);
+      }
+      return entries;
+    }
+  }
+
+  @Benchmark
+  public Object get(ClientState state) {
+    return state.region.get(state.randomKey());
+  }
+
+  @Benchmark
+  public Object put(ClientState state) {
+    return state.region.put(state.randomKey(), state.value);
+  }
+
+  @Benchmark
+  public Object getAll(ClientState state) {
+    return state.region.getAll(state.randomKeys());
+  }
+
+  @Benchmark
+  public void putAll(ClientState state) {
+    state.region.putAll(state.randomEntries());
+  }
+
+  @Benchmark
+  public Object destroyAndRecreate(ClientState state) {
+    int key = state.randomKey();
+    state.region.remove(key);
+    return state.region.put(key, state.value);
+  }
+
+  @Benchmark
+  public Object executeFunction(ClientState state) {
+    return FunctionService.onRegion(state.region)
+        .withFilter(Collections.singleton(state.randomKey())).execute(GetValueFunction.ID)
+        .getResult();
+  }
+
+  @Benchmark
+  public Object query(ClientState state) throws Exception {
+    return state.query.execute();
+  }
+
+  /**
+   * Starts the cache server used by {@link ClientState}. Arguments are the server port and the
+   * region shortcut. The server prints {@value #READY} once it accepts clients and stops when its
+   * standard input is closed.
+   */
+  public static void main(String[] args) throws Exception {
+    Cache cache = new CacheFactory().set("mcast-port", "0").set("locators", "")
+        .set("log-level", "warn").create();
+    cache.createRegionFactory(RegionShortcut.valueOf(args[1])).create("region");
+    FunctionService.registerFunction(new GetValueFunction());
+
+    CacheServer server = cache.addCacheServer();
+    server.setPort(Integer.parseInt(args[0]));
+    server.setMaxConnections(Integer.MAX_VALUE);
+    server.start();
+
+    System.out.println(READY);
+    System.out.flush();
+
+    // block until the benchmark closes our stdin
+    while (System.in.read() != -1) {
+    }
+    cache.close();
+  }
+}
@@ -0,0 +1,96 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.benchmark;
+
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Threads;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.distributed.DistributedLockService;
+import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.distributed.internal.locks.PartitionedDLockService;
+
+/**
+ * Measures lock/unlock throughput of a distributed lock service whose grantor is in the same
+ * member, with one grantor or with the lock names partitioned over several.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+@Threads(8)
+public class DistributedLockBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class LockServiceState {
+
+    /**
+     * Number of grantors; 0 is a plain DistributedLockService
+     */
+    @Param({"0", "4"})
+    public int partitions;
+
+    @Param({"1000"})
+    public int keySpace;
+
+    private Cache cache;
+    private DistributedLockService service;
+    private String[] names;
+
+    @Setup
+    public void setup() {
+      cache = new CacheFactory().set("mcast-port", "0").set("locators", "").create();
+      if (partitions == 0) {
+        service = DistributedLockService.create("benchmark", cache.getDistributedSystem());
+      } else {
+        service = PartitionedDLockService.create("benchmark",
+            (InternalDistributedSystem) cache.getDistributedSystem(), partitions);
+      }
+      names = new String[keySpace];
+      for (int i = 0; i < keySpace; i++) {
+        names[i] = "lock-" + i;
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      if (service instanceof PartitionedDLockService) {
+        ((PartitionedDLockService) service).destroy();
+      } else {
+        DistributedLockService.destroy("benchmark");
+      }
+      cache.close();
+    }
+  }
+
+  @Benchmark
+  public boolean lockUnlock(LockServiceState state) {
+    String name = state.names[ThreadLocalRandom.current().nextInt(state.keySpace)];
+    boolean locked = state.service.lock(name, -1, -1);
+    state.service.unlock(name);
+    return locked;
+  }
+}
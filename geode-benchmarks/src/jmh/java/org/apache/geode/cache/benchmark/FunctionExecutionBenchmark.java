@@ -0,0 +1,119 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.benchmark;
+
+import java.util.Collections;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.execute.Function;
+import org.apache.geode.cache.execute.FunctionContext;
+import org.apache.geode.cache.execute.FunctionService;
+import org.apache.geode.cache.execute.RegionFunctionContext;
+
+/**
+ * Measures the overhead of region and member function execution in a single member.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class FunctionExecutionBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class CacheState {
+
+    @Param({"REPLICATE", "PARTITION"})
+    public String regionType;
+
+    @Param({"1000"})
+    public int keySpace;
+
+    private Cache cache;
+    private Region<Integer, Integer> region;
+
+    @Setup
+    public void setup() {
+      cache = new CacheFactory().set("mcast-port", "0").set("locators", "").create();
+      region = cache.<Integer, Integer>createRegionFactory(RegionShortcut.valueOf(regionType))
+          .create("region");
+      for (int i = 0; i < keySpace; i++) {
+        region.put(i, i);
+      }
+      FunctionService.registerFunction(new GetValueFunction());
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      FunctionService.unregisterFunction(GetValueFunction.ID);
+      cache.close();
+    }
+  }
+
+  @Benchmark
+  public Object onRegionWithFilter(CacheState state) {
+    Integer key = ThreadLocalRandom.current().nextInt(state.keySpace);
+    return FunctionService.onRegion(state.region).withFilter(Collections.singleton(key))
+        .execute(GetValueFunction.ID).getResult();
+  }
+
+  @Benchmark
+  public Object onMember(CacheState state) {
+    return FunctionService.onMember(state.cache.getDistributedSystem().getDistributedMember())
+        .setArguments(ThreadLocalRandom.current().nextInt(state.keySpace))
+        .execute(GetValueFunction.ID).getResult();
+  }
+
+  /**
+   * Returns the values of the filter keys, or of the key passed as argument when executed on a
+   * member.
+   */
+  public static class GetValueFunction implements Function<Object> {
+    public static final String ID = "benchmark-get-value";
+
+    @Override
+    public void execute(FunctionContext<Object> context) {
+      if (context instanceof RegionFunctionContext) {
+        RegionFunctionContext regionContext = (RegionFunctionContext) context;
+        Region<Object, Object> region = regionContext.getDataSet();
+        for (Object key : regionContext.getFilter()) {
+          context.getResultSender().sendResult(region.get(key));
+        }
+        context.getResultSender().lastResult(null);
+      } else {
+        Region<Object, Object> region = context.getCache().getRegion("region");
+        context.getResultSender().lastResult(region.get(context.getArguments()));
+      }
+    }
+
+    @Override
+    public String getId() {
+      return ID;
+    }
+  }
+}
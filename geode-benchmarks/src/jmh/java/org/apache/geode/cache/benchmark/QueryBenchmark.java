@@ -0,0 +1,156 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.benchmark;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.DataSerializable;
+import org.apache.geode.DataSerializer;
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.query.Query;
+import org.apache.geode.cache.query.QueryService;
+
+/**
+ * Measures OQL equality, range and aggregate queries with and without an index on the queried
+ * field.
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class QueryBenchmark {
+
+  @State(Scope.Benchmark)
+  public static class CacheState {
+
+    @Param({"REPLICATE", "PARTITION"})
+    public String regionType;
+
+    @Param({"10000", "100000"})
+    public int keySpace;
+
+    @Param({"true", "false"})
+    public boolean indexed;
+
+    private Cache cache;
+    private Query equalityQuery;
+    private Query rangeQuery;
+    private Query countQuery;
+
+    @Setup
+    public void setup() throws Exception {
+      cache = new CacheFactory().set("mcast-port", "0").set("locators", "").create();
+
+      Region<Integer, Value> region =
+          cache.<Integer, Value>createRegionFactory(RegionShortcut.valueOf(regionType))
+              .create("region");
+      QueryService queryService = cache.getQueryService();
+      if (indexed) {
+        queryService.createIndex("idIndex", "id", "/region");
+        queryService.createIndex("statusIndex", "status", "/region");
+      }
+      for (int i = 0; i < keySpace; i++) {
+        region.put(i, new Value(i));
+      }
+
+      equalityQuery = queryService.newQuery("select * from /region where id = $1");
+      rangeQuery = queryService.newQuery("select * from /region where id >= $1 and id < $2");
+      countQuery = queryService.newQuery("select count(*) from /region where status = $1");
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+      cache.close();
+    }
+
+    int randomId() {
+      return ThreadLocalRandom.current().nextInt(keySpace);
+    }
+  }
+
+  @Benchmark
+  public Object equality(CacheState state) throws Exception {
+    return state.equalityQuery.execute(state.randomId());
+  }
+
+  @Benchmark
+  public Object range(CacheState state) throws Exception {
+    int from = state.randomId();
+    return state.rangeQuery.execute(from, from + 100);
+  }
+
+  @Benchmark
+  public Object count(CacheState state) throws Exception {
+    return state.countQuery.execute(Value.statusOf(state.randomId()));
+  }
+
+  /**
+   * Data serializable so that it can be stored in the buckets of a PARTITION region
+   */
+  public static class Value implements DataSerializable {
+    protected int id;
+    protected String status;
+
+    /**
+     * Empty constructor for serialization
+     */
+    public Value() {}
+
+    public Value(int id) {
+      this.id = id;
+      this.status = statusOf(id);
+    }
+
+    static String statusOf(int id) {
+      return "status" + (id % 10);
+    }
+
+    public int getId() {
+      return id;
+    }
+
+    public String getStatus() {
+      return status;
+    }
+
+    @Override
+    public void toData(DataOutput out) throws IOException {
+      DataSerializer.writePrimitiveInt(id, out);
+      DataSerializer.writeString(status, out);
+    }
+
+    @Override
+    public void fromData(DataInput in) throws IOException, ClassNotFoundException {
+      id = DataSerializer.readPrimitiveInt(in);
+      status = DataSerializer.readString(in);
+    }
+  }
+}
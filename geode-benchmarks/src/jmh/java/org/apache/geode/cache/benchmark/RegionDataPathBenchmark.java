@@ -0,0 +1,202 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.benchmark;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.commons.io.FileUtils;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.TearDown;
+import org.openjdk.jmh.annotations.Warmup;
+
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheFactory;
+import org.apache.geode.cache.EvictionAction;
+import org.apache.geode.cache.EvictionAttributes;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionFactory;
+import org.apache.geode.cache.RegionShortcut;
+
+/**
+ * Measures the basic region operations (get, put, putAll, getAll and destroy) over the common
+ * region configurations. The key space and value size are JMH parameters; the thread count is
+ * varied with the JMH {@code -t} option, e.g.
+ *
+ * <pre>
+ * java -jar geode-benchmarks-jmh.jar RegionDataPathBenchmark -t 4 -p regionType=PARTITION
+ * </pre>
+ */
+@Fork(3)
+@Warmup(iterations = 10)
+@Measurement(iterations = 10)
+public class RegionDataPathBenchmark {
+
+  public static final int BULK_SIZE = 100;
+
+  /**
+   * Off-heap chunk header plus the serialized byte array header, rounded up.
+   */
+  private static final int OFF_HEAP_ENTRY_OVERHEAD = 32;
+
+  @State(Scope.Benchmark)
+  public static class CacheState {
+
+    @Param({"REPLICATE", "PARTITION", "PARTITION_PERSISTENT", "PARTITION_OVERFLOW",
+        "PARTITION_OFFHEAP"})
+    public String regionType;
+
+    @Param({"1000", "100000"})
+    public int keySpace;
+
+    @Param({"100", "10000"})
+    public int valueSize;
+
+    private Cache cache;
+    private Region<Integer, byte[]> region;
+    private File diskDir;
+    private byte[] value;
+
+    @Setup
+    public void setup() throws IOException {
+      CacheFactory cacheFactory = new CacheFactory().set("mcast-port", "0").set("locators", "");
+      if (regionType.equals("PARTITION_OFFHEAP")) {
+        cacheFactory.set("off-heap-memory-size", offHeapMemorySize());
+      }
+      cache = cacheFactory.create();
+
+      RegionFactory<Integer, byte[]> factory;
+      switch (regionType) {
+        case "REPLICATE":
+          factory = cache.createRegionFactory(RegionShortcut.REPLICATE);
+          break;
+        case "PARTITION":
+          factory = cache.createRegionFactory(RegionShortcut.PARTITION);
+          break;
+        case "PARTITION_PERSISTENT":
+          factory = cache.createRegionFactory(RegionShortcut.PARTITION_PERSISTENT);
+          factory.setDiskStoreName(createDiskStore());
+          break;
+        case "PARTITION_OVERFLOW":
+          // keep only a tenth of the entries in memory so that reads fault in from disk
+          factory = cache.createRegionFactory(RegionShortcut.PARTITION);
+          factory.setEvictionAttributes(EvictionAttributes.createLRUEntryAttributes(
+              Math.max(1, keySpace / 10), EvictionAction.OVERFLOW_TO_DISK));
+          factory.setDiskStoreName(createDiskStore());
+          break;
+        case "PARTITION_OFFHEAP":
+          factory = cache.createRegionFactory(RegionShortcut.PARTITION);
+          factory.setOffHeap(true);
+          break;
+        default:
+          throw new IllegalArgumentException("Unknown region type " + regionType);
+      }
+      region = factory.create("region");
+
+      value = new byte[valueSize];
+      ThreadLocalRandom.current().nextBytes(value);
+      for (int i = 0; i < keySpace; i++) {
+        region.put(i, value);
+      }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() throws IOException {
+      cache.close();
+      if (diskDir != null) {
+        FileUtils.deleteDirectory(diskDir);
+      }
+    }
+
+    /**
+     * Twice the size of the stored values plus a fixed reserve, since the replacement value is
+     * allocated before the old one is freed and the free lists fragment under concurrent puts.
+     */
+    private String offHeapMemorySize() {
+      long valueBytes = (long) keySpace * (valueSize + OFF_HEAP_ENTRY_OVERHEAD);
+      return (2 * valueBytes / (1024 * 1024) + 64) + "m";
+    }
+
+    private String createDiskStore() throws IOException {
+      diskDir = Files.createTempDirectory("RegionDataPathBenchmark").toFile();
+      cache.createDiskStoreFactory().setDiskDirs(new File[] {diskDir}).create("benchmark");
+      return "benchmark";
+    }
+
+    int randomKey() {
+      return ThreadLocalRandom.current().nextInt(keySpace);
+    }
+
+    List<Integer> randomKeys() {
+      List<Integer> keys = new ArrayList<>(BULK_SIZE);
+      for (int i = 0; i < BULK_SIZE; i++) {
+        keys.add(randomKey());
+      }
+      return keys;
+    }
+
+    Map<Integer, byte[]> randomEntries() {
+      Map<Integer, byte[]> entries = new HashMap<>();
+      for (int i = 0; i < BULK_SIZE; i++) {
+        entries.put(randomKey(), value);
+      }
+      return entries;
+    }
+  }
+
+  @Benchmark
+  public Object get(CacheState state) {
+    return state.region.get(state.randomKey());
+  }
+
+  @Benchmark
+  public Object put(CacheState state) {
+    return state.region.put(state.randomKey(), state.value);
+  }
+
+  @Benchmark
+  public Object getAll(CacheState state) {
+    return state.region.getAll(state.randomKeys());
+  }
+
+  @Benchmark
+  public void putAll(CacheState state) {
+    state.region.putAll(state.randomEntries());
+  }
+
+  /**
+   * Destroys a random key and puts it back so that the key space stays populated for the other
+   * threads.
+   */
+  @Benchmark
+  public Object destroyAndRecreate(CacheState state) {
+    int key = state.randomKey();
+    state.region.remove(key);
+    return state.region.put(key, state.value);
+  }
+}
@@ -0,0 +1,87 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.geode.cache.Region;
+
+/**
+ * Performs operations on a {@link ClientRegionShortcut#PROXY proxy} region without blocking the
+ * calling thread. Each operation returns a future that is completed with the operation's result
+ * once the server has replied, or completed exceptionally with the exception the corresponding
+ * {@link Region} operation would have thrown.
+ * <p>
+ * Operations are sent to the servers of the region's pool directly: the cache writers and cache
+ * listeners of the client region are not invoked, and the operations can not be part of a
+ * transaction. Gets and puts share connections with other operations when the pool multiplexes its
+ * connections; other operations are performed by threads of the pool. Futures are completed by
+ * threads of the pool, so actions depending on them should not block for long.
+ * <p>
+ * An AsyncRegion is obtained with {@link ClientCache#getAsyncRegion(Region)}.
+ *
+ * @param <K> the type of the keys of the region
+ * @param <V> the type of the values of the region
+ * @since Geode 1.4
+ */
+public interface AsyncRegion<K, V> {
+
+  /**
+   * Returns the region this instance performs operations on.
+   */
+  public Region<K, V> getRegion();
+
+  /**
+   * Gets the value of the given key from the server.
+   *
+   * @param key the key whose value is returned
+   * @return a future completed with the value, or with null if the key has no value
+   * @throws NullPointerException if the key is null
+   */
+  public CompletableFuture<V> getAsync(K key);
+
+  /**
+   * Puts the given value for the given key on the server.
+   *
+   * @param key the key to put the value for
+   * @param value the value to put
+   * @return a future completed once the server has applied the put
+   * @throws NullPointerException if the key or the value is null
+   */
+  public CompletableFuture<Void> putAsync(K key, V value);
+
+  /**
+   * Gets the values of the given keys from the servers, as {@link Region#getAll(Collection)} does.
+   *
+   * @param keys the keys whose values are returned
+   * @return a future completed with a map of the keys to their values
+   */
+  public CompletableFuture<Map<K, V>> getAllAsync(Collection<? extends K> keys);
+
+  /**
+   * Executes the given registered function on the region, as
+   * {@link org.apache.geode.cache.execute.FunctionService#onRegion(Region)} does.
+   *
+   * @param functionId the id of the function to execute
+   * @param filter the keys to execute the function on, or null for the whole region
+   * @param arguments the arguments of the function, or null if it has none
+   * @return a future completed with the result of the default result collector
+   */
+  public CompletableFuture<Object> executeFunctionAsync(String functionId, Set<?> filter,
+      Object arguments);
+}
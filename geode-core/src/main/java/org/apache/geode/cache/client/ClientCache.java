@@ -167,4 +167,15 @@ public interface ClientCache extends GemFireCache {
    */
   public Pool getDefaultPool();
 
+  /**
+   * Returns an {@link AsyncRegion} that performs operations on the given region without blocking
+   * the calling thread.
+   *
+   * @param region a {@link ClientRegionShortcut#PROXY proxy} region of this cache
+   * @return the {@link AsyncRegion} for the region
+   * @throws IllegalArgumentException if the region has local storage or no pool
+   * @since Geode 1.4
+   */
+  public <K, V> AsyncRegion<K, V> getAsyncRegion(Region<K, V> region);
+
 }
@@ -62,6 +62,21 @@ public enum ClientRegionShortcut {
    */
   CACHING_PROXY_OVERFLOW,
 
+  /**
+   * A NEAR_CACHE region keeps a bounded number of entries read from a server. If the local state is
+   * not found then the operation is sent to the server and the local state is updated to contain
+   * the server result. When the region is created it registers interest in all keys without values,
+   * so changes made on the servers only invalidate local entries, which are fetched again the next
+   * time they are read. Once the region is full, the entries read least often recently are
+   * destroyed. The actual RegionAttributes for a NEAR_CACHE set the {@link DataPolicy} to
+   * {@link DataPolicy#NORMAL} and {@link EvictionAttributes} are set to
+   * {@link EvictionAlgorithm#LRU_ENTRY} with {@link EvictionAction#LOCAL_DESTROY}. The maximum
+   * number of entries can be changed with {@link ClientRegionFactory#setEvictionAttributes}.
+   *
+   * @since Geode 1.4
+   */
+  NEAR_CACHE,
+
   /**
    * A LOCAL region only has local state and never sends operations to a server. The actual
    * RegionAttributes for a LOCAL region set the {@link DataPolicy} to {@link DataPolicy#NORMAL}.
@@ -434,4 +434,15 @@ public abstract class AbstractOp implements Op {
   public boolean isGatewaySenderOp() {
     return false;
   }
+
+  /**
+   * Subclasses should override this method to return true if this op can be executed on a
+   * {@link MultiplexedConnection}: it must send a single message and read a single response that
+   * is not chunked.
+   *
+   * @return true if the op can share its connection with other ops
+   */
+  public boolean isMultiplexable() {
+    return false;
+  }
 }
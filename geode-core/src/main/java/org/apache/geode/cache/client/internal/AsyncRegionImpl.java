@@ -0,0 +1,138 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.CompletableFuture;
+
+import org.apache.geode.cache.DataPolicy;
+import org.apache.geode.cache.Operation;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.client.AsyncRegion;
+import org.apache.geode.cache.execute.Execution;
+import org.apache.geode.cache.execute.FunctionService;
+import org.apache.geode.internal.cache.EntryEventImpl;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.TXManagerImpl;
+import org.apache.geode.internal.cache.Token;
+import org.apache.geode.internal.i18n.LocalizedStrings;
+
+/**
+ * The {@link AsyncRegion} of a client proxy region. Gets and puts are executed with
+ * {@link PoolImpl#executeAsync(Op)}, so that they do not hold a thread while waiting for the server
+ * when the pool multiplexes its connections. Operations whose responses are chunked are executed by
+ * the pool's async op threads.
+ *
+ * @since Geode 1.4
+ */
+public class AsyncRegionImpl<K, V> implements AsyncRegion<K, V> {
+
+  private final LocalRegion region;
+
+  private final ServerRegionProxy proxy;
+
+  private final PoolImpl pool;
+
+  public AsyncRegionImpl(LocalRegion region) {
+    if (region.getServerProxy() == null || region.getDataPolicy() != DataPolicy.EMPTY) {
+      throw new IllegalArgumentException(
+          "Region " + region.getFullPath() + " is not a client proxy region");
+    }
+    this.region = region;
+    this.proxy = region.getServerProxy();
+    this.pool = (PoolImpl) this.proxy.getPool();
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public Region<K, V> getRegion() {
+    return this.region;
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<V> getAsync(K key) {
+    if (key == null) {
+      throw new NullPointerException(
+          LocalizedStrings.LocalRegion_KEY_CANNOT_BE_NULL.toLocalizedString());
+    }
+    checkOperation();
+    return this.proxy.getAsync(key, null)
+        .thenApply(value -> Token.isInvalidOrRemoved(value) ? null : (V) value);
+  }
+
+  @Override
+  public CompletableFuture<Void> putAsync(K key, V value) {
+    if (key == null) {
+      throw new NullPointerException(
+          LocalizedStrings.LocalRegion_KEY_CANNOT_BE_NULL.toLocalizedString());
+    }
+    if (value == null) {
+      throw new NullPointerException(
+          LocalizedStrings.LocalRegion_VALUE_MUST_NOT_BE_NULL.toLocalizedString());
+    }
+    checkOperation();
+    final EntryEventImpl event = EntryEventImpl.create(this.region, Operation.UPDATE, key, value,
+        null, false, this.region.getCache().getMyId());
+    boolean sent = false;
+    try {
+      if (event.getEventId() == null) {
+        event.setNewEventId(this.region.getCache().getDistributedSystem());
+      }
+      CompletableFuture<Object> put = this.proxy.putAsync(key, value, event, null);
+      sent = true;
+      return put.whenComplete((result, failure) -> event.release()).thenApply(result -> null);
+    } finally {
+      if (!sent) {
+        event.release();
+      }
+    }
+  }
+
+  @Override
+  @SuppressWarnings("unchecked")
+  public CompletableFuture<Map<K, V>> getAllAsync(Collection<? extends K> keys) {
+    checkOperation();
+    return CompletableFuture.supplyAsync(() -> (Map<K, V>) this.region.getAll(keys),
+        this.pool.getAsyncOpProcessor());
+  }
+
+  @Override
+  public CompletableFuture<Object> executeFunctionAsync(String functionId, Set<?> filter,
+      Object arguments) {
+    checkOperation();
+    return CompletableFuture.supplyAsync(() -> {
+      Execution execution = FunctionService.onRegion(this.region);
+      if (filter != null) {
+        execution = execution.withFilter(filter);
+      }
+      if (arguments != null) {
+        execution = execution.setArguments(arguments);
+      }
+      return execution.execute(functionId).getResult();
+    }, this.pool.getAsyncOpProcessor());
+  }
+
+  private void checkOperation() {
+    this.region.checkReadiness();
+    if (TXManagerImpl.getCurrentTXUniqueId() != TXManagerImpl.NOTX) {
+      throw new IllegalStateException(
+          "Asynchronous operations on region " + this.region.getFullPath()
+              + " can not be done in a transaction");
+    }
+  }
+}
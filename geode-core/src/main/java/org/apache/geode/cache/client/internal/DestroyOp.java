@@ -239,6 +239,11 @@ public class DestroyOp {
       return null;
     }
 
+    @Override
+    public boolean isMultiplexable() {
+      return true;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.DESTROY_DATA_ERROR;
@@ -59,6 +59,11 @@ public class GetEntryOp {
       return snap;
     }
 
+    @Override
+    public boolean isMultiplexable() {
+      return true;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.REQUESTDATAERROR;
@@ -99,6 +99,11 @@ public class InvalidateOp {
       return null;
     }
 
+    @Override
+    public boolean isMultiplexable() {
+      return true;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.INVALIDATE_ERROR;
@@ -0,0 +1,508 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InterruptedIOException;
+import java.io.OutputStream;
+import java.net.Socket;
+import java.net.SocketException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
+
+import org.apache.geode.cache.client.internal.pooling.ConnectionDestroyedException;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.tier.sockets.ServerQueueStatus;
+
+/**
+ * A client to server connection shared by many threads. Each op writes its whole request while
+ * holding the send lock and then waits until the responses to the requests sent before it have
+ * been read, so ops do not wait for each other's round trips. A server processes the messages of
+ * a connection one at a time and replies in the order it received them, which is how responses
+ * are matched to their requests.
+ * <p>
+ * Only ops that send one message and read one response that is not chunked may be executed on a
+ * multiplexed connection, see {@link AbstractOp#isMultiplexable()}. If the connection fails while
+ * an op is in flight it is destroyed and {@link #execute(Op)} throws a
+ * {@link ConnectionDestroyedException} so that the op can be retried on an exclusive connection.
+ */
+public class MultiplexedConnection implements Connection {
+
+  /** length of the header of a message, see Message#readHeaderAndPayload */
+  private static final int HEADER_LENGTH = 17;
+
+  /** offset of the payload length in the header of a message */
+  private static final int PAYLOAD_LENGTH_OFFSET = 4;
+
+  private final Connection connection;
+
+  private final int commBufferSize;
+
+  private final Object sendLock = new Object();
+
+  /** number of requests written to the socket, guarded by sendLock */
+  private long numSent;
+
+  /** number of responses read from the socket, guarded by this */
+  private long numReceived;
+
+  private final ThreadLocal<Exchange> currentExchange = new ThreadLocal<Exchange>();
+
+  /** comm buffers of finished exchanges, kept for the next ones */
+  private final Queue<ByteBuffer> commBuffers = new ConcurrentLinkedQueue<ByteBuffer>();
+
+  /** runs the tasks that read the responses of async ops */
+  private final Executor asyncReaders;
+
+  /** exchanges of async ops waiting for their responses by ticket, guarded by this */
+  private final Map<Long, AsyncExchange> asyncExchanges = new HashMap<Long, AsyncExchange>();
+
+  /** true while a task is reading the responses of async ops, guarded by this */
+  private boolean readingAsyncResponses;
+
+  public MultiplexedConnection(Connection connection, Executor asyncReaders)
+      throws SocketException {
+    this.connection = connection;
+    this.commBufferSize = connection.getCommBuffer().capacity();
+    this.asyncReaders = asyncReaders;
+  }
+
+  public Object execute(Op op) throws Exception {
+    Exchange exchange = new Exchange();
+    this.currentExchange.set(exchange);
+    try {
+      Object result = op.attempt(this);
+      if (exchange.isSent() && !exchange.isReceived()) {
+        // the op did not read its whole response so the next one can not be found
+        destroy();
+      }
+      getEndpoint().updateLastExecute();
+      return result;
+    } catch (Exception e) {
+      if (exchange.isReceived() || (!exchange.isSent() && !isDestroyed())) {
+        // the exception came from the server's response or from preparing the request
+        throw e;
+      }
+      destroy();
+      throw new ConnectionDestroyedException("multiplexed connection was lost", e);
+    } finally {
+      this.currentExchange.remove();
+      exchange.release();
+    }
+  }
+
+  /**
+   * Sends the request of the given op and returns a future completed with the op's result once its
+   * response has been read. The calling thread does not wait for the response: the responses of
+   * async ops are read by a task run on the connection's async reader executor while any of them
+   * are outstanding, and their futures are completed by that task. Dependent actions should not
+   * block on other ops of this connection; they should be run on another executor.
+   */
+  public CompletableFuture<Object> executeAsync(AbstractOp op) {
+    CompletableFuture<Object> future = new CompletableFuture<Object>();
+    ConnectionStats stats = getStats();
+    long start = op.startAttempt(stats);
+    AsyncExchange exchange = new AsyncExchange(op, future, start);
+    this.currentExchange.set(exchange);
+    try {
+      try {
+        op.attemptSend(this);
+      } finally {
+        this.currentExchange.remove();
+        op.endSendAttempt(stats, start);
+        exchange.release();
+      }
+      if (!exchange.isSent()) {
+        throw new IllegalStateException("The op did not send a request");
+      }
+    } catch (Exception e) {
+      if (exchange.isSent() || isDestroyed()) {
+        destroy();
+        e = new ConnectionDestroyedException("multiplexed connection was lost", e);
+      }
+      exchange.completeExceptionally(e);
+      return future;
+    }
+    synchronized (this) {
+      if (isDestroyed()) {
+        exchange.completeExceptionally(
+            new ConnectionDestroyedException("multiplexed connection was lost"));
+      } else {
+        this.asyncExchanges.put(exchange.ticket, exchange);
+        readAsyncResponsesIfNeeded();
+      }
+    }
+    return future;
+  }
+
+  /**
+   * Starts a task reading responses if the next response to be read belongs to an async op and no
+   * task is reading them already. Called while holding the lock on this connection.
+   */
+  private void readAsyncResponsesIfNeeded() {
+    if (!this.readingAsyncResponses && this.asyncExchanges.containsKey(this.numReceived)) {
+      this.readingAsyncResponses = true;
+      try {
+        this.asyncReaders.execute(this::readAsyncResponses);
+      } catch (RejectedExecutionException e) {
+        this.readingAsyncResponses = false;
+        this.connection.destroy();
+        notifyAll();
+        failAsyncExchanges(e);
+      }
+    }
+  }
+
+  private void readAsyncResponses() {
+    while (true) {
+      AsyncExchange exchange;
+      synchronized (this) {
+        exchange = this.asyncExchanges.remove(this.numReceived);
+        if (exchange == null) {
+          this.readingAsyncResponses = false;
+          return;
+        }
+      }
+      exchange.readResponse();
+    }
+  }
+
+  /**
+   * Fails the async ops waiting for responses. Called while holding the lock on this connection
+   * once it has been destroyed.
+   */
+  private void failAsyncExchanges(Throwable cause) {
+    for (AsyncExchange exchange : this.asyncExchanges.values()) {
+      exchange.completeExceptionally(
+          new ConnectionDestroyedException("multiplexed connection was lost", cause));
+    }
+    this.asyncExchanges.clear();
+  }
+
+  /**
+   * Returns the number of requests that have been sent on this connection whose responses have not
+   * been read yet.
+   */
+  public long getPendingResponses() {
+    long sent;
+    synchronized (this.sendLock) {
+      sent = this.numSent;
+    }
+    synchronized (this) {
+      return sent - this.numReceived;
+    }
+  }
+
+  public ByteBuffer getCommBuffer() throws SocketException {
+    Exchange exchange = this.currentExchange.get();
+    return exchange != null ? exchange.getCommBuffer() : this.connection.getCommBuffer();
+  }
+
+  public OutputStream getOutputStream() {
+    Exchange exchange = this.currentExchange.get();
+    return exchange != null ? exchange.request : this.connection.getOutputStream();
+  }
+
+  public InputStream getInputStream() {
+    Exchange exchange = this.currentExchange.get();
+    return exchange != null ? exchange.response : this.connection.getInputStream();
+  }
+
+  public Socket getSocket() {
+    return this.connection.getSocket();
+  }
+
+  public ConnectionStats getStats() {
+    return this.connection.getStats();
+  }
+
+  public void destroy() {
+    this.connection.destroy();
+    synchronized (this) {
+      notifyAll();
+      failAsyncExchanges(null);
+    }
+  }
+
+  public boolean isDestroyed() {
+    return this.connection.isDestroyed();
+  }
+
+  public void close(boolean keepAlive) throws Exception {
+    try {
+      synchronized (this.sendLock) {
+        this.connection.close(keepAlive);
+      }
+    } finally {
+      destroy();
+    }
+  }
+
+  public ServerLocation getServer() {
+    return this.connection.getServer();
+  }
+
+  public Endpoint getEndpoint() {
+    return this.connection.getEndpoint();
+  }
+
+  public ServerQueueStatus getQueueStatus() {
+    return this.connection.getQueueStatus();
+  }
+
+  public void emergencyClose() {
+    this.connection.emergencyClose();
+  }
+
+  public short getWanSiteVersion() {
+    return this.connection.getWanSiteVersion();
+  }
+
+  public void setWanSiteVersion(short wanSiteVersion) {
+    this.connection.setWanSiteVersion(wanSiteVersion);
+  }
+
+  public int getDistributedSystemId() {
+    return this.connection.getDistributedSystemId();
+  }
+
+  public void setConnectionID(long id) {
+    this.connection.setConnectionID(id);
+  }
+
+  public long getConnectionID() {
+    return this.connection.getConnectionID();
+  }
+
+  @Override
+  public String toString() {
+    return "Multiplexed" + this.connection;
+  }
+
+  /**
+   * The request and response of one op. The request is buffered until the op flushes it and is
+   * then written to the socket in one piece. The response is read from the socket once the
+   * responses to the requests sent before it have been read, and no further than its own end.
+   */
+  private class Exchange {
+
+    private final RequestStream request = new RequestStream();
+
+    private final ResponseStream response = new ResponseStream();
+
+    private ByteBuffer commBuffer;
+
+    /** position of the request in the order of the requests sent, or -1 until it is sent */
+    long ticket = -1;
+
+    private boolean received;
+
+    ByteBuffer getCommBuffer() {
+      if (this.commBuffer == null) {
+        this.commBuffer = commBuffers.poll();
+        if (this.commBuffer == null) {
+          this.commBuffer = ByteBuffer.allocate(commBufferSize);
+        }
+      }
+      return this.commBuffer;
+    }
+
+    boolean isSent() {
+      return this.ticket != -1;
+    }
+
+    boolean isReceived() {
+      return this.received;
+    }
+
+    void release() {
+      if (this.commBuffer != null) {
+        this.commBuffer.clear();
+        commBuffers.offer(this.commBuffer);
+        this.commBuffer = null;
+      }
+    }
+
+    void send() throws IOException {
+      if (this.request.size() == 0) {
+        return;
+      }
+      if (isSent()) {
+        throw new IllegalStateException("Only one request can be sent by an op");
+      }
+      synchronized (sendLock) {
+        if (isDestroyed()) {
+          throw new SocketException("socket was closed");
+        }
+        this.ticket = numSent++;
+        OutputStream out = connection.getOutputStream();
+        this.request.writeTo(out);
+        out.flush();
+      }
+      this.request.reset();
+    }
+
+    void awaitTurn() throws IOException {
+      if (!isSent()) {
+        throw new IllegalStateException("A response can not be read before the request is sent");
+      }
+      synchronized (MultiplexedConnection.this) {
+        boolean interrupted = false;
+        try {
+          while (numReceived != this.ticket) {
+            if (isDestroyed()) {
+              throw new SocketException("socket was closed");
+            }
+            try {
+              MultiplexedConnection.this.wait();
+            } catch (InterruptedException e) {
+              interrupted = true;
+              throw new InterruptedIOException();
+            }
+          }
+        } finally {
+          if (interrupted) {
+            Thread.currentThread().interrupt();
+          }
+        }
+      }
+    }
+
+    void responseReceived() {
+      this.received = true;
+      synchronized (MultiplexedConnection.this) {
+        numReceived++;
+        MultiplexedConnection.this.notifyAll();
+        readAsyncResponsesIfNeeded();
+      }
+    }
+
+    private class RequestStream extends ByteArrayOutputStream {
+
+      @Override
+      public void flush() throws IOException {
+        send();
+      }
+    }
+
+    private class ResponseStream extends InputStream {
+
+      private final byte[] header = new byte[HEADER_LENGTH];
+
+      private int headerRead;
+
+      private int payloadRemaining;
+
+      private boolean started;
+
+      @Override
+      public int read() throws IOException {
+        byte[] b = new byte[1];
+        return read(b, 0, 1) == -1 ? -1 : b[0] & 0xff;
+      }
+
+      @Override
+      public int read(byte[] b, int off, int len) throws IOException {
+        if (received) {
+          return -1;
+        }
+        if (!this.started) {
+          awaitTurn();
+          this.started = true;
+        }
+        int max = this.headerRead < HEADER_LENGTH ? HEADER_LENGTH - this.headerRead
+            : this.payloadRemaining;
+        int bytesRead = connection.getInputStream().read(b, off, Math.min(len, max));
+        if (bytesRead > 0) {
+          consumed(b, off, bytesRead);
+        }
+        return bytesRead;
+      }
+
+      private void consumed(byte[] b, int off, int bytesRead) {
+        if (this.headerRead < HEADER_LENGTH) {
+          System.arraycopy(b, off, this.header, this.headerRead, bytesRead);
+          this.headerRead += bytesRead;
+          if (this.headerRead == HEADER_LENGTH) {
+            int payloadLength = ByteBuffer.wrap(this.header).getInt(PAYLOAD_LENGTH_OFFSET);
+            this.payloadRemaining = Math.max(0, payloadLength);
+          } else {
+            return;
+          }
+        } else {
+          this.payloadRemaining -= bytesRead;
+        }
+        if (this.payloadRemaining == 0) {
+          responseReceived();
+        }
+      }
+    }
+  }
+
+  /**
+   * The exchange of an async op, whose response is read by the task reading async responses.
+   */
+  private class AsyncExchange extends Exchange {
+
+    private final AbstractOp op;
+
+    private final CompletableFuture<Object> future;
+
+    private final long start;
+
+    AsyncExchange(AbstractOp op, CompletableFuture<Object> future, long start) {
+      this.op = op;
+      this.future = future;
+      this.start = start;
+    }
+
+    void readResponse() {
+      currentExchange.set(this);
+      try {
+        Object result = this.op.attemptReadResponse(MultiplexedConnection.this);
+        if (!isReceived()) {
+          destroy();
+        }
+        getEndpoint().updateLastExecute();
+        this.future.complete(result);
+      } catch (Exception e) {
+        if (isReceived()) {
+          this.future.completeExceptionally(e);
+        } else {
+          destroy();
+          this.future.completeExceptionally(
+              new ConnectionDestroyedException("multiplexed connection was lost", e));
+        }
+      } finally {
+        currentExchange.remove();
+        release();
+        this.op.endAttempt(getStats(), this.start);
+      }
+    }
+
+    void completeExceptionally(Throwable failure) {
+      this.op.endAttempt(getStats(), this.start);
+      this.future.completeExceptionally(failure);
+    }
+  }
+}
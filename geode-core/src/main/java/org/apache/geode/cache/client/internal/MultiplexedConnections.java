@@ -0,0 +1,200 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.SynchronousQueue;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.CancelException;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.cache.GemfireCacheHelper;
+import org.apache.geode.internal.cache.TXManagerImpl;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
+
+/**
+ * The {@link MultiplexedConnection}s of a pool. A pool keeps the number of them given by the
+ * {@link #CONNECTIONS_PROPERTY} system property for ops that may go to any server, and as many for
+ * each server that ops were sent to directly. They are created as ops need them, outside of the
+ * connections counted by the pool's connection manager, and are replaced when they are lost.
+ * <p>
+ * Ops in a transaction, ops of a multi-user pool and ops on servers that require credentials are
+ * not multiplexed, since their requests depend on state held by the connection.
+ */
+public class MultiplexedConnections {
+
+  private static final Logger logger = LogService.getLogger();
+
+  public static final String CONNECTIONS_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.MULTIPLEXED_CONNECTIONS";
+
+  private final ConnectionFactory connectionFactory;
+
+  private final int numConnections;
+
+  private final AtomicReferenceArray<MultiplexedConnection> anyServerConnections;
+
+  private final Map<ServerLocation, AtomicReferenceArray<MultiplexedConnection>> byServer =
+      new ConcurrentHashMap<>();
+
+  private final AtomicInteger nextConnection = new AtomicInteger();
+
+  /** runs the tasks reading the responses of async ops, at most one per connection */
+  private final ThreadPoolExecutor asyncReaders;
+
+  /** set when the pool is closed or its servers require credentials */
+  private volatile boolean disabled;
+
+  MultiplexedConnections(ConnectionFactory connectionFactory, int numConnections) {
+    this.connectionFactory = connectionFactory;
+    this.numConnections = numConnections;
+    this.anyServerConnections = new AtomicReferenceArray<MultiplexedConnection>(numConnections);
+    final LoggingThreadGroup group =
+        LoggingThreadGroup.createThreadGroup("Multiplexed Connection Readers", logger);
+    this.asyncReaders = new ThreadPoolExecutor(0, Integer.MAX_VALUE, 60, TimeUnit.SECONDS,
+        new SynchronousQueue<Runnable>(),
+        GemfireCacheHelper.CreateThreadFactory(group, "MultiplexedConnectionReader"));
+  }
+
+  /**
+   * Returns the multiplexed connections of a pool, or null if the pool does not use any.
+   */
+  static MultiplexedConnections create(ConnectionFactory connectionFactory,
+      boolean multiuserAuthentication) {
+    int numConnections = Integer.getInteger(CONNECTIONS_PROPERTY, 0);
+    if (numConnections <= 0 || multiuserAuthentication) {
+      return null;
+    }
+    return new MultiplexedConnections(connectionFactory, numConnections);
+  }
+
+  /**
+   * Returns true if the given op can be executed on a multiplexed connection.
+   */
+  public boolean canExecute(Op op) {
+    return !this.disabled && op instanceof AbstractOp && ((AbstractOp) op).isMultiplexable()
+        && TXManagerImpl.getCurrentTXUniqueId() == TXManagerImpl.NOTX
+        && UserAttributes.userAttributes.get() == null;
+  }
+
+  /**
+   * Returns a multiplexed connection to the given server, or to any server if it is null, creating
+   * one if needed. Returns null if no connection could be created, in which case the op should be
+   * executed on an exclusive connection.
+   */
+  public MultiplexedConnection getConnection(ServerLocation server) {
+    AtomicReferenceArray<MultiplexedConnection> connections;
+    if (server == null) {
+      connections = this.anyServerConnections;
+    } else {
+      connections = this.byServer.get(server);
+      if (connections == null) {
+        connections = new AtomicReferenceArray<MultiplexedConnection>(this.numConnections);
+        AtomicReferenceArray<MultiplexedConnection> existing =
+            this.byServer.putIfAbsent(server, connections);
+        if (existing != null) {
+          connections = existing;
+        }
+      }
+    }
+    int index = (this.nextConnection.getAndIncrement() & Integer.MAX_VALUE) % this.numConnections;
+    MultiplexedConnection connection = connections.get(index);
+    if (connection != null && !connection.isDestroyed()) {
+      return connection;
+    }
+    MultiplexedConnection created = createConnection(server);
+    if (created == null) {
+      return null;
+    }
+    if (!connections.compareAndSet(index, connection, created) || this.disabled) {
+      // another thread replaced the connection first or the pool is being closed
+      created.destroy();
+      return null;
+    }
+    return created;
+  }
+
+  private MultiplexedConnection createConnection(ServerLocation server) {
+    if (this.disabled) {
+      return null;
+    }
+    Connection connection;
+    try {
+      if (server == null) {
+        connection =
+            this.connectionFactory.createClientToServerConnection(Collections.emptySet());
+      } else {
+        connection = this.connectionFactory.createClientToServerConnection(server, false);
+      }
+      if (connection == null) {
+        return null;
+      }
+      if (connection.getServer().getRequiresCredentials()
+          || connection.getSocket().getChannel() != null) {
+        // every request carries the connection's current security id, which the server changes
+        // with each response, and a channel would bypass the streams that order the responses
+        this.disabled = true;
+        connection.destroy();
+        return null;
+      }
+      return new MultiplexedConnection(connection, this.asyncReaders);
+    } catch (CancelException e) {
+      throw e;
+    } catch (Exception e) {
+      if (logger.isDebugEnabled()) {
+        logger.debug("Unable to create a multiplexed connection to {}",
+            server == null ? "any server" : server, e);
+      }
+      return null;
+    }
+  }
+
+  /**
+   * Closes all multiplexed connections. No connections are created after this.
+   */
+  public void close(boolean keepAlive) {
+    this.disabled = true;
+    close(this.anyServerConnections, keepAlive);
+    for (AtomicReferenceArray<MultiplexedConnection> connections : this.byServer.values()) {
+      close(connections, keepAlive);
+    }
+    this.byServer.clear();
+    this.asyncReaders.shutdown();
+  }
+
+  private void close(AtomicReferenceArray<MultiplexedConnection> connections, boolean keepAlive) {
+    for (int i = 0; i < connections.length(); i++) {
+      MultiplexedConnection connection = connections.getAndSet(i, null);
+      if (connection != null && !connection.isDestroyed()) {
+        try {
+          connection.close(keepAlive);
+        } catch (Exception e) {
+          if (logger.isDebugEnabled()) {
+            logger.debug("Error closing multiplexed connection {}", connection, e);
+          }
+        }
+      }
+    }
+  }
+}
@@ -22,6 +22,9 @@ import java.net.SocketException;
 import java.net.SocketTimeoutException;
 import java.nio.BufferUnderflowException;
 import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.Executor;
+import java.util.concurrent.RejectedExecutionException;
 
 import org.apache.logging.log4j.Logger;
 
@@ -96,11 +99,26 @@ public class OpExecutorImpl implements ExecutablePool {
       return 0;
     };
   };
+  /**
+   * connections shared by ops that can be multiplexed, or null if the pool does not multiplex ops
+   */
+  private final MultiplexedConnections multiplexedConnections;
+
+  /** returned by {@link #executeMultiplexed} when the op was not executed */
+  private static final Object NOT_MULTIPLEXED = new Object();
 
   public OpExecutorImpl(ConnectionManager manager, QueueManager queueManager,
       EndpointManager endpointManager, RegisterInterestTracker riTracker, int retryAttempts,
       long serverTimeout, boolean threadLocalConnections, CancelCriterion cancelCriterion,
       PoolImpl pool) {
+    this(manager, queueManager, endpointManager, riTracker, retryAttempts, serverTimeout,
+        threadLocalConnections, cancelCriterion, pool, null);
+  }
+
+  public OpExecutorImpl(ConnectionManager manager, QueueManager queueManager,
+      EndpointManager endpointManager, RegisterInterestTracker riTracker, int retryAttempts,
+      long serverTimeout, boolean threadLocalConnections, CancelCriterion cancelCriterion,
+      PoolImpl pool, MultiplexedConnections multiplexedConnections) {
     this.connectionManager = manager;
     this.queueManager = queueManager;
     this.endpointManager = endpointManager;
@@ -110,6 +128,7 @@ public class OpExecutorImpl implements ExecutablePool {
     this.threadLocalConnections = threadLocalConnections;
     this.cancelCriterion = cancelCriterion;
     this.pool = pool;
+    this.multiplexedConnections = multiplexedConnections;
   }
 
   public Object execute(Op op) {
@@ -128,6 +147,10 @@ public class OpExecutorImpl implements ExecutablePool {
       }
       return executeWithServerAffinity(loc, op);
     }
+    Object multiplexedResult = executeMultiplexed(null, op);
+    if (multiplexedResult != NOT_MULTIPLEXED) {
+      return multiplexedResult;
+    }
     boolean success = false;
 
     Set attemptedServers = new HashSet();
@@ -326,9 +349,115 @@ public class OpExecutorImpl implements ExecutablePool {
       // can send a TXFailoverOp.
       return executeWithServerAffinity(server, op);
     }
+    if (!onlyUseExistingCnx) {
+      Object multiplexedResult = executeMultiplexed(server, op);
+      if (multiplexedResult != NOT_MULTIPLEXED) {
+        return multiplexedResult;
+      }
+    }
     return executeOnServer(server, op, accessed, onlyUseExistingCnx);
   }
 
+  /**
+   * Executes the given op on a multiplexed connection to the given server, or to any server if it
+   * is null. Returns {@link #NOT_MULTIPLEXED} if the op can not be multiplexed, if no multiplexed
+   * connection is available or if the connection was lost while the op was in flight. The op
+   * should then be executed, or retried, on an exclusive connection.
+   */
+  private Object executeMultiplexed(ServerLocation server, Op op) {
+    if (this.multiplexedConnections == null || !this.multiplexedConnections.canExecute(op)) {
+      return NOT_MULTIPLEXED;
+    }
+    MultiplexedConnection conn = this.multiplexedConnections.getConnection(server);
+    if (conn == null) {
+      return NOT_MULTIPLEXED;
+    }
+    try {
+      return conn.execute(op);
+    } catch (ConnectionDestroyedException e) {
+      this.cancelCriterion.checkCancelInProgress(e);
+      if (logger.isDebugEnabled()) {
+        logger.debug("Retrying {} on an exclusive connection after {} was lost", op, conn,
+            e.getCause());
+      }
+      ((AbstractOp) op).getMessage().setIsRetry();
+      return NOT_MULTIPLEXED;
+    } catch (Exception e) {
+      // the server's response was read so this throws the exception an exclusive connection would
+      handleException(e, conn, 0, true);
+      return NOT_MULTIPLEXED;
+    }
+  }
+
+  /**
+   * Executes the given op without blocking the calling thread. An op that can be multiplexed is sent
+   * by the calling thread and its result is read by the multiplexed connection. Other ops, and ops
+   * whose multiplexed connection was lost while they were in flight, are executed by the given
+   * executor. The returned future is always completed by the given executor, or with the cancel
+   * exception if the executor has been shut down because the pool is closing.
+   */
+  public CompletableFuture<Object> executeAsync(Op op, Executor executor) {
+    CompletableFuture<Object> result = new CompletableFuture<Object>();
+    Executor completer = completeIfRejected(executor, result);
+    if (this.multiplexedConnections != null && !this.serverAffinity.get()
+        && this.multiplexedConnections.canExecute(op)) {
+      MultiplexedConnection conn = this.multiplexedConnections.getConnection(null);
+      if (conn != null) {
+        conn.executeAsync((AbstractOp) op).whenCompleteAsync((value, failure) -> {
+          if (failure == null) {
+            result.complete(value);
+            return;
+          }
+          try {
+            if (failure instanceof ConnectionDestroyedException) {
+              this.cancelCriterion.checkCancelInProgress(failure);
+              ((AbstractOp) op).getMessage().setIsRetry();
+            } else {
+              handleException(failure, conn, 0, true);
+            }
+            result.complete(execute(op));
+          } catch (Throwable t) {
+            result.completeExceptionally(t);
+          }
+        }, completer);
+        return result;
+      }
+    }
+    completer.execute(() -> {
+      try {
+        result.complete(execute(op));
+      } catch (Throwable t) {
+        result.completeExceptionally(t);
+      }
+    });
+    return result;
+  }
+
+  /**
+   * Returns an executor that hands its tasks to the given executor, or completes result with the
+   * cancel exception if the given executor rejects them, so that no caller waits for a task that
+   * will never run.
+   */
+  private Executor completeIfRejected(Executor executor, CompletableFuture<Object> result) {
+    return task -> {
+      try {
+        executor.execute(task);
+      } catch (RejectedExecutionException e) {
+        RuntimeException cancelled = this.cancelCriterion.generateCancelledException(e);
+        result.completeExceptionally(cancelled != null ? cancelled : e);
+      }
+    };
+  }
+
+  /**
+   * Closes the multiplexed connections of this executor, if any.
+   */
+  public void closeMultiplexedConnections(boolean keepAlive) {
+    if (this.multiplexedConnections != null) {
+      this.multiplexedConnections.close(keepAlive);
+    }
+  }
+
   protected Object executeOnServer(ServerLocation p_server, Op op, boolean accessed,
       boolean onlyUseExistingCnx) {
     ServerLocation server = p_server;
@@ -25,9 +25,13 @@ import java.util.Map;
 import java.util.Map.Entry;
 import java.util.Properties;
 import java.util.Set;
+import java.util.concurrent.CompletableFuture;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.Executor;
+import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.ScheduledExecutorService;
 import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.ThreadPoolExecutor;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 
@@ -92,6 +96,9 @@ public class PoolImpl implements InternalPool {
   private static final int BACKGROUND_TASK_POOL_KEEP_ALIVE = Integer.getInteger(
       DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.BACKGROUND_TASK_POOL_KEEP_ALIVE", 1000);
 
+  private static final int ASYNC_OP_POOL_SIZE =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "PoolImpl.ASYNC_OP_POOL_SIZE", 32);
+
   /**
    * For durable client tests only. Connection Sources read this flag and return an empty list of
    * servers.
@@ -133,6 +140,8 @@ public class PoolImpl implements InternalPool {
   protected volatile boolean destroyed;
   private final PoolStats stats;
   private ScheduledExecutorService backgroundProcessor;
+  /** executes async ops that can not be sent on a multiplexed connection */
+  private ThreadPoolExecutor asyncOpProcessor;
   private final OpExecutorImpl executor;
   private final RegisterInterestTracker riTracker = new RegisterInterestTracker();
   private final InternalDistributedSystem dsys;
@@ -261,7 +270,8 @@ public class PoolImpl implements InternalPool {
     // Fix for 43468 - make sure we check the cache cancel criterion if we get
     // an exception, by passing in the poolOrCache stopper
     executor = new OpExecutorImpl(manager, queueManager, endpointManager, riTracker, retryAttempts,
-        freeConnectionTimeout, threadLocalConnections, new PoolOrCacheStopper(), this);
+        freeConnectionTimeout, threadLocalConnections, new PoolOrCacheStopper(), this,
+        MultiplexedConnections.create(connectionFactory, multiuserSecureModeEnabled));
     if (this.multiuserSecureModeEnabled) {
       this.proxyCacheList = new ArrayList<ProxyCache>();
     } else {
@@ -324,6 +334,19 @@ public class PoolImpl implements InternalPool {
             return result;
           }
         });
+    final String asyncOpThreadName = "asyncOp-" + getName() + "-";
+    asyncOpProcessor = new ThreadPoolExecutor(ASYNC_OP_POOL_SIZE, ASYNC_OP_POOL_SIZE,
+        BACKGROUND_TASK_POOL_KEEP_ALIVE, TimeUnit.MILLISECONDS, new LinkedBlockingQueue<Runnable>(),
+        new ThreadFactory() {
+          AtomicInteger threadNum = new AtomicInteger();
+
+          public Thread newThread(final Runnable r) {
+            Thread result = new Thread(r, asyncOpThreadName + threadNum.incrementAndGet());
+            result.setDaemon(true);
+            return result;
+          }
+        });
+    asyncOpProcessor.allowCoreThreadTimeOut(true);
     ((ScheduledThreadPoolExecutorWithKeepAlive) backgroundProcessor)
         .setContinueExistingPeriodicTasksAfterShutdownPolicy(false);
     ((ScheduledThreadPoolExecutorWithKeepAlive) backgroundProcessor)
@@ -610,6 +633,18 @@ public class PoolImpl implements InternalPool {
             e);
       }
 
+      try {
+        executor.closeMultiplexedConnections(keepAlive);
+      } catch (RuntimeException e) {
+        logger.error(LocalizedMessage.create(
+            LocalizedStrings.PoolImpl_ERROR_ENCOUNTERED_WHILE_STOPPING_CONNECTION_MANAGER), e);
+      }
+
+      // after the multiplexed connections, which hand their failed ops to it to be completed
+      if (this.asyncOpProcessor != null) {
+        this.asyncOpProcessor.shutdown();
+      }
+
       try {
         if (this.manager != null) {
           manager.close(keepAlive);
@@ -774,6 +809,27 @@ public class PoolImpl implements InternalPool {
     return executor.execute(op);
   }
 
+  /**
+   * Execute the given op on the servers that this pool connects to without blocking the calling
+   * thread. The op is retried like {@link #execute(Op)} retries it.
+   *
+   * @param op the operation to execute
+   * @return a future completed with the result of execution if any; null if not
+   * @since Geode 1.4
+   */
+  public CompletableFuture<Object> executeAsync(Op op) {
+    authenticateIfRequired(op);
+    return executor.executeAsync(op, getAsyncOpProcessor());
+  }
+
+  /**
+   * Returns the executor that runs the async ops of this pool that can not be multiplexed and the
+   * actions that complete the futures of all its async ops.
+   */
+  public Executor getAsyncOpProcessor() {
+    return asyncOpProcessor;
+  }
+
   /**
    * Execute the given op on the servers that this pool connects to. This method is responsible for
    * retrying the op if an attempt fails. It will only execute it once and on one server.
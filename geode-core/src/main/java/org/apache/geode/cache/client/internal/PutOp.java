@@ -16,6 +16,7 @@ package org.apache.geode.cache.client.internal;
 
 import java.io.ByteArrayInputStream;
 import java.io.DataInputStream;
+import java.util.concurrent.CompletableFuture;
 
 import org.apache.logging.log4j.Logger;
 
@@ -91,6 +92,25 @@ public class PutOp {
     return pool.execute(op);
   }
 
+  /**
+   * Does a region put on a server without blocking the calling thread. The put is sent to any
+   * server of the pool, which forwards it to the members hosting the entry if needed.
+   *
+   * @param pool the pool to use to communicate with the server.
+   * @param region the region to do the put on
+   * @param key the entry key to do the put on
+   * @param value the entry value to put
+   * @param event the event for this put
+   * @param callbackArg an optional callback arg to pass to any cache callbacks
+   * @return a future completed with the result of the put
+   */
+  public static CompletableFuture<Object> executeAsync(PoolImpl pool, LocalRegion region,
+      Object key, Object value, EntryEventImpl event, Object callbackArg) {
+    PutOpImpl op = new PutOpImpl(region, key, value, null, event, Operation.UPDATE, false, null,
+        callbackArg, false/* donot send full obj; send delta */, false);
+    return pool.executeAsync(op);
+  }
+
   public static Object execute(ExecutablePool pool, String regionName, Object key, Object value,
       byte[] deltaBytes, EntryEventImpl event, Operation operation, boolean requireOldValue,
       Object expectedOldValue, Object callbackArg, boolean prSingleHopEnabled,
@@ -418,6 +438,11 @@ public class PutOp {
       return ret;
     }
 
+    @Override
+    public boolean isMultiplexable() {
+      return true;
+    }
+
     @Override
     protected boolean isErrorResponse(int msgType) {
       return msgType == MessageType.PUT_DATA_ERROR;
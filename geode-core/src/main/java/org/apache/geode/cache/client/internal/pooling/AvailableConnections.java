@@ -0,0 +1,198 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal.pooling;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentLinkedDeque;
+
+import org.apache.geode.distributed.internal.ServerLocation;
+
+/**
+ * The idle connections of a pool, kept in one lock-free LIFO queue per server. A connection is
+ * owned by whoever removes it from its queue, so borrowing and returning never need the pool lock.
+ *
+ * Each thread remembers the server of the last connection it borrowed and looks in that queue
+ * first. Other queues are scanned starting at a per-thread offset so that threads without a hint,
+ * or whose server has run dry, do not all pile onto the same queue.
+ *
+ * The queue a connection sits in is only a hint: load conditioning may switch an idle connection
+ * to another server, so callers must still check {@link PooledConnection#getServer()} if they need
+ * a particular server. Queues are never removed since a pool only ever talks to a handful of
+ * servers.
+ *
+ * @since Geode 1.4
+ */
+class AvailableConnections {
+
+  private volatile ServerQueue[] queues = new ServerQueue[0];
+
+  private final ThreadLocal<ServerQueue> lastUsed = new ThreadLocal<ServerQueue>();
+
+  /**
+   * Make a connection available to other threads. The most recently returned connection is handed
+   * out first so that the idle expiration task can find the least recently used ones.
+   */
+  public void offer(PooledConnection connection) {
+    getOrCreateQueue(connection.getServer()).connections.addFirst(connection);
+  }
+
+  /**
+   * Remove a connection, preferring one to the server this thread used last.
+   *
+   * @return null if there are no available connections
+   */
+  public PooledConnection poll() {
+    ServerQueue preferred = lastUsed.get();
+    if (preferred != null) {
+      PooledConnection connection = poll(preferred);
+      if (connection != null) {
+        return connection;
+      }
+    }
+    ServerQueue[] snapshot = this.queues;
+    int start = startIndex(snapshot.length);
+    for (int i = 0; i < snapshot.length; i++) {
+      ServerQueue queue = snapshot[(start + i) % snapshot.length];
+      if (queue != preferred) {
+        PooledConnection connection = poll(queue);
+        if (connection != null) {
+          lastUsed.set(queue);
+          return connection;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Remove a connection that was returned while connected to the given server.
+   *
+   * @return null if there is no available connection to that server
+   */
+  public PooledConnection poll(ServerLocation server) {
+    ServerQueue queue = findQueue(server);
+    return queue == null ? null : poll(queue);
+  }
+
+  /**
+   * Remove a connection to any server not in excludedServers.
+   *
+   * @return null if there is no such connection
+   */
+  public PooledConnection pollExcluding(Set/* <ServerLocation> */ excludedServers) {
+    ServerQueue[] snapshot = this.queues;
+    int start = startIndex(snapshot.length);
+    for (int i = 0; i < snapshot.length; i++) {
+      ServerQueue queue = snapshot[(start + i) % snapshot.length];
+      if (!excludedServers.contains(queue.server)) {
+        PooledConnection connection = poll(queue);
+        if (connection != null) {
+          return connection;
+        }
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Remove the given connections if they are still available.
+   */
+  public void removeAll(Collection/* <PooledConnection> */ connections) {
+    for (ServerQueue queue : this.queues) {
+      for (PooledConnection connection : queue.connections) {
+        if (connections.contains(connection)) {
+          queue.connections.removeFirstOccurrence(connection);
+        }
+      }
+    }
+  }
+
+  /**
+   * Remove any available connections that have been marked for destruction.
+   */
+  public void removeDestroyed() {
+    for (ServerQueue queue : this.queues) {
+      for (PooledConnection connection : queue.connections) {
+        if (connection.shouldDestroy()) {
+          queue.connections.removeFirstOccurrence(connection);
+        }
+      }
+    }
+  }
+
+  /**
+   * Return a snapshot of the connections currently available. Used by tests and diagnostics.
+   */
+  public List<PooledConnection> getAll() {
+    List<PooledConnection> result = new ArrayList<PooledConnection>();
+    for (ServerQueue queue : this.queues) {
+      result.addAll(queue.connections);
+    }
+    return result;
+  }
+
+  private PooledConnection poll(ServerQueue queue) {
+    return queue.connections.pollFirst();
+  }
+
+  private static int startIndex(int length) {
+    if (length <= 1) {
+      return 0;
+    }
+    return (int) (Thread.currentThread().getId() % length);
+  }
+
+  private ServerQueue findQueue(ServerLocation server) {
+    for (ServerQueue queue : this.queues) {
+      if (queue.server.equals(server)) {
+        return queue;
+      }
+    }
+    return null;
+  }
+
+  private ServerQueue getOrCreateQueue(ServerLocation server) {
+    ServerQueue queue = findQueue(server);
+    if (queue != null) {
+      return queue;
+    }
+    // servers come and go rarely so copy-on-write keeps the scan in poll allocation free
+    synchronized (this) {
+      queue = findQueue(server);
+      if (queue == null) {
+        ServerQueue[] oldQueues = this.queues;
+        ServerQueue[] newQueues = new ServerQueue[oldQueues.length + 1];
+        System.arraycopy(oldQueues, 0, newQueues, 0, oldQueues.length);
+        queue = new ServerQueue(server);
+        newQueues[oldQueues.length] = queue;
+        this.queues = newQueues;
+      }
+      return queue;
+    }
+  }
+
+  private static class ServerQueue {
+    final ServerLocation server;
+    final ConcurrentLinkedDeque<PooledConnection> connections =
+        new ConcurrentLinkedDeque<PooledConnection>();
+
+    ServerQueue(ServerLocation server) {
+      this.server = server;
+    }
+  }
+}
@@ -17,6 +17,7 @@ package org.apache.geode.cache.client.internal.pooling;
 import java.net.SocketException;
 import java.util.*;
 import java.util.concurrent.*;
+import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.locks.Condition;
 import java.util.concurrent.locks.ReentrantLock;
 
@@ -58,8 +59,12 @@ public class ConnectionManagerImpl implements ConnectionManager {
   private final PoolStats poolStats;
   protected final long prefillRetry; // ms // make this an int
   // private final long pingInterval; // ms // make this an int
-  private final LinkedList/* <PooledConnection> */ availableConnections =
-      new LinkedList/* <PooledConnection> */();
+  private final AvailableConnections availableConnections = new AvailableConnections();
+  /**
+   * Number of threads that may be waiting on freeConnection. Returning a connection only needs to
+   * take the lock to signal when this is non-zero.
+   */
+  private final AtomicInteger waitingThreads = new AtomicInteger();
   protected final ConnectionMap allConnectionsMap = new ConnectionMap();
   private final EndpointManager endpointManager;
   private final int maxConnections;
@@ -151,14 +156,50 @@ public class ConnectionManagerImpl implements ConnectionManager {
   public Connection borrowConnection(long acquireTimeout)
       throws AllConnectionsInUseException, NoAvailableServersException {
 
+    final long borrowStart = getPoolStats().beginConnectionBorrow();
+    try {
+      return doBorrowConnection(acquireTimeout);
+    } finally {
+      getPoolStats().endConnectionBorrow(borrowStart);
+    }
+  }
+
+  private Connection doBorrowConnection(long acquireTimeout)
+      throws AllConnectionsInUseException, NoAvailableServersException {
+    if (shuttingDown) {
+      throw new PoolCancelledException();
+    }
+
+    // fast path: take an idle connection without touching the lock
+    PooledConnection available = takeAvailableConnection();
+    if (available != null) {
+      return available;
+    }
+
     long startTime = System.currentTimeMillis();
     long remainingTime = acquireTimeout;
 
-    // wait for a connection to become free
+    // Register as a waiter before looking at availableConnections again so that a thread returning
+    // a connection either sees us and signals, or we see its connection.
+    waitingThreads.incrementAndGet();
     lock.lock();
     try {
-      while (connectionCount >= maxConnections && availableConnections.isEmpty()
-          && remainingTime > 0 && !shuttingDown) {
+      while (true) {
+        if (shuttingDown) {
+          throw new PoolCancelledException();
+        }
+        available = takeAvailableConnection();
+        if (available != null) {
+          return available;
+        }
+        if (connectionCount < maxConnections) {
+          // We need to create a connection. Reserve space for it.
+          connectionCount++;
+          break;
+        }
+        if (remainingTime <= 0) {
+          throw new AllConnectionsInUseException();
+        }
         final long start = getPoolStats().beginConnectionWait();
         boolean interrupted = false;
         try {
@@ -175,30 +216,9 @@ public class ConnectionManagerImpl implements ConnectionManager {
         }
         remainingTime = acquireTimeout - (System.currentTimeMillis() - startTime);
       }
-      if (shuttingDown) {
-        throw new PoolCancelledException();
-      }
-
-      while (!availableConnections.isEmpty()) {
-        PooledConnection connection = (PooledConnection) availableConnections.removeFirst();
-        try {
-          connection.activate();
-          return connection;
-        } catch (ConnectionDestroyedException ex) {
-          // whoever destroyed it already decremented connectionCount
-        }
-      }
-      if (connectionCount >= maxConnections) {
-        throw new AllConnectionsInUseException();
-      } else {
-        // We need to create a connection. Reserve space for it.
-        connectionCount++;
-        // logger.info("DEBUG: borrowConnection conCount(+1)->" + connectionCount);
-        // getPoolStats().incConCount(1);
-      }
-
     } finally {
       lock.unlock();
+      waitingThreads.decrementAndGet();
     }
 
     PooledConnection connection = null;
@@ -256,35 +276,36 @@ public class ConnectionManagerImpl implements ConnectionManager {
    */
   public Connection borrowConnection(ServerLocation server, long acquireTimeout,
       boolean onlyUseExistingCnx) throws AllConnectionsInUseException, NoAvailableServersException {
+    if (shuttingDown) {
+      throw new PoolCancelledException();
+    }
+    PooledConnection nextConnection;
+    while ((nextConnection = availableConnections.poll(server)) != null) {
+      try {
+        nextConnection.activate();
+        if (nextConnection.getServer().equals(server)) {
+          return nextConnection;
+        }
+        // load conditioning switched it to another server while it was idle
+        nextConnection.passivate(false);
+        makeAvailable(nextConnection);
+      } catch (ConnectionDestroyedException ex) {
+        // someone else already destroyed this connection so ignore it
+      }
+    }
+    // Fix for 41516. Before we let this method exceed the max connections
+    // by creating a new connection, we need to make sure that they're
+    // aren't bogus connections sitting in the available connection list
+    // otherwise, the length of that list might exceed max connections,
+    // but with some bad connections. That can cause members to
+    // get a bad connection but have no permits to create a new connection.
+    availableConnections.removeDestroyed();
+
     lock.lock();
     try {
       if (shuttingDown) {
         throw new PoolCancelledException();
       }
-      for (Iterator itr = availableConnections.iterator(); itr.hasNext();) {
-        PooledConnection nextConnection = (PooledConnection) itr.next();
-        try {
-          nextConnection.activate();
-          if (nextConnection.getServer().equals(server)) {
-            itr.remove();
-            return nextConnection;
-          }
-          nextConnection.passivate(false);
-        } catch (ConnectionDestroyedException ex) {
-          // someone else already destroyed this connection so ignore it
-          // but remove it from availableConnections
-        }
-        // Fix for 41516. Before we let this method exceed the max connections
-        // by creating a new connection, we need to make sure that they're
-        // aren't bogus connections sitting in the available connection list
-        // otherwise, the length of that list might exceed max connections,
-        // but with some bad connections. That can cause members to
-        // get a bad connection but have no permits to create a new connection.
-        if (nextConnection.shouldDestroy()) {
-          itr.remove();
-        }
-      }
-
       if (onlyUseExistingCnx) {
         throw new AllConnectionsInUseException();
       }
@@ -333,42 +354,43 @@ public class ConnectionManagerImpl implements ConnectionManager {
     PooledConnection newConnection = null;
     PooledConnection oldPC = (PooledConnection) oldConnection;
 
+    if (shuttingDown) {
+      throw new PoolCancelledException();
+    }
+    PooledConnection nextConnection;
+    while ((nextConnection = availableConnections.pollExcluding(excludedServers)) != null) {
+      try {
+        nextConnection.activate();
+        if (!excludedServers.contains(nextConnection.getServer())) {
+          newConnection = nextConnection;
+          break;
+        }
+        // load conditioning switched it to an excluded server while it was idle
+        nextConnection.passivate(false);
+        makeAvailable(nextConnection);
+      } catch (ConnectionDestroyedException ex) {
+        // someone else already destroyed this connection so ignore it
+      }
+    }
+
     boolean needToUndoEstimate = false;
     lock.lock();
     try {
-      if (shuttingDown) {
-        throw new PoolCancelledException();
-      }
-      for (Iterator itr = availableConnections.iterator(); itr.hasNext();) {
-        PooledConnection nextConnection = (PooledConnection) itr.next();
-        if (!excludedServers.contains(nextConnection.getServer())) {
-          itr.remove();
-          try {
-            nextConnection.activate();
-            newConnection = nextConnection;
-            // logger.info("DEBUG: exchangeConnection removeCon(" + oldPC +")");
-            if (allConnectionsMap.removeConnection(oldPC)) {
-              // getPoolStats().incConCount(-1);
-              --connectionCount;
-              // logger.info("DEBUG: exchangeConnection conCount(-1)->" + connectionCount + "
-              // oldPC=" + oldPC);
-              if (connectionCount < minConnections) {
-                startBackgroundPrefill();
-              }
-            }
-            break;
-          } catch (ConnectionDestroyedException ex) {
-            // someone else already destroyed this connection so ignore it
-            // but remove it from availableConnections
+      if (newConnection != null) {
+        // logger.info("DEBUG: exchangeConnection removeCon(" + oldPC +")");
+        if (allConnectionsMap.removeConnection(oldPC)) {
+          // getPoolStats().incConCount(-1);
+          --connectionCount;
+          // logger.info("DEBUG: exchangeConnection conCount(-1)->" + connectionCount + "
+          // oldPC=" + oldPC);
+          if (connectionCount < minConnections) {
+            startBackgroundPrefill();
           }
         }
-      }
-      if (newConnection == null) {
-        if (!allConnectionsMap.removeConnection(oldPC)) {
-          // We need to create a connection. Reserve space for it.
-          needToUndoEstimate = true;
-          connectionCount++;
-        }
+      } else if (!allConnectionsMap.removeConnection(oldPC)) {
+        // We need to create a connection. Reserve space for it.
+        needToUndoEstimate = true;
+        connectionCount++;
       }
     } finally {
       lock.unlock();
@@ -432,6 +454,39 @@ public class ConnectionManagerImpl implements ConnectionManager {
     return pooledConn;
   }
 
+  /**
+   * Take an idle connection and activate it.
+   *
+   * @return null if no idle connection could be activated
+   */
+  private PooledConnection takeAvailableConnection() {
+    PooledConnection connection;
+    while ((connection = availableConnections.poll()) != null) {
+      try {
+        connection.activate();
+        return connection;
+      } catch (ConnectionDestroyedException ex) {
+        // whoever destroyed it already decremented connectionCount
+      }
+    }
+    return null;
+  }
+
+  /**
+   * Make a passive connection available and wake up a waiting borrower, if any.
+   */
+  private void makeAvailable(PooledConnection connection) {
+    availableConnections.offer(connection);
+    if (waitingThreads.get() > 0) {
+      lock.lock();
+      try {
+        freeConnection.signalAll();
+      } finally {
+        lock.unlock();
+      }
+    }
+  }
+
   private void destroyConnection(PooledConnection connection) {
     lock.lock();
     try {
@@ -489,12 +544,7 @@ public class ConnectionManagerImpl implements ConnectionManager {
         }
       }
 
-      for (Iterator itr = availableConnections.iterator(); itr.hasNext();) {
-        PooledConnection conn = (PooledConnection) itr.next();
-        if (badConnections.contains(conn)) {
-          itr.remove();
-        }
-      }
+      availableConnections.removeAll(badConnections);
 
       // getPoolStats().incConCount(-badConnections.size());
       connectionCount -= badConnections.size();
@@ -537,39 +587,43 @@ public class ConnectionManagerImpl implements ConnectionManager {
     assert connection instanceof PooledConnection;
     PooledConnection pooledConn = (PooledConnection) connection;
 
-    boolean shouldClose = false;
+    if (pooledConn.isDestroyed()) {
+      return;
+    }
 
-    lock.lock();
-    try {
-      if (pooledConn.isDestroyed()) {
-        return;
-      }
+    if (pooledConn.shouldDestroy()) {
+      destroyConnection(pooledConn);
+      return;
+    }
 
-      if (pooledConn.shouldDestroy()) {
-        destroyConnection(pooledConn);
-      } else {
-        // thread local connections are already passive at this point
-        if (pooledConn.isActive()) {
-          pooledConn.passivate(accessed);
-        }
+    // thread local connections are already passive at this point
+    if (pooledConn.isActive()) {
+      pooledConn.passivate(accessed);
+    }
 
-        // borrowConnection(ServerLocation, long) allows us to break the
-        // connection limit in order to get a connection to a server. So we need
-        // to get our pool back to size if we're above the limit
+    boolean shouldClose = false;
+    boolean overLimit = false;
+    // borrowConnection(ServerLocation, long) allows us to break the
+    // connection limit in order to get a connection to a server. So we need
+    // to get our pool back to size if we're above the limit
+    if (connectionCount > maxConnections) {
+      lock.lock();
+      try {
         if (connectionCount > maxConnections) {
+          overLimit = true;
           if (allConnectionsMap.removeConnection(pooledConn)) {
             shouldClose = true;
             // getPoolStats().incConCount(-1);
             --connectionCount;
             // logger.info("DEBUG: returnConnection conCount(-1)->" + connectionCount);
           }
-        } else {
-          availableConnections.addFirst(pooledConn);
-          freeConnection.signalAll();
         }
+      } finally {
+        lock.unlock();
       }
-    } finally {
-      lock.unlock();
+    }
+    if (!overLimit) {
+      makeAvailable(pooledConn);
     }
 
     if (shouldClose) {
@@ -784,7 +838,7 @@ public class ConnectionManagerImpl implements ConnectionManager {
                   connectionCount);
             }
           } else {
-            availableConnections.addFirst(connection);
+            availableConnections.offer(connection);
             freeConnection.signalAll();
             if (logger.isDebugEnabled()) {
               logger.debug("Prefilled connection {} connection count is now {}", connection,
@@ -15,14 +15,15 @@
 
 package org.apache.geode.cache.query.internal;
 
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.AccessibleObject;
 import java.lang.reflect.Field;
-import java.lang.reflect.InvocationTargetException;
 import java.lang.reflect.Member;
 import java.lang.reflect.Method;
-import java.util.ArrayList;
+import java.lang.reflect.Modifier;
 import java.util.HashSet;
-import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
@@ -38,6 +39,7 @@ import org.apache.geode.pdx.JSONFormatter;
 import org.apache.geode.pdx.PdxInstance;
 import org.apache.geode.pdx.PdxSerializationException;
 import org.apache.geode.pdx.internal.FieldNotFoundInPdxVersion;
+import org.apache.geode.pdx.internal.PdxField;
 import org.apache.geode.pdx.internal.PdxInstanceImpl;
 
 /**
@@ -50,8 +52,16 @@ import org.apache.geode.pdx.internal.PdxInstanceImpl;
 public class AttributeDescriptor {
   private final String _name;
   private final MethodInvocationAuthorizer _methodInvocationAuthorizer;
-  /** cache for remembering the correct Member for a class and attribute */
-  private static final ConcurrentMap<List, Member> _localCache = new ConcurrentHashMap();
+  /** cache for remembering the correct Member and its accessor for a class and attribute */
+  private static final ClassValue<ConcurrentMap<String, ReadAccessor>> _localCache =
+      new ClassValue<ConcurrentMap<String, ReadAccessor>>() {
+        @Override
+        protected ConcurrentMap<String, ReadAccessor> computeValue(Class<?> type) {
+          return new ConcurrentHashMap<String, ReadAccessor>();
+        }
+      };
+
+  private static final MethodType READ_TYPE = MethodType.methodType(Object.class, Object.class);
 
 
 
@@ -93,73 +103,57 @@ public class AttributeDescriptor {
       return QueryService.UNDEFINED;
     }
 
-    Class resolutionClass = target.getClass();
-    Member m = getReadMember(resolutionClass);
-    try {
+    ReadAccessor accessor = getReadAccessor(target.getClass());
+    Member m = accessor.member;
+    if (accessor.handle == null) {
       if (m instanceof Method) {
-        try {
-          _methodInvocationAuthorizer.authorizeMethodInvocation((Method) m, target);
-          return ((Method) m).invoke(target, (Object[]) null);
-        } catch (EntryDestroyedException e) {
-          // eat the Exception
-          return QueryService.UNDEFINED;
-        } catch (IllegalAccessException e) {
-          throw new NameNotFoundException(
-              LocalizedStrings.AttributeDescriptor_METHOD_0_IN_CLASS_1_IS_NOT_ACCESSIBLE_TO_THE_QUERY_PROCESSOR
-                  .toLocalizedString(new Object[] {m.getName(), target.getClass().getName()}),
-              e);
-        } catch (InvocationTargetException e) {
-          // if the target exception is Exception, wrap that,
-          // otherwise wrap the InvocationTargetException itself
-          Throwable t = e.getTargetException();
-          if ((t instanceof EntryDestroyedException)) {
-            // eat the exception
-            return QueryService.UNDEFINED;
-          }
-          if (t instanceof Exception)
-            throw new QueryInvocationTargetException(t);
-          throw new QueryInvocationTargetException(e);
-        }
-      } else {
-        try {
-          return ((Field) m).get(target);
-        } catch (IllegalAccessException e) {
-          throw new NameNotFoundException(
-              LocalizedStrings.AttributeDescriptor_FIELD_0_IN_CLASS_1_IS_NOT_ACCESSIBLE_TO_THE_QUERY_PROCESSOR
-                  .toLocalizedString(new Object[] {m.getName(), target.getClass().getName()}),
-              e);
-        } catch (EntryDestroyedException e) {
-          return QueryService.UNDEFINED;
-        }
+        throw new NameNotFoundException(
+            LocalizedStrings.AttributeDescriptor_METHOD_0_IN_CLASS_1_IS_NOT_ACCESSIBLE_TO_THE_QUERY_PROCESSOR
+                .toLocalizedString(new Object[] {m.getName(), target.getClass().getName()}));
       }
+      throw new NameNotFoundException(
+          LocalizedStrings.AttributeDescriptor_FIELD_0_IN_CLASS_1_IS_NOT_ACCESSIBLE_TO_THE_QUERY_PROCESSOR
+              .toLocalizedString(new Object[] {m.getName(), target.getClass().getName()}));
+    }
+    if (m instanceof Method) {
+      _methodInvocationAuthorizer.authorizeMethodInvocation((Method) m, target);
+    }
+    try {
+      return accessor.handle.invokeExact(target);
     } catch (EntryDestroyedException e) {
       // eat the exception
       return QueryService.UNDEFINED;
+    } catch (Throwable t) {
+      throw new QueryInvocationTargetException(t);
     }
   }
 
   Member getReadMember(Class targetClass) throws NameNotFoundException {
+    return getReadAccessor(targetClass).member;
+  }
 
+  private ReadAccessor getReadAccessor(Class targetClass) throws NameNotFoundException {
     // mapping: public field (same name), method (getAttribute()),
     // method (attribute())
-    List key = new ArrayList();
-    key.add(targetClass);
-    key.add(_name);
-
-    Member m = _localCache.computeIfAbsent(key, k -> {
-      Member member = getReadField(targetClass);
-      return member == null ? getReadMethod(targetClass) : member;
-    });
-
-    if (m == null) {
-      throw new NameNotFoundException(
-          LocalizedStrings.AttributeDescriptor_NO_PUBLIC_ATTRIBUTE_NAMED_0_WAS_FOUND_IN_CLASS_1
-              .toLocalizedString(new Object[] {_name, targetClass.getName()}));
+    ConcurrentMap<String, ReadAccessor> accessors = _localCache.get(targetClass);
+    ReadAccessor accessor = accessors.get(_name);
+    if (accessor == null) {
+      Member m = getReadField(targetClass);
+      if (m == null) {
+        m = getReadMethod(targetClass);
+      }
+      if (m == null) {
+        throw new NameNotFoundException(
+            LocalizedStrings.AttributeDescriptor_NO_PUBLIC_ATTRIBUTE_NAMED_0_WAS_FOUND_IN_CLASS_1
+                .toLocalizedString(new Object[] {_name, targetClass.getName()}));
+      }
+      accessor = new ReadAccessor(m);
+      ReadAccessor existing = accessors.putIfAbsent(_name, accessor);
+      if (existing != null) {
+        accessor = existing;
+      }
     }
-
-    // override security for nonpublic derived classes with public members
-    ((AccessibleObject) m).setAccessible(true);
-    return m;
+    return accessor;
   }
 
 
@@ -209,9 +203,10 @@ public class AttributeDescriptor {
     if (target instanceof PdxInstanceImpl) {
       PdxInstanceImpl pdxInstance = (PdxInstanceImpl) target;
       // if the field is present in the pdxinstance
-      if (pdxInstance.hasField(_name)) {
+      PdxField field = pdxInstance.getPdxField(_name);
+      if (field != null) {
         // return PdxString if field is a String otherwise invoke readField
-        return pdxInstance.getRawField(_name);
+        return pdxInstance.getRawField(field);
       } else {
         // field not found in the pdx instance, look for the field in any of the
         // PdxTypes (versions of the pdxinstance) in the type registry
@@ -306,6 +301,36 @@ public class AttributeDescriptor {
     return false;
   }
 
+  /**
+   * A resolved field or getter of a class, along with a method handle that reads it from an
+   * instance of that class without going through reflection for every read
+   */
+  private static final class ReadAccessor {
+    final Member member;
+
+    /** the reader of type (Object)Object, or null if the member is not accessible */
+    final MethodHandle handle;
 
+    ReadAccessor(Member member) {
+      // override security for nonpublic derived classes with public members
+      ((AccessibleObject) member).setAccessible(true);
+      this.member = member;
+      this.handle = createHandle(member);
+    }
 
+    private static MethodHandle createHandle(Member member) {
+      try {
+        MethodHandles.Lookup lookup = MethodHandles.lookup();
+        MethodHandle handle = member instanceof Method
+            ? lookup.unreflect((Method) member).asFixedArity()
+            : lookup.unreflectGetter((Field) member);
+        if (Modifier.isStatic(member.getModifiers())) {
+          handle = MethodHandles.dropArguments(handle, 0, Object.class);
+        }
+        return handle.asType(READ_TYPE);
+      } catch (IllegalAccessException e) {
+        return null;
+      }
+    }
+  }
 }
@@ -29,6 +29,7 @@ import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.Struct;
 import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.index.IndexData;
+import org.apache.geode.cache.query.internal.index.IndexManager;
 import org.apache.geode.cache.query.internal.index.IndexProtocol;
 import org.apache.geode.cache.query.internal.index.IndexUtils;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
@@ -244,8 +245,8 @@ public class CompiledComparison extends AbstractCompiledValue
 
   // Invariant: the receiver is dependent on the current iterator.
   @Override
-  protected PlanInfo protGetPlanInfo(ExecutionContext context)
-      throws TypeMismatchException, AmbiguousNameException, NameResolutionException {
+  protected PlanInfo protGetPlanInfo(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
     PlanInfo result = new PlanInfo();
     IndexInfo[] indexInfo = getIndexInfo(context);
     if (indexInfo == null)
@@ -265,6 +266,14 @@ public class CompiledComparison extends AbstractCompiledValue
         result.isPreferred = true;
       }
     }
+    if (IndexManager.COST_BASED_INDEX_SELECTION && getType() == COMPARISON
+        && indexInfo.length == 1 && !result.isPreferred
+        && !(context instanceof QueryExecutionContext
+            && ((QueryExecutionContext) context).hasHints())
+        && IndexCostModel.isScanCheaper(indexInfo[0]._index, getSizeEstimate(context))) {
+      // the index would match so much of the region that scanning it is cheaper
+      result.evalAsFilter = false;
+    }
     return result;
   }
 
@@ -772,8 +781,8 @@ public class CompiledComparison extends AbstractCompiledValue
     int thatSize = comparedTo.getSizeEstimate(context);
     int thatOperator = comparedTo.getOperator();
 
-    // Go with the lowest cost when hint is used.
-    if (context instanceof QueryExecutionContext && ((QueryExecutionContext) context).hasHints()) {
+    // Go with the lowest cost when hint is used or cost based selection is enabled.
+    if (IndexCostModel.compareBySize(context)) {
       return thisSize <= thatSize;
     }
 
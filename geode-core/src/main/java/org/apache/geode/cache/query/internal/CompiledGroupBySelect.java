@@ -32,6 +32,7 @@ import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.Struct;
 import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.aggregate.BlockAggregator;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
 import org.apache.geode.cache.query.internal.types.TypeUtils;
@@ -46,6 +47,12 @@ import org.apache.geode.internal.i18n.LocalizedStrings;
  */
 public class CompiledGroupBySelect extends CompiledSelect {
 
+  /**
+   * The number of rows of a group whose aggregate columns are gathered before they are accumulated
+   * as a block
+   */
+  private static final int BLOCK_SIZE = 256;
+
   private final BitSet aggregateColsPos;
   private final CompiledAggregateFunction[] aggregateFunctions;
   private final boolean isDistinct;
@@ -177,19 +184,21 @@ public class CompiledGroupBySelect extends CompiledSelect {
         createResultSet(context, elementType, isStruct, createOrderedResultSet);
     Aggregator[] aggregators = new Aggregator[this.aggregateFunctions.length];
     refreshAggregators(aggregators, context);
+    RowBlock block = new RowBlock(isStruct, elementType);
     if (this.orderByAttrs != null) {
-      applyGroupBy(baseResults, context, isStruct, newResults, aggregators, !createOrderedResultSet,
+      applyGroupBy(baseResults, context, block, newResults, aggregators, !createOrderedResultSet,
           objectChangedMarker, limitValue);
     } else {
-      Iterator iter = baseResults.iterator();
+      Iterator iter = rowIterator(baseResults, isStruct);
       Object current = null;
       boolean unterminated = iter.hasNext();
       while (iter.hasNext()) {
-        current = iter.next();
-        accumulate(isStruct, aggregators, current, objectChangedMarker);
+        current = row(iter.next(), isStruct);
+        block.add(current, aggregators, objectChangedMarker);
       }
       if (unterminated) {
-        this.terminateAndAddToResults(isStruct, newResults, aggregators, current, context,
+        block.accumulate(aggregators, objectChangedMarker);
+        this.terminateAndAddToResults(block, newResults, aggregators, current, context,
             !createOrderedResultSet, limitValue);
       }
     }
@@ -264,11 +273,12 @@ public class CompiledGroupBySelect extends CompiledSelect {
     }
   }
 
-  private void applyGroupBy(SelectResults baseResults, ExecutionContext context, boolean isStruct,
+  private void applyGroupBy(SelectResults baseResults, ExecutionContext context, RowBlock block,
       SelectResults newResults, Aggregator[] aggregators, boolean isStructFields,
       boolean[] objectChangedMarker, int limitValue) throws FunctionDomainException,
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
-    Iterator iter = baseResults.iterator();
+    boolean isStruct = block.isStruct;
+    Iterator iter = rowIterator(baseResults, isStruct);
     Object[] orderByTupleHolderCurrent = null;
     Object[] orderByTupleHolderPrev = null;
     Object orderByCurrent = null;
@@ -284,24 +294,25 @@ public class CompiledGroupBySelect extends CompiledSelect {
     boolean unterminated = false;
     boolean keepAdding = true;
     while (iter.hasNext() && keepAdding) {
-      Object current = iter.next();
+      Object current = row(iter.next(), isStruct);
       if (isSingleOrderBy) {
-        orderByCurrent = this.getOrderByEvaluatedTuple(context, isSingleOrderBy, null,
-            isStruct ? ((Struct) current).getFieldValues() : current, objectChangedMarker);
+        orderByCurrent = this.getOrderByEvaluatedTuple(context, isSingleOrderBy, null, current,
+            objectChangedMarker);
       } else {
         orderByTupleHolderCurrent = (Object[]) this.getOrderByEvaluatedTuple(context,
-            isSingleOrderBy, orderByTupleHolderCurrent,
-            isStruct ? ((Struct) current).getFieldValues() : current, objectChangedMarker);
+            isSingleOrderBy, orderByTupleHolderCurrent, current, objectChangedMarker);
       }
       if (isFirst || areOrderByTupleEqual(isSingleOrderBy, orderByPrev, orderByCurrent,
           orderByTupleHolderPrev, orderByTupleHolderCurrent)) {
-        accumulate(isStruct, aggregators, current, objectChangedMarker);
+        block.add(current, aggregators, objectChangedMarker);
         unterminated = true;
         isFirst = false;
       } else {
-        keepAdding = terminateAndAddToResults(isStruct, newResults, aggregators, prev, context,
+        // the group of the previous row is complete
+        block.accumulate(aggregators, objectChangedMarker);
+        keepAdding = terminateAndAddToResults(block, newResults, aggregators, prev, context,
             isStructFields, limitValue);
-        this.accumulate(isStruct, aggregators, current, objectChangedMarker);
+        block.add(current, aggregators, objectChangedMarker);
         unterminated = true;
       }
       // swap the holder arrays
@@ -312,8 +323,9 @@ public class CompiledGroupBySelect extends CompiledSelect {
       prev = current;
     }
     if (unterminated && keepAdding) {
-      this.terminateAndAddToResults(isStruct, newResults, aggregators, prev, context,
-          isStructFields, limitValue);
+      block.accumulate(aggregators, objectChangedMarker);
+      this.terminateAndAddToResults(block, newResults, aggregators, prev, context, isStructFields,
+          limitValue);
     }
 
     if (this.originalOrderByClause != null && limitValue > 0
@@ -322,11 +334,12 @@ public class CompiledGroupBySelect extends CompiledSelect {
     }
   }
 
-  private boolean terminateAndAddToResults(boolean isStruct, SelectResults newResults,
+  private boolean terminateAndAddToResults(RowBlock block, SelectResults newResults,
       Aggregator[] aggregators, Object prev, ExecutionContext context, boolean isStrucFields,
       int limitValue) throws FunctionDomainException, TypeMismatchException,
       NameResolutionException, QueryInvocationTargetException {
-    Object[] newRowArray = isStruct ? copyStruct((Struct) prev) : null;
+    boolean isStruct = block.isStruct;
+    Object[] newRowArray = isStruct ? copyFieldValues((Object[]) prev) : null;
     Object newObject = null;
     int bitstart = 0;
     if (limitValue == 0) {
@@ -348,8 +361,7 @@ public class CompiledGroupBySelect extends CompiledSelect {
       if (isStrucFields) {
         ((StructFields) newResults).addFieldValues(newRowArray);
       } else {
-        newResults
-            .add(new StructImpl((StructTypeImpl) ((Struct) prev).getStructType(), newRowArray));
+        newResults.add(new StructImpl(block.structType, newRowArray));
       }
     } else {
       newResults.add(newObject);
@@ -375,30 +387,83 @@ public class CompiledGroupBySelect extends CompiledSelect {
     }
   }
 
-  private Object[] copyStruct(Struct struct) {
-    Object[] prevValues = struct.getFieldValues();
+  private Object[] copyFieldValues(Object[] prevValues) {
     Object[] newRow = new Object[prevValues.length];
     System.arraycopy(prevValues, 0, newRow, 0, prevValues.length);
     return newRow;
   }
 
-  private void accumulate(boolean isStruct, Aggregator[] aggregators, Object current,
-      boolean[] objectChangedMarker) {
-    int bitstart = 0;
-    for (Aggregator aggregator : aggregators) {
-      if (isStruct) {
-        int pos = this.aggregateColsPos.nextSetBit(bitstart);
-        bitstart = pos + 1;
-        Struct struct = (Struct) current;
-        Object scalar = PDXUtils.convertPDX(struct.getFieldValues()[pos], false, true, true, true,
-            objectChangedMarker, isStruct);
+  /**
+   * Returns an iterator over the rows of the results. Struct rows are iterated as their field
+   * values so that no Struct is created for each row.
+   */
+  private Iterator rowIterator(SelectResults baseResults, boolean isStruct) {
+    if (isStruct && baseResults instanceof StructFields) {
+      return ((StructFields) baseResults).fieldValuesIterator();
+    }
+    return baseResults.iterator();
+  }
 
-        aggregator.accumulate(scalar);
-      } else {
-        current =
-            PDXUtils.convertPDX(current, false, true, true, true, objectChangedMarker, isStruct);
-        aggregator.accumulate(current);
+  private Object row(Object element, boolean isStruct) {
+    return isStruct && element instanceof Struct ? ((Struct) element).getFieldValues() : element;
+  }
+
+  /**
+   * Holds the rows of the current group that are yet to be accumulated. Once the group ends or the
+   * block is full, the values of each aggregate column are gathered into a single array and handed
+   * to the aggregator in one call, so the aggregators sum and count in a tight loop instead of
+   * being invoked for each row.
+   */
+  private class RowBlock {
+    final boolean isStruct;
+    final StructTypeImpl structType;
+    private final Object[] rows = new Object[BLOCK_SIZE];
+    private final Object[] column = new Object[BLOCK_SIZE];
+    private int size;
+
+    RowBlock(boolean isStruct, ObjectType elementType) {
+      this.isStruct = isStruct;
+      this.structType = isStruct ? (StructTypeImpl) elementType : null;
+    }
+
+    void add(Object row, Aggregator[] aggregators, boolean[] objectChangedMarker) {
+      this.rows[this.size++] = row;
+      if (this.size == BLOCK_SIZE) {
+        accumulate(aggregators, objectChangedMarker);
+      }
+    }
+
+    void accumulate(Aggregator[] aggregators, boolean[] objectChangedMarker) {
+      if (this.size == 0) {
+        return;
+      }
+      int bitstart = 0;
+      for (int i = 0; i < aggregators.length; i++) {
+        if (this.isStruct) {
+          int pos = aggregateColsPos.nextSetBit(bitstart);
+          bitstart = pos + 1;
+          for (int j = 0; j < this.size; j++) {
+            this.column[j] = PDXUtils.convertPDX(((Object[]) this.rows[j])[pos], false, true, true,
+                true, objectChangedMarker, true);
+          }
+        } else if (i == 0) {
+          for (int j = 0; j < this.size; j++) {
+            this.column[j] = PDXUtils.convertPDX(this.rows[j], false, true, true, true,
+                objectChangedMarker, false);
+          }
+        }
+        Aggregator aggregator = aggregators[i];
+        if (aggregator instanceof BlockAggregator) {
+          ((BlockAggregator) aggregator).accumulateBlock(this.column, 0, this.size);
+        } else {
+          for (int j = 0; j < this.size; j++) {
+            aggregator.accumulate(this.column[j]);
+          }
+        }
       }
+      Arrays.fill(this.rows, 0, this.size, null);
+      Arrays.fill(this.column, 0, this.size, null);
+      this.size = 0;
     }
   }
 
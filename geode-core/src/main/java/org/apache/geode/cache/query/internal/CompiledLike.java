@@ -438,8 +438,8 @@ public class CompiledLike extends CompiledComparison {
    * @since GemFire 6.6
    */
   @Override
-  protected PlanInfo protGetPlanInfo(ExecutionContext context)
-      throws TypeMismatchException, AmbiguousNameException, NameResolutionException {
+  protected PlanInfo protGetPlanInfo(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
     /*
      * During filterevaluation, CompiledLike is converted to 2 or 3 CompiledComparisons. One of the
      * CCs could be a CompiledLike itself. For example If the wildcard is _ or the % is anywhere
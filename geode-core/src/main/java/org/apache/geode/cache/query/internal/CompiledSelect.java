@@ -171,6 +171,13 @@ public class CompiledSelect extends AbstractCompiledValue {
     return this.orderByAttrs;
   }
 
+  /**
+   * Returns the strings given in the query's hint clause, or null if it has none.
+   */
+  public List<String> getHints() {
+    return this.hints;
+  }
+
   @Override
   public Set computeDependencies(ExecutionContext context)
       throws TypeMismatchException, NameResolutionException {
@@ -48,12 +48,14 @@ import org.apache.geode.cache.query.RegionNotFoundException;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.cq.InternalCqQuery;
+import org.apache.geode.cache.query.internal.index.IndexManager;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.internal.NanoTimer;
 import org.apache.geode.internal.cache.BucketRegion;
 import org.apache.geode.internal.cache.CachePerfStats;
 import org.apache.geode.internal.cache.InternalCache;
 import org.apache.geode.internal.cache.LocalDataSet;
+import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.PRQueryProcessor;
 import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.internal.cache.TXManagerImpl;
@@ -96,6 +98,13 @@ public class DefaultQuery implements Query {
 
   public static int TEST_COMPILED_QUERY_CLEAR_TIME = -1;
 
+  /**
+   * System property to make queries wait, before they are evaluated, until the indexes that are
+   * maintained asynchronously reflect the entry operations made before the query was executed.
+   */
+  public static final String WAIT_FOR_INDEX_MAINTENANCE_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "Query.WAIT_FOR_INDEX_MAINTENANCE";
+
   /**
    * Use to represent null result. Used while adding PR results to the results-queue, which is a
    * blocking queue.
@@ -134,6 +143,9 @@ public class DefaultQuery implements Query {
   /** indicates query executed remotely */
   private boolean isRemoteQuery = false;
 
+  private boolean waitForIndexMaintenance =
+      Boolean.getBoolean(WAIT_FOR_INDEX_MAINTENANCE_PROPERTY);
+
   // to prevent objects from getting deserialized
   private boolean keepSerialized = false;
 
@@ -370,18 +382,30 @@ public class DefaultQuery implements Query {
         return result;
       }
 
-      queryMonitor = this.cache.getQueryMonitor();
+      QueryResultCache resultCache = this.cache.getQueryResultCache();
+      QueryResultCache.Lookup cacheLookup = lookupCachedResult(resultCache, params);
+      boolean indexUsed;
+      if (cacheLookup != null && cacheLookup.result != null) {
+        result = QueryResultCache.unmodifiableView((SelectResults) cacheLookup.result.result);
+        indexUsed = cacheLookup.result.indexUsed;
+      } else {
+        queryMonitor = this.cache.getQueryMonitor();
+
+        // If QueryMonitor is enabled add query to be monitored.
+        if (queryMonitor != null) {
+          // Add current thread to be monitored by QueryMonitor.
+          // In case of partitioned region it will be added before the query execution
+          // starts on the Local Buckets.
+          queryMonitor.monitorQueryThread(Thread.currentThread(), this);
+        }
 
-      // If QueryMonitor is enabled add query to be monitored.
-      if (queryMonitor != null) {
-        // Add current thread to be monitored by QueryMonitor.
-        // In case of partitioned region it will be added before the query execution
-        // starts on the Local Buckets.
-        queryMonitor.monitorQueryThread(Thread.currentThread(), this);
+        context.setCqQueryContext(this.isCqQuery);
+        result = executeUsingContext(context);
+        indexUsed = ((QueryExecutionContext) context).isIndexUsed();
+        if (cacheLookup != null) {
+          result = resultCache.put(cacheLookup, result, indexUsed);
+        }
       }
-
-      context.setCqQueryContext(this.isCqQuery);
-      result = executeUsingContext(context);
       // Only wrap/copy results when copy on read is set and an index is used
       // This is because when an index is used, the results are actual references to values in the
       // cache
@@ -399,8 +423,7 @@ public class DefaultQuery implements Query {
       // have the OR condition
       boolean needsCopyOnReadWrapper =
           this.cache.getCopyOnRead() && !DefaultQueryService.COPY_ON_READ_AT_ENTRY_LEVEL
-              || (((QueryExecutionContext) context).isIndexUsed()
-                  && DefaultQueryService.COPY_ON_READ_AT_ENTRY_LEVEL);
+              || (indexUsed && DefaultQueryService.COPY_ON_READ_AT_ENTRY_LEVEL);
       // For local queries returning pdx objects wrap the resultset with
       // ResultsCollectionPdxDeserializerWrapper
       // which deserializes these pdx objects.
@@ -434,6 +457,19 @@ public class DefaultQuery implements Query {
     }
   }
 
+  /**
+   * Looks up the result of this query if the results of all the regions it reads are cached
+   *
+   * @return the lookup, or null if the result of this query may not be cached
+   */
+  private QueryResultCache.Lookup lookupCachedResult(QueryResultCache resultCache,
+      Object[] params) {
+    if (resultCache == null || this.isCqQuery || this.isQueryWithFunctionContext) {
+      return null;
+    }
+    return resultCache.lookup(this.cache, this, params, getRegionsInQuery(params));
+  }
+
   /**
    * For Order by queries ,since they are already ordered by the comparator && it takes care of
    * conversion, we do not have to wrap it in a wrapper
@@ -546,6 +582,9 @@ public class DefaultQuery implements Query {
       if (DefaultQuery.testHook != null) {
         DefaultQuery.testHook.doTestHook(6);
       }
+      if (this.waitForIndexMaintenance) {
+        waitForIndexMaintenance(context);
+      }
       Object results = null;
       try {
         // two-pass evaluation.
@@ -579,6 +618,34 @@ public class DefaultQuery implements Query {
     }
   }
 
+  /**
+   * Waits until the asynchronously maintained indexes of the regions the query reads, or of the
+   * buckets it reads on partitioned regions, reflect the entry operations made so far.
+   */
+  private void waitForIndexMaintenance(ExecutionContext context) {
+    for (Object regionPath : getRegionsInQuery(context.bindArguments)) {
+      Region region = this.cache.getRegion((String) regionPath);
+      if (region instanceof PartitionedRegion) {
+        PartitionedRegion pr = (PartitionedRegion) region;
+        List bucketIds = context.getBucketList();
+        if (bucketIds == null || pr.getDataStore() == null) {
+          continue;
+        }
+        for (Object bucketId : bucketIds) {
+          BucketRegion bucket = pr.getDataStore().getLocalBucketById((Integer) bucketId);
+          if (bucket != null && bucket.getIndexManager() != null) {
+            bucket.getIndexManager().waitForAsyncUpdates();
+          }
+        }
+      } else if (region instanceof LocalRegion) {
+        IndexManager indexManager = ((LocalRegion) region).getIndexManager();
+        if (indexManager != null) {
+          indexManager.waitForAsyncUpdates();
+        }
+      }
+    }
+  }
+
   private QueryExecutor checkQueryOnPR(Object[] parameters)
       throws RegionNotFoundException, PartitionOfflineException {
 
@@ -1090,6 +1157,15 @@ public class DefaultQuery implements Query {
     }
   }
 
+  /**
+   * Sets whether the query waits for the asynchronous maintenance of the indexes it may use to
+   * catch up before it is evaluated, overriding the
+   * {@link #WAIT_FOR_INDEX_MAINTENANCE_PROPERTY} system property.
+   */
+  public void setWaitForIndexMaintenance(boolean waitForIndexMaintenance) {
+    this.waitForIndexMaintenance = waitForIndexMaintenance;
+  }
+
   public boolean isKeepSerialized() {
     return this.keepSerialized;
   }
@@ -24,6 +24,7 @@ import org.apache.geode.cache.query.FunctionDomainException;
 import org.apache.geode.cache.query.NameResolutionException;
 import org.apache.geode.cache.query.QueryInvocationTargetException;
 import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.index.IndexManager;
 
 /**
  * This structure contains the filter evaluable and iter evaluable conditions which are dependent on
@@ -163,6 +164,9 @@ public class GroupJunction extends AbstractGroupOrRangeJunction {
           }
         }
         evalOperands.add(0, currentBestFilter);
+        if (IndexManager.COST_BASED_INDEX_SELECTION && !foundPreferredCondition) {
+          indexCount += addIntersectedFilters(evalOperands, currentBestFilterSize, context);
+        }
       }
     } else {
       indexCount = _operands.length;
@@ -177,6 +181,39 @@ public class GroupJunction extends AbstractGroupOrRangeJunction {
     return createOrganizedOperandsObject(indexCount, evalOperands);
   }
 
+  /**
+   * Moves the filter operands whose indexes are cheaper to intersect with the best filter, at the
+   * head of evalOperands, than to evaluate on its results to just after it.
+   *
+   * @return the number of filter operands moved
+   */
+  private int addIntersectedFilters(List evalOperands, int bestFilterSize,
+      ExecutionContext context) throws FunctionDomainException, TypeMismatchException,
+      NameResolutionException, QueryInvocationTargetException {
+    // the intersection of a dummy GroupJunction only supports comparisons
+    if (!isIntersectable(evalOperands.get(0))) {
+      return 0;
+    }
+    int added = 0;
+    for (int i = 1; i < evalOperands.size(); i++) {
+      Object operand = evalOperands.get(i);
+      if (isIntersectable(operand)) {
+        PlanInfo pi = ((CompiledValue) operand).getPlanInfo(context);
+        if (pi.evalAsFilter && pi.indexes.size() == 1 && IndexCostModel
+            .isIntersectionCheaper(bestFilterSize, ((Filter) operand).getSizeEstimate(context))) {
+          evalOperands.remove(i);
+          evalOperands.add(++added, operand);
+        }
+      }
+    }
+    return added;
+  }
+
+  private static boolean isIntersectable(Object operand) {
+    return operand instanceof CompiledComparison && !(operand instanceof CompiledLike)
+        || operand instanceof CompiledUndefined;
+  }
+
   public int getSizeEstimate(ExecutionContext context) throws FunctionDomainException,
       TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
     return 1;
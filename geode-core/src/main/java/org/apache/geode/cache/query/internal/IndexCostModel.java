@@ -0,0 +1,86 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.internal.index.IndexManager;
+import org.apache.geode.cache.query.internal.index.IndexProtocol;
+import org.apache.geode.cache.query.internal.index.PartitionedIndex;
+
+/**
+ * The costs used to plan the filter conditions of a query when
+ * {@link IndexManager#COST_BASED_INDEX_SELECTION} is set. Instead of ranking conditions by operator
+ * type, the planner then drives a query with the condition whose index is estimated to match the
+ * fewest values, intersects it with other cheap enough indexes, and scans the region when an index
+ * would match most of it anyway.
+ * <p>
+ * The costs are relative to evaluating a condition on a value that has already been fetched.
+ */
+class IndexCostModel {
+
+  /**
+   * Cost of fetching a value matched by an index and adding it to the results
+   */
+  static final double INDEX_MATCH_COST = 1.5;
+
+  /**
+   * Cost of a match of an extra index in an intersection, which only has to be looked up in the
+   * results of the first
+   */
+  static final double INTERSECTION_MATCH_COST = 0.25;
+
+  /**
+   * Cost of evaluating a condition on a value
+   */
+  static final double FILTER_COST = 1.0;
+
+  /**
+   * Cost of visiting a value in a scan of the region, evaluating the conditions included
+   */
+  static final double SCAN_COST = 1.0;
+
+  private IndexCostModel() {}
+
+  /**
+   * Returns true if filters are to be ranked by their size estimates alone, either because the
+   * query has hints or because cost based selection is enabled.
+   */
+  static boolean compareBySize(ExecutionContext context) {
+    return IndexManager.COST_BASED_INDEX_SELECTION || context instanceof QueryExecutionContext
+        && ((QueryExecutionContext) context).hasHints();
+  }
+
+  /**
+   * Returns true if intersecting the results of an index estimated to match otherSize values with
+   * those of the driving index, estimated to match drivingSize, costs less than evaluating the
+   * other condition on each of the driving index's results.
+   */
+  static boolean isIntersectionCheaper(int drivingSize, int otherSize) {
+    return otherSize * INTERSECTION_MATCH_COST < drivingSize * FILTER_COST;
+  }
+
+  /**
+   * Returns true if scanning the region costs less than fetching the estimated number of values
+   * through the index.
+   */
+  static boolean isScanCheaper(IndexProtocol index, int estimatedSize) {
+    if (index instanceof PartitionedIndex) {
+      // estimates are only available from the bucket indexes
+      return false;
+    }
+    Region region = index.getRegion();
+    return region != null && estimatedSize * INDEX_MATCH_COST > region.size() * SCAN_COST;
+  }
+}
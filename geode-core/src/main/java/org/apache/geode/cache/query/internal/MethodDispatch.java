@@ -16,8 +16,11 @@
 package org.apache.geode.cache.query.internal;
 
 
-import java.lang.reflect.InvocationTargetException;
+import java.lang.invoke.MethodHandle;
+import java.lang.invoke.MethodHandles;
+import java.lang.invoke.MethodType;
 import java.lang.reflect.Method;
+import java.lang.reflect.Modifier;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
@@ -43,6 +46,8 @@ public class MethodDispatch {
   private String _methodName;
   private Class[] _argTypes;
   private Method _method; // remember the right method
+  // invokes _method with type (Object, Object[])Object, or null if it is not accessible
+  private MethodHandle _handle;
   private MethodInvocationAuthorizer _methodInvocationAuthorizer;
 
   public MethodDispatch(MethodInvocationAuthorizer methodInvocationAuthorizer, Class targetClass,
@@ -56,27 +61,41 @@ public class MethodDispatch {
     // override security in case this is a method on a nonpublic class
     // with a public method
     _method.setAccessible(true);
+    _handle = createHandle(_method);
   }
 
   public Object invoke(Object target, List args)
       throws NameNotFoundException, QueryInvocationTargetException {
+    if (_handle == null) {
+      throw new NameNotFoundException(
+          LocalizedStrings.MethodDispatch_METHOD_0_IN_CLASS_1_IS_NOT_ACCESSIBLE_TO_THE_QUERY_PROCESSOR
+              .toLocalizedString(new Object[] {_method.getName(), target.getClass().getName()}));
+    }
     Object[] argsArray = args.toArray();
 
+    _methodInvocationAuthorizer.authorizeMethodInvocation(_method, target);
+    try {
+      return _handle.invokeExact(target, argsArray);
+    } catch (Throwable t) {
+      throw new QueryInvocationTargetException(t);
+    }
+  }
+
+  /**
+   * Adapts the method to take the target and an array of arguments, converting them as
+   * {@link Method#invoke} would, without going through reflection for every invocation.
+   */
+  private static MethodHandle createHandle(Method method) {
     try {
-      _methodInvocationAuthorizer.authorizeMethodInvocation(_method, target);
-      return _method.invoke(target, argsArray);
+      MethodHandle handle = MethodHandles.lookup().unreflect(method).asFixedArity();
+      if (Modifier.isStatic(method.getModifiers())) {
+        handle = MethodHandles.dropArguments(handle, 0, Object.class);
+      }
+      int numArgs = method.getParameterTypes().length;
+      return handle.asType(MethodType.genericMethodType(numArgs + 1)).asSpreader(Object[].class,
+          numArgs);
     } catch (IllegalAccessException e) {
-      throw new NameNotFoundException(
-          LocalizedStrings.MethodDispatch_METHOD_0_IN_CLASS_1_IS_NOT_ACCESSIBLE_TO_THE_QUERY_PROCESSOR
-              .toLocalizedString(new Object[] {_method.getName(), target.getClass().getName()}),
-          e);
-    } catch (InvocationTargetException e) {
-      // if targetException is Exception, wrap it, otherwise wrap the InvocationTargetException
-      // itself
-      Throwable t = e.getTargetException();
-      if (t instanceof Exception)
-        throw new QueryInvocationTargetException(t);
-      throw new QueryInvocationTargetException(e);
+      return null;
     }
   }
 
@@ -17,7 +17,9 @@ package org.apache.geode.cache.query.internal;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentLinkedQueue;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.locks.LockSupport;
 
 import org.apache.logging.log4j.Logger;
 
@@ -34,16 +36,27 @@ import org.apache.geode.internal.logging.log4j.LocalizedMessage;
  * MAX_QUERY_EXECUTION_TIME. At most there will be one query monitor-thread that cancels the long
  * running queries.
  *
- * The queries to be monitored is added into the ordered queue, ordered based on its start/arrival
- * time. The first one in the Queue is the older query that will be canceled first.
+ * All queries share the same max execution time, so their deadlines are in the order the queries
+ * start. Query threads hand their tasks to the monitor thread through lock free queues, and the
+ * monitor thread keeps them in a doubly linked list ordered by deadline, which it alone modifies.
+ * Adding or removing a query therefore costs the query thread a constant amount of work without
+ * contending on a shared lock, and the monitor thread only looks at the expired head of the list
+ * and at the queries that completed since it last woke up.
  *
- * The QueryMonitor cancels a query-execution thread if its taking more than the max time.
+ * The QueryMonitor cancels a query-execution thread if its taking more than the max time. The
+ * query thread notices the cancellation the next time it calls {@link #isQueryExecutionCanceled()}.
  *
  * @since GemFire 6.0
  */
 public class QueryMonitor implements Runnable {
   private static final Logger logger = LogService.getLogger();
 
+  /**
+   * The longest the monitor thread sleeps before removing the queries that completed, so that the
+   * tasks of completed queries do not pile up while a long running query is monitored.
+   */
+  private static final long PURGE_INTERVAL_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
   /**
    * Holds the query execution status for the thread executing the query. FALSE if the query is not
    * canceled due to max query execution timeout. TRUE it the query is canceled due to max query
@@ -52,11 +65,25 @@ public class QueryMonitor implements Runnable {
   private static final ThreadLocal<AtomicBoolean> queryExecutionStatus =
       ThreadLocal.withInitial(() -> new AtomicBoolean(Boolean.FALSE));
 
+  /** The task monitoring the query executed by the thread */
+  private static final ThreadLocal<QueryThreadTask> currentTask = new ThreadLocal<>();
+
   private final long maxQueryExecutionTime;
 
-  private static final ConcurrentLinkedQueue queryThreads = new ConcurrentLinkedQueue();
+  /** Tasks of the queries started since the monitor thread last woke up */
+  private final ConcurrentLinkedQueue<QueryThreadTask> addedTasks = new ConcurrentLinkedQueue<>();
+
+  /** Tasks of the queries completed since the monitor thread last woke up */
+  private final ConcurrentLinkedQueue<QueryThreadTask> completedTasks =
+      new ConcurrentLinkedQueue<>();
+
+  /** The monitored tasks, ordered by deadline; guarded by this object */
+  private final TaskList tasks = new TaskList();
 
-  private Thread monitoringThread;
+  private volatile Thread monitoringThread;
+
+  /** True while the monitor thread is parked with no query to monitor */
+  private volatile boolean idle;
 
   private final AtomicBoolean stopped = new AtomicBoolean(Boolean.FALSE);
 
@@ -75,7 +102,7 @@ public class QueryMonitor implements Runnable {
   /**
    * Add query to be monitored.
    *
-   * @param queryThread Thread executing the query.
+   * @param queryThread Thread executing the query, which must be the current thread.
    * @param query Query.
    */
   public void monitorQueryThread(Thread queryThread, Query query) {
@@ -85,16 +112,22 @@ public class QueryMonitor implements Runnable {
       ((DefaultQuery) query).setCanceled(true, new QueryExecutionLowMemoryException(reason));
       throw new QueryExecutionLowMemoryException(reason);
     }
-    QueryThreadTask queryTask = new QueryThreadTask(queryThread, query, queryExecutionStatus.get());
-    synchronized (queryThreads) {
-      queryThreads.add(queryTask);
-      queryThreads.notifyAll();
+    QueryThreadTask queryTask = new QueryThreadTask(queryThread, query, queryExecutionStatus.get(),
+        this.maxQueryExecutionTime);
+    // the thread may already be monitored for the query it executes on behalf of
+    queryTask.outerTask = currentTask.get();
+    currentTask.set(queryTask);
+    this.addedTasks.add(queryTask);
+    if (this.idle) {
+      Thread thread = this.monitoringThread;
+      if (thread != null) {
+        LockSupport.unpark(thread);
+      }
     }
 
     if (logger.isDebugEnabled()) {
-      logger.debug(
-          "Adding thread to QueryMonitor. QueryMonitor size is:{}, Thread (id): {} query: {} thread is : {}",
-          queryThreads.size(), queryThread.getId(), query.getQueryString(), queryThread);
+      logger.debug("Adding thread to QueryMonitor. Thread (id): {} query: {} thread is : {}",
+          queryThread.getId(), query.getQueryString(), queryThread);
     }
 
     // For dunit test purpose
@@ -108,13 +141,20 @@ public class QueryMonitor implements Runnable {
   }
 
   /**
-   * Stops monitoring the query. Removes the passed thread from QueryMonitor queue.
+   * Stops monitoring the query. Removes the task of the passed thread, which must be the current
+   * thread, from the QueryMonitor.
    */
   public void stopMonitoringQueryThread(Thread queryThread, Query query) {
     // Re-Set the queryExecution status on the LocalThread.
     QueryExecutionTimeoutException testException = null;
     DefaultQuery defaultQuery = (DefaultQuery) query;
     boolean[] queryCompleted = defaultQuery.getQueryCompletedForMonitoring();
+    QueryThreadTask queryTask = currentTask.get();
+    if (queryTask != null && queryTask.outerTask != null) {
+      currentTask.set(queryTask.outerTask);
+    } else {
+      currentTask.remove();
+    }
 
     synchronized (queryCompleted) {
       queryExecutionStatus.get().getAndSet(Boolean.FALSE);
@@ -123,15 +163,18 @@ public class QueryMonitor implements Runnable {
       if (GemFireCacheImpl.getInstance() != null
           && GemFireCacheImpl.getInstance().testMaxQueryExecutionTime > 0) {
         long maxTimeSet = GemFireCacheImpl.getInstance().testMaxQueryExecutionTime;
-        QueryThreadTask queryTask = (QueryThreadTask) queryThreads.peek();
+        QueryThreadTask oldestTask;
+        synchronized (this.tasks) {
+          oldestTask = this.tasks.head != null ? this.tasks.head : this.addedTasks.peek();
+        }
 
         long currentTime = System.currentTimeMillis();
 
         // This is to check if the QueryMonitoring thread slept longer than the expected time.
         // Its seen that in some cases based on OS thread scheduling the thread can sleep much
         // longer than the specified time.
-        if (queryTask != null) {
-          if (currentTime - queryTask.StartTime > maxTimeSet) {
+        if (oldestTask != null) {
+          if (currentTime - oldestTask.StartTime > maxTimeSet) {
             // The sleep() is unpredictable.
             testException = new QueryExecutionTimeoutException(
                 "The QueryMonitor thread may be sleeping longer than"
@@ -143,14 +186,17 @@ public class QueryMonitor implements Runnable {
       // END - DUnit Test purpose.
 
       defaultQuery.setQueryCompletedForMonitoring(true);
-      // Remove the query task from the queue.
-      queryThreads.remove(new QueryThreadTask(queryThread, null, null));
+    }
+
+    // Let the monitor thread remove the task from its list.
+    if (queryTask != null) {
+      queryTask.completed = true;
+      this.completedTasks.add(queryTask);
     }
 
     if (logger.isDebugEnabled()) {
-      logger.debug(
-          "Removed thread from QueryMonitor. QueryMonitor size is:{}, Thread ID is: {}  thread is : {}",
-          queryThreads.size(), queryThread.getId(), queryThread);
+      logger.debug("Removed thread from QueryMonitor. Thread ID is: {}  thread is : {}",
+          queryThread.getId(), queryThread);
     }
 
     if (testException != null) {
@@ -167,7 +213,7 @@ public class QueryMonitor implements Runnable {
    * gemfire.Cache.MAX_QUERY_EXECUTION_TIME
    */
   public static void isQueryExecutionCanceled() {
-    if (queryExecutionStatus.get() != null && queryExecutionStatus.get().get()) {
+    if (queryExecutionStatus.get().get()) {
       throw new QueryExecutionCanceledException();
     }
   }
@@ -194,70 +240,106 @@ public class QueryMonitor implements Runnable {
     // if the query monitor is stopped before run has been called, we should not run
     synchronized (this.stopped) {
       if (this.stopped.get()) {
-        queryThreads.clear();
+        clearTasks();
         return;
       }
       this.monitoringThread = Thread.currentThread();
     }
     try {
-      QueryThreadTask queryTask;
-      long sleepTime;
-      // TODO: while-block cannot complete without throwing
-      while (true) {
-        // Get the first query task from the queue. This query will have the shortest
-        // remaining time that needs to canceled first.
-        queryTask = (QueryThreadTask) queryThreads.peek();
-        if (queryTask == null) {
-          // Empty queue.
-          synchronized (queryThreads) {
-            queryThreads.wait();
+      while (!this.stopped.get() && !Thread.currentThread().isInterrupted()) {
+        long sleepNanos;
+        synchronized (this.tasks) {
+          addTasks();
+          removeCompletedTasks();
+          long currentTime = System.currentTimeMillis();
+          // The head of the list has the earliest deadline.
+          while (this.tasks.head != null && this.tasks.head.deadline <= currentTime) {
+            QueryThreadTask queryTask = this.tasks.head;
+            this.tasks.remove(queryTask);
+            if (!queryTask.completed) {
+              cancelQueryDueToTimeout(queryTask);
+            }
           }
-          continue;
-        }
-
-        long currentTime = System.currentTimeMillis();
-
-        // Check if the sleepTime is greater than the remaining query execution time.
-        if (currentTime - queryTask.StartTime < this.maxQueryExecutionTime) {
-          sleepTime = this.maxQueryExecutionTime - (currentTime - queryTask.StartTime);
-          // Its been noted that the sleep is not guaranteed to wait for the specified
-          // time (as stated in Suns doc too), it depends on the OSs thread scheduling
-          // behavior, hence thread may sleep for longer than the specified time.
-          // Specifying shorter time also hasn't worked.
-          Thread.sleep(sleepTime);
-          continue;
+          sleepNanos = this.tasks.head == null ? 0
+              : Math.min(TimeUnit.MILLISECONDS.toNanos(this.tasks.head.deadline - currentTime),
+                  PURGE_INTERVAL_NANOS);
         }
 
-        // Query execution has taken more than the max time, Set queryExecutionStatus flag
-        // to canceled (TRUE).
-        boolean[] queryCompleted =
-            ((DefaultQuery) queryTask.query).getQueryCompletedForMonitoring();
-        synchronized (queryCompleted) {
-          if (!queryCompleted[0]) { // Check if the query is already completed.
-            ((DefaultQuery) queryTask.query).setCanceled(true,
-                new QueryExecutionTimeoutException(
-                    LocalizedStrings.QueryMonitor_LONG_RUNNING_QUERY_CANCELED
-                        .toLocalizedString(GemFireCacheImpl.MAX_QUERY_EXECUTION_TIME)));
-            queryTask.queryExecutionStatus.set(Boolean.TRUE);
-            // Remove the task from queue.
-            queryThreads.poll();
+        // Its been noted that the sleep is not guaranteed to wait for the specified
+        // time (as stated in Suns doc too), it depends on the OSs thread scheduling
+        // behavior, hence thread may sleep for longer than the specified time.
+        if (sleepNanos > 0) {
+          LockSupport.parkNanos(this, sleepNanos);
+        } else {
+          // Nothing to monitor; query threads wake this thread up when they add a query.
+          this.idle = true;
+          if (this.addedTasks.isEmpty()) {
+            LockSupport.park(this);
           }
-        }
-
-        logger.info(LocalizedMessage.create(
-            LocalizedStrings.GemFireCache_LONG_RUNNING_QUERY_EXECUTION_CANCELED,
-            new Object[] {queryTask.query.getQueryString(), queryTask.queryThread.getId()}));
-
-        if (logger.isDebugEnabled()) {
-          logger.debug("Query Execution for the thread {} got canceled.", queryTask.queryThread);
+          this.idle = false;
         }
       }
-    } catch (InterruptedException ignore) {
       if (logger.isDebugEnabled()) {
         logger.debug("Query Monitoring thread got interrupted.");
       }
     } finally {
-      queryThreads.clear();
+      clearTasks();
+    }
+  }
+
+  /**
+   * Moves the tasks of the queries started since the last call into the list. Must be called while
+   * synchronized on the list.
+   */
+  private void addTasks() {
+    QueryThreadTask queryTask;
+    while ((queryTask = this.addedTasks.poll()) != null) {
+      if (!queryTask.completed) {
+        this.tasks.add(queryTask);
+      }
+    }
+  }
+
+  /**
+   * Removes the tasks of the queries completed since the last call from the list. Must be called
+   * while synchronized on the list, after {@link #addTasks()}.
+   */
+  private void removeCompletedTasks() {
+    QueryThreadTask queryTask;
+    while ((queryTask = this.completedTasks.poll()) != null) {
+      this.tasks.remove(queryTask);
+    }
+  }
+
+  private void clearTasks() {
+    synchronized (this.tasks) {
+      this.addedTasks.clear();
+      this.completedTasks.clear();
+      this.tasks.clear();
+    }
+  }
+
+  private void cancelQueryDueToTimeout(QueryThreadTask queryTask) {
+    // Query execution has taken more than the max time, Set queryExecutionStatus flag
+    // to canceled (TRUE).
+    boolean[] queryCompleted = ((DefaultQuery) queryTask.query).getQueryCompletedForMonitoring();
+    synchronized (queryCompleted) {
+      if (queryCompleted[0]) { // Check if the query is already completed.
+        return;
+      }
+      ((DefaultQuery) queryTask.query).setCanceled(true,
+          new QueryExecutionTimeoutException(
+              LocalizedStrings.QueryMonitor_LONG_RUNNING_QUERY_CANCELED
+                  .toLocalizedString(GemFireCacheImpl.MAX_QUERY_EXECUTION_TIME)));
+      queryTask.queryExecutionStatus.set(Boolean.TRUE);
+    }
+
+    logger.info(LocalizedMessage.create(
+        LocalizedStrings.GemFireCache_LONG_RUNNING_QUERY_EXECUTION_CANCELED,
+        new Object[] {queryTask.query.getQueryString(), queryTask.queryThread.getId()}));
+
+    if (logger.isDebugEnabled()) {
+      logger.debug("Query Execution for the thread {} got canceled.", queryTask.queryThread);
     }
   }
 
@@ -281,14 +363,16 @@ public class QueryMonitor implements Runnable {
   }
 
   public void cancelAllQueriesDueToMemory() {
-    synchronized (queryThreads) {
-      QueryThreadTask queryTask = (QueryThreadTask) queryThreads.poll();
-      while (queryTask != null) {
-        cancelQueryDueToLowMemory(queryTask, LOW_MEMORY_USED_BYTES);
-        queryTask = (QueryThreadTask) queryThreads.poll();
+    synchronized (this.tasks) {
+      addTasks();
+      removeCompletedTasks();
+      for (QueryThreadTask queryTask = this.tasks.head; queryTask != null; queryTask =
+          queryTask.next) {
+        if (!queryTask.completed) {
+          cancelQueryDueToLowMemory(queryTask, LOW_MEMORY_USED_BYTES);
+        }
       }
-      queryThreads.clear();
-      queryThreads.notifyAll();
+      this.tasks.clear();
     }
   }
 
@@ -308,17 +392,34 @@ public class QueryMonitor implements Runnable {
 
   /** FOR TEST PURPOSE */
   public int getQueryMonitorThreadCount() {
-    return queryThreads.size();
+    int count = 0;
+    synchronized (this.tasks) {
+      for (QueryThreadTask queryTask = this.tasks.head; queryTask != null; queryTask =
+          queryTask.next) {
+        if (!queryTask.completed) {
+          count++;
+        }
+      }
+      for (QueryThreadTask queryTask : this.addedTasks) {
+        if (!queryTask.completed) {
+          count++;
+        }
+      }
+    }
+    return count;
   }
 
   /**
-   * Query Monitoring task, placed in the queue.
+   * Query Monitoring task, linked into the list of the monitor thread.
    */
   private static class QueryThreadTask {
 
     // package-private to avoid synthetic accessor
     final long StartTime;
 
+    // package-private to avoid synthetic accessor
+    final long deadline;
+
     // package-private to avoid synthetic accessor
     final Thread queryThread;
 
@@ -328,39 +429,103 @@ public class QueryMonitor implements Runnable {
     // package-private to avoid synthetic accessor
     final AtomicBoolean queryExecutionStatus;
 
-    QueryThreadTask(Thread queryThread, Query query, AtomicBoolean queryExecutionStatus) {
+    /** set by the query thread once it stops monitoring the query */
+    volatile boolean completed;
+
+    /** the task the query thread was monitored by when this task started; only read by it */
+    QueryThreadTask outerTask;
+
+    /** the neighbours of this task in the list; guarded by the list */
+    QueryThreadTask previous;
+
+    QueryThreadTask next;
+
+    boolean linked;
+
+    QueryThreadTask(Thread queryThread, Query query, AtomicBoolean queryExecutionStatus,
+        long maxQueryExecutionTime) {
       this.StartTime = System.currentTimeMillis();
+      this.deadline = this.StartTime + maxQueryExecutionTime;
       this.queryThread = queryThread;
       this.query = query;
       this.queryExecutionStatus = queryExecutionStatus;
     }
 
     @Override
-    public int hashCode() {
-      assert this.queryThread != null;
-      return this.queryThread.hashCode();
+    public String toString() {
+      return new StringBuilder().append("QueryThreadTask[StartTime:").append(this.StartTime)
+          .append(", queryThread:").append(this.queryThread).append(", threadId:")
+          .append(this.queryThread.getId()).append(", query:").append(this.query.getQueryString())
+          .append(", queryExecutionStatus:").append(this.queryExecutionStatus).append(']')
+          .toString();
     }
+  }
+
+  /**
+   * Doubly linked list of tasks, ordered by deadline as long as the tasks are added in the order
+   * the queries started. Adding and removing a task take constant time.
+   */
+  private static class TaskList {
+
+    QueryThreadTask head;
+
+    private QueryThreadTask tail;
 
     /**
-     * The query task in the queue is identified by the thread. To remove the task in the queue
-     * using the thread reference.
+     * Adds a task, keeping the list ordered. Since the tasks arrive almost in deadline order the
+     * search for the position starts from the tail and rarely moves.
      */
-    @Override
-    public boolean equals(Object other) {
-      if (!(other instanceof QueryThreadTask)) {
-        return false;
+    void add(QueryThreadTask task) {
+      QueryThreadTask previous = this.tail;
+      while (previous != null && previous.deadline > task.deadline) {
+        previous = previous.previous;
+      }
+      QueryThreadTask next = previous == null ? this.head : previous.next;
+      task.previous = previous;
+      task.next = next;
+      if (previous == null) {
+        this.head = task;
+      } else {
+        previous.next = task;
       }
-      QueryThreadTask o = (QueryThreadTask) other;
-      return this.queryThread.equals(o.queryThread);
+      if (next == null) {
+        this.tail = task;
+      } else {
+        next.previous = task;
+      }
+      task.linked = true;
     }
 
-    @Override
-    public String toString() {
-      return new StringBuilder().append("QueryThreadTask[StartTime:").append(this.StartTime)
-          .append(", queryThread:").append(this.queryThread).append(", threadId:")
-          .append(this.queryThread.getId()).append(", query:").append(this.query.getQueryString())
-          .append(", queryExecutionStatus:").append(this.queryExecutionStatus).append(']')
-          .toString();
+    void remove(QueryThreadTask task) {
+      if (!task.linked) {
+        return;
+      }
+      if (task.previous == null) {
+        this.head = task.next;
+      } else {
+        task.previous.next = task.next;
+      }
+      if (task.next == null) {
+        this.tail = task.previous;
+      } else {
+        task.next.previous = task.previous;
+      }
+      task.previous = null;
+      task.next = null;
+      task.linked = false;
+    }
+
+    void clear() {
+      QueryThreadTask task = this.head;
+      while (task != null) {
+        QueryThreadTask next = task.next;
+        task.previous = null;
+        task.next = null;
+        task.linked = false;
+        task = next;
+      }
+      this.head = null;
+      this.tail = null;
     }
   }
 }
@@ -0,0 +1,360 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import java.math.BigDecimal;
+import java.math.BigInteger;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.LinkedHashMap;
+import java.util.Set;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.Struct;
+import org.apache.geode.cache.query.types.CollectionType;
+import org.apache.geode.cache.util.ObjectSizer;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.CachePerfStats;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.PartitionedRegion;
+
+/**
+ * Caches the results of queries on slowly changing regions, so that a query executed again with
+ * the same bind parameters is answered without being evaluated. Caching is enabled for the regions
+ * whose full paths are listed, comma separated, in the {@link #CACHED_REGIONS_PROPERTY} system
+ * property.
+ *
+ * A cached result is used only while none of the regions of the query have been modified since
+ * the query was evaluated, which each region tracks with
+ * {@link LocalRegion#getModificationCount()}. The cache is bounded by the estimated size of the
+ * results it holds, set in megabytes by the {@link #MAX_MEMORY_PROPERTY} system property, and
+ * evicts the least recently used results first.
+ *
+ * Queries on partitioned regions are not cached since changes to the buckets hosted by other
+ * members are not counted locally, nor are queries on regions whose indexes are maintained
+ * asynchronously since their indexes may not reflect the modifications counted. Cached results are
+ * shared by every execution of the query that they answer, so executions are given views of them
+ * that can not be modified.
+ */
+public class QueryResultCache {
+
+  public static final String CACHED_REGIONS_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "Query.RESULT_CACHE_REGIONS";
+
+  public static final String MAX_MEMORY_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "Query.RESULT_CACHE_MAX_MEMORY_MB";
+
+  private static final int DEFAULT_MAX_MEMORY_MB = 64;
+
+  /** estimated size of a cached result apart from its elements */
+  private static final long RESULT_OVERHEAD = 128;
+
+  /** estimated size of the reference to an element in a result */
+  private static final long ELEMENT_OVERHEAD = 16;
+
+  private final long maxMemory;
+
+  private final CachePerfStats stats;
+
+  /** guarded by this; iterates from the least to the most recently used result */
+  private final LinkedHashMap<Key, CachedResult> results =
+      new LinkedHashMap<Key, CachedResult>(16, 0.75f, true);
+
+  /** guarded by this */
+  private long memoryUsed;
+
+  QueryResultCache(long maxMemory, CachePerfStats stats) {
+    this.maxMemory = maxMemory;
+    this.stats = stats;
+  }
+
+  /**
+   * Returns the cache of query results of a cache, or null if no region is configured to have its
+   * query results cached.
+   */
+  public static QueryResultCache create(CachePerfStats stats) {
+    if (getCachedRegionPaths().isEmpty()) {
+      return null;
+    }
+    long maxMemory = Integer.getInteger(MAX_MEMORY_PROPERTY, DEFAULT_MAX_MEMORY_MB) * 1024L * 1024L;
+    return new QueryResultCache(maxMemory, stats);
+  }
+
+  /**
+   * Returns whether the results of queries on the region with the given full path may be cached
+   */
+  public static boolean isCachedRegion(String regionPath) {
+    return getCachedRegionPaths().contains(regionPath);
+  }
+
+  private static Set<String> getCachedRegionPaths() {
+    String property = System.getProperty(CACHED_REGIONS_PROPERTY);
+    if (property == null || property.trim().isEmpty()) {
+      return Collections.emptySet();
+    }
+    Set<String> paths = new HashSet<String>();
+    for (String path : property.split(",")) {
+      path = path.trim();
+      if (!path.isEmpty()) {
+        paths.add(path.startsWith(Region.SEPARATOR) ? path : Region.SEPARATOR + path);
+      }
+    }
+    return paths;
+  }
+
+  /**
+   * Looks up the result of a query, recording the state of the regions it reads so that a result
+   * evaluated from here on can be cached.
+   *
+   * @return the lookup, or null if the query may not be cached
+   */
+  Lookup lookup(InternalCache cache, DefaultQuery query, Object[] parameters,
+      Set<String> regionPaths) {
+    if (regionPaths.isEmpty() || !areCacheableParameters(parameters)) {
+      return null;
+    }
+    LocalRegion[] regions = new LocalRegion[regionPaths.size()];
+    long[] modificationCounts = new long[regions.length];
+    int i = 0;
+    for (String regionPath : regionPaths) {
+      Region region = cache.getRegion(regionPath);
+      if (!(region instanceof LocalRegion) || region instanceof PartitionedRegion) {
+        return null;
+      }
+      LocalRegion localRegion = (LocalRegion) region;
+      if (!localRegion.getAttributes().getIndexMaintenanceSynchronous()) {
+        return null;
+      }
+      long modificationCount = localRegion.getModificationCount();
+      if (modificationCount < 0 || !localRegion.isInitialized()) {
+        return null;
+      }
+      regions[i] = localRegion;
+      modificationCounts[i++] = modificationCount;
+    }
+
+    Key key = new Key(query.getQueryString(), parameters.clone(), query.isRemoteQuery(),
+        query.isKeepSerialized());
+    Lookup lookup = new Lookup(key, regions, modificationCounts);
+    synchronized (this) {
+      CachedResult cached = this.results.get(key);
+      if (cached != null) {
+        if (cached.isCurrent(regions, modificationCounts)) {
+          lookup.result = cached;
+        } else {
+          remove(key);
+        }
+      }
+    }
+    if (lookup.result != null) {
+      this.stats.incQueryResultCacheHits();
+    } else {
+      this.stats.incQueryResultCacheMisses();
+    }
+    return lookup;
+  }
+
+  /**
+   * Caches the result of a query that was looked up before it was evaluated
+   *
+   * @return the result to return from the query, which can not be modified if it was cached
+   */
+  Object put(Lookup lookup, Object result, boolean indexUsed) {
+    if (!(result instanceof SelectResults)) {
+      return result;
+    }
+    long size = estimateSize((SelectResults) result);
+    if (size > this.maxMemory) {
+      return result;
+    }
+    CachedResult cached = new CachedResult(lookup.regions, lookup.modificationCounts, result,
+        indexUsed, size);
+    synchronized (this) {
+      remove(lookup.key);
+      this.results.put(lookup.key, cached);
+      this.memoryUsed += size;
+      Iterator<CachedResult> leastRecentlyUsed = this.results.values().iterator();
+      while (this.memoryUsed > this.maxMemory && leastRecentlyUsed.hasNext()) {
+        this.memoryUsed -= leastRecentlyUsed.next().size;
+        leastRecentlyUsed.remove();
+      }
+    }
+    return unmodifiableView((SelectResults) result);
+  }
+
+  /**
+   * Returns a view of a cached result that can not be modified, so that an execution of the query
+   * can not change the result seen by the others
+   */
+  static SelectResults unmodifiableView(SelectResults result) {
+    CollectionType collectionType = result.getCollectionType();
+    Collection view;
+    if (collectionType.isOrdered()) {
+      view = Collections.unmodifiableList(result.asList());
+    } else if (!collectionType.allowsDuplicates()) {
+      view = Collections.unmodifiableSet(result.asSet());
+    } else {
+      view = Collections.unmodifiableCollection(result);
+    }
+    ResultsCollectionWrapper wrapper =
+        new ResultsCollectionWrapper(collectionType.getElementType(), view);
+    wrapper.setModifiable(false);
+    return wrapper;
+  }
+
+  /**
+   * Returns the number of query results currently cached
+   */
+  public synchronized int size() {
+    return this.results.size();
+  }
+
+  /**
+   * Returns the estimated memory used by the cached query results
+   */
+  public synchronized long getMemoryUsed() {
+    return this.memoryUsed;
+  }
+
+  public synchronized void clear() {
+    this.results.clear();
+    this.memoryUsed = 0;
+  }
+
+  private void remove(Key key) {
+    CachedResult removed = this.results.remove(key);
+    if (removed != null) {
+      this.memoryUsed -= removed.size;
+    }
+  }
+
+  /**
+   * Bind parameters must be immutable values for the query and its parameters to identify a
+   * result; a collection or region passed as a parameter can change without the cache noticing.
+   */
+  private static boolean areCacheableParameters(Object[] parameters) {
+    for (Object parameter : parameters) {
+      if (parameter != null && !(parameter instanceof String || parameter instanceof Integer
+          || parameter instanceof Long || parameter instanceof Short || parameter instanceof Byte
+          || parameter instanceof Double || parameter instanceof Float
+          || parameter instanceof Boolean || parameter instanceof Character
+          || parameter instanceof BigDecimal || parameter instanceof BigInteger
+          || parameter instanceof Enum)) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  private static long estimateSize(SelectResults results) {
+    long size = RESULT_OVERHEAD;
+    for (Object element : results) {
+      size += ELEMENT_OVERHEAD;
+      if (element instanceof Struct) {
+        for (Object value : ((Struct) element).getFieldValues()) {
+          size += ELEMENT_OVERHEAD + sizeOf(value);
+        }
+      } else {
+        size += sizeOf(element);
+      }
+    }
+    return size;
+  }
+
+  private static long sizeOf(Object value) {
+    return value == null ? 0 : ObjectSizer.SIZE_CLASS_ONCE.sizeof(value);
+  }
+
+  /**
+   * Identifies a cached result by the query string and bind parameters
+   */
+  private static class Key {
+    private final String queryString;
+    private final Object[] parameters;
+    private final boolean remoteQuery;
+    private final boolean keepSerialized;
+    private final int hashCode;
+
+    Key(String queryString, Object[] parameters, boolean remoteQuery, boolean keepSerialized) {
+      this.queryString = queryString;
+      this.parameters = parameters;
+      this.remoteQuery = remoteQuery;
+      this.keepSerialized = keepSerialized;
+      this.hashCode = 31 * queryString.hashCode() + Arrays.hashCode(parameters);
+    }
+
+    @Override
+    public int hashCode() {
+      return this.hashCode;
+    }
+
+    @Override
+    public boolean equals(Object other) {
+      if (!(other instanceof Key)) {
+        return false;
+      }
+      Key key = (Key) other;
+      return this.queryString.equals(key.queryString)
+          && Arrays.equals(this.parameters, key.parameters) && this.remoteQuery == key.remoteQuery
+          && this.keepSerialized == key.keepSerialized;
+    }
+  }
+
+  /**
+   * A result along with the modification counts its regions had when it was evaluated
+   */
+  static class CachedResult {
+    private final LocalRegion[] regions;
+    private final long[] modificationCounts;
+    final Object result;
+    final boolean indexUsed;
+    final long size;
+
+    CachedResult(LocalRegion[] regions, long[] modificationCounts, Object result,
+        boolean indexUsed, long size) {
+      this.regions = regions;
+      this.modificationCounts = modificationCounts;
+      this.result = result;
+      this.indexUsed = indexUsed;
+      this.size = size;
+    }
+
+    boolean isCurrent(LocalRegion[] regions, long[] modificationCounts) {
+      return Arrays.equals(this.regions, regions)
+          && Arrays.equals(this.modificationCounts, modificationCounts);
+    }
+  }
+
+  /**
+   * The outcome of looking up a query, holding the state of its regions before it is evaluated
+   */
+  static class Lookup {
+    private final Key key;
+    private final LocalRegion[] regions;
+    private final long[] modificationCounts;
+    CachedResult result;
+
+    Lookup(Key key, LocalRegion[] regions, long[] modificationCounts) {
+      this.key = key;
+      this.regions = regions;
+      this.modificationCounts = modificationCounts;
+    }
+  }
+}
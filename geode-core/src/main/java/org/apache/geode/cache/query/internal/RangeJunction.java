@@ -33,6 +33,8 @@ import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.SelectResults;
 import org.apache.geode.cache.query.Struct;
 import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.index.AbstractIndex;
+import org.apache.geode.cache.query.internal.index.IndexManager;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
 import org.apache.geode.cache.query.internal.types.TypeUtils;
@@ -114,8 +116,8 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
     // return the one with lower size estimate is better
     boolean isThisBetter = true;
 
-    // Go with the lowest cost when hint is used.
-    if (context instanceof QueryExecutionContext && ((QueryExecutionContext) context).hasHints()) {
+    // Go with the lowest cost when hint is used or cost based selection is enabled.
+    if (IndexCostModel.compareBySize(context)) {
       return thisSize <= comparedTo.getSizeEstimate(context);
     }
 
@@ -517,9 +519,20 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
     Support.assertionFailed("Should not have come here");
   }
 
-  public int getSizeEstimate(ExecutionContext context) {
-    // TODO:Asif:Try to estimate better
-    return RANGE_SIZE_ESTIMATE;
+  public int getSizeEstimate(ExecutionContext context) throws FunctionDomainException,
+      TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+    if (!IndexManager.COST_BASED_INDEX_SELECTION) {
+      // TODO:Asif:Try to estimate better
+      return RANGE_SIZE_ESTIMATE;
+    }
+    // all the conditions have to hold, so no more values match than for the most selective one
+    int size = Integer.MAX_VALUE;
+    for (CompiledValue operand : _operands) {
+      if (operand instanceof Filter) {
+        size = Math.min(size, ((Filter) operand).getSizeEstimate(context));
+      }
+    }
+    return size;
   }
 
   /*
@@ -821,7 +834,13 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
       return NOTEQUALCONDITIONEVALUATOR;
     }
 
-    public int getSizeEstimate(ExecutionContext context) {
+    public int getSizeEstimate(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+      if (IndexManager.COST_BASED_INDEX_SELECTION && this.notEqualTypeKeys != null
+          && !this.notEqualTypeKeys.isEmpty()) {
+        return this.indxInfo._index.getSizeEstimate(this.notEqualTypeKeys.iterator().next(),
+            OQLLexerTokenTypes.TOK_NE, this.indxInfo._matchLevel);
+      }
       return RANGE_SIZE_ESTIMATE;
     }
 
@@ -843,9 +862,8 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
 
       int thatOperator = comparedTo.getOperator();
 
-      // Go with the lowest cost when hint is used.
-      if (context instanceof QueryExecutionContext
-          && ((QueryExecutionContext) context).hasHints()) {
+      // Go with the lowest cost when hint is used or cost based selection is enabled.
+      if (IndexCostModel.compareBySize(context)) {
         return thisSize <= comparedTo.getSizeEstimate(context);
       }
 
@@ -902,6 +920,16 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
       this.condnKey = key;
     }
 
+    @Override
+    public int getSizeEstimate(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+      if (IndexManager.COST_BASED_INDEX_SELECTION) {
+        return this.indxInfo._index.getSizeEstimate(this.condnKey, this.condnOp,
+            this.indxInfo._matchLevel);
+      }
+      return super.getSizeEstimate(context);
+    }
+
     @Override
     public SelectResults filterEvaluate(ExecutionContext context, SelectResults iterationLimit,
         boolean completeExpansionNeeded, CompiledValue iterOperands, RuntimeIterator[] indpndntItrs,
@@ -1031,6 +1059,16 @@ public class RangeJunction extends AbstractGroupOrRangeJunction {
       this.greaterCondnKey = greaterCondnKey;
     }
 
+    @Override
+    public int getSizeEstimate(ExecutionContext context) throws FunctionDomainException,
+        TypeMismatchException, NameResolutionException, QueryInvocationTargetException {
+      if (IndexManager.COST_BASED_INDEX_SELECTION && this.indxInfo._index instanceof AbstractIndex) {
+        return ((AbstractIndex) this.indxInfo._index).getSizeEstimate(this.greaterCondnKey,
+            this.greaterCondnOp, this.lessCondnKey, this.lessCondnOp, this.indxInfo._matchLevel);
+      }
+      return super.getSizeEstimate(context);
+    }
+
     @Override
     public SelectResults filterEvaluate(ExecutionContext context, SelectResults iterationLimit)
         throws FunctionDomainException, TypeMismatchException, NameResolutionException,
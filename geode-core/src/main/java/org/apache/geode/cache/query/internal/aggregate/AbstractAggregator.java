@@ -14,14 +14,19 @@
  */
 package org.apache.geode.cache.query.internal.aggregate;
 
-import org.apache.geode.cache.query.Aggregator;
-
 /**
  * Abstract Aggregator class providing support for downcasting the result
  *
  *
  */
-public abstract class AbstractAggregator implements Aggregator {
+public abstract class AbstractAggregator implements BlockAggregator {
+
+  @Override
+  public void accumulateBlock(Object[] values, int from, int to) {
+    for (int i = from; i < to; i++) {
+      accumulate(values[i]);
+    }
+  }
 
   public static Number downCast(double value) {
     Number retVal;
@@ -32,6 +32,11 @@ public class Avg extends Sum {
     }
   }
 
+  @Override
+  public void accumulateBlock(Object[] values, int from, int to) {
+    num += addAll(values, from, to);
+  }
+
   @Override
   public void init() {
 
@@ -34,6 +34,11 @@ public class AvgBucketNode extends Sum {
     }
   }
 
+  @Override
+  public void accumulateBlock(Object[] values, int from, int to) {
+    count += addAll(values, from, to);
+  }
+
   /**
    * Returns a two element array of the total number of values & the computed sum of the values.
    */
@@ -35,6 +35,13 @@ public class AvgPRQueryNode extends Sum {
     super.accumulate(array[1]);
   }
 
+  @Override
+  public void accumulateBlock(Object[] values, int from, int to) {
+    for (int i = from; i < to; i++) {
+      accumulate(values[i]);
+    }
+  }
+
   @Override
   public Object terminate() {
     double sum = ((Number) super.terminate()).doubleValue();
@@ -0,0 +1,32 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.aggregate;
+
+import org.apache.geode.cache.query.Aggregator;
+
+/**
+ * An aggregator that accumulates a block of values at a time, so that the values of a column of a
+ * group can be added up in one loop over local primitive accumulators instead of through a call
+ * per value.
+ *
+ */
+public interface BlockAggregator extends Aggregator {
+
+  /**
+   * Accumulate the values from index from, inclusive, to index to, exclusive, as if each was passed
+   * to {@link #accumulate(Object)} in turn
+   */
+  public void accumulateBlock(Object[] values, int from, int to);
+}
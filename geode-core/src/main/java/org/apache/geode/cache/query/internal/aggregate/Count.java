@@ -14,7 +14,6 @@
  */
 package org.apache.geode.cache.query.internal.aggregate;
 
-import org.apache.geode.cache.query.Aggregator;
 import org.apache.geode.cache.query.QueryService;
 
 /**
@@ -22,7 +21,7 @@ import org.apache.geode.cache.query.QueryService;
  *
  *
  */
-public class Count implements Aggregator {
+public class Count implements BlockAggregator {
   private int count = 0;
 
   @Override
@@ -32,6 +31,18 @@ public class Count implements Aggregator {
     }
   }
 
+  @Override
+  public void accumulateBlock(Object[] values, int from, int to) {
+    int count = this.count;
+    for (int i = from; i < to; i++) {
+      Object value = values[i];
+      if (value != null && value != QueryService.UNDEFINED) {
+        ++count;
+      }
+    }
+    this.count = count;
+  }
+
   @Override
   public void init() {
 
@@ -14,14 +14,13 @@
  */
 package org.apache.geode.cache.query.internal.aggregate;
 
-import org.apache.geode.cache.query.Aggregator;
 
 /**
  * Computes the count of the rows on the PR query node
  *
  *
  */
-public class CountPRQueryNode implements Aggregator {
+public class CountPRQueryNode implements BlockAggregator {
   private int count = 0;
 
   /**
@@ -32,6 +31,15 @@ public class CountPRQueryNode implements Aggregator {
     this.count += ((Integer) value).intValue();
   }
 
+  @Override
+  public void accumulateBlock(Object[] values, int from, int to) {
+    int count = this.count;
+    for (int i = from; i < to; i++) {
+      count += ((Integer) values[i]).intValue();
+    }
+    this.count = count;
+  }
+
   @Override
   public void init() {
 
@@ -14,7 +14,6 @@
  */
 package org.apache.geode.cache.query.internal.aggregate;
 
-import org.apache.geode.cache.query.Aggregator;
 import org.apache.geode.cache.query.QueryService;
 
 /**
@@ -23,7 +22,7 @@ import org.apache.geode.cache.query.QueryService;
  *
  */
 
-public class MaxMin implements Aggregator {
+public class MaxMin implements BlockAggregator {
   private final boolean findMax;
   private Comparable currentOptima;
 
@@ -51,6 +50,13 @@ public class MaxMin implements Aggregator {
 
   }
 
+  @Override
+  public void accumulateBlock(Object[] values, int from, int to) {
+    for (int i = from; i < to; i++) {
+      accumulate(values[i]);
+    }
+  }
+
   @Override
   public void init() {
     // TODO Auto-generated method stub
@@ -23,14 +23,53 @@ import org.apache.geode.cache.query.QueryService;
  */
 public class Sum extends AbstractAggregator {
 
+  /** The sum of the integral values, as long as it does not overflow */
+  private long longResult = 0;
+
   private double result = 0;
 
   @Override
   public void accumulate(Object value) {
-    if (value != null && value != QueryService.UNDEFINED) {
-      Number number = (Number) value;
-      result += number.doubleValue();
+    add(value);
+  }
+
+  @Override
+  public void accumulateBlock(Object[] values, int from, int to) {
+    addAll(values, from, to);
+  }
+
+  /**
+   * Adds up the values in the range that are not null or undefined
+   *
+   * @return the number of values added
+   */
+  protected int addAll(Object[] values, int from, int to) {
+    int added = 0;
+    for (int i = from; i < to; i++) {
+      if (add(values[i])) {
+        added++;
+      }
+    }
+    return added;
+  }
+
+  private boolean add(Object value) {
+    if (value instanceof Integer || value instanceof Long || value instanceof Short
+        || value instanceof Byte) {
+      long longValue = ((Number) value).longValue();
+      long sum = this.longResult + longValue;
+      if (((this.longResult ^ sum) & (longValue ^ sum)) < 0) {
+        // the long sum would overflow
+        this.result += longValue;
+      } else {
+        this.longResult = sum;
+      }
+      return true;
+    } else if (value != null && value != QueryService.UNDEFINED) {
+      this.result += ((Number) value).doubleValue();
+      return true;
     }
+    return false;
   }
 
   @Override
@@ -40,6 +79,6 @@ public class Sum extends AbstractAggregator {
 
   @Override
   public Object terminate() {
-    return downCast(result);
+    return downCast(this.longResult + this.result);
   }
 }
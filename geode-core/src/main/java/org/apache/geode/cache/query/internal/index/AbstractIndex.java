@@ -240,6 +240,16 @@ public abstract class AbstractIndex implements IndexProtocol {
     return this.region;
   }
 
+  /**
+   * Returns the estimated number of values matching both bounds of a closed range. Unless the index
+   * can estimate the range itself this is the smaller of the estimates of the two bounds.
+   */
+  public int getSizeEstimate(Object lowerBoundKey, int lowerBoundOperator, Object upperBoundKey,
+      int upperBoundOperator, int matchLevel) throws TypeMismatchException {
+    return Math.min(getSizeEstimate(lowerBoundKey, lowerBoundOperator, matchLevel),
+        getSizeEstimate(upperBoundKey, upperBoundOperator, matchLevel));
+  }
+
   /**
    * Returns the unique name of this index
    */
@@ -918,6 +928,10 @@ public abstract class AbstractIndex implements IndexProtocol {
     public void incReadLockCount(int delta) {}
 
     public void incNumBucketIndexes(int delta) {}
+
+    KeyHistogram getKeyHistogram() {
+      return null;
+    }
   }
 
   class IMQEvaluator implements IndexedExpressionEvaluator {
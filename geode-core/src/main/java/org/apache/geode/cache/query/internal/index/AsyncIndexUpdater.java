@@ -0,0 +1,470 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.RejectedExecutionException;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.CancelCriterion;
+import org.apache.geode.SystemFailure;
+import org.apache.geode.cache.query.internal.QueryMonitor;
+import org.apache.geode.distributed.internal.DistributionConfig;
+import org.apache.geode.internal.cache.GemfireCacheHelper;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.LoggingThreadGroup;
+
+/**
+ * Maintains the indexes of a region asynchronously, for regions whose index maintenance is not
+ * synchronous. Entry operations are queued separately for each index and applied by a pool of
+ * worker threads shared by all regions, so the indexes of a region are updated in parallel while
+ * each index still sees the operations in the order they were made.
+ *
+ * Writers are held back by {@link #waitForCapacity()} while an index falls too far behind: while it
+ * has as many pending updates as the AsynchIndexMaintenanceThreshold system property allows, or
+ * while its oldest pending update has waited longer than the {@link #MAX_LAG_PROPERTY} system
+ * property allows, in milliseconds. Either bound is disabled unless it is set to a positive value.
+ * Writers wait before they lock the entry they modify, since the workers may need to lock entries
+ * to read their values, so the bounds may be exceeded by the operations already under way. A query
+ * can wait for the updates made before it started with {@link #waitForUpdates()}.
+ */
+public class AsyncIndexUpdater {
+
+  private static final Logger logger = LogService.getLogger();
+
+  public static final String WORKERS_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "index.AsyncMaintenanceWorkers";
+
+  public static final String MAX_LAG_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "index.AsyncMaintenanceMaxLag";
+
+  /** maximum number of updates a worker applies to an index before it yields to other indexes */
+  private static final int BATCH_SIZE = 1000;
+
+  /** how long a blocked writer or query waits before checking for cancellation, in millis */
+  private static final long WAIT_INTERVAL = 100;
+
+  /** guarded by AsyncIndexUpdater.class */
+  private static ThreadPoolExecutor workers;
+
+  /** number of updaters using the workers, guarded by AsyncIndexUpdater.class */
+  private static int numUpdaters;
+
+  private final IndexManager indexManager;
+
+  private final CancelCriterion stopper;
+
+  private final ThreadPoolExecutor executor;
+
+  private final int maxPendingUpdates;
+
+  private final long maxLagNanos;
+
+  private final ConcurrentMap<IndexProtocol, IndexQueue> queues =
+      new ConcurrentHashMap<IndexProtocol, IndexQueue>();
+
+  /**
+   * The removal a thread queues before updating an entry, held until the update so that both are
+   * applied by the same worker; indexes pass state between the two through thread locals.
+   */
+  private final ThreadLocal<IndexUpdate> pendingRemoval = new ThreadLocal<IndexUpdate>();
+
+  /** guarded by this */
+  private int numWaiters;
+
+  /** read by workers without synchronization to skip notifying when nobody waits */
+  private volatile boolean waiting;
+
+  private volatile boolean shutdown;
+
+  AsyncIndexUpdater(IndexManager indexManager, CancelCriterion stopper, int maxPendingUpdates) {
+    this.indexManager = indexManager;
+    this.stopper = stopper;
+    this.maxPendingUpdates = maxPendingUpdates;
+    this.maxLagNanos = TimeUnit.MILLISECONDS.toNanos(Long.getLong(MAX_LAG_PROPERTY, -1));
+    this.executor = acquireWorkers();
+  }
+
+  private static synchronized ThreadPoolExecutor acquireWorkers() {
+    if (workers == null) {
+      int numWorkers =
+          Integer.getInteger(WORKERS_PROPERTY, Runtime.getRuntime().availableProcessors());
+      final LoggingThreadGroup group =
+          LoggingThreadGroup.createThreadGroup("QueryMonitor Thread Group", logger);
+      workers = new ThreadPoolExecutor(numWorkers, numWorkers, 10, TimeUnit.SECONDS,
+          new LinkedBlockingQueue<Runnable>(),
+          GemfireCacheHelper.CreateThreadFactory(group, "OqlIndexUpdater"));
+      workers.allowCoreThreadTimeOut(true);
+    }
+    numUpdaters++;
+    return workers;
+  }
+
+  private static void releaseWorkers() {
+    ThreadPoolExecutor idleWorkers;
+    synchronized (AsyncIndexUpdater.class) {
+      if (--numUpdaters > 0) {
+        return;
+      }
+      idleWorkers = workers;
+      workers = null;
+    }
+    idleWorkers.shutdownNow();
+    try {
+      idleWorkers.awaitTermination(WAIT_INTERVAL * 10, TimeUnit.MILLISECONDS);
+    } catch (InterruptedException ignore) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  /**
+   * Queues an entry operation for each of the given indexes. Called with the entry locked, so it
+   * must not wait for the workers.
+   *
+   * @param opCode one of IndexProtocol.OTHER_OP, BEFORE_UPDATE_OP, AFTER_UPDATE_OP.
+   */
+  void addUpdate(RegionEntry entry, int action, int opCode, Collection<IndexProtocol> indexes) {
+    IndexUpdate removal = this.pendingRemoval.get();
+    if (removal != null) {
+      this.pendingRemoval.remove();
+      if (removal.entry == entry && action == IndexManager.UPDATE_ENTRY) {
+        enqueue(new IndexUpdate(action, entry, opCode, removal), indexes);
+        return;
+      }
+      enqueue(removal, indexes);
+    }
+    if (action == IndexManager.REMOVE_ENTRY && opCode == IndexProtocol.BEFORE_UPDATE_OP) {
+      this.pendingRemoval.set(new IndexUpdate(action, entry, opCode, null));
+      return;
+    }
+    enqueue(new IndexUpdate(action, entry, opCode, null), indexes);
+  }
+
+  /**
+   * Queues the recreation of the given indexes, after the updates queued for them so far
+   */
+  void recreateIndexes(Collection<IndexProtocol> indexes) {
+    enqueue(new IndexUpdate(IndexManager.RECREATE_INDEX, null, IndexProtocol.OTHER_OP, null),
+        indexes);
+  }
+
+  private void enqueue(IndexUpdate update, Collection<IndexProtocol> indexes) {
+    if (indexes.isEmpty()) {
+      return;
+    }
+    List<IndexQueue> targets = new ArrayList<IndexQueue>(indexes.size());
+    for (IndexProtocol index : indexes) {
+      IndexQueue queue = this.queues.get(index);
+      if (queue == null) {
+        queue = new IndexQueue(index);
+        IndexQueue existing = this.queues.putIfAbsent(index, queue);
+        if (existing != null) {
+          queue = existing;
+        }
+      }
+      targets.add(queue);
+    }
+    update.setRemainingQueues(targets.size());
+    for (IndexQueue queue : targets) {
+      queue.add(update);
+    }
+  }
+
+  /**
+   * Discards the removal queued by this thread for an update that did not complete. Called once
+   * the entry operation is over, so that the removal is not applied along with a later update.
+   */
+  void clearPendingRemoval() {
+    this.pendingRemoval.remove();
+  }
+
+  /**
+   * Holds back the writer while any index is too far behind. Must be called before the writer
+   * locks the entry it modifies.
+   */
+  void waitForCapacity() {
+    for (IndexQueue queue : this.queues.values()) {
+      waitForCapacity(queue);
+    }
+  }
+
+  private void waitForCapacity(IndexQueue queue) {
+    if (!queue.isBehind()) {
+      return;
+    }
+    synchronized (this) {
+      this.numWaiters++;
+      this.waiting = true;
+      try {
+        while (queue.isBehind() && !this.shutdown && !queue.removed) {
+          this.stopper.checkCancelInProgress(null);
+          waitForWorkers();
+        }
+      } finally {
+        if (--this.numWaiters == 0) {
+          this.waiting = false;
+        }
+      }
+    }
+  }
+
+  /**
+   * Waits until the updates queued so far have been applied to the indexes. Called by queries that
+   * must see every change made before they were executed.
+   */
+  public void waitForUpdates() {
+    List<IndexQueue> targets = new ArrayList<IndexQueue>(this.queues.values());
+    long[] added = new long[targets.size()];
+    for (int i = 0; i < added.length; i++) {
+      added[i] = targets.get(i).added.get();
+    }
+    for (int i = 0; i < added.length; i++) {
+      IndexQueue queue = targets.get(i);
+      if (queue.applied >= added[i]) {
+        continue;
+      }
+      synchronized (this) {
+        this.numWaiters++;
+        this.waiting = true;
+        try {
+          while (queue.applied < added[i] && !this.shutdown && !queue.removed) {
+            QueryMonitor.isQueryExecutionCanceled();
+            this.stopper.checkCancelInProgress(null);
+            waitForWorkers();
+          }
+        } finally {
+          if (--this.numWaiters == 0) {
+            this.waiting = false;
+          }
+        }
+      }
+    }
+  }
+
+  /** must be called while synchronized on this */
+  private void waitForWorkers() {
+    boolean interrupted = Thread.interrupted();
+    try {
+      wait(WAIT_INTERVAL);
+    } catch (InterruptedException ignored) {
+      interrupted = true;
+    } finally {
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void notifyWaiters() {
+    if (this.waiting) {
+      synchronized (this) {
+        notifyAll();
+      }
+    }
+  }
+
+  /**
+   * Discards the updates queued for an index that is removed from the region
+   */
+  void removeIndex(IndexProtocol index) {
+    IndexQueue queue = this.queues.remove(index);
+    if (queue != null) {
+      queue.discard();
+    }
+  }
+
+  /**
+   * Used by tests to determine if all queued updates have been applied
+   */
+  public boolean isDone() {
+    for (IndexQueue queue : this.queues.values()) {
+      if (queue.applied < queue.added.get()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Discards the pending updates and stops using the workers
+   */
+  void shutdown() {
+    if (this.shutdown) {
+      return;
+    }
+    this.shutdown = true;
+    for (IndexQueue queue : this.queues.values()) {
+      queue.discard();
+    }
+    this.queues.clear();
+    synchronized (this) {
+      notifyAll();
+    }
+    releaseWorkers();
+  }
+
+  /**
+   * An entry operation queued for one or more indexes
+   */
+  private static class IndexUpdate {
+    final int action;
+    final RegionEntry entry;
+    final int opCode;
+    /** the removal of the old value that precedes an update of the entry, or null */
+    final IndexUpdate removal;
+    final long queuedTime = System.nanoTime();
+    private final AtomicInteger remainingQueues = new AtomicInteger();
+
+    IndexUpdate(int action, RegionEntry entry, int opCode, IndexUpdate removal) {
+      this.action = action;
+      this.entry = entry;
+      this.opCode = opCode;
+      this.removal = removal;
+    }
+
+    /**
+     * Marks the entry as being updated, which queries check for, until every index has applied
+     * the operation
+     */
+    void setRemainingQueues(int numQueues) {
+      this.remainingQueues.set(numQueues);
+      if (this.entry != null) {
+        this.entry.setUpdateInProgress(true);
+      }
+    }
+
+    void applied() {
+      if (this.remainingQueues.decrementAndGet() == 0 && this.entry != null) {
+        this.entry.setUpdateInProgress(false);
+      }
+    }
+  }
+
+  /**
+   * The updates pending for one index, applied in order by at most one worker at a time
+   */
+  private class IndexQueue implements Runnable {
+    private final IndexProtocol index;
+    private final ConcurrentLinkedQueue<IndexUpdate> updates =
+        new ConcurrentLinkedQueue<IndexUpdate>();
+    /** number of updates ever added */
+    final AtomicLong added = new AtomicLong();
+    /** number of updates applied or discarded, only written by the worker running this queue */
+    volatile long applied;
+    private final AtomicBoolean scheduled = new AtomicBoolean();
+    volatile boolean removed;
+
+    IndexQueue(IndexProtocol index) {
+      this.index = index;
+    }
+
+    void add(IndexUpdate update) {
+      this.updates.add(update);
+      this.added.incrementAndGet();
+      schedule();
+    }
+
+    boolean isBehind() {
+      if (maxPendingUpdates > 0 && this.added.get() - this.applied >= maxPendingUpdates) {
+        return true;
+      }
+      if (maxLagNanos > 0) {
+        IndexUpdate oldest = this.updates.peek();
+        return oldest != null && System.nanoTime() - oldest.queuedTime > maxLagNanos;
+      }
+      return false;
+    }
+
+    private void schedule() {
+      if (this.scheduled.compareAndSet(false, true)) {
+        try {
+          executor.execute(this);
+        } catch (RejectedExecutionException e) {
+          // the workers are shut down along with the last region using them
+          this.scheduled.set(false);
+        }
+      }
+    }
+
+    @Override
+    public void run() {
+      try {
+        for (int i = 0; i < BATCH_SIZE && !this.removed && !shutdown; i++) {
+          SystemFailure.checkFailure();
+          if (stopper.isCancelInProgress()) {
+            break;
+          }
+          IndexUpdate update = this.updates.poll();
+          if (update == null) {
+            break;
+          }
+          try {
+            apply(update);
+          } finally {
+            update.applied();
+            this.applied++;
+            notifyWaiters();
+          }
+        }
+      } finally {
+        this.scheduled.set(false);
+      }
+      if (!this.updates.isEmpty() && !this.removed && !shutdown) {
+        schedule();
+      }
+    }
+
+    private void apply(IndexUpdate update) {
+      try {
+        if (update.action == IndexManager.RECREATE_INDEX) {
+          indexManager.recreateIndex(this.index);
+          return;
+        }
+        if (update.removal != null) {
+          indexManager.processAsyncAction(this.index, update.removal.entry,
+              update.removal.action, update.removal.opCode);
+        }
+        indexManager.processAsyncAction(this.index, update.entry, update.action, update.opCode);
+      } catch (Exception e) {
+        logger.warn("Asynchronous update of index {} failed", this.index.getName(), e);
+      }
+    }
+
+    /**
+     * Discards the pending updates so that nobody waits for them
+     */
+    void discard() {
+      this.removed = true;
+      IndexUpdate update;
+      while ((update = this.updates.poll()) != null) {
+        update.applied();
+      }
+      notifyWaiters();
+    }
+  }
+}
@@ -15,7 +15,9 @@
 package org.apache.geode.cache.query.internal.index;
 
 import java.util.ArrayList;
+import java.util.Arrays;
 import java.util.Collection;
+import java.util.Comparator;
 import java.util.HashSet;
 import java.util.Iterator;
 import java.util.List;
@@ -56,7 +58,6 @@ import org.apache.geode.cache.query.internal.StructImpl;
 import org.apache.geode.cache.query.internal.Support;
 import org.apache.geode.cache.query.internal.index.IndexManager.TestHook;
 import org.apache.geode.cache.query.internal.index.IndexStore.IndexStoreEntry;
-import org.apache.geode.cache.query.internal.index.MemoryIndexStore.MemoryIndexStoreEntry;
 import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
 import org.apache.geode.cache.query.internal.types.StructTypeImpl;
 import org.apache.geode.cache.query.internal.types.TypeUtils;
@@ -95,6 +96,12 @@ public class CompactRangeIndex extends AbstractIndex {
 
   static boolean TEST_ALWAYS_UPDATE_IN_PROGRESS = false;
 
+  /**
+   * Number of mappings buffered while the index is built, then added to the index store sorted by
+   * key so that the store is filled in key order rather than in region order.
+   */
+  private static final int INIT_BATCH_SIZE = 4096;
+
   public CompactRangeIndex(String indexName, Region region, String fromClause,
       String indexedExpression, String projectionAttributes, String origFromClause,
       String origIndexExpr, String[] definitions, IndexStatistics stats) {
@@ -103,6 +110,8 @@ public class CompactRangeIndex extends AbstractIndex {
     if (IndexManager.IS_TEST_LDM) {
       indexStore = new MapIndexStore(
           ((LocalRegion) region).getIndexMap(indexName, indexedExpression, origFromClause), region);
+    } else if (IndexManager.PACKED_INDEX_STORE) {
+      indexStore = new PackedIndexStore(region, internalIndexStats);
     } else {
       indexStore = new MemoryIndexStore(region, internalIndexStats);
     }
@@ -185,11 +194,10 @@ public class CompactRangeIndex extends AbstractIndex {
     Iterator inner = null;
     try {
       // We will iterate over each of the index Map to obtain the keys
-      outer = ((MemoryIndexStore) indexStore).getKeysIterator();
+      outer = getKeysIterator(indexStore);
 
       if (indx instanceof CompactRangeIndex) {
-        IndexStore indexStore = ((CompactRangeIndex) indx).getIndexStorage();
-        inner = ((MemoryIndexStore) indexStore).getKeysIterator();
+        inner = getKeysIterator(((CompactRangeIndex) indx).getIndexStorage());
 
       } else {
         inner = ((RangeIndex) indx).getValueToEntriesMap().entrySet().iterator();
@@ -261,13 +269,20 @@ public class CompactRangeIndex extends AbstractIndex {
     }
   }
 
+  private static Iterator<IndexStoreEntry> getKeysIterator(IndexStore indexStore) {
+    if (indexStore instanceof PackedIndexStore) {
+      return ((PackedIndexStore) indexStore).getKeysIterator();
+    }
+    return ((MemoryIndexStore) indexStore).getKeysIterator();
+  }
+
   /**
    * This evaluates the left and right side of a EQUI-JOIN where condition for which this Index was
    * used. Like, if condition is "p.ID = e.ID", {@link IndexInfo} will contain Left as p.ID, Right
    * as e.ID and operator as TOK_EQ. This method will evaluate p.ID OR e.ID based on if it is inner
    * or outer RegionEntry, and verify the p.ID = e.ID.
    *
-   * This method is called only for Memory indexstore
+   * This method is called only for in-memory index stores
    *
    * @return true if entry value and index value are consistent.
    */
@@ -278,7 +293,7 @@ public class CompactRangeIndex extends AbstractIndex {
     CompactRangeIndex index = (CompactRangeIndex) indexInfo._getIndex();
     RuntimeIterator runtimeItr = index.getRuntimeIteratorForThisIndex(context, indexInfo);
     if (runtimeItr != null) {
-      runtimeItr.setCurrent(((MemoryIndexStoreEntry) entry).getDeserializedValue());
+      runtimeItr.setCurrent(entry.getDeserializedValue());
     }
     return evaluateEntry(indexInfo, context, keyVal);
   }
@@ -308,6 +323,10 @@ public class CompactRangeIndex extends AbstractIndex {
           break;
         case OQLLexerTokenTypes.TOK_LE:
         case OQLLexerTokenTypes.TOK_LT:
+          if (matchLevel <= 0 && (key instanceof Number)
+              && (size = getHistogramSizeEstimate((Number) key, operator)) >= 0) {
+            break;
+          }
           if (matchLevel <= 0 && (key instanceof Number)) {
 
             int totalSize = indexStore.size();
@@ -372,6 +391,10 @@ public class CompactRangeIndex extends AbstractIndex {
 
         case OQLLexerTokenTypes.TOK_GE:
         case OQLLexerTokenTypes.TOK_GT:
+          if (matchLevel <= 0 && (key instanceof Number)
+              && (size = getHistogramSizeEstimate((Number) key, operator)) >= 0) {
+            break;
+          }
           if (matchLevel <= 0 && (key instanceof Number)) {
             int totalSize = indexStore.size();
             if (CompactRangeIndex.testHook != null) {
@@ -442,6 +465,69 @@ public class CompactRangeIndex extends AbstractIndex {
     return size;
   }
 
+  @Override
+  public int getSizeEstimate(Object lowerBoundKey, int lowerBoundOperator, Object upperBoundKey,
+      int upperBoundOperator, int matchLevel) throws TypeMismatchException {
+    if (matchLevel <= 0 && lowerBoundKey instanceof Number && upperBoundKey instanceof Number) {
+      long start = updateIndexUseStats(false);
+      try {
+        int notBelow = getHistogramSizeEstimate((Number) lowerBoundKey, lowerBoundOperator);
+        int notAbove = getHistogramSizeEstimate((Number) upperBoundKey, upperBoundOperator);
+        if (notBelow >= 0 && notAbove >= 0) {
+          // the values in the range are those neither below nor above it
+          long total = getKeyHistogram().getTotal();
+          return (int) Math.max(0, Math.min(Integer.MAX_VALUE, notBelow + notAbove - total));
+        }
+      } catch (ClassCastException e) {
+        return 0;
+      } finally {
+        updateIndexUseEndStats(start, false);
+      }
+    }
+    return super.getSizeEstimate(lowerBoundKey, lowerBoundOperator, upperBoundKey,
+        upperBoundOperator, matchLevel);
+  }
+
+  private KeyHistogram getKeyHistogram() {
+    return this.indexStore instanceof MemoryIndexStore
+        ? ((MemoryIndexStore) this.indexStore).getKeyHistogram() : null;
+  }
+
+  /**
+   * Estimates the number of values matching an inequality on a numeric key from the histogram of
+   * the keys, or returns -1 if the index keeps no histogram.
+   */
+  private int getHistogramSizeEstimate(Number key, int operator) throws TypeMismatchException {
+    KeyHistogram histogram = getKeyHistogram();
+    if (histogram == null) {
+      return -1;
+    }
+    long below = histogram.estimateLessThan(key.doubleValue());
+    long total = histogram.getTotal();
+    if (below < 0 || total < 0) {
+      return -1;
+    }
+    long atKey = indexStore.size(getPdxStringForIndexedPdxKeys(TypeUtils.indexKeyFor(key)));
+    long estimate;
+    switch (operator) {
+      case OQLLexerTokenTypes.TOK_LT:
+        estimate = below;
+        break;
+      case OQLLexerTokenTypes.TOK_LE:
+        estimate = below + atKey;
+        break;
+      case OQLLexerTokenTypes.TOK_GE:
+        estimate = total - below;
+        break;
+      case OQLLexerTokenTypes.TOK_GT:
+        estimate = total - below - atKey;
+        break;
+      default:
+        return -1;
+    }
+    return (int) Math.max(0, Math.min(Integer.MAX_VALUE, estimate));
+  }
+
   /** Method called while appropriate lock held on index */
   private void lockedQueryPrivate(Object key, int operator, Collection results,
       CompiledValue iterOps, RuntimeIterator runtimeItr, ExecutionContext context, Set keysToRemove,
@@ -1008,6 +1094,11 @@ public class CompactRangeIndex extends AbstractIndex {
       this.vsdStats.incReadLockCount(delta);
     }
 
+    @Override
+    KeyHistogram getKeyHistogram() {
+      return this.vsdStats.getKeyHistogram();
+    }
+
     /**
      * Returns the total amount of time (in nanoseconds) spent updating this index.
      */
@@ -1065,6 +1156,28 @@ public class CompactRangeIndex extends AbstractIndex {
     }
   }
 
+  /**
+   * An index key and region entry to add to the index store once the keys are sorted
+   */
+  private static class InitMapping {
+    static final Comparator<InitMapping> KEY_ORDER = new Comparator<InitMapping>() {
+      private final Comparator keyComparator = TypeUtils.getExtendedNumericComparator();
+
+      @Override
+      public int compare(InitMapping mapping1, InitMapping mapping2) {
+        return this.keyComparator.compare(mapping1.indexKey, mapping2.indexKey);
+      }
+    };
+
+    final Object indexKey;
+    final RegionEntry entry;
+
+    InitMapping(Object indexKey, RegionEntry entry) {
+      this.indexKey = indexKey;
+      this.entry = entry;
+    }
+  }
+
   class IMQEvaluator implements IndexedExpressionEvaluator {
     private InternalCache cache;
     private List fromIterators = null;
@@ -1105,6 +1218,9 @@ public class CompactRangeIndex extends AbstractIndex {
     private boolean hasIndxUpdateOccurredOnce = false;
     private ExecutionContext initContext = null;
     private int iteratorSize = -1;
+    // Mappings not yet added to the index store while the index is built
+    private InitMapping[] initMappings = null;
+    private int numInitMappings = 0;
 
     /** Creates a new instance of IMQEvaluator */
     IMQEvaluator(IndexCreationHelper helper) {
@@ -1395,17 +1511,40 @@ public class CompactRangeIndex extends AbstractIndex {
           this.indexResultSetType = createIndexResultSetType();
         }
         if (loadEntries) {
+          this.initMappings = new InitMapping[INIT_BATCH_SIZE];
           doNestedIterationsForIndexInit(0, this.initContext.getCurrentIterators());
+          addInitMappings();
         }
       } catch (IMQException imqe) {
         throw imqe;
       } catch (Exception e) {
         throw new IMQException(e);
       } finally {
+        this.initMappings = null;
+        this.numInitMappings = 0;
         this.initContext.popScope();
       }
     }
 
+    /**
+     * Adds the buffered mappings to the index store in key order. The keys are sorted with the
+     * comparator of the index store, and left in region order if they cannot be compared.
+     */
+    private void addInitMappings() throws IMQException {
+      InitMapping[] mappings = Arrays.copyOf(this.initMappings, this.numInitMappings);
+      try {
+        Arrays.sort(mappings, InitMapping.KEY_ORDER);
+      } catch (RuntimeException ignore) {
+        // keys of different types; a failed sort may have left the copy incomplete
+        mappings = Arrays.copyOf(this.initMappings, this.numInitMappings);
+      }
+      for (InitMapping mapping : mappings) {
+        indexStore.addMapping(mapping.indexKey, mapping.entry);
+      }
+      Arrays.fill(this.initMappings, 0, this.numInitMappings, null);
+      this.numInitMappings = 0;
+    }
+
     private void doNestedIterationsForIndexInit(int level, List runtimeIterators)
         throws TypeMismatchException, AmbiguousNameException, FunctionDomainException,
         NameResolutionException, QueryInvocationTargetException, IMQException {
@@ -1470,7 +1609,10 @@ public class CompactRangeIndex extends AbstractIndex {
             .evaluate(this.initContext));
       }
       RegionEntry re = temp.getRegionEntry();
-      indexStore.addMapping(indexKey, re);
+      if (this.numInitMappings == this.initMappings.length) {
+        addInitMappings();
+      }
+      this.initMappings[this.numInitMappings++] = new InitMapping(indexKey, re);
     }
 
     /**
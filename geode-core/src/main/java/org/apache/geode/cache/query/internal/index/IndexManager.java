@@ -23,20 +23,16 @@ import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ArrayBlockingQueue;
-import java.util.concurrent.BlockingQueue;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.Future;
 import java.util.concurrent.FutureTask;
-import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.atomic.AtomicLong;
 
 import org.apache.logging.log4j.Logger;
 
-import org.apache.geode.SystemFailure;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.query.AmbiguousNameException;
 import org.apache.geode.cache.query.Index;
@@ -74,7 +70,6 @@ import org.apache.geode.internal.cache.TXManagerImpl;
 import org.apache.geode.internal.cache.TXStateProxy;
 import org.apache.geode.internal.i18n.LocalizedStrings;
 import org.apache.geode.internal.logging.LogService;
-import org.apache.geode.internal.logging.LoggingThreadGroup;
 
 public class IndexManager {
   private static final Logger logger = LogService.getLogger();
@@ -94,6 +89,12 @@ public class IndexManager {
   private int numUpdatersInProgress = 0;
   private int numUpdatersInWaiting = 0;
   private int iternameCounter = 0;
+  /**
+   * True while the region is bulk loaded, during which entry operations do not update the indexes;
+   * the indexes are rebuilt from the region once the load finishes. Only changed while no updater
+   * is in progress.
+   */
+  private volatile boolean bulkLoadInProgress = false;
   /*
    * Map containing <IndexTask, FutureTask<IndexTask> or Index>. IndexTask represents an index thats
    * completely created or one thats in create phase. This is done in order to avoid synchronization
@@ -102,7 +103,7 @@ public class IndexManager {
   private final ConcurrentMap indexes = new ConcurrentHashMap();
   // TODO Asif : Fix the appropriate size of the Map & the concurrency level
   private ConcurrentMap canonicalizedIteratorNameMap = new ConcurrentHashMap();
-  private IndexUpdaterThread updater;
+  private AsyncIndexUpdater asyncUpdater;
 
   // Threshold for Queue.
   private final int INDEX_MAINTENANCE_BUFFER =
@@ -138,6 +139,23 @@ public class IndexManager {
 
   /** For test purpose only */
   public static boolean TEST_RANGEINDEX_ONLY = false;
+
+  /**
+   * System property to choose between index intersection, a single index followed by filtering and a
+   * full scan from estimated costs, and to keep key histograms in the index statistics for the
+   * estimates. Only indexes created while it is set keep histograms.
+   */
+  public static boolean COST_BASED_INDEX_SELECTION =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "index.costBasedSelection");
+
+  /**
+   * System property to keep the Integer, Long and String keys of compact range indexes in packed
+   * sorted arrays instead of a skip list of boxed keys, which takes much less heap for indexes on
+   * large regions. Only indexes created while it is set use the packed storage.
+   */
+  public static boolean PACKED_INDEX_STORE =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "index.packedStore");
+
   public static final String INDEX_ELEMARRAY_THRESHOLD_PROP = "index_elemarray_threshold";
   public static final String INDEX_ELEMARRAY_SIZE_PROP = "index_elemarray_size";
   public static final int INDEX_ELEMARRAY_THRESHOLD =
@@ -166,11 +184,8 @@ public class IndexManager {
         region.getAttributes().getEvictionAttributes().getAction().isOverflowToDisk();
     this.offHeap = region.getAttributes().getOffHeap();
     if (!indexMaintenanceSynchronous) {
-      final LoggingThreadGroup group =
-          LoggingThreadGroup.createThreadGroup("QueryMonitor Thread Group", logger);
-      updater = new IndexUpdaterThread(group, this.INDEX_MAINTENANCE_BUFFER,
-          "OqlIndexUpdater:" + region.getFullPath());
-      updater.start();
+      asyncUpdater = new AsyncIndexUpdater(this, ((LocalRegion) region).getCancelCriterion(),
+          this.INDEX_MAINTENANCE_BUFFER);
     }
   }
 
@@ -244,10 +259,20 @@ public class IndexManager {
   }
 
   /**
-   * Used by tests to access the updater thread to determine its progress
+   * Used by tests to access the asynchronous updater to determine its progress
    */
-  public IndexUpdaterThread getUpdaterThread() {
-    return this.updater;
+  public AsyncIndexUpdater getAsyncIndexUpdater() {
+    return this.asyncUpdater;
+  }
+
+  /**
+   * Waits until the indexes reflect the entry operations made so far, when they are maintained
+   * asynchronously.
+   */
+  public void waitForAsyncUpdates() {
+    if (this.asyncUpdater != null) {
+      this.asyncUpdater.waitForUpdates();
+    }
   }
 
   // @todo need more specific list of exceptions
@@ -843,6 +868,9 @@ public class IndexManager {
     if (this.indexes.remove(indexTask) != null) {
       AbstractIndex indexHandle = (AbstractIndex) index;
       indexHandle.destroy();
+      if (this.asyncUpdater != null) {
+        this.asyncUpdater.removeIndex(indexHandle);
+      }
     }
   }
 
@@ -865,6 +893,9 @@ public class IndexManager {
       numIndexes++;
       IndexTask indexTask = (IndexTask) entry.getKey();
       this.indexes.remove(indexTask);
+      if (this.asyncUpdater != null) {
+        this.asyncUpdater.removeIndex((IndexProtocol) ind);
+      }
     }
     return numIndexes;
   }
@@ -891,8 +922,7 @@ public class IndexManager {
     if (isIndexMaintenanceTypeSynchronous()) {
       recreateAllIndexesForRegion();
     } else {
-      // System.out.println("Aynchronous update");
-      updater.addTask(RECREATE_INDEX, null, IndexProtocol.OTHER_OP);
+      asyncUpdater.recreateIndexes(getMaintainedIndexes());
     }
   }
 
@@ -989,12 +1019,15 @@ public class IndexManager {
     }
     if (entry == null)
       return;
+    if (this.bulkLoadInProgress) {
+      // the indexes are rebuilt once the bulk load finishes
+      return;
+    }
     if (isIndexMaintenanceTypeSynchronous()) {
       // System.out.println("Synchronous update");
       processAction(entry, action, opCode);
     } else {
-      // System.out.println("Aynchronous update");
-      updater.addTask(action, entry, opCode);
+      asyncUpdater.addUpdate(entry, action, opCode, getMaintainedIndexes());
     }
   }
 
@@ -1023,8 +1056,6 @@ public class IndexManager {
         testHook.hook(6); // ConcurrentIndexInitOnOverflowRegionDUnitTest
       }
 
-      long start = 0;
-      boolean indexLockAcquired = false;
       switch (action) {
         case ADD_ENTRY: {
           if (IndexManager.testHook != null) {
@@ -1035,41 +1066,6 @@ public class IndexManager {
           }
           // this action is only called after update
           assert opCode == IndexProtocol.OTHER_OP;
-
-          // Asif The behaviour can arise if an index creation has already
-          // acted upon a newly added entry , but by the time callback
-          // occurs , the index is added to the map & thus
-          // the add operation will now have an effect of update.
-          // so we need to remove the mapping even if it is an Add action
-          // as otherwise the new results will get added into the
-          // old results instead of replacement
-          Iterator iter = this.indexes.values().iterator();
-          while (iter.hasNext()) {
-            Object ind = iter.next();
-            // Check if the value is instance of FutureTask, this means
-            // the index is in create phase.
-            if (ind instanceof FutureTask) {
-              continue;
-            }
-            IndexProtocol index = (IndexProtocol) ind;
-
-            if (index.isValid() && ((AbstractIndex) index).isPopulated()
-                && index.getType() != IndexType.PRIMARY_KEY) {
-              // Asif : If the current Index contains an entry inspite
-              // of add operation , this can only mean that Index
-              // has already acted on it during creation, so do not
-              // apply IMQ on it
-              if (!index.containsEntry(entry)) {
-                if (logger.isDebugEnabled()) {
-                  logger.debug("Adding to index: {}{} value: {}", index.getName(),
-                      this.region.getFullPath(), entry.getKey());
-                }
-                start = ((AbstractIndex) index).updateIndexUpdateStats();
-                addIndexMapping(entry, index);
-                ((AbstractIndex) index).updateIndexUpdateStats(start);
-              }
-            }
-          }
           break;
         }
         case UPDATE_ENTRY: {
@@ -1084,28 +1080,6 @@ public class IndexManager {
 
           // this action is only called with opCode AFTER_UPDATE_OP
           assert opCode == IndexProtocol.AFTER_UPDATE_OP;
-          Iterator iter = this.indexes.values().iterator();
-          while (iter.hasNext()) {
-            Object ind = iter.next();
-            // Check if the value is instance of FutureTask, this means
-            // the index is in create phase.
-            if (ind instanceof FutureTask) {
-              continue;
-            }
-            IndexProtocol index = (IndexProtocol) ind;
-
-            if (((AbstractIndex) index).isPopulated() && index.getType() != IndexType.PRIMARY_KEY) {
-              if (logger.isDebugEnabled()) {
-                logger.debug("Updating index: {}{} value: {}", index.getName(),
-                    this.region.getFullPath(), entry.getKey());
-              }
-              start = ((AbstractIndex) index).updateIndexUpdateStats();
-
-              addIndexMapping(entry, index);
-
-              ((AbstractIndex) index).updateIndexUpdateStats(start);
-            }
-          }
           break;
         }
         case REMOVE_ENTRY: {
@@ -1117,29 +1091,6 @@ public class IndexManager {
             testHook.hook(5);
             testHook.hook(10);
           }
-          Iterator iter = this.indexes.values().iterator();
-          while (iter.hasNext()) {
-            Object ind = iter.next();
-            // Check if the value is instance of FutureTask, this means
-            // the index is in create phase.
-            if (ind instanceof FutureTask) {
-              continue;
-            }
-            IndexProtocol index = (IndexProtocol) ind;
-
-            if (((AbstractIndex) index).isPopulated() && index.getType() != IndexType.PRIMARY_KEY) {
-              AbstractIndex abstractIndex = (AbstractIndex) index;
-              if (logger.isDebugEnabled()) {
-                logger.debug("Removing from index: {}{} value: {}", index.getName(),
-                    this.region.getFullPath(), entry.getKey());
-              }
-              start = ((AbstractIndex) index).updateIndexUpdateStats();
-
-              index.removeIndexMapping(entry, opCode);
-
-              ((AbstractIndex) index).updateIndexUpdateStats(start);
-            }
-          }
           break;
         }
         default: {
@@ -1147,6 +1098,16 @@ public class IndexManager {
               LocalizedStrings.IndexManager_INVALID_ACTION.toLocalizedString());
         }
       }
+      Iterator iter = this.indexes.values().iterator();
+      while (iter.hasNext()) {
+        Object ind = iter.next();
+        // Check if the value is instance of FutureTask, this means
+        // the index is in create phase.
+        if (ind instanceof FutureTask) {
+          continue;
+        }
+        updateIndex((IndexProtocol) ind, entry, action, opCode);
+      }
     } finally {
       DefaultQuery.setPdxReadSerialized(this.region.getCache(), false);
       if (tx != null) {
@@ -1157,6 +1118,104 @@ public class IndexManager {
     }
   }
 
+  /**
+   * Applies an entry operation queued by the {@link AsyncIndexUpdater} to one of the indexes
+   *
+   * @param opCode one of IndexProtocol.OTHER_OP, BEFORE_UPDATE_OP, AFTER_UPDATE_OP.
+   */
+  void processAsyncAction(IndexProtocol index, RegionEntry entry, int action, int opCode)
+      throws QueryException {
+    final long startPA = getCachePerfStats().startIndexUpdate();
+    DefaultQuery.setPdxReadSerialized(this.region.getCache(), true);
+    try {
+      updateIndex(index, entry, action, opCode);
+    } finally {
+      DefaultQuery.setPdxReadSerialized(this.region.getCache(), false);
+      getCachePerfStats().endIndexUpdate(startPA);
+    }
+  }
+
+  /**
+   * @param opCode one of IndexProtocol.OTHER_OP, BEFORE_UPDATE_OP, AFTER_UPDATE_OP.
+   */
+  private void updateIndex(IndexProtocol index, RegionEntry entry, int action, int opCode)
+      throws QueryException {
+    long start = 0;
+    switch (action) {
+      case ADD_ENTRY: {
+        // Asif The behaviour can arise if an index creation has already
+        // acted upon a newly added entry , but by the time callback
+        // occurs , the index is added to the map & thus
+        // the add operation will now have an effect of update.
+        // so we need to remove the mapping even if it is an Add action
+        // as otherwise the new results will get added into the
+        // old results instead of replacement
+        if (index.isValid() && ((AbstractIndex) index).isPopulated()
+            && index.getType() != IndexType.PRIMARY_KEY) {
+          // Asif : If the current Index contains an entry inspite
+          // of add operation , this can only mean that Index
+          // has already acted on it during creation, so do not
+          // apply IMQ on it
+          if (!index.containsEntry(entry)) {
+            if (logger.isDebugEnabled()) {
+              logger.debug("Adding to index: {}{} value: {}", index.getName(),
+                  this.region.getFullPath(), entry.getKey());
+            }
+            start = ((AbstractIndex) index).updateIndexUpdateStats();
+            addIndexMapping(entry, index);
+            ((AbstractIndex) index).updateIndexUpdateStats(start);
+          }
+        }
+        break;
+      }
+      case UPDATE_ENTRY: {
+        if (((AbstractIndex) index).isPopulated() && index.getType() != IndexType.PRIMARY_KEY) {
+          if (logger.isDebugEnabled()) {
+            logger.debug("Updating index: {}{} value: {}", index.getName(),
+                this.region.getFullPath(), entry.getKey());
+          }
+          start = ((AbstractIndex) index).updateIndexUpdateStats();
+
+          addIndexMapping(entry, index);
+
+          ((AbstractIndex) index).updateIndexUpdateStats(start);
+        }
+        break;
+      }
+      case REMOVE_ENTRY: {
+        if (((AbstractIndex) index).isPopulated() && index.getType() != IndexType.PRIMARY_KEY) {
+          if (logger.isDebugEnabled()) {
+            logger.debug("Removing from index: {}{} value: {}", index.getName(),
+                this.region.getFullPath(), entry.getKey());
+          }
+          start = ((AbstractIndex) index).updateIndexUpdateStats();
+
+          index.removeIndexMapping(entry, opCode);
+
+          ((AbstractIndex) index).updateIndexUpdateStats(start);
+        }
+        break;
+      }
+      default: {
+        throw new IndexMaintenanceException(
+            LocalizedStrings.IndexManager_INVALID_ACTION.toLocalizedString());
+      }
+    }
+  }
+
+  /**
+   * Returns the indexes that are maintained entry by entry, leaving out the indexes being created
+   */
+  private List<IndexProtocol> getMaintainedIndexes() {
+    List<IndexProtocol> maintained = new ArrayList<IndexProtocol>(this.indexes.size());
+    for (Object ind : this.indexes.values()) {
+      if (!(ind instanceof FutureTask) && ((Index) ind).getType() != IndexType.PRIMARY_KEY) {
+        maintained.add((IndexProtocol) ind);
+      }
+    }
+    return maintained;
+  }
+
   private void addIndexMapping(RegionEntry entry, IndexProtocol index) throws IMQException {
     try {
       index.addIndexMapping(entry);
@@ -1213,6 +1272,50 @@ public class IndexManager {
     }
   }
 
+  /**
+   * Starts loading many entries into the region, such as its initial image, without updating the
+   * indexes entry by entry. The indexes are rebuilt from the region by {@link #finishBulkLoad()},
+   * which must be called once the entries are loaded. Rebuilding the indexes is cheaper than
+   * updating them for every entry only while the region is being initialized, so this does nothing
+   * unless the region is empty and its indexes are maintained synchronously.
+   */
+  public void startBulkLoad() {
+    if (!isIndexMaintenanceTypeSynchronous()
+        || !((LocalRegion) this.region).getRegionMap().isEmpty()) {
+      return;
+    }
+    // Wait for the updates in progress so that none of them sees only part of the change
+    waitBeforeUpdate();
+    try {
+      this.bulkLoadInProgress = true;
+    } finally {
+      notifyAfterUpdate();
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("Started bulk load of indexes for region {}", this.region.getFullPath());
+    }
+  }
+
+  /**
+   * Rebuilds the indexes from the entries loaded since {@link #startBulkLoad()}, blocking updates
+   * on the indexes until they are rebuilt. Does nothing if no bulk load is in progress.
+   */
+  public void finishBulkLoad() {
+    if (!this.bulkLoadInProgress) {
+      return;
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("Finishing bulk load of indexes for region {}", this.region.getFullPath());
+    }
+    waitBeforeUpdate();
+    try {
+      this.bulkLoadInProgress = false;
+      recreateIndexes();
+    } finally {
+      notifyAfterUpdate();
+    }
+  }
+
   /**
    * Recreates all indexes for this region. This operation blocks all updates on all indexes while
    * recreate is in progress. This is required as recreate does NOT lock region entries before index
@@ -1221,9 +1324,19 @@ public class IndexManager {
    *
    */
   private void recreateAllIndexesForRegion() {
-
-    long start = 0;
     waitBeforeUpdate();
+    try {
+      recreateIndexes();
+    } finally {
+      notifyAfterUpdate();
+    }
+  }
+
+  /**
+   * Recreates all indexes for this region. Must be called between {@link #waitBeforeUpdate()} and
+   * {@link #notifyAfterUpdate()}.
+   */
+  private void recreateIndexes() {
     try {
       // opCode is ignored for this operation
       Iterator iter = this.indexes.values().iterator();
@@ -1234,19 +1347,23 @@ public class IndexManager {
         if (ind instanceof FutureTask) {
           continue;
         }
-        IndexProtocol index = (IndexProtocol) ind;
-        if (index.getType() == IndexType.FUNCTIONAL || index.getType() == IndexType.HASH) {
-          AbstractIndex aIndex = ((AbstractIndex) index);
-          start = ((AbstractIndex) index).updateIndexUpdateStats();
-          ((AbstractIndex) index).recreateIndexData();
-          ((AbstractIndex) index).updateIndexUpdateStats(start);
-
-        }
+        recreateIndex((IndexProtocol) ind);
       }
     } catch (Exception e) {
       throw new IndexInvalidException(e);
-    } finally {
-      notifyAfterUpdate();
+    }
+  }
+
+  /**
+   * Recreates one index of this region from the region entries. Called by
+   * {@link #recreateIndexes()}, and by the {@link AsyncIndexUpdater} which applies no other update
+   * to the index meanwhile.
+   */
+  void recreateIndex(IndexProtocol index) throws QueryException {
+    if (index.getType() == IndexType.FUNCTIONAL || index.getType() == IndexType.HASH) {
+      long start = ((AbstractIndex) index).updateIndexUpdateStats();
+      ((AbstractIndex) index).recreateIndexData();
+      ((AbstractIndex) index).updateIndexUpdateStats(start);
     }
   }
 
@@ -1254,9 +1371,13 @@ public class IndexManager {
    * Wait for index initialization before entry create, update, invalidate or destroy operation.
    *
    * Note: If the region has a disk region then we should wait for index initialization before
-   * getting region entry lock to avoid deadlock (#44431).
+   * getting region entry lock to avoid deadlock (#44431). For the same reason this is where writers
+   * wait for asynchronously maintained indexes to catch up.
    */
   public void waitForIndexInit() {
+    if (this.asyncUpdater != null) {
+      this.asyncUpdater.waitForCapacity();
+    }
     synchronized (this.indexes) {
       ++this.numUpdatersInWaiting;
       while (this.numCreators > 0) {
@@ -1281,6 +1402,9 @@ public class IndexManager {
    * Necessary finally block call for above method.
    */
   public void countDownIndexUpdaters() {
+    if (this.asyncUpdater != null) {
+      this.asyncUpdater.clearPendingRemoval();
+    }
     synchronized (this.indexes) {
       --this.numUpdatersInProgress;
       // Asif: Since Index creator threads can progress only if
@@ -1303,7 +1427,7 @@ public class IndexManager {
   public void destroy() throws QueryException {
     this.indexes.clear();
     if (!isIndexMaintenanceTypeSynchronous())
-      updater.shutdown();
+      asyncUpdater.shutdown();
   }
 
   /**
@@ -1403,118 +1527,6 @@ public class IndexManager {
 
   ////////////////////// Inner Classes //////////////////////
 
-  public class IndexUpdaterThread extends Thread {
-
-    private volatile boolean running = true;
-
-    private volatile boolean shutdownRequested = false;
-
-    private volatile BlockingQueue pendingTasks;
-
-    /**
-     * Creates instance of IndexUpdaterThread
-     */
-    IndexUpdaterThread(ThreadGroup group, int updateThreshold, String threadName) {
-      super(group, threadName);
-      // Check if threshold is set.
-      if (updateThreshold > 0) {
-        // Create a bounded queue.
-        pendingTasks = new ArrayBlockingQueue(updateThreshold);
-      } else {
-        // Create non-bounded queue.
-        pendingTasks = new LinkedBlockingQueue();
-      }
-      this.setDaemon(true);
-    }
-
-    public void addTask(int action, RegionEntry entry, int opCode) {
-      Object[] task = new Object[3];
-      task[0] = action;
-      task[1] = entry;
-      task[2] = opCode;
-      pendingTasks.add(task);
-    }
-
-    /**
-     * Stops this thread. Does not return until it has stopped.
-     */
-    public void shutdown() {
-      if (!this.running) {
-        return;
-      }
-      this.shutdownRequested = true;
-      this.interrupt();
-      try {
-        this.join();
-      } catch (InterruptedException ignore) {
-        Thread.currentThread().interrupt();
-        // just return, we're done
-      }
-    }
-
-    @Override
-    public void run() {
-      // async writers main loop
-      // logger.debug("DiskRegion writer started (writer=" + this + ")");
-      org.apache.geode.CancelCriterion stopper = ((LocalRegion) region).getCancelCriterion();
-      try {
-        while (!this.shutdownRequested) {
-          // Termination checks
-          SystemFailure.checkFailure();
-          if (stopper.isCancelInProgress()) {
-            break;
-          }
-          try {
-            Object[] task = (Object[]) pendingTasks.take();
-            if (this.shutdownRequested) {
-              break;
-            }
-            updateIndexes(task);
-          } catch (InterruptedException ignore) {
-            return; // give up (exit the thread)
-          }
-        }
-      } finally {
-        this.running = false;
-      }
-    }
-
-    private void updateIndexes(Object[] task) {
-      int action = (Integer) task[0];
-      RegionEntry entry = (RegionEntry) task[1];
-      int opCode = (Integer) task[2];
-      // System.out.println("entry = "+entry.getKey());
-      if (entry != null || action == RECREATE_INDEX) {
-        try {
-          if (action == RECREATE_INDEX) {
-            recreateAllIndexesForRegion();
-          } else {
-            if (entry != null) {
-              entry.setUpdateInProgress(true);
-            }
-            processAction(entry, action, opCode);
-          }
-        } catch (Exception e) {
-          e.printStackTrace();
-        } finally {
-          if (entry != null && action != RECREATE_INDEX) {
-            entry.setUpdateInProgress(false);
-          }
-        }
-      }
-    }
-
-    /**
-     * Used by tests to determine if the updater thread has finished updating its indexes. The list
-     * is cleared without synchronization, which makes this methods somewhat unsafe from a threading
-     * point of view.
-     */
-    public synchronized boolean isDone() {
-      return this.pendingTasks.size() == 0;
-    }
-
-  }
-
   /**
    * Index Task used to create the index. This is used along with the FutureTask to take care of,
    * same index creation request from multiple threads. At any time only one thread succeeds and
@@ -44,6 +44,12 @@ public class IndexStats {
   /** The Statistics object that we delegate most behavior to */
   private final Statistics stats;
 
+  /**
+   * The distribution of the index's numeric keys, kept when cost based index selection is enabled
+   */
+  private final KeyHistogram keyHistogram =
+      IndexManager.COST_BASED_INDEX_SELECTION ? new KeyHistogram() : null;
+
   static {
     StatisticsTypeFactory f = StatisticsTypeFactoryImpl.singleton();
 
@@ -209,4 +215,12 @@ public class IndexStats {
   public Statistics getStats() {
     return this.stats;
   }
+
+  /**
+   * Returns the histogram of the index's numeric keys, or null if cost based index selection is not
+   * enabled.
+   */
+  KeyHistogram getKeyHistogram() {
+    return this.keyHistogram;
+  }
 }
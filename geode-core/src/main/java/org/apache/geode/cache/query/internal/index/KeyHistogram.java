@@ -0,0 +1,195 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.Collection;
+import java.util.Map;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * An equi-width histogram of the numeric keys of an index, maintained incrementally as values are
+ * added to and removed from the index. It is used to estimate how many values a range condition
+ * matches.
+ * <p>
+ * The bucket bounds are fixed when the histogram is rebuilt from the index. Keys outside the bounds
+ * are counted as below or above them, and once too many of them accumulate the histogram reports
+ * that it needs to be rebuilt. Updates that race with a rebuild may be lost, which only makes the
+ * estimates slightly less accurate.
+ */
+class KeyHistogram {
+
+  static final int BUCKETS = 64;
+
+  /**
+   * The fraction of the values that may be outside the bounds before a rebuild is needed
+   */
+  private static final double MAX_OUT_OF_BOUNDS = 0.125;
+
+  private volatile Layout layout = new Layout(0, 0, false);
+
+  /**
+   * Counts a value added to the index under key.
+   */
+  void add(Object key) {
+    update(key, 1);
+  }
+
+  /**
+   * Counts a value removed from the index under key.
+   */
+  void remove(Object key) {
+    update(key, -1);
+  }
+
+  private void update(Object key, int delta) {
+    if (key instanceof Number) {
+      this.layout.update(((Number) key).doubleValue(), delta);
+    }
+  }
+
+  /**
+   * Returns true if the bounds no longer cover enough of the keys for the estimates to be useful.
+   */
+  boolean needsRebuild() {
+    Layout current = this.layout;
+    long total = current.total.get();
+    long outOfBounds = current.below.get() + current.above.get();
+    return !current.built || outOfBounds > Math.max(1, (total + outOfBounds) * MAX_OUT_OF_BOUNDS);
+  }
+
+  /**
+   * Replaces the histogram with one of the numeric keys of an index store, bounded by the smallest
+   * and largest of them.
+   *
+   * @param keysToEntries the index keys mapped to a RegionEntry or a Collection of them
+   */
+  void rebuild(Map<?, ?> keysToEntries) {
+    double min = Double.POSITIVE_INFINITY;
+    double max = Double.NEGATIVE_INFINITY;
+    for (Object key : keysToEntries.keySet()) {
+      if (key instanceof Number) {
+        double value = ((Number) key).doubleValue();
+        min = Math.min(min, value);
+        max = Math.max(max, value);
+      }
+    }
+    Layout rebuilt = min <= max ? new Layout(min, max, true) : new Layout(0, 0, true);
+    for (Map.Entry<?, ?> entry : keysToEntries.entrySet()) {
+      if (entry.getKey() instanceof Number) {
+        Object entries = entry.getValue();
+        rebuilt.update(((Number) entry.getKey()).doubleValue(),
+            entries instanceof Collection ? ((Collection) entries).size() : 1);
+      }
+    }
+    this.layout = rebuilt;
+  }
+
+  /**
+   * Returns the estimated number of values whose key is less than key, or -1 if the histogram has
+   * not been built.
+   */
+  long estimateLessThan(double key) {
+    Layout current = this.layout;
+    if (!current.built) {
+      return -1;
+    }
+    return current.countBelow(key);
+  }
+
+  /**
+   * Returns the estimated number of values whose key is greater than or equal to low and less than
+   * high, or -1 if the histogram has not been built.
+   */
+  long estimateBetween(double low, double high) {
+    Layout current = this.layout;
+    if (!current.built) {
+      return -1;
+    }
+    return Math.max(0, current.countBelow(high) - current.countBelow(low));
+  }
+
+  /**
+   * Returns the number of values counted, or -1 if the histogram has not been built.
+   */
+  long getTotal() {
+    Layout current = this.layout;
+    return current.built ? current.total.get() + current.below.get() + current.above.get() : -1;
+  }
+
+  private static class Layout {
+
+    final boolean built;
+
+    final double min;
+
+    final double width;
+
+    final AtomicLongArray counts = new AtomicLongArray(BUCKETS);
+
+    final AtomicLong below = new AtomicLong();
+
+    final AtomicLong above = new AtomicLong();
+
+    /**
+     * The number of values within the bounds
+     */
+    final AtomicLong total = new AtomicLong();
+
+    Layout(double min, double max, boolean built) {
+      this.built = built;
+      this.min = min;
+      // a histogram of a single key still gets buckets of non zero width
+      this.width = max > min ? (max - min) / BUCKETS : 1.0 / BUCKETS;
+    }
+
+    void update(double key, int delta) {
+      if (Double.isNaN(key) || key < this.min) {
+        this.below.addAndGet(delta);
+        return;
+      }
+      int bucket = (int) ((key - this.min) / this.width);
+      if (bucket >= BUCKETS) {
+        if (key <= this.min + this.width * BUCKETS) {
+          // the maximum key
+          bucket = BUCKETS - 1;
+        } else {
+          this.above.addAndGet(delta);
+          return;
+        }
+      }
+      this.counts.addAndGet(bucket, delta);
+      this.total.addAndGet(delta);
+    }
+
+    long countBelow(double key) {
+      if (key <= this.min) {
+        return key == this.min ? this.below.get() : this.below.get() / 2;
+      }
+      double position = (key - this.min) / this.width;
+      if (position >= BUCKETS) {
+        return this.below.get() + this.total.get() + this.above.get() / 2;
+      }
+      int bucket = (int) position;
+      long count = this.below.get();
+      for (int i = 0; i < bucket; i++) {
+        count += this.counts.get(i);
+      }
+      // assume the keys are spread evenly within the bucket
+      count += (long) (this.counts.get(bucket) * (position - bucket));
+      return Math.max(0, count);
+    }
+  }
+}
@@ -246,6 +246,10 @@ public class MemoryIndexStore implements IndexStore {
       throw new IMQException("Could not add object of type " + indexKey.getClass().getName(), ex);
     }
     internalIndexStats.incNumValues(1);
+    KeyHistogram histogram = internalIndexStats.getKeyHistogram();
+    if (histogram != null) {
+      histogram.add(indexKey);
+    }
   }
 
   /**
@@ -254,7 +258,7 @@ public class MemoryIndexStore implements IndexStore {
    *
    * @return oldKey
    */
-  private Object getOldKey(Object newKey, RegionEntry entry) throws TypeMismatchException {
+  Object getOldKey(Object newKey, RegionEntry entry) throws TypeMismatchException {
     for (Object mapEntry : valueToEntriesMap.entrySet()) {
       Object regionEntries = ((Entry) mapEntry).getValue();
       Object indexKey = ((Entry) mapEntry).getKey();
@@ -282,8 +286,18 @@ public class MemoryIndexStore implements IndexStore {
 
   @Override
   public void removeMapping(Object indexKey, RegionEntry re) throws IMQException {
+    removeMapping(indexKey, re, true);
+  }
+
+  /**
+   * Removes a mapping from the index store, crawling the index for the entry if it is not found at
+   * the key and findOldKey is set.
+   *
+   * @return true if the mapping was found
+   */
+  boolean removeMapping(Object indexKey, RegionEntry re, boolean findOldKey) throws IMQException {
     // Remove from forward map
-    boolean found = basicRemoveMapping(indexKey, re, true);
+    boolean found = basicRemoveMapping(indexKey, re, findOldKey);
     // Remove from reverse map.
     // We do NOT need to synchronize here as different RegionEntries will be
     // operating concurrently i.e. different keys in entryToValuesMap which
@@ -291,14 +305,17 @@ public class MemoryIndexStore implements IndexStore {
     if (found && IndexManager.isObjectModificationInplace()) {
       this.entryToValuesMap.remove(re);
     }
+    return found;
   }
 
   private boolean basicRemoveMapping(Object key, RegionEntry entry, boolean findOldKey)
       throws IMQException {
     boolean found = false;
     boolean possiblyAlreadyRemoved = false;
+    Object convertedKey = null;
     try {
       Object newKey = convertToIndexKey(key, entry);
+      convertedKey = newKey;
       if (DefaultQuery.testHook != null) {
         DefaultQuery.testHook.doTestHook("ATTEMPT_REMOVE");
       }
@@ -369,6 +386,10 @@ public class MemoryIndexStore implements IndexStore {
     if (found) {
       // Update stats if entry was actually removed
       internalIndexStats.incNumValues(-1);
+      KeyHistogram histogram = internalIndexStats.getKeyHistogram();
+      if (histogram != null) {
+        histogram.remove(convertedKey);
+      }
     } else if (!found && !possiblyAlreadyRemoved && !IndexManager.isObjectModificationInplace()
         && key != null) {
       // if there is an inplace-modification find old key by iterating
@@ -546,9 +567,25 @@ public class MemoryIndexStore implements IndexStore {
       this.entryToValuesMap.clear();
     }
     numIndexKeys.set(0);
+    KeyHistogram histogram = internalIndexStats.getKeyHistogram();
+    if (histogram != null) {
+      histogram.rebuild(this.valueToEntriesMap);
+    }
     return true;
   }
 
+  /**
+   * Returns the histogram of this store's numeric keys, rebuilt first if it has gone stale, or null
+   * if no histogram is kept.
+   */
+  KeyHistogram getKeyHistogram() {
+    KeyHistogram histogram = internalIndexStats.getKeyHistogram();
+    if (histogram != null && histogram.needsRebuild()) {
+      histogram.rebuild(this.valueToEntriesMap);
+    }
+    return histogram;
+  }
+
   @Override
   public int size(Object key) {
     Object obj = valueToEntriesMap.get(key);
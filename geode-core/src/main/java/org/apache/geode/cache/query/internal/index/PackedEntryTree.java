@@ -0,0 +1,596 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.Comparator;
+import java.util.Map;
+import java.util.TreeMap;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+
+/**
+ * A sorted map of index keys to region entries for the {@link PackedIndexStore}. The keys are kept
+ * in leaves of up to {@link #LEAF_CAPACITY} keys each, in a long array for integer keys and in a
+ * String array for string keys, so a key costs no node or boxed key of its own. A key mapped to
+ * one entry keeps a reference to the entry itself, a key mapped to more keeps an
+ * {@link EntryGroup}, an open addressing identity set of entries.
+ * <p>
+ * Updates take a write lock. Readers {@link #fetch copy} a batch of keys and their entries under a
+ * read lock and iterate the copy, so iteration is weakly consistent like that of a
+ * ConcurrentSkipListMap.
+ */
+abstract class PackedEntryTree {
+
+  static final int LEAF_CAPACITY = 256;
+
+  /** Results of {@link #add} and {@link #remove} */
+  static final int UNCHANGED = 0;
+  static final int ENTRY_CHANGED = 1;
+  static final int KEY_CHANGED = 2;
+
+  /** Marks the slot of a removed entry in an {@link EntryGroup} */
+  private static final Object REMOVED = new Object();
+
+  /** The leaves by their lowest key */
+  private final TreeMap<Object, Leaf> leaves;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  private volatile int keyCount;
+
+  private PackedEntryTree(Comparator<Object> comparator) {
+    this.leaves = new TreeMap<Object, Leaf>(comparator);
+  }
+
+  /**
+   * Returns a tree for Integer and Long keys. Lookups may use any Number.
+   */
+  static PackedEntryTree forLongKeys() {
+    return new PackedEntryTree(TypeUtils.getExtendedNumericComparator()) {
+      @Override
+      Leaf newLeaf() {
+        return new LongLeaf();
+      }
+
+      @Override
+      boolean accepts(Object key) {
+        return key instanceof Number;
+      }
+    };
+  }
+
+  /**
+   * Returns a tree for String keys.
+   */
+  static PackedEntryTree forStringKeys() {
+    return new PackedEntryTree(new Comparator<Object>() {
+      @Override
+      public int compare(Object key1, Object key2) {
+        return ((String) key1).compareTo((String) key2);
+      }
+    }) {
+      @Override
+      Leaf newLeaf() {
+        return new StringLeaf();
+      }
+
+      @Override
+      boolean accepts(Object key) {
+        return key instanceof String;
+      }
+    };
+  }
+
+  abstract Leaf newLeaf();
+
+  /**
+   * Returns true if the key can be compared with the keys of this tree
+   */
+  abstract boolean accepts(Object key);
+
+  int compare(Object key1, Object key2) {
+    return this.leaves.comparator().compare(key1, key2);
+  }
+
+  /**
+   * Returns the number of keys in this tree
+   */
+  int size() {
+    return this.keyCount;
+  }
+
+  /**
+   * Maps the key to the entry.
+   *
+   * @return {@link #KEY_CHANGED} if the key is new, {@link #ENTRY_CHANGED} if it was mapped to
+   *         other entries and {@link #UNCHANGED} if it was already mapped to the entry
+   */
+  int add(Object key, Object entry) {
+    this.lock.writeLock().lock();
+    try {
+      Map.Entry<Object, Leaf> mapEntry = this.leaves.floorEntry(key);
+      if (mapEntry == null) {
+        mapEntry = this.leaves.firstEntry();
+      }
+      if (mapEntry == null) {
+        Leaf leaf = newLeaf();
+        leaf.insert(0, key, entry);
+        this.leaves.put(leaf.key(0), leaf);
+        this.keyCount++;
+        return KEY_CHANGED;
+      }
+      Leaf leaf = mapEntry.getValue();
+      int index = leaf.search(key);
+      if (index >= 0) {
+        Object entries = leaf.entries[index];
+        if (entries == entry) {
+          return UNCHANGED;
+        } else if (entries instanceof EntryGroup) {
+          return ((EntryGroup) entries).add(entry) ? ENTRY_CHANGED : UNCHANGED;
+        }
+        leaf.entries[index] = new EntryGroup(entries, entry);
+        return ENTRY_CHANGED;
+      }
+      index = -index - 1;
+      if (leaf.size == LEAF_CAPACITY) {
+        int half = LEAF_CAPACITY / 2;
+        Leaf right = newLeaf();
+        leaf.copyTo(half, right, 0, LEAF_CAPACITY - half);
+        leaf.clear(half, LEAF_CAPACITY);
+        right.size = LEAF_CAPACITY - half;
+        leaf.size = half;
+        this.leaves.put(right.key(0), right);
+        if (index > half) {
+          leaf = right;
+          index -= half;
+        }
+      }
+      leaf.insert(index, key, entry);
+      if (index == 0) {
+        // the key is lower than all keys, which are in the first leaf
+        this.leaves.remove(mapEntry.getKey());
+        this.leaves.put(leaf.key(0), leaf);
+      }
+      this.keyCount++;
+      return KEY_CHANGED;
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Removes the mapping of the key to the entry.
+   *
+   * @return {@link #KEY_CHANGED} if the key is gone, {@link #ENTRY_CHANGED} if it is still mapped
+   *         to other entries and {@link #UNCHANGED} if it was not mapped to the entry
+   */
+  int remove(Object key, Object entry) {
+    this.lock.writeLock().lock();
+    try {
+      Map.Entry<Object, Leaf> mapEntry = this.leaves.floorEntry(key);
+      if (mapEntry == null) {
+        return UNCHANGED;
+      }
+      Leaf leaf = mapEntry.getValue();
+      int index = leaf.search(key);
+      if (index < 0) {
+        return UNCHANGED;
+      }
+      Object entries = leaf.entries[index];
+      if (entries instanceof EntryGroup) {
+        EntryGroup group = (EntryGroup) entries;
+        if (!group.remove(entry)) {
+          return UNCHANGED;
+        }
+        if (group.size == 1) {
+          leaf.entries[index] = group.first();
+        }
+        return ENTRY_CHANGED;
+      } else if (entries != entry) {
+        return UNCHANGED;
+      }
+      leaf.delete(index);
+      this.keyCount--;
+      if (leaf.size == 0) {
+        this.leaves.remove(mapEntry.getKey());
+        return KEY_CHANGED;
+      }
+      if (index == 0) {
+        this.leaves.remove(mapEntry.getKey());
+        this.leaves.put(leaf.key(0), leaf);
+      }
+      Map.Entry<Object, Leaf> next = this.leaves.higherEntry(leaf.key(0));
+      if (next != null && leaf.size + next.getValue().size <= LEAF_CAPACITY / 2) {
+        // merge sparse neighbours so that emptied ranges do not keep mostly empty leaves
+        Leaf nextLeaf = next.getValue();
+        nextLeaf.copyTo(0, leaf, leaf.size, nextLeaf.size);
+        leaf.size += nextLeaf.size;
+        this.leaves.remove(next.getKey());
+      }
+      return KEY_CHANGED;
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Returns the number of entries the key is mapped to
+   */
+  int size(Object key) {
+    this.lock.readLock().lock();
+    try {
+      Map.Entry<Object, Leaf> mapEntry = this.leaves.floorEntry(key);
+      if (mapEntry == null) {
+        return 0;
+      }
+      Leaf leaf = mapEntry.getValue();
+      int index = leaf.search(key);
+      if (index < 0) {
+        return 0;
+      }
+      Object entries = leaf.entries[index];
+      return entries instanceof EntryGroup ? ((EntryGroup) entries).size : 1;
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  /**
+   * Copies the keys following the given one, and the entries they are mapped to, into the arrays.
+   * An entry is copied as itself, and the entries of a key mapped to several as the slots of its
+   * {@link EntryGroup}, which are to be read with {@link #isEntry}.
+   *
+   * @param from the key to start from, or null to start from the lowest or highest key
+   * @param inclusive whether the key to start from is to be copied
+   * @param descending whether to copy lower keys instead of higher ones
+   * @return the number of keys copied
+   */
+  int fetch(Object from, boolean inclusive, boolean descending, Object[] keys, Object[] entries) {
+    this.lock.readLock().lock();
+    try {
+      Map.Entry<Object, Leaf> mapEntry;
+      int index;
+      if (from == null) {
+        mapEntry = descending ? this.leaves.lastEntry() : this.leaves.firstEntry();
+        index = mapEntry == null || !descending ? 0 : mapEntry.getValue().size - 1;
+      } else {
+        mapEntry = this.leaves.floorEntry(from);
+        if (mapEntry == null) {
+          if (descending) {
+            return 0;
+          }
+          mapEntry = this.leaves.firstEntry();
+          index = 0;
+        } else {
+          index = mapEntry.getValue().search(from);
+          if (index >= 0) {
+            index = inclusive ? index : descending ? index - 1 : index + 1;
+          } else {
+            index = descending ? -index - 2 : -index - 1;
+          }
+        }
+      }
+      int count = 0;
+      while (mapEntry != null && count < keys.length) {
+        Leaf leaf = mapEntry.getValue();
+        if (descending) {
+          for (; index >= 0 && count < keys.length; index--, count++) {
+            keys[count] = leaf.key(index);
+            entries[count] = snapshot(leaf.entries[index]);
+          }
+          mapEntry = this.leaves.lowerEntry(mapEntry.getKey());
+          index = mapEntry == null ? -1 : mapEntry.getValue().size - 1;
+        } else {
+          for (; index < leaf.size && count < keys.length; index++, count++) {
+            keys[count] = leaf.key(index);
+            entries[count] = snapshot(leaf.entries[index]);
+          }
+          mapEntry = this.leaves.higherEntry(mapEntry.getKey());
+          index = 0;
+        }
+      }
+      return count;
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  private static Object snapshot(Object entries) {
+    return entries instanceof EntryGroup ? ((EntryGroup) entries).table : entries;
+  }
+
+  /**
+   * Returns true if the slot of an {@link EntryGroup} copied by {@link #fetch} holds an entry
+   */
+  static boolean isEntry(Object slot) {
+    return slot != null && slot != REMOVED;
+  }
+
+  /**
+   * Returns a key other than the given one that is mapped to the entry, or null if there is none.
+   * This visits every key.
+   */
+  Object findKey(Object entry, Object excludedKey) {
+    boolean comparable = excludedKey != null && accepts(excludedKey);
+    this.lock.readLock().lock();
+    try {
+      for (Leaf leaf : this.leaves.values()) {
+        for (int i = 0; i < leaf.size; i++) {
+          Object entries = leaf.entries[i];
+          if ((entries == entry
+              || entries instanceof EntryGroup && ((EntryGroup) entries).indexOf(entry) >= 0)
+              && !(comparable && compare(leaf.key(i), excludedKey) == 0)) {
+            return leaf.key(i);
+          }
+        }
+      }
+      return null;
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  void clear() {
+    this.lock.writeLock().lock();
+    try {
+      this.leaves.clear();
+      this.keyCount = 0;
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * A sorted run of keys and the entries they are mapped to
+   */
+  abstract static class Leaf {
+    final Object[] entries = new Object[LEAF_CAPACITY];
+
+    int size;
+
+    /**
+     * Returns the index of the key, or (-(insertion point) - 1) if it is not in this leaf
+     */
+    int search(Object key) {
+      int low = 0;
+      int high = this.size - 1;
+      while (low <= high) {
+        int mid = (low + high) >>> 1;
+        int result = compareAt(mid, key);
+        if (result < 0) {
+          low = mid + 1;
+        } else if (result > 0) {
+          high = mid - 1;
+        } else {
+          return mid;
+        }
+      }
+      return -(low + 1);
+    }
+
+    void insert(int index, Object key, Object entry) {
+      copyTo(index, this, index + 1, this.size - index);
+      setKey(index, key);
+      this.entries[index] = entry;
+      this.size++;
+    }
+
+    void delete(int index) {
+      copyTo(index + 1, this, index, this.size - index - 1);
+      this.size--;
+      clear(this.size, this.size + 1);
+    }
+
+    void copyTo(int from, Leaf target, int to, int length) {
+      System.arraycopy(this.entries, from, target.entries, to, length);
+      copyKeysTo(from, target, to, length);
+    }
+
+    void clear(int from, int to) {
+      for (int i = from; i < to; i++) {
+        this.entries[i] = null;
+      }
+      clearKeys(from, to);
+    }
+
+    abstract int compareAt(int index, Object key);
+
+    abstract Object key(int index);
+
+    abstract void setKey(int index, Object key);
+
+    abstract void copyKeysTo(int from, Leaf target, int to, int length);
+
+    abstract void clearKeys(int from, int to);
+  }
+
+  /**
+   * A leaf of Integer and Long keys. The type of each key is kept so that keys come back as they
+   * were added.
+   */
+  private static class LongLeaf extends Leaf {
+    private static final Comparator<Object> COMPARATOR = TypeUtils.getExtendedNumericComparator();
+
+    final long[] keys = new long[LEAF_CAPACITY];
+
+    final boolean[] isLong = new boolean[LEAF_CAPACITY];
+
+    @Override
+    int compareAt(int index, Object key) {
+      if (key instanceof Integer || key instanceof Long) {
+        return Long.compare(this.keys[index], ((Number) key).longValue());
+      }
+      return COMPARATOR.compare(key(index), key);
+    }
+
+    @Override
+    Object key(int index) {
+      return this.isLong[index] ? (Object) Long.valueOf(this.keys[index])
+          : (Object) Integer.valueOf((int) this.keys[index]);
+    }
+
+    @Override
+    void setKey(int index, Object key) {
+      this.keys[index] = ((Number) key).longValue();
+      this.isLong[index] = key instanceof Long;
+    }
+
+    @Override
+    void copyKeysTo(int from, Leaf target, int to, int length) {
+      System.arraycopy(this.keys, from, ((LongLeaf) target).keys, to, length);
+      System.arraycopy(this.isLong, from, ((LongLeaf) target).isLong, to, length);
+    }
+
+    @Override
+    void clearKeys(int from, int to) {
+      // nothing is referenced from primitive keys
+    }
+  }
+
+  private static class StringLeaf extends Leaf {
+    final String[] keys = new String[LEAF_CAPACITY];
+
+    @Override
+    int compareAt(int index, Object key) {
+      return this.keys[index].compareTo((String) key);
+    }
+
+    @Override
+    Object key(int index) {
+      return this.keys[index];
+    }
+
+    @Override
+    void setKey(int index, Object key) {
+      this.keys[index] = (String) key;
+    }
+
+    @Override
+    void copyKeysTo(int from, Leaf target, int to, int length) {
+      System.arraycopy(this.keys, from, ((StringLeaf) target).keys, to, length);
+    }
+
+    @Override
+    void clearKeys(int from, int to) {
+      for (int i = from; i < to; i++) {
+        this.keys[i] = null;
+      }
+    }
+  }
+
+  /**
+   * The entries of a key mapped to more than one, in an open addressing identity hash table.
+   * Removed entries leave a marker behind instead of moving others, and the table is only replaced,
+   * never rehashed in place, so a reader of a copied table neither misses nor repeats entries that
+   * stay in it.
+   */
+  static class EntryGroup {
+    private static final int MIN_CAPACITY = 4;
+
+    Object[] table;
+
+    int size;
+
+    /** Slots holding an entry or a removal marker */
+    private int used;
+
+    EntryGroup(Object entry1, Object entry2) {
+      this.table = new Object[MIN_CAPACITY];
+      add(entry1);
+      add(entry2);
+    }
+
+    boolean add(Object entry) {
+      if (indexOf(entry) >= 0) {
+        return false;
+      }
+      if ((this.used + 1) * 4 > this.table.length * 3) {
+        resize(this.size + 1);
+      }
+      int mask = this.table.length - 1;
+      int index = hash(entry) & mask;
+      while (isEntry(this.table[index])) {
+        index = (index + 1) & mask;
+      }
+      if (this.table[index] == null) {
+        this.used++;
+      }
+      this.table[index] = entry;
+      this.size++;
+      return true;
+    }
+
+    boolean remove(Object entry) {
+      int index = indexOf(entry);
+      if (index < 0) {
+        return false;
+      }
+      this.table[index] = REMOVED;
+      this.size--;
+      if (this.size * 8 < this.table.length && this.table.length > MIN_CAPACITY) {
+        resize(this.size);
+      }
+      return true;
+    }
+
+    int indexOf(Object entry) {
+      int mask = this.table.length - 1;
+      int index = hash(entry) & mask;
+      Object slot;
+      while ((slot = this.table[index]) != null) {
+        if (slot == entry) {
+          return index;
+        }
+        index = (index + 1) & mask;
+      }
+      return -1;
+    }
+
+    Object first() {
+      for (Object slot : this.table) {
+        if (isEntry(slot)) {
+          return slot;
+        }
+      }
+      return null;
+    }
+
+    private void resize(int minSize) {
+      int capacity = MIN_CAPACITY;
+      while (capacity * 3 < minSize * 8) {
+        capacity <<= 1;
+      }
+      Object[] newTable = new Object[capacity];
+      int mask = capacity - 1;
+      for (Object slot : this.table) {
+        if (isEntry(slot)) {
+          int index = hash(slot) & mask;
+          while (newTable[index] != null) {
+            index = (index + 1) & mask;
+          }
+          newTable[index] = slot;
+        }
+      }
+      this.table = newTable;
+      this.used = this.size;
+    }
+
+    private static int hash(Object entry) {
+      int hash = System.identityHashCode(entry);
+      return hash ^ (hash >>> 16);
+    }
+  }
+}
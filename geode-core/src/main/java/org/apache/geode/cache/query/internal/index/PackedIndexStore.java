@@ -0,0 +1,735 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentMap;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionAttributes;
+import org.apache.geode.cache.query.TypeMismatchException;
+import org.apache.geode.cache.query.internal.index.AbstractIndex.InternalIndexStatistics;
+import org.apache.geode.cache.query.internal.parse.OQLLexerTokenTypes;
+import org.apache.geode.cache.query.internal.types.TypeUtils;
+import org.apache.geode.internal.cache.GemFireCacheImpl;
+import org.apache.geode.internal.cache.InternalCache;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.persistence.query.CloseableIterator;
+
+/**
+ * An in-memory index storage that packs Integer, Long and String keys into
+ * {@link PackedEntryTree}s instead of a ConcurrentSkipListMap of boxed keys to entry collections,
+ * taking a fraction of the heap of the {@link MemoryIndexStore} for indexes on large regions.
+ * Null, undefined and keys of any other type are kept in a MemoryIndexStore, and iterators merge
+ * the keys of both in index order.
+ */
+class PackedIndexStore implements IndexStore {
+
+  /** The number of keys an iterator copies out of a tree at a time */
+  private static final int BATCH_SIZE = 64;
+
+  private final PackedEntryTree longKeys = PackedEntryTree.forLongKeys();
+
+  private final PackedEntryTree stringKeys = PackedEntryTree.forStringKeys();
+
+  /** Null, undefined and keys of other types */
+  private final MemoryIndexStore otherKeys;
+
+  // Map for RegionEntries=>value of indexedExpression (reverse map)
+  private ConcurrentMap entryToValuesMap;
+
+  private final InternalIndexStatistics internalIndexStats;
+
+  private final InternalCache cache;
+
+  PackedIndexStore(Region region, InternalIndexStatistics internalIndexStats) {
+    this(region, internalIndexStats, GemFireCacheImpl.getInstance());
+  }
+
+  private PackedIndexStore(Region region, InternalIndexStatistics internalIndexStats,
+      InternalCache cache) {
+    if (IndexManager.isObjectModificationInplace()) {
+      RegionAttributes ra = region.getAttributes();
+      this.entryToValuesMap = new ConcurrentHashMap(ra.getInitialCapacity(), ra.getLoadFactor(),
+          ra.getConcurrencyLevel());
+    }
+    this.otherKeys = new MemoryIndexStore(region, internalIndexStats);
+    this.internalIndexStats = internalIndexStats;
+    this.cache = cache;
+  }
+
+  /**
+   * Returns the tree the index key belongs in, or null if it belongs in {@link #otherKeys}
+   */
+  private PackedEntryTree treeFor(Object indexKey) {
+    if (indexKey instanceof Integer || indexKey instanceof Long) {
+      return this.longKeys;
+    } else if (indexKey instanceof String) {
+      return this.stringKeys;
+    }
+    return null;
+  }
+
+  @Override
+  public void updateMapping(Object indexKey, Object oldKey, RegionEntry re, Object oldValue)
+      throws IMQException {
+    try {
+      if (IndexManager.isObjectModificationInplace()) {
+        if (this.entryToValuesMap.containsKey(re)) {
+          oldKey = this.entryToValuesMap.get(re);
+        }
+      } else if (oldValue != null && oldValue == getTargetObjectInVM(re)) {
+        // the value was updated in place, so the old key has to be looked up
+        oldKey = getOldKey(indexKey, re);
+      }
+      indexKey = TypeUtils.indexKeyFor(indexKey);
+    } catch (TypeMismatchException ex) {
+      throw new IMQException("Could not add object of type " + indexKey.getClass().getName(), ex);
+    }
+
+    PackedEntryTree tree = treeFor(indexKey);
+    PackedEntryTree oldTree = oldKey == null ? null : treeFor(oldKey);
+    if (tree == null && oldTree == null) {
+      this.otherKeys.updateMapping(indexKey, oldKey, re, null);
+    } else {
+      if (oldKey != null && (oldKey.equals(indexKey)
+          || tree == oldTree && tree.compare(oldKey, indexKey) == 0)) {
+        // the trees hold one entry per key, so an equal key must not be added and then removed
+        return;
+      }
+      if (tree == null) {
+        this.otherKeys.addMapping(indexKey, re);
+      } else {
+        addToTree(tree, indexKey, re);
+      }
+      if (oldKey != null) {
+        basicRemoveMapping(oldKey, re, false);
+      }
+    }
+    if (IndexManager.isObjectModificationInplace()) {
+      this.entryToValuesMap.put(re, indexKey);
+    }
+  }
+
+  private void addToTree(PackedEntryTree tree, Object indexKey, RegionEntry re) {
+    int result = tree.add(indexKey, re);
+    if (result == PackedEntryTree.KEY_CHANGED) {
+      this.internalIndexStats.incNumKeys(1);
+    }
+    if (result != PackedEntryTree.UNCHANGED) {
+      this.internalIndexStats.incNumValues(1);
+    }
+  }
+
+  /**
+   * Find the old key of an entry updated in place by looking through all keys. If not found the
+   * value object was modified with the same value, so the old key is the new key.
+   */
+  private Object getOldKey(Object newKey, RegionEntry entry) throws TypeMismatchException {
+    Object oldKey = this.longKeys.findKey(entry, newKey);
+    if (oldKey == null) {
+      oldKey = this.stringKeys.findKey(entry, newKey);
+    }
+    if (oldKey == null) {
+      oldKey = this.otherKeys.getOldKey(newKey, entry);
+    }
+    return oldKey;
+  }
+
+  @Override
+  public void addMapping(Object indexKey, RegionEntry re) throws IMQException {
+    // for add, oldkey is null
+    updateMapping(indexKey, null, re, null);
+  }
+
+  @Override
+  public void removeMapping(Object indexKey, RegionEntry re) throws IMQException {
+    boolean found = basicRemoveMapping(indexKey, re, true);
+    if (found && IndexManager.isObjectModificationInplace()) {
+      this.entryToValuesMap.remove(re);
+    }
+  }
+
+  private boolean basicRemoveMapping(Object key, RegionEntry entry, boolean findOldKey)
+      throws IMQException {
+    Object indexKey;
+    try {
+      if (IndexManager.isObjectModificationInplace() && this.entryToValuesMap.containsKey(entry)) {
+        indexKey = this.entryToValuesMap.get(entry);
+      } else {
+        indexKey = TypeUtils.indexKeyFor(key);
+      }
+    } catch (TypeMismatchException ex) {
+      throw new IMQException("Could not add object of type " + key.getClass().getName(), ex);
+    }
+    boolean found;
+    PackedEntryTree tree = treeFor(indexKey);
+    if (tree == null) {
+      found = this.otherKeys.removeMapping(indexKey, entry, false);
+    } else {
+      int result = tree.remove(indexKey, entry);
+      found = result != PackedEntryTree.UNCHANGED;
+      if (result == PackedEntryTree.KEY_CHANGED) {
+        this.internalIndexStats.incNumKeys(-1);
+      }
+      if (found) {
+        this.internalIndexStats.incNumValues(-1);
+      }
+    }
+    if (!found && findOldKey && !IndexManager.isObjectModificationInplace() && key != null) {
+      // if there is an inplace-modification find old key by looking through all keys and then
+      // remove the mapping
+      try {
+        Object oldKey = getOldKey(indexKey, entry);
+        if (oldKey != indexKey) {
+          found = basicRemoveMapping(oldKey, entry, false);
+        }
+      } catch (TypeMismatchException e) {
+        throw new IMQException("Could not find old key: " + key.getClass().getName(), e);
+      }
+    }
+    return found;
+  }
+
+  @Override
+  public CloseableIterator<IndexStoreEntry> get(Object indexKey) {
+    List<Iterator<IndexStoreEntry>> iterators = new ArrayList<Iterator<IndexStoreEntry>>(2);
+    PackedEntryTree tree = treeFor(indexKey);
+    if (tree == null && indexKey instanceof Number) {
+      tree = this.longKeys;
+    }
+    if (tree != null && tree.size() > 0) {
+      iterators.add(new PackedIndexStoreIterator(tree, indexKey, true, indexKey, true, false,
+          null));
+    }
+    if (tree == null || this.otherKeys.size() > 0) {
+      iterators.add(this.otherKeys.get(indexKey));
+    }
+    return merge(iterators, false);
+  }
+
+  @Override
+  public CloseableIterator<IndexStoreEntry> iterator(Object start, boolean startInclusive,
+      Object end, boolean endInclusive, Collection keysToRemove) {
+    return rangeIterator(start, startInclusive, end, endInclusive, false, keysToRemove);
+  }
+
+  @Override
+  public CloseableIterator<IndexStoreEntry> iterator(Object start, boolean startInclusive,
+      Collection keysToRemove) {
+    return rangeIterator(start, startInclusive, null, false, false, keysToRemove);
+  }
+
+  @Override
+  public CloseableIterator<IndexStoreEntry> iterator(Collection keysToRemove) {
+    return rangeIterator(null, false, null, false, false, keysToRemove);
+  }
+
+  @Override
+  public CloseableIterator<IndexStoreEntry> descendingIterator(Object start, boolean startInclusive,
+      Object end, boolean endInclusive, Collection keysToRemove) {
+    return rangeIterator(start, startInclusive, end, endInclusive, true, keysToRemove);
+  }
+
+  @Override
+  public CloseableIterator<IndexStoreEntry> descendingIterator(Object start, boolean startInclusive,
+      Collection keysToRemove) {
+    return rangeIterator(start, startInclusive, null, false, true, keysToRemove);
+  }
+
+  @Override
+  public CloseableIterator<IndexStoreEntry> descendingIterator(Collection keysToRemove) {
+    return rangeIterator(null, false, null, false, true, keysToRemove);
+  }
+
+  /**
+   * Returns an iterator over the keys from start to end, in descending order from end to start if
+   * descending. A null start or end leaves the range open on that side.
+   */
+  private CloseableIterator<IndexStoreEntry> rangeIterator(Object start, boolean startInclusive,
+      Object end, boolean endInclusive, boolean descending, Collection keysToRemove) {
+    List<Iterator<IndexStoreEntry>> iterators = new ArrayList<Iterator<IndexStoreEntry>>(3);
+    for (PackedEntryTree tree : new PackedEntryTree[] {this.longKeys, this.stringKeys}) {
+      if (tree.size() > 0 && (start == null || tree.accepts(start))
+          && (end == null || tree.accepts(end))) {
+        iterators.add(descending
+            ? new PackedIndexStoreIterator(tree, end, endInclusive, start, startInclusive, true,
+                keysToRemove)
+            : new PackedIndexStoreIterator(tree, start, startInclusive, end, endInclusive, false,
+                keysToRemove));
+      }
+    }
+    if (this.otherKeys.size() > 0 || iterators.isEmpty()) {
+      if (start == null && end == null) {
+        iterators.add(descending ? this.otherKeys.descendingIterator(keysToRemove)
+            : this.otherKeys.iterator(keysToRemove));
+      } else if (end == null) {
+        iterators.add(descending
+            ? this.otherKeys.descendingIterator(start, startInclusive, keysToRemove)
+            : this.otherKeys.iterator(start, startInclusive, keysToRemove));
+      } else {
+        iterators.add(descending
+            ? this.otherKeys.descendingIterator(start, startInclusive, end, endInclusive,
+                keysToRemove)
+            : this.otherKeys.iterator(start, startInclusive, end, endInclusive, keysToRemove));
+      }
+    }
+    return merge(iterators, descending);
+  }
+
+  /**
+   * Returns an iterator over all keys, but null and undefined, in ascending order
+   */
+  public Iterator<IndexStoreEntry> getKeysIterator() {
+    List<Iterator<IndexStoreEntry>> iterators = new ArrayList<Iterator<IndexStoreEntry>>(3);
+    for (PackedEntryTree tree : new PackedEntryTree[] {this.longKeys, this.stringKeys}) {
+      if (tree.size() > 0) {
+        iterators.add(new PackedIndexStoreKeyIterator(tree));
+      }
+    }
+    if (this.otherKeys.size() > 0 || iterators.isEmpty()) {
+      iterators.add(this.otherKeys.getKeysIterator());
+    }
+    return merge(iterators, false);
+  }
+
+  private CloseableIterator<IndexStoreEntry> merge(List<Iterator<IndexStoreEntry>> iterators,
+      boolean descending) {
+    if (iterators.size() == 1 && iterators.get(0) instanceof CloseableIterator) {
+      return (CloseableIterator<IndexStoreEntry>) iterators.get(0);
+    }
+    return new MergingIterator(iterators.toArray(new Iterator[iterators.size()]), descending);
+  }
+
+  @Override
+  public boolean isIndexOnRegionKeys() {
+    return this.otherKeys.isIndexOnRegionKeys();
+  }
+
+  @Override
+  public void setIndexOnRegionKeys(boolean indexOnRegionKeys) {
+    this.otherKeys.setIndexOnRegionKeys(indexOnRegionKeys);
+  }
+
+  @Override
+  public boolean isIndexOnValues() {
+    return this.otherKeys.isIndexOnValues();
+  }
+
+  @Override
+  public void setIndexOnValues(boolean indexOnValues) {
+    this.otherKeys.setIndexOnValues(indexOnValues);
+  }
+
+  @Override
+  public Object getTargetObject(RegionEntry entry) {
+    return this.otherKeys.getTargetObject(entry);
+  }
+
+  @Override
+  public Object getTargetObjectInVM(RegionEntry entry) {
+    return this.otherKeys.getTargetObjectInVM(entry);
+  }
+
+  @Override
+  public boolean clear() {
+    this.longKeys.clear();
+    this.stringKeys.clear();
+    this.otherKeys.clear();
+    if (IndexManager.isObjectModificationInplace()) {
+      this.entryToValuesMap.clear();
+    }
+    return true;
+  }
+
+  @Override
+  public int size(Object key) {
+    PackedEntryTree tree = treeFor(key);
+    if (tree == null && key instanceof Number) {
+      tree = this.longKeys;
+    }
+    if (tree == null) {
+      return this.otherKeys.size(key);
+    }
+    int size = tree.size() > 0 ? tree.size(key) : 0;
+    if (this.otherKeys.size() > 0) {
+      size += this.otherKeys.size(key);
+    }
+    return size;
+  }
+
+  @Override
+  public int size() {
+    return this.longKeys.size() + this.stringKeys.size() + this.otherKeys.size();
+  }
+
+  public String printAll() {
+    StringBuffer sb = new StringBuffer();
+    for (PackedEntryTree tree : new PackedEntryTree[] {this.longKeys, this.stringKeys}) {
+      Iterator<IndexStoreEntry> iterator =
+          new PackedIndexStoreIterator(tree, null, false, null, false, false, null);
+      while (iterator.hasNext()) {
+        IndexStoreEntry entry = iterator.next();
+        sb.append("Key: " + entry.getDeserializedKey());
+        sb.append(" Value:" + entry.getDeserializedValue());
+        sb.append("\n");
+      }
+    }
+    sb.append(this.otherKeys.printAll());
+    return sb.toString();
+  }
+
+  private static boolean removeFromKeysToRemove(Collection keysToRemove, Object key) {
+    Iterator iterator = keysToRemove.iterator();
+    while (iterator.hasNext()) {
+      try {
+        if (TypeUtils.compare(key, iterator.next(), OQLLexerTokenTypes.TOK_EQ)
+            .equals(Boolean.TRUE)) {
+          iterator.remove();
+          return true;
+        }
+      } catch (TypeMismatchException e) {
+        // they are not equals, so we just continue iterating
+      }
+    }
+    return false;
+  }
+
+  /**
+   * Iterates over the entries of a range of keys of a tree, copying a batch of keys and entries out
+   * of the tree at a time.
+   */
+  private class PackedIndexStoreIterator implements CloseableIterator<IndexStoreEntry> {
+    private final PackedEntryTree tree;
+    private final Object end;
+    private final boolean endInclusive;
+    private final boolean descending;
+    private final Collection keysToRemove;
+    private final Object[] keys = new Object[BATCH_SIZE];
+    private final Object[] entries = new Object[BATCH_SIZE];
+    private final PackedIndexStoreEntry currentEntry;
+    private Object from;
+    private boolean fromInclusive;
+    private int batchSize;
+    private int batchIndex;
+    private boolean done;
+    private Object currKey;
+    private Object[] group;
+    private int groupIndex;
+    private RegionEntry nextEntry;
+
+    /**
+     * @param from the key to start from, or null to start from the first key
+     * @param end the key to stop at, or null to stop after the last key
+     */
+    PackedIndexStoreIterator(PackedEntryTree tree, Object from, boolean fromInclusive, Object end,
+        boolean endInclusive, boolean descending, Collection keysToRemove) {
+      this.tree = tree;
+      this.from = from;
+      this.fromInclusive = fromInclusive;
+      this.end = end;
+      this.endInclusive = endInclusive;
+      this.descending = descending;
+      this.keysToRemove = keysToRemove == null ? null : new HashSet(keysToRemove);
+      this.currentEntry = new PackedIndexStoreEntry(cache.cacheTimeMillis());
+    }
+
+    public boolean hasNext() {
+      while (this.nextEntry == null) {
+        if (this.group != null) {
+          while (this.groupIndex < this.group.length) {
+            Object slot = this.group[this.groupIndex++];
+            if (PackedEntryTree.isEntry(slot)) {
+              this.nextEntry = (RegionEntry) slot;
+              return true;
+            }
+          }
+          this.group = null;
+        }
+        if (!nextKey()) {
+          return false;
+        }
+      }
+      return true;
+    }
+
+    /**
+     * Moves on to the next key in range that is not to be removed
+     */
+    private boolean nextKey() {
+      while (!this.done) {
+        if (this.batchIndex == this.batchSize) {
+          this.batchSize =
+              this.tree.fetch(this.from, this.fromInclusive, this.descending, this.keys,
+                  this.entries);
+          this.batchIndex = 0;
+          if (this.batchSize == 0) {
+            break;
+          }
+          this.from = this.keys[this.batchSize - 1];
+          this.fromInclusive = false;
+        }
+        Object key = this.keys[this.batchIndex];
+        Object values = this.entries[this.batchIndex];
+        this.keys[this.batchIndex] = null;
+        this.entries[this.batchIndex] = null;
+        this.batchIndex++;
+        if (isPastEnd(key)) {
+          break;
+        }
+        if (this.keysToRemove != null && removeFromKeysToRemove(this.keysToRemove, key)) {
+          continue;
+        }
+        this.currKey = key;
+        if (values instanceof Object[]) {
+          this.group = (Object[]) values;
+          this.groupIndex = 0;
+        } else {
+          this.nextEntry = (RegionEntry) values;
+        }
+        return true;
+      }
+      this.done = true;
+      return false;
+    }
+
+    private boolean isPastEnd(Object key) {
+      if (this.end == null) {
+        return false;
+      }
+      int result = this.tree.compare(key, this.end);
+      if (this.descending) {
+        result = -result;
+      }
+      return result > 0 || result == 0 && !this.endInclusive;
+    }
+
+    public PackedIndexStoreEntry next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      this.currentEntry.setPackedIndexStoreEntry(this.currKey, this.nextEntry);
+      this.nextEntry = null;
+      return this.currentEntry;
+    }
+
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+
+    public void close() {
+      // do nothing
+    }
+  }
+
+  /**
+   * Iterates over the keys of a tree in ascending order
+   */
+  private static class PackedIndexStoreKeyIterator implements Iterator<IndexStoreEntry> {
+    private final PackedEntryTree tree;
+    private final Object[] keys = new Object[BATCH_SIZE];
+    private final Object[] entries = new Object[BATCH_SIZE];
+    private int batchSize;
+    private int batchIndex;
+
+    PackedIndexStoreKeyIterator(PackedEntryTree tree) {
+      this.tree = tree;
+    }
+
+    @Override
+    public boolean hasNext() {
+      if (this.batchIndex == this.batchSize && this.batchSize >= 0) {
+        // a batch size of -1 marks the end of the keys
+        Object from = this.batchSize == 0 ? null : this.keys[this.batchSize - 1];
+        int fetched = this.tree.fetch(from, false, false, this.keys, this.entries);
+        this.batchSize = fetched == 0 ? -1 : fetched;
+        this.batchIndex = 0;
+      }
+      return this.batchIndex < this.batchSize;
+    }
+
+    @Override
+    public IndexStoreEntry next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      return new PackedIndexStoreKey(this.keys[this.batchIndex++]);
+    }
+  }
+
+  /**
+   * Merges the entries of iterators over disjoint keys into one iteration in index order
+   */
+  private static class MergingIterator implements CloseableIterator<IndexStoreEntry> {
+    private static final Comparator COMPARATOR = TypeUtils.getExtendedNumericComparator();
+
+    private final Iterator<IndexStoreEntry>[] iterators;
+    private final IndexStoreEntry[] heads;
+    private final boolean descending;
+    private boolean started;
+    /** The iterator whose head was returned last, to be advanced before the next comparison */
+    private int returned = -1;
+
+    MergingIterator(Iterator<IndexStoreEntry>[] iterators, boolean descending) {
+      this.iterators = iterators;
+      this.heads = new IndexStoreEntry[iterators.length];
+      this.descending = descending;
+    }
+
+    public boolean hasNext() {
+      if (!this.started) {
+        for (int i = 0; i < this.iterators.length; i++) {
+          advance(i);
+        }
+        this.started = true;
+      } else if (this.returned >= 0) {
+        advance(this.returned);
+        this.returned = -1;
+      }
+      for (IndexStoreEntry head : this.heads) {
+        if (head != null) {
+          return true;
+        }
+      }
+      return false;
+    }
+
+    private void advance(int i) {
+      this.heads[i] = this.iterators[i].hasNext() ? this.iterators[i].next() : null;
+    }
+
+    public IndexStoreEntry next() {
+      if (!hasNext()) {
+        throw new NoSuchElementException();
+      }
+      int first = -1;
+      for (int i = 0; i < this.heads.length; i++) {
+        if (this.heads[i] != null && (first < 0 || precedes(this.heads[i], this.heads[first]))) {
+          first = i;
+        }
+      }
+      this.returned = first;
+      return this.heads[first];
+    }
+
+    private boolean precedes(IndexStoreEntry entry1, IndexStoreEntry entry2) {
+      int result;
+      try {
+        result = COMPARATOR.compare(entry1.getDeserializedKey(), entry2.getDeserializedKey());
+      } catch (ClassCastException e) {
+        // keys of unrelated types keep the order of the iterators
+        return false;
+      }
+      return this.descending ? result > 0 : result < 0;
+    }
+
+    public void remove() {
+      throw new UnsupportedOperationException();
+    }
+
+    public void close() {
+      for (Iterator<IndexStoreEntry> iterator : this.iterators) {
+        if (iterator instanceof CloseableIterator) {
+          ((CloseableIterator<IndexStoreEntry>) iterator).close();
+        }
+      }
+    }
+  }
+
+  static class PackedIndexStoreKey implements IndexStoreEntry {
+    private final Object indexKey;
+
+    PackedIndexStoreKey(Object indexKey) {
+      this.indexKey = indexKey;
+    }
+
+    @Override
+    public Object getDeserializedKey() {
+      return this.indexKey;
+    }
+
+    @Override
+    public Object getDeserializedValue() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public Object getDeserializedRegionKey() {
+      throw new UnsupportedOperationException();
+    }
+
+    @Override
+    public boolean isUpdateInProgress() {
+      throw new UnsupportedOperationException();
+    }
+  }
+
+  /**
+   * A wrapper over a key and one of the entries it is mapped to
+   */
+  class PackedIndexStoreEntry implements IndexStoreEntry {
+    private Object deserializedIndexKey;
+    private RegionEntry regionEntry;
+    private boolean updateInProgress;
+    private Object value;
+    private final long iteratorStartTime;
+
+    private PackedIndexStoreEntry(long iteratorStartTime) {
+      this.iteratorStartTime = iteratorStartTime;
+    }
+
+    void setPackedIndexStoreEntry(Object deserializedIndexKey, RegionEntry regionEntry) {
+      this.deserializedIndexKey = deserializedIndexKey;
+      this.regionEntry = regionEntry;
+      this.updateInProgress = regionEntry.isUpdateInProgress();
+      this.value = getTargetObject(regionEntry);
+    }
+
+    @Override
+    public Object getDeserializedKey() {
+      return this.deserializedIndexKey;
+    }
+
+    @Override
+    public Object getDeserializedValue() {
+      return this.value;
+    }
+
+    @Override
+    public Object getDeserializedRegionKey() {
+      return this.regionEntry.getKey();
+    }
+
+    public RegionEntry getRegionEntry() {
+      return this.regionEntry;
+    }
+
+    @Override
+    public boolean isUpdateInProgress() {
+      return this.updateInProgress || this.regionEntry.isUpdateInProgress()
+      // The index update could have started just before the iterator was created. The entry still
+      // needs to be re-evaluated in this case.
+          || IndexManager.needsRecalculation(this.iteratorStartTime,
+              this.regionEntry.getLastModified());
+    }
+  }
+}
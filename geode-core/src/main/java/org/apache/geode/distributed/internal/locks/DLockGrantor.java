@@ -18,6 +18,7 @@ package org.apache.geode.distributed.internal.locks;
 import java.util.*;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
 
 import org.apache.logging.log4j.Logger;
 
@@ -58,6 +59,13 @@ public class DLockGrantor {
       Boolean.getBoolean(
           DistributionConfig.GEMFIRE_PREFIX + "DLockService.DLockGrantor.debugSuspendLock");
 
+  /**
+   * Number of stripes the grant tokens are split into. Requests for locks in different stripes do
+   * not contend with each other for the grant token map.
+   */
+  static final int GRANT_TOKEN_STRIPES = Integer.getInteger(
+      DistributionConfig.GEMFIRE_PREFIX + "DLockService.DLockGrantor.grantTokenStripes", 16);
+
   /**
    * Default wait before grantor thread will reawaken to check for expirations and timeouts.
    */
@@ -84,12 +92,15 @@ public class DLockGrantor {
   protected final DLockService dlock;
 
   /**
-   * Map of grant tokens for tracking grantor-side state of distributed locks. Key: Object name,
-   * Value: DLockGrantToken grant
+   * Maps of grant tokens for tracking grantor-side state of distributed locks, striped by the hash
+   * of the lock name. Key: Object name, Value: DLockGrantToken grant
+   * <p>
+   * Code that synchronizes on one stripe never synchronizes on another. Operations on every grant
+   * token synchronize on all stripes in index order through {@link #withAllGrantTokens}.
    *
-   * guarded.By grantTokens
+   * guarded.By the stripe of grantTokens
    */
-  private final Map grantTokens = new HashMap();
+  private final Map[] grantTokens;
 
   /**
    * Dedicated thread responsible for handling expirations and timeouts.
@@ -313,6 +324,10 @@ public class DLockGrantor {
     this.whileInitializing = new StoppableCountDownLatch(stopper, 1);
     this.untilDestroyed = new StoppableCountDownLatch(stopper, 1);
     this.dlock = dlock;
+    this.grantTokens = new Map[Math.max(1, GRANT_TOKEN_STRIPES)];
+    for (int i = 0; i < this.grantTokens.length; i++) {
+      this.grantTokens[i] = new HashMap();
+    }
     this.destroyLock = new StoppableReentrantReadWriteLock(stopper);
     this.versionId.set(vId);
     this.dm.addMembershipListener(this.membershipListener);
@@ -850,7 +865,7 @@ public class DLockGrantor {
     }
 
     try {
-      synchronized (this.grantTokens) {
+      withAllGrantTokens(() -> {
         Set members = this.dlock.getDistributionManager().getDistributionManagerIds();
 
         final boolean isDebugEnabled_DLS = logger.isTraceEnabled(LogMarker.DLS);
@@ -921,7 +936,8 @@ public class DLockGrantor {
           }
 
         } // tokens iter
-      } // grantTokens sync
+        return null;
+      }); // grantTokens sync
       return;
     } finally {
       releaseDestroyReadLock();
@@ -1019,7 +1035,7 @@ public class DLockGrantor {
    */
   private void getAndReleaseGrantIfLockedBy(Object name, InternalDistributedMember owner,
       int lockId) {
-    synchronized (this.grantTokens) {
+    synchronized (grantTokensFor(name)) {
       DLockGrantToken grantToken = basicGetGrantToken(name);
       if (grantToken != null) { // checking isTokenDestroyed here will deadlock
         synchronized (grantToken) {
@@ -1120,13 +1136,13 @@ public class DLockGrantor {
               }
             }
           } // synchronized
-          synchronized (this.grantTokens) {
+          withAllGrantTokens(() -> {
             // do not call handleDepartureOf while iterating grantTokens
             // changes fix bug 39172 (ConcurrentModificationException)
 
             // 1) built up list of grants that reference departed member
             List grantsReferencingMember = new ArrayList();
-            Collection grants = this.grantTokens.values();
+            Collection grants = snapshotGrantTokens();
             for (Iterator iter = grants.iterator(); iter.hasNext();) {
               DLockGrantToken grant = (DLockGrantToken) iter.next();
               try {
@@ -1166,7 +1182,8 @@ public class DLockGrantor {
                 }
               }
             } // for
-          } // synchronized this.grantTokens
+            return null;
+          }); // synchronized this.grantTokens
         } // finally
       } finally {
         releaseDestroyReadLock();
@@ -1200,15 +1217,13 @@ public class DLockGrantor {
             // assume the worst case and tell the elder that recovery will be required
             locksHeld = true;
           } else {
-            synchronized (this.grantTokens) {
-              InternalDistributedMember me = this.dlock.getDistributionManager().getId();
-              for (Iterator iter = this.grantTokens.values().iterator(); iter.hasNext();) {
-                DLockGrantToken grant = (DLockGrantToken) iter.next();
-                InternalDistributedMember owner = grant.getOwner();
-                if (owner != null && !owner.equals(me)) {
-                  locksHeld = true;
-                  break;
-                }
+            InternalDistributedMember me = this.dlock.getDistributionManager().getId();
+            for (Iterator iter = snapshotGrantTokens().iterator(); iter.hasNext();) {
+              DLockGrantToken grant = (DLockGrantToken) iter.next();
+              InternalDistributedMember owner = grant.getOwner();
+              if (owner != null && !owner.equals(me)) {
+                locksHeld = true;
+                break;
               }
             }
           }
@@ -1247,8 +1262,8 @@ public class DLockGrantor {
     Assert.assertHoldsLock(this, true);
     makeDestroyed();
     // reply to all pending requests w/ NOT_GRANTOR
-    synchronized (this.grantTokens) {
-      Collection grants = this.grantTokens.values();
+    withAllGrantTokens(() -> {
+      Collection grants = snapshotGrantTokens();
       for (Iterator iter = grants.iterator(); iter.hasNext();) {
         DLockGrantToken grant = (DLockGrantToken) iter.next();
         try {
@@ -1272,7 +1287,8 @@ public class DLockGrantor {
 
         }
       }
-    }
+      return null;
+    });
 
     synchronized (suspendLock) {
       final boolean isDebugEnabled_DLS = logger.isTraceEnabled(LogMarker.DLS);
@@ -1366,7 +1382,7 @@ public class DLockGrantor {
     if (logger.isTraceEnabled(LogMarker.DLS)) {
       StringBuffer sb =
           new StringBuffer("DLockGrantor " + this.dlock.getName() + " initialized with:");
-      for (Iterator tokens = grantTokens.values().iterator(); tokens.hasNext();) {
+      for (Iterator tokens = snapshotGrantTokens().iterator(); tokens.hasNext();) {
         sb.append("\n\t" + tokens.next());
       }
       logger.trace(LogMarker.DLS, sb.toString());
@@ -1520,13 +1536,47 @@ public class DLockGrantor {
    * @return a snapshot of the current grant tokens
    */
   protected Collection snapshotGrantTokens() {
-    Collection snapshot = null;
-    synchronized (this.grantTokens) {
-      snapshot = new ArrayList(this.grantTokens.values());
+    Collection snapshot = new ArrayList();
+    for (Map stripe : this.grantTokens) {
+      synchronized (stripe) {
+        snapshot.addAll(stripe.values());
+      }
     }
     return snapshot;
   }
 
+  /**
+   * Returns the stripe of grantTokens that holds the grant token for the named lock.
+   *
+   * @param name the name of the lock
+   * @return the map to synchronize on and store the grant token in
+   */
+  private Map grantTokensFor(Object name) {
+    int hash = name.hashCode();
+    hash ^= hash >>> 16;
+    return this.grantTokens[(hash & 0x7fffffff) % this.grantTokens.length];
+  }
+
+  /**
+   * Returns the result of action, invoked while synchronized on every stripe of grantTokens.
+   * Stripes are synchronized on in index order.
+   *
+   * @param action the action to run
+   * @return the value returned by action
+   */
+  private <T> T withAllGrantTokens(Supplier<T> action) {
+    return withGrantTokensFrom(0, action);
+  }
+
+  private <T> T withGrantTokensFrom(int stripe, Supplier<T> action) {
+    if (stripe == this.grantTokens.length) {
+      return action.get();
+    }
+    synchronized (this.grantTokens[stripe]) {
+      return withGrantTokensFrom(stripe + 1, action);
+    }
+  }
+
   /**
    * Fetches or creates a new grant token for the named lock.
    * <p>
@@ -1537,7 +1587,7 @@ public class DLockGrantor {
    */
   private DLockGrantToken getOrCreateGrant(Object name) {
     DLockGrantToken grantToken = null;
-    synchronized (this.grantTokens) {
+    synchronized (grantTokensFor(name)) {
       grantToken = basicGetGrantToken(name);
       if (grantToken == null) { // checking isTokenDestroyed here will deadlock
         grantToken = new DLockGrantToken(this.dlock, this, name);
@@ -1567,9 +1617,7 @@ public class DLockGrantor {
    * @return unmodifible collection of the grant tokens
    */
   public Collection getGrantTokens() {
-    synchronized (this.grantTokens) {
-      return Collections.unmodifiableCollection(this.grantTokens.values());
-    }
+    return Collections.unmodifiableCollection(snapshotGrantTokens());
   }
 
   /**
@@ -1580,7 +1628,7 @@ public class DLockGrantor {
    * @param grant the grant token to remove
    */
   protected void removeGrantIfUnused(DLockGrantToken grant) {
-    synchronized (this.grantTokens) {
+    synchronized (grantTokensFor(grant.getName())) {
       synchronized (grant) {
         if (isDestroyed() || grant.isDestroyed()) {
           return;
@@ -1614,7 +1662,7 @@ public class DLockGrantor {
    * Synchronizes on grantTokens.
    */
   public DLockGrantToken getGrantToken(Object name) {
-    synchronized (this.grantTokens) {
+    synchronized (grantTokensFor(name)) {
       return basicGetGrantToken(name);
     }
   }
@@ -1628,7 +1676,7 @@ public class DLockGrantor {
    * @return the grant token stored under key name guarded.By {@link #grantTokens}
    */
   private DLockGrantToken basicGetGrantToken(Object name) {
-    return (DLockGrantToken) this.grantTokens.get(name);
+    return (DLockGrantToken) grantTokensFor(name).get(name);
   }
 
   /**
@@ -1639,7 +1687,7 @@ public class DLockGrantor {
    * @param grantToken the grant token to store in the map guarded.By {@link #grantTokens}
    */
   private void basicPutGrantToken(DLockGrantToken grantToken) {
-    this.grantTokens.put(grantToken.getName(), grantToken);
+    grantTokensFor(grantToken.getName()).put(grantToken.getName(), grantToken);
     dlock.getStats().incGrantTokens(1);
   }
 
@@ -1652,7 +1700,8 @@ public class DLockGrantor {
    *        grantToken
    */
   private void basicRemoveGrantToken(DLockGrantToken grantToken) {
-    Object removed = this.grantTokens.remove(grantToken.getName()); // changed to ref token
+    // changed to ref token
+    Object removed = grantTokensFor(grantToken.getName()).remove(grantToken.getName());
     if (removed != null) {
       Assert.assertTrue(removed == grantToken);
       grantToken.destroy();
@@ -2321,20 +2370,21 @@ public class DLockGrantor {
    * Synchronizes on grantTokens.
    */
   protected void dumpService() {
-    synchronized (this.grantTokens) {
+    withAllGrantTokens(() -> {
+      Collection grants = snapshotGrantTokens();
       StringBuffer buffer = new StringBuffer();
       buffer.append("DLockGrantor.dumpService() for ").append(this);
-      buffer.append("\n").append(this.grantTokens.size()).append(" grantTokens\n");
-      for (Iterator iter = this.grantTokens.entrySet().iterator(); iter.hasNext();) {
-        Map.Entry entry = (Map.Entry) iter.next();
-        buffer.append("    ").append(entry.getKey()).append(": ");
-        DLockGrantToken token = (DLockGrantToken) entry.getValue();
+      buffer.append("\n").append(grants.size()).append(" grantTokens\n");
+      for (Iterator iter = grants.iterator(); iter.hasNext();) {
+        DLockGrantToken token = (DLockGrantToken) iter.next();
+        buffer.append("    ").append(token.getName()).append(": ");
         buffer.append(token.toString()).append("\n");
       }
       logger.info(LogMarker.DLS, LocalizedMessage.create(LocalizedStrings.TESTING, buffer));
       logger.info(LogMarker.DLS, LocalizedMessage.create(LocalizedStrings.TESTING,
           "\nreadLockCountMap:\n" + readLockCountMap));
-    }
+      return null;
+    });
   }
 
   /**
@@ -0,0 +1,263 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.locks;
+
+import org.apache.geode.distributed.DistributedLockService;
+import org.apache.geode.distributed.LeaseExpiredException;
+import org.apache.geode.distributed.internal.InternalDistributedSystem;
+
+/**
+ * A distributed lock service that partitions lock names by hash over several {@link DLockService}s.
+ * Every partition has a grantor of its own, so locking that would saturate the single grantor of
+ * one service is spread over several grantors. The elder makes the first member to ask for a
+ * partition's grantor its grantor, so the grantors end up on different members when different
+ * members start locking; {@link #becomeLockGrantor(int)} places them explicitly.
+ * <p>
+ * Every member must create the service with the same number of partitions, and lock names must
+ * have the same hashCode in every member, as Strings and boxed numbers do.
+ * <p>
+ * Suspending locking suspends every partition, in index order, and resuming resumes them in
+ * reverse order.
+ *
+ * @since Geode 1.4
+ */
+public class PartitionedDLockService extends DistributedLockService {
+
+  /**
+   * Separates the name of this service from the partition number in the names of the partitions.
+   */
+  public static final String PARTITION_SEPARATOR = "#";
+
+  private final String serviceName;
+
+  private final DLockService[] partitions;
+
+  private PartitionedDLockService(String serviceName, DLockService[] partitions) {
+    this.serviceName = serviceName;
+    this.partitions = partitions;
+  }
+
+  /**
+   * Creates a lock service named serviceName with partitionCount partitions.
+   *
+   * @throws IllegalArgumentException if serviceName is invalid, partitionCount is less than one or
+   *         this process has already created a service with the name of one of the partitions
+   * @throws IllegalStateException if system is in process of disconnecting
+   */
+  public static PartitionedDLockService create(String serviceName, InternalDistributedSystem ds,
+      int partitionCount) {
+    DLockService.validateServiceName(serviceName);
+    if (partitionCount < 1) {
+      throw new IllegalArgumentException(
+          "partitionCount must be at least one but was " + partitionCount);
+    }
+    DLockService[] partitions = new DLockService[partitionCount];
+    try {
+      for (int i = 0; i < partitionCount; i++) {
+        partitions[i] = (DLockService) DLockService.create(getPartitionName(serviceName, i), ds,
+            true /* distributed */, true /* destroyOnDisconnect */,
+            false /* automateFreeResources */);
+      }
+    } catch (RuntimeException e) {
+      for (DLockService partition : partitions) {
+        if (partition != null) {
+          partition.destroyAndRemove();
+        }
+      }
+      throw e;
+    }
+    return new PartitionedDLockService(serviceName, partitions);
+  }
+
+  static String getPartitionName(String serviceName, int partition) {
+    return serviceName + PARTITION_SEPARATOR + partition;
+  }
+
+  public String getName() {
+    return this.serviceName;
+  }
+
+  public int getPartitionCount() {
+    return this.partitions.length;
+  }
+
+  /**
+   * Returns the index of the partition that grants the named lock.
+   */
+  public int getPartitionIndex(Object name) {
+    int hash = name.hashCode();
+    hash ^= hash >>> 16;
+    return (hash & 0x7fffffff) % this.partitions.length;
+  }
+
+  DLockService getPartition(int partition) {
+    return this.partitions[partition];
+  }
+
+  private DLockService getPartitionFor(Object name) {
+    return this.partitions[getPartitionIndex(name)];
+  }
+
+  @Override
+  public boolean lock(Object name, long waitTimeMillis, long leaseTimeMillis) {
+    return getPartitionFor(name).lock(name, waitTimeMillis, leaseTimeMillis);
+  }
+
+  @Override
+  @Deprecated
+  public boolean lockInterruptibly(Object name, long waitTimeMillis, long leaseTimeMillis)
+      throws InterruptedException {
+    return getPartitionFor(name).lockInterruptibly(name, waitTimeMillis, leaseTimeMillis);
+  }
+
+  @Override
+  public void unlock(Object name) throws LeaseExpiredException {
+    getPartitionFor(name).unlock(name);
+  }
+
+  @Override
+  public boolean isHeldByCurrentThread(Object name) {
+    return getPartitionFor(name).isHeldByCurrentThread(name);
+  }
+
+  @Override
+  @Deprecated
+  public boolean suspendLockingInterruptibly(long waitTimeMillis) throws InterruptedException {
+    return suspendAll(waitTimeMillis, true);
+  }
+
+  @Override
+  public boolean suspendLocking(long waitTimeMillis) {
+    try {
+      return suspendAll(waitTimeMillis, false);
+    } catch (InterruptedException e) {
+      // only thrown when interruptible
+      Thread.currentThread().interrupt();
+      return false;
+    }
+  }
+
+  /**
+   * Suspends locking in every partition within waitTimeMillis overall. If a partition can not be
+   * suspended in time the ones already suspended are resumed.
+   */
+  private boolean suspendAll(long waitTimeMillis, boolean interruptible)
+      throws InterruptedException {
+    final long deadline = System.currentTimeMillis() + waitTimeMillis;
+    int suspended = 0;
+    try {
+      for (; suspended < this.partitions.length; suspended++) {
+        long remaining =
+            waitTimeMillis < 0 ? -1 : Math.max(0, deadline - System.currentTimeMillis());
+        DLockService partition = this.partitions[suspended];
+        boolean granted = interruptible ? partition.suspendLockingInterruptibly(remaining)
+            : partition.suspendLocking(remaining);
+        if (!granted) {
+          return false;
+        }
+      }
+      return true;
+    } finally {
+      if (suspended < this.partitions.length) {
+        for (int i = suspended - 1; i >= 0; i--) {
+          this.partitions[i].resumeLocking();
+        }
+      }
+    }
+  }
+
+  @Override
+  public void resumeLocking() {
+    for (int i = this.partitions.length - 1; i >= 0; i--) {
+      this.partitions[i].resumeLocking();
+    }
+  }
+
+  @Override
+  public boolean isLockingSuspendedByCurrentThread() {
+    for (DLockService partition : this.partitions) {
+      if (!partition.isLockingSuspendedByCurrentThread()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public void freeResources(Object name) {
+    getPartitionFor(name).freeResources(name);
+  }
+
+  /**
+   * Makes this member the grantor of every partition.
+   */
+  @Override
+  public void becomeLockGrantor() {
+    for (DLockService partition : this.partitions) {
+      partition.becomeLockGrantor();
+    }
+  }
+
+  /**
+   * Makes this member the grantor of one partition.
+   */
+  public void becomeLockGrantor(int partition) {
+    this.partitions[partition].becomeLockGrantor();
+  }
+
+  /**
+   * Returns true if this member is the grantor of every partition.
+   */
+  @Override
+  public boolean isLockGrantor() {
+    for (DLockService partition : this.partitions) {
+      if (!partition.isLockGrantor()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns true if this member is the grantor of the partition.
+   */
+  public boolean isLockGrantor(int partition) {
+    return this.partitions[partition].isLockGrantor();
+  }
+
+  /**
+   * Destroys every partition, releasing the locks this process holds in them.
+   */
+  public void destroy() {
+    for (DLockService partition : this.partitions) {
+      partition.destroyAndRemove();
+    }
+  }
+
+  public boolean isDestroyed() {
+    for (DLockService partition : this.partitions) {
+      if (!partition.isDestroyed()) {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  @Override
+  public String toString() {
+    return "PartitionedDLockService@" + Integer.toHexString(System.identityHashCode(this))
+        + " named " + this.serviceName + " with " + this.partitions.length + " partitions";
+  }
+}
@@ -47,6 +47,9 @@ import java.util.UUID;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
 import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
 import java.util.concurrent.Future;
 import java.util.concurrent.LinkedBlockingQueue;
 import java.util.concurrent.RejectedExecutionException;
@@ -56,6 +59,7 @@ import java.util.concurrent.TimeUnit;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantReadWriteLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.ReadLock;
 import java.util.concurrent.locks.ReentrantReadWriteLock.WriteLock;
@@ -70,6 +74,7 @@ import org.apache.logging.log4j.Logger;
 
 import org.apache.geode.CancelCriterion;
 import org.apache.geode.CancelException;
+import org.apache.geode.InternalGemFireException;
 import org.apache.geode.StatisticsFactory;
 import org.apache.geode.SystemFailure;
 import org.apache.geode.cache.Cache;
@@ -255,6 +260,36 @@ public class DiskStoreImpl implements DiskStore {
   static final boolean SYNC_IF_WRITES =
       Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "syncMetaDataWrites");
 
+  /**
+   * This system property turns on group commit for synchronous oplog writes. Records appended by
+   * concurrent writers are flushed, and forced if syncWrites is set, by a single writer on behalf
+   * of all of them.
+   */
+  static final boolean GROUP_COMMIT =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "disk.groupCommit");
+
+  /**
+   * With group commit on, the number of microseconds a writer that is about to flush waits for
+   * other writers to join its batch. The wait is skipped unless the previous batch was shared.
+   */
+  static final long GROUP_COMMIT_WINDOW_MICROS =
+      Long.getLong(DistributionConfig.GEMFIRE_PREFIX + "disk.groupCommitWindowMicros", 0);
+
+  /**
+   * The number of threads used to read krfs ahead of key recovery and to recover values from
+   * oplogs in parallel. One recovers every oplog in turn.
+   */
+  static final int RECOVERY_THREADS =
+      Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "disk.recoveryThreads",
+          Math.min(4, Runtime.getRuntime().availableProcessors()));
+
+  /**
+   * This system property makes values faulted in from oplogs that are no longer being appended to
+   * be read from a memory mapping of the crf instead of with a seek and read under the oplog lock.
+   */
+  static final boolean MMAP_READS =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "disk.mmapReads");
+
   /**
    * For testing - to keep track of files for which fallocate happened
    */
@@ -344,6 +379,12 @@ public class DiskStoreImpl implements DiskStore {
 
   private final Object asyncValueRecoveryLock = new Object();
 
+  /**
+   * Held for write while a recovered region map is copied into its region and for read while async
+   * value recovery sets a value, so that values are never recovered into a map being replaced.
+   */
+  private final ReentrantReadWriteLock regionMapCopyLock = new ReentrantReadWriteLock();
+
   /**
    * The unique id for this disk store.
    *
@@ -603,36 +644,41 @@ public class DiskStoreImpl implements DiskStore {
 
     // prevent async recovery from recovering a value
     // while we are copying the entry map.
-    synchronized (currentAsyncValueRecoveryMap) {
-      DiskRegionView drv = lr.getDiskRegionView();
-      if (drv.getRecoveredEntryMap() != null) {
-        PersistentOplogSet oplogSet = getPersistentOplogSet(drv);
-
-        // acquire CompactorWriteLock only if the region attributes for the
-        // real region are different from the place holder region's
-        boolean releaseCompactorWriteLock = false;
-        if (drv.isEntriesMapIncompatible()) {
-          acquireCompactorWriteLock(); // fix bug #51097 to prevent concurrent compaction
-          releaseCompactorWriteLock = true;
-        }
-        try {
-          drv.copyExistingRegionMap(lr);
-          getStats().incUncreatedRecoveredRegions(-1);
-          for (Oplog oplog : oplogSet.getAllOplogs()) {
-            if (oplog != null) {
-              oplog.updateDiskRegion(lr.getDiskRegionView());
+    this.regionMapCopyLock.writeLock().lock();
+    try {
+      synchronized (currentAsyncValueRecoveryMap) {
+        DiskRegionView drv = lr.getDiskRegionView();
+        if (drv.getRecoveredEntryMap() != null) {
+          PersistentOplogSet oplogSet = getPersistentOplogSet(drv);
+
+          // acquire CompactorWriteLock only if the region attributes for the
+          // real region are different from the place holder region's
+          boolean releaseCompactorWriteLock = false;
+          if (drv.isEntriesMapIncompatible()) {
+            acquireCompactorWriteLock(); // fix bug #51097 to prevent concurrent compaction
+            releaseCompactorWriteLock = true;
+          }
+          try {
+            drv.copyExistingRegionMap(lr);
+            getStats().incUncreatedRecoveredRegions(-1);
+            for (Oplog oplog : oplogSet.getAllOplogs()) {
+              if (oplog != null) {
+                oplog.updateDiskRegion(lr.getDiskRegionView());
+              }
+            }
+          } finally {
+            if (releaseCompactorWriteLock) {
+              releaseCompactorWriteLock();
             }
           }
-        } finally {
-          if (releaseCompactorWriteLock) {
-            releaseCompactorWriteLock();
+          if (currentAsyncValueRecoveryMap.containsKey(drv.getId())) {
+            currentAsyncValueRecoveryMap.put(drv.getId(), lr);
           }
+          return;
         }
-        if (currentAsyncValueRecoveryMap.containsKey(drv.getId())) {
-          currentAsyncValueRecoveryMap.put(drv.getId(), lr);
-        }
-        return;
       }
+    } finally {
+      this.regionMapCopyLock.writeLock().unlock();
     }
 
     scheduleForRecovery(lr);
@@ -2044,6 +2090,7 @@ public class DiskStoreImpl implements DiskStore {
 
   void scheduleValueRecovery(Set<Oplog> oplogsNeedingValueRecovery,
       Map<Long, DiskRecoveryStore> recoveredStores) {
+    getStats().incOplogsAwaitingValueRecovery(oplogsNeedingValueRecovery.size());
     ValueRecoveryTask task = new ValueRecoveryTask(oplogsNeedingValueRecovery, recoveredStores);
     synchronized (currentAsyncValueRecoveryMap) {
       DiskStoreImpl.this.currentAsyncValueRecoveryMap.putAll(recoveredStores);
@@ -4276,6 +4323,7 @@ public class DiskStoreImpl implements DiskStore {
   private class ValueRecoveryTask implements Runnable {
     private final Set<Oplog> oplogSet;
     private final Map<Long, DiskRecoveryStore> recoveredStores;
+    private final AtomicInteger oplogsStarted = new AtomicInteger();
 
     public ValueRecoveryTask(Set<Oplog> oplogSet, Map<Long, DiskRecoveryStore> recoveredStores) {
       this.oplogSet = oplogSet;
@@ -4286,12 +4334,18 @@ public class DiskStoreImpl implements DiskStore {
       synchronized (asyncValueRecoveryLock) {
         DiskStoreObserver.startAsyncValueRecovery(DiskStoreImpl.this);
         try {
-          for (Oplog oplog : oplogSet) {
-            oplog.recoverValuesIfNeeded(currentAsyncValueRecoveryMap);
+          if (RECOVERY_THREADS <= 1 || oplogSet.size() <= 1) {
+            for (Oplog oplog : oplogSet) {
+              recoverValues(oplog);
+            }
+          } else {
+            recoverValuesInParallel();
           }
         } catch (CancelException ignore) {
           // do nothing
         } finally {
+          // account for the oplogs skipped because recovery stopped early
+          getStats().incOplogsAwaitingValueRecovery(this.oplogsStarted.get() - oplogSet.size());
           synchronized (currentAsyncValueRecoveryMap) {
             DiskStoreImpl.this.currentAsyncValueRecoveryMap.keySet()
                 .removeAll(recoveredStores.keySet());
@@ -4301,6 +4355,72 @@ public class DiskStoreImpl implements DiskStore {
         }
       }
     }
+
+    private void recoverValues(Oplog oplog) {
+      this.oplogsStarted.incrementAndGet();
+      try {
+        oplog.recoverValuesIfNeeded(currentAsyncValueRecoveryMap);
+      } finally {
+        getStats().incOplogsAwaitingValueRecovery(-1);
+      }
+    }
+
+    /**
+     * Recover values from several oplogs at once. Each oplog holds values of many regions, so this
+     * also spreads the work for a region over the workers.
+     */
+    private void recoverValuesInParallel() {
+      ExecutorService executor = createRecoveryExecutor("Oplog Value Recovery",
+          Math.min(RECOVERY_THREADS, oplogSet.size()));
+      try {
+        List<Future<?>> futures = new ArrayList<Future<?>>(oplogSet.size());
+        for (Oplog oplog : oplogSet) {
+          futures.add(executor.submit(() -> {
+            // closing the store from here must not wait for this task
+            markBackgroundTaskThread();
+            recoverValues(oplog);
+          }));
+        }
+        for (Future<?> future : futures) {
+          try {
+            future.get();
+          } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            getCancelCriterion().checkCancelInProgress(e);
+            throw new InternalGemFireException(e);
+          } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) {
+              throw (RuntimeException) cause;
+            }
+            if (cause instanceof Error) {
+              throw (Error) cause;
+            }
+            throw new InternalGemFireException(cause);
+          }
+        }
+      } finally {
+        executor.shutdownNow();
+      }
+    }
+  }
+
+  /**
+   * Create a pool of the given size for recovery work that is done in parallel. The caller shuts
+   * it down once recovery is done.
+   */
+  ExecutorService createRecoveryExecutor(String name, int threads) {
+    final ThreadGroup threadGroup =
+        LoggingThreadGroup.createThreadGroup(name + " Thread Group", logger);
+    final ThreadFactory threadFactory = GemfireCacheHelper.CreateThreadFactory(threadGroup, name);
+    return Executors.newFixedThreadPool(threads, threadFactory);
+  }
+
+  /**
+   * Returns the lock async value recovery holds while setting a recovered value
+   */
+  Lock getRegionMapCopyReadLock() {
+    return this.regionMapCopyLock.readLock();
   }
 
   public void waitForAsyncRecovery(DiskRegion diskRegion) {
@@ -77,6 +77,14 @@ public class DiskStoreStats {
   private static final int backupsInProgress;
   private static final int backupsCompleted;
 
+  private static final int groupCommitsId;
+  private static final int groupCommitRecordsId;
+  private static final int groupCommitTimeId;
+  private static final int groupCommitWaitTimeId;
+
+  private static final int oplogsAwaitingRecoveryId;
+  private static final int oplogsAwaitingValueRecoveryId;
+
   static {
     String statName = "DiskStoreStatistics";
     String statDescription = "Statistics about a Region's use of the disk";
@@ -185,7 +193,25 @@ public class DiskStoreStats {
                 "The current number of regions that have been recovered but have not yet been created.",
                 "regions"),
             f.createIntGauge("backupsInProgress", backupsInProgressDesc, "backups"),
-            f.createIntCounter("backupsCompleted", backupsCompletedDesc, "backups"),});
+            f.createIntCounter("backupsCompleted", backupsCompletedDesc, "backups"),
+            f.createLongCounter("groupCommits",
+                "The total number of flushes done for synchronous writes by group commit",
+                "ops"),
+            f.createLongCounter("groupCommitRecords",
+                "The total number of records flushed by group commits. Divide by groupCommits for the average batch size.",
+                "records"),
+            f.createLongCounter("groupCommitTime",
+                "The total amount of time spent doing group commit flushes, including any wait for the batch to fill",
+                "nanoseconds"),
+            f.createLongCounter("groupCommitWaitTime",
+                "The total amount of time synchronous writers spent waiting for their records to be committed",
+                "nanoseconds"),
+            f.createIntGauge("oplogsAwaitingRecovery",
+                "The current number of oplogs whose keys have yet to be recovered by the recovery in progress",
+                "oplogs"),
+            f.createIntGauge("oplogsAwaitingValueRecovery",
+                "The current number of oplogs whose values have yet to be recovered by async value recovery",
+                "oplogs"),});
 
     // Initialize id fields
     writesId = type.nameToId("writes");
@@ -233,6 +259,12 @@ public class DiskStoreStats {
     uncreatedRecoveredRegionsId = type.nameToId("uncreatedRecoveredRegions");
     backupsInProgress = type.nameToId("backupsInProgress");
     backupsCompleted = type.nameToId("backupsCompleted");
+    groupCommitsId = type.nameToId("groupCommits");
+    groupCommitRecordsId = type.nameToId("groupCommitRecords");
+    groupCommitTimeId = type.nameToId("groupCommitTime");
+    groupCommitWaitTimeId = type.nameToId("groupCommitWaitTime");
+    oplogsAwaitingRecoveryId = type.nameToId("oplogsAwaitingRecovery");
+    oplogsAwaitingValueRecoveryId = type.nameToId("oplogsAwaitingValueRecovery");
   }
 
   ////////////////////// Instance Fields //////////////////////
@@ -375,6 +407,44 @@ public class DiskStoreStats {
     return this.stats.getLong(flushesId);
   }
 
+  /**
+   * Invoked by a writer before it waits for its record to be committed
+   */
+  public long startGroupCommitWait() {
+    return DistributionStats.getStatTime();
+  }
+
+  public void endGroupCommitWait(long start) {
+    this.stats.incLong(groupCommitWaitTimeId, DistributionStats.getStatTime() - start);
+  }
+
+  /**
+   * Invoked before a group commit fills and flushes its batch
+   */
+  public long startGroupCommit() {
+    return DistributionStats.getStatTime();
+  }
+
+  /**
+   * Invoked after a group commit has flushed the records of its batch
+   *
+   * @param start The time at which the group commit started
+   * @param records The number of records committed
+   */
+  public void endGroupCommit(long start, long records) {
+    this.stats.incLong(groupCommitsId, 1);
+    this.stats.incLong(groupCommitRecordsId, records);
+    this.stats.incLong(groupCommitTimeId, DistributionStats.getStatTime() - start);
+  }
+
+  public long getGroupCommits() {
+    return this.stats.getLong(groupCommitsId);
+  }
+
+  public long getGroupCommitRecords() {
+    return this.stats.getLong(groupCommitRecordsId);
+  }
+
   /**
    * Invoked before data is read from disk.
    *
@@ -467,6 +537,22 @@ public class DiskStoreStats {
     this.stats.incLong(recoveredValuesSkippedDueToLRUId, 1);
   }
 
+  public void incOplogsAwaitingRecovery(int delta) {
+    this.stats.incInt(oplogsAwaitingRecoveryId, delta);
+  }
+
+  public int getOplogsAwaitingRecovery() {
+    return this.stats.getInt(oplogsAwaitingRecoveryId);
+  }
+
+  public void incOplogsAwaitingValueRecovery(int delta) {
+    this.stats.incInt(oplogsAwaitingValueRecoveryId, delta);
+  }
+
+  public int getOplogsAwaitingValueRecovery() {
+    return this.stats.getInt(oplogsAwaitingValueRecoveryId);
+  }
+
   /**
    * Invoked before data is removed from disk.
    *
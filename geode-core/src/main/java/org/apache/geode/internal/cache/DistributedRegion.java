@@ -1056,8 +1056,16 @@ public class DistributedRegion extends LocalRegion implements InternalDistribute
         createOQLIndexes(internalRegionArgs, recoverFromDisk);
 
         if (getDataPolicy().withReplication() || getDataPolicy().withPreloaded()) {
-          getInitialImageAndRecovery(snapshotInputStream, imageTarget, internalRegionArgs,
-              recoverFromDisk, persistentMemberId);
+          // Build the indexes once the initial image is loaded instead of entry by entry
+          if (this.indexManager != null) {
+            this.indexManager.startBulkLoad();
+          }
+          try {
+            getInitialImageAndRecovery(snapshotInputStream, imageTarget, internalRegionArgs,
+                recoverFromDisk, persistentMemberId);
+          } finally {
+            finishIndexBulkLoad();
+          }
         } else {
           new CreateRegionProcessor(this).initializeRegion();
           if (snapshotInputStream != null) {
@@ -1445,6 +1453,23 @@ public class DistributedRegion extends LocalRegion implements InternalDistribute
     this.initializationLatchAfterMemberTimeout.countDown();
   }
 
+  /**
+   * Builds the indexes from the entries loaded into the region since the index manager started a
+   * bulk load, if it did.
+   */
+  private void finishIndexBulkLoad() {
+    if (this.indexManager == null) {
+      return;
+    }
+    // the indexes iterate over the region, which is not initialized yet
+    int initLevel = LocalRegion.setThreadInitLevelRequirement(ANY_INIT);
+    try {
+      this.indexManager.finishBulkLoad();
+    } finally {
+      LocalRegion.setThreadInitLevelRequirement(initLevel);
+    }
+  }
+
   private boolean isRecoveryNeeded() {
     return getDataPolicy().withPersistence() && getDiskRegion().isRecreated();
   }
@@ -1477,6 +1502,8 @@ public class DistributedRegion extends LocalRegion implements InternalDistribute
         // processed
         clearEntries(rvv);
       }
+      // the indexes must hold the initial image before the region can be queried
+      finishIndexBulkLoad();
       // need to do this before we release the afterGetInitialImageLatch
       if (this.persistenceAdvisor != null) {
         this.persistenceAdvisor.setOnline(GIIStatus.didGII(giiStatus), false, getPersistentID());
@@ -316,6 +316,12 @@ public class DummyCachePerfStats extends CachePerfStats {
   @Override
   public void endQueryExecution(long executionTime) {}
 
+  @Override
+  public void incQueryResultCacheHits() {}
+
+  @Override
+  public void incQueryResultCacheMisses() {}
+
   @Override
   public int getTxCommits() {
     return 0;
@@ -119,11 +119,13 @@ import org.apache.geode.cache.asyncqueue.AsyncEventQueue;
 import org.apache.geode.cache.asyncqueue.AsyncEventQueueFactory;
 import org.apache.geode.cache.asyncqueue.internal.AsyncEventQueueFactoryImpl;
 import org.apache.geode.cache.asyncqueue.internal.AsyncEventQueueImpl;
+import org.apache.geode.cache.client.AsyncRegion;
 import org.apache.geode.cache.client.ClientRegionFactory;
 import org.apache.geode.cache.client.ClientRegionShortcut;
 import org.apache.geode.cache.client.Pool;
 import org.apache.geode.cache.client.PoolFactory;
 import org.apache.geode.cache.client.PoolManager;
+import org.apache.geode.cache.client.internal.AsyncRegionImpl;
 import org.apache.geode.cache.client.internal.ClientMetadataService;
 import org.apache.geode.cache.client.internal.ClientRegionFactoryImpl;
 import org.apache.geode.cache.client.internal.InternalClientCache;
@@ -135,6 +137,7 @@ import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.DefaultQueryService;
 import org.apache.geode.cache.query.internal.InternalQueryService;
 import org.apache.geode.cache.query.internal.QueryMonitor;
+import org.apache.geode.cache.query.internal.QueryResultCache;
 import org.apache.geode.cache.query.internal.cq.CqService;
 import org.apache.geode.cache.query.internal.cq.CqServiceProvider;
 import org.apache.geode.cache.server.CacheServer;
@@ -367,6 +370,9 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
 
   private final CachePerfStats cachePerfStats;
 
+  /** the cache of query results, null unless some region has its query results cached */
+  private final QueryResultCache queryResultCache;
+
   /** Date on which this instances was created */
   private final Date creationDate;
 
@@ -872,6 +878,7 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
       // Create the CacheStatistics
       this.cachePerfStats = new CachePerfStats(system);
       CachePerfStats.enableClockStats = this.system.getConfig().getEnableTimeStatistics();
+      this.queryResultCache = QueryResultCache.create(this.cachePerfStats);
 
       this.transactionManager = new TXManagerImpl(this.cachePerfStats, this);
       this.dm.addMembershipListener(this.transactionManager);
@@ -4476,6 +4483,11 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
     return this.queryMonitorDisabledForLowMem;
   }
 
+  @Override
+  public QueryResultCache getQueryResultCache() {
+    return this.queryResultCache;
+  }
+
   /**
    * Returns the QueryMonitor instance based on system property MAX_QUERY_EXECUTION_TIME.
    *
@@ -4661,6 +4673,11 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
     }
   }
 
+  @Override
+  public <K, V> AsyncRegion<K, V> getAsyncRegion(Region<K, V> region) {
+    return new AsyncRegionImpl<>((LocalRegion) region);
+  }
+
   @Override
   public RegionService createAuthenticatedView(Properties userSecurityProperties) {
     Pool pool = getDefaultPool();
@@ -4975,6 +4992,17 @@ public class GemFireCacheImpl implements InternalCache, InternalClientCache, Has
           cache.setRegionAttributes(shortcut.toString(), attributes);
           break;
         }
+        case NEAR_CACHE: {
+          AttributesFactory<?, ?> af = new AttributesFactory();
+          af.setDataPolicy(DataPolicy.NORMAL);
+          af.setEvictionAttributes(EvictionAttributes.createLRUEntryAttributes());
+          UserSpecifiedRegionAttributes<?, ?> attributes =
+              (UserSpecifiedRegionAttributes) af.create();
+          attributes.requiresPoolName = true;
+          attributes.nearCache = true;
+          cache.setRegionAttributes(shortcut.toString(), attributes);
+          break;
+        }
         default:
           throw new IllegalStateException("unhandled enum " + shortcut);
       }
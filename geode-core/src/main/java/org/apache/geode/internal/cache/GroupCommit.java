@@ -0,0 +1,154 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+
+/**
+ * Coalesces the flushes of concurrent synchronous writers to one {@link Oplog}. A writer appends
+ * its record to the oplog's write buffer under the oplog lock as before, takes a ticket with
+ * {@link #append()}, and calls {@link #commit(long)} once it has released the oplog lock.
+ *
+ * The first writer to commit becomes the leader and flushes everything appended so far with one
+ * write and, if syncWrites is set, one force. Writers that append while it is flushing wait for
+ * the next leader, so batches grow with the time a flush takes. If the previous batch held more
+ * than one record the leader first waits up to the configured window for more writers to join.
+ *
+ * @since Geode 1.4
+ */
+class GroupCommit {
+
+  /**
+   * Flushes and syncs everything appended to the oplog
+   */
+  private final Runnable flusher;
+
+  private final long windowNanos;
+
+  private final DiskStoreStats stats;
+
+  /**
+   * The ticket of the last record appended. Incremented under the oplog lock so tickets follow the
+   * order of the records in the write buffer.
+   */
+  private final AtomicLong appended = new AtomicLong();
+
+  private final Object commitLock = new Object();
+
+  /**
+   * The ticket of the last record known to be flushed. Guarded by commitLock.
+   */
+  private long committed;
+
+  /**
+   * True while a leader is flushing. Guarded by commitLock.
+   */
+  private boolean committing;
+
+  /**
+   * The number of records in the last batch. Guarded by commitLock.
+   */
+  private long lastBatchSize;
+
+  GroupCommit(Runnable flusher, long windowMicros, DiskStoreStats stats) {
+    this.flusher = flusher;
+    this.windowNanos = TimeUnit.MICROSECONDS.toNanos(windowMicros);
+    this.stats = stats;
+  }
+
+  /**
+   * Called under the oplog lock after a record has been added to the write buffer.
+   *
+   * @return the ticket to pass to {@link #commit(long)}
+   */
+  long append() {
+    return this.appended.incrementAndGet();
+  }
+
+  /**
+   * Wait until the record with the given ticket has been flushed, flushing it and any records
+   * appended since if no other writer is already doing so. Must not be called while holding the
+   * oplog lock.
+   */
+  void commit(long ticket) {
+    long waitStart = this.stats.startGroupCommitWait();
+    boolean interrupted = false;
+    try {
+      boolean leader = false;
+      synchronized (this.commitLock) {
+        while (this.committed < ticket) {
+          if (!this.committing) {
+            this.committing = true;
+            leader = true;
+            break;
+          }
+          try {
+            this.commitLock.wait();
+          } catch (InterruptedException e) {
+            // the record is already in the write buffer so the write has to complete
+            interrupted = true;
+          }
+        }
+      }
+      if (leader) {
+        lead();
+      }
+    } finally {
+      this.stats.endGroupCommitWait(waitStart);
+      if (interrupted) {
+        Thread.currentThread().interrupt();
+      }
+    }
+  }
+
+  private void lead() {
+    long start = this.stats.startGroupCommit();
+    boolean waitForBatch;
+    synchronized (this.commitLock) {
+      waitForBatch = this.windowNanos > 0 && this.lastBatchSize > 1;
+    }
+    if (waitForBatch) {
+      LockSupport.parkNanos(this.windowNanos);
+    }
+    long target = this.appended.get();
+    long batchSize = 0;
+    try {
+      this.flusher.run();
+      synchronized (this.commitLock) {
+        batchSize = target - this.committed;
+        this.committed = target;
+        this.lastBatchSize = batchSize;
+      }
+    } finally {
+      synchronized (this.commitLock) {
+        // on failure a waiting writer becomes the next leader and retries
+        this.committing = false;
+        this.commitLock.notifyAll();
+      }
+    }
+    this.stats.endGroupCommit(start, batchSize);
+  }
+
+  /**
+   * Returns the ticket of the last record known to be flushed
+   */
+  long getCommitted() {
+    synchronized (this.commitLock) {
+      return this.committed;
+    }
+  }
+}
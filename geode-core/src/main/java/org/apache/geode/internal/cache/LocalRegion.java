@@ -44,6 +44,7 @@ import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.Semaphore;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
 import java.util.concurrent.locks.Lock;
 import java.util.concurrent.locks.ReentrantLock;
 import java.util.regex.Matcher;
@@ -109,7 +110,9 @@ import org.apache.geode.cache.StatisticsDisabledException;
 import org.apache.geode.cache.TimeoutException;
 import org.apache.geode.cache.TransactionException;
 import org.apache.geode.cache.TransactionId;
+import org.apache.geode.cache.client.ClientRegionShortcut;
 import org.apache.geode.cache.client.PoolManager;
+import org.apache.geode.cache.client.ServerConnectivityException;
 import org.apache.geode.cache.client.ServerOperationException;
 import org.apache.geode.cache.client.SubscriptionNotEnabledException;
 import org.apache.geode.cache.client.internal.Connection;
@@ -136,6 +139,7 @@ import org.apache.geode.cache.query.TypeMismatchException;
 import org.apache.geode.cache.query.internal.DefaultQuery;
 import org.apache.geode.cache.query.internal.DefaultQueryService;
 import org.apache.geode.cache.query.internal.ExecutionContext;
+import org.apache.geode.cache.query.internal.QueryResultCache;
 import org.apache.geode.cache.query.internal.cq.CqService;
 import org.apache.geode.cache.query.internal.index.IndexCreationData;
 import org.apache.geode.cache.query.internal.index.IndexManager;
@@ -174,6 +178,8 @@ import org.apache.geode.internal.cache.entries.DiskEntry;
 import org.apache.geode.internal.cache.event.EventTracker;
 import org.apache.geode.internal.cache.event.NonDistributedEventTracker;
 import org.apache.geode.internal.cache.eviction.EvictableEntry;
+import org.apache.geode.internal.cache.eviction.EvictionList;
+import org.apache.geode.internal.cache.eviction.TinyLFUList;
 import org.apache.geode.internal.cache.execute.DistributedRegionFunctionExecutor;
 import org.apache.geode.internal.cache.execute.DistributedRegionFunctionResultSender;
 import org.apache.geode.internal.cache.execute.LocalResultCollector;
@@ -429,6 +435,11 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
 
   private final AbstractGatewaySender serialGatewaySender;
 
+  /**
+   * True if this is a client region created as a {@link ClientRegionShortcut#NEAR_CACHE}
+   */
+  private final boolean nearCache;
+
   /**
    * The factory used to create the LoaderHelper when a loader is invoked
    */
@@ -575,6 +586,8 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     this.regionName = regionName;
     this.parentRegion = parentRegion;
     this.fullPath = calcFullPath(regionName, parentRegion);
+    this.modificationCount =
+        QueryResultCache.isCachedRegion(this.fullPath) ? new AtomicLong() : null;
 
     String myName = getFullPath();
     if (internalRegionArgs.getPartitionedRegion() != null) {
@@ -612,6 +625,8 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       }
     }
 
+    this.nearCache = attrs instanceof UserSpecifiedRegionAttributes
+        && ((UserSpecifiedRegionAttributes) attrs).nearCache && attrs.getPoolName() != null;
     this.diskStoreImpl = findDiskStore(attrs, internalRegionArgs);
     this.diskRegion = createDiskRegion(internalRegionArgs);
     this.entries = createRegionMap(internalRegionArgs);
@@ -1352,6 +1367,9 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
       final boolean isCreate = value == null;
       isMiss = value == null || Token.isInvalid(value)
           || (!returnTombstones && value == Token.TOMBSTONE);
+      if (this.nearCache) {
+        recordNearCacheAccess(key, isMiss);
+      }
       // Note: if the value was Token.DESTROYED then getDeserialized
       // returns null so we don't need the following in the above expression:
       // || (isRegInterestInProgress() && Token.isDestroyed(value))
@@ -1381,6 +1399,24 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     }
   }
 
+  /**
+   * Records a read of the given key in the eviction list and the pool statistics of a near cache.
+   */
+  private void recordNearCacheAccess(Object key, boolean isMiss) {
+    if (this.entries instanceof AbstractLRURegionMap) {
+      EvictionList evictionList = ((AbstractLRURegionMap) this.entries).getEvictionList();
+      if (evictionList instanceof TinyLFUList) {
+        ((TinyLFUList) evictionList).recordAccess(key);
+      }
+    }
+    PoolStats poolStats = getServerProxy().getPool().getStats();
+    if (isMiss) {
+      poolStats.incNearCacheMisses();
+    } else {
+      poolStats.incNearCacheHits();
+    }
+  }
+
   /**
    * Update region and potentially entry stats for the miss case
    *
@@ -1533,11 +1569,36 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
 
   private final String fullPath;
 
+  /**
+   * Counts the changes to the entries of this region while the results of queries on it may be
+   * cached, otherwise null
+   */
+  private final AtomicLong modificationCount;
+
   @Override
   public String getFullPath() {
     return this.fullPath;
   }
 
+  /**
+   * Returns the number of changes made to the entries of this region, which tells whether a query
+   * result cached over this region is still current, or -1 if the changes are not counted.
+   *
+   * @see QueryResultCache
+   */
+  public long getModificationCount() {
+    return this.modificationCount == null ? -1 : this.modificationCount.get();
+  }
+
+  /**
+   * Counts a change to the entries of this region once it is visible to queries
+   */
+  private void countModification() {
+    if (this.modificationCount != null) {
+      this.modificationCount.incrementAndGet();
+    }
+  }
+
   @Override
   public Region getParentRegion() {
     return this.parentRegion;
@@ -4950,6 +5011,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
   void basicInvalidatePart2(RegionEntry regionEntry, EntryEventImpl event,
       boolean conflictWithClear, boolean invokeCallbacks) {
     updateStatsForInvalidate();
+    countModification();
 
     if (invokeCallbacks) {
       try {
@@ -5020,6 +5082,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     }
     if (didInvalidate) {
       updateStatsForInvalidate();
+      countModification();
       // Bug 40842: clearing index of the old value performed in AbstractRegionMap
     }
     if (didDestroy) {
@@ -5105,6 +5168,9 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
         }
       }
     }
+    // counted after the indexes are updated so that a result computed from stale indexes is not
+    // taken as current
+    countModification();
     if (didDestroy) {
       if (this.entryUserAttributes != null) {
         this.entryUserAttributes.remove(key);
@@ -5753,6 +5819,9 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
         }
       }
     }
+    // counted after the indexes are updated so that a result computed from stale indexes is not
+    // taken as current
+    countModification();
 
     if (invokeCallbacks) {
       boolean doCallback = false;
@@ -6367,6 +6436,31 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     releaseAfterRegionCreateEventLatch();
     SystemMemberCacheEventProcessor.send(getCache(), this, Operation.REGION_CREATE);
     initializingRegion.remove();
+
+    if (this.nearCache) {
+      registerNearCacheInterest();
+    }
+  }
+
+  /**
+   * Subscribes a near cache to invalidations of all keys. Entries are not sent with the
+   * invalidations; they are fetched again from the server the next time they are read.
+   */
+  private void registerNearCacheInterest() {
+    if (!getServerProxy().getPool().getSubscriptionEnabled()) {
+      logger.warn("Near cache region {} uses a pool without subscriptions; its entries will not be "
+          + "invalidated when they change on the servers", getFullPath());
+      return;
+    }
+    try {
+      registerInterestRegex(".*", InterestResultPolicy.NONE, false, false);
+    } catch (ServerConnectivityException e) {
+      // keep the interest so that it is registered once subscription servers are available
+      getServerProxy().addSingleInterest(".*", InterestType.REGULAR_EXPRESSION,
+          InterestResultPolicy.NONE, false, true);
+      logger.warn("Unable to register interest for near cache region {}: {}", getFullPath(),
+          e.getMessage());
+    }
   }
 
   /**
@@ -6649,6 +6743,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
    */
   void basicDestroyPart2(RegionEntry re, EntryEventImpl event, boolean inTokenMode,
       boolean conflictWithClear, boolean duringRI, boolean invokeCallbacks) {
+    countModification();
     if (!(this instanceof HARegion)) {
       if (logger.isTraceEnabled()) {
         logger.trace("basicDestroyPart2(inTokenMode={},conflictWithClear={},duringRI={}) event={}",
@@ -6830,6 +6925,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
    * completed its part of the basic destroy
    */
   void txApplyDestroyPart2(RegionEntry re, Object key, boolean inTokenMode, boolean clearConflict) {
+    countModification();
     if (this.testCallable != null) {
       this.testCallable.call(this, Operation.DESTROY, re);
     }
@@ -9122,6 +9218,7 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
         }
       }
     }
+    countModification();
 
     if (ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
       CacheObserverHolder.getInstance().afterRegionClear(regionEvent);
@@ -10401,6 +10498,13 @@ public class LocalRegion extends AbstractRegion implements LoaderHelperFactory,
     return this.isUsedForMetaRegion;
   }
 
+  /**
+   * Returns true if this is a client region created as a {@link ClientRegionShortcut#NEAR_CACHE}.
+   */
+  public boolean isNearCache() {
+    return this.nearCache;
+  }
+
   boolean isMetaRegionWithTransactions() {
     return this.isMetaRegionWithTransactions;
   }
@@ -0,0 +1,206 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.io.File;
+import java.io.IOException;
+import java.lang.reflect.Field;
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * A read-only memory mapping of an oplog file that will no longer be appended to. Faulting a value
+ * in from the mapping is a copy out of the page cache; it needs neither a seek and read system call
+ * nor the oplog lock that serializes them.
+ *
+ * Files are mapped in regions of at most {@link #REGION_SIZE} bytes. A read that spans two regions
+ * is refused and the caller falls back to reading the file.
+ *
+ * Touching a buffer after it has been unmapped crashes the JVM, so reads hold a shared lock and
+ * {@link #close()} waits for them before unmapping.
+ *
+ * @since Geode 1.4
+ */
+class MappedOplogFile {
+
+  static final int REGION_SIZE = 1 << 30;
+
+  private static final Unmapper UNMAPPER = Unmapper.create();
+
+  private final MappedByteBuffer[] regions;
+
+  private final long length;
+
+  private final int regionSize;
+
+  private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+  /** guarded by lock */
+  private boolean closed;
+
+  private MappedOplogFile(MappedByteBuffer[] regions, long length, int regionSize) {
+    this.regions = regions;
+    this.length = length;
+    this.regionSize = regionSize;
+  }
+
+  /**
+   * Map the first length bytes of file.
+   *
+   * @throws IOException if the file can not be opened or mapped, for example because the process is
+   *         out of address space
+   */
+  static MappedOplogFile map(File file, long length) throws IOException {
+    return map(file, length, REGION_SIZE);
+  }
+
+  static MappedOplogFile map(File file, long length, int regionSize) throws IOException {
+    int count = (int) ((length + regionSize - 1) / regionSize);
+    MappedByteBuffer[] regions = new MappedByteBuffer[count];
+    try (FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ)) {
+      for (int i = 0; i < count; i++) {
+        long start = (long) i * regionSize;
+        regions[i] =
+            channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(regionSize, length - start));
+      }
+    } catch (IOException | RuntimeException e) {
+      for (MappedByteBuffer region : regions) {
+        if (region != null) {
+          UNMAPPER.unmap(region);
+        }
+      }
+      throw e;
+    }
+    return new MappedOplogFile(regions, length, regionSize);
+  }
+
+  /**
+   * Copy length bytes starting at offset out of the mapping.
+   *
+   * @return the bytes, or null if they have to be read from the file instead because they are not
+   *         all in one mapped region or the mapping has been closed
+   */
+  byte[] read(long offset, int length) {
+    if (offset < 0 || length < 0 || offset + length > this.length) {
+      return null;
+    }
+    if (length == 0) {
+      return new byte[0];
+    }
+    int index = (int) (offset / this.regionSize);
+    int position = (int) (offset % this.regionSize);
+    if (position + length > this.regionSize) {
+      return null;
+    }
+    this.lock.readLock().lock();
+    try {
+      if (this.closed) {
+        return null;
+      }
+      byte[] bytes = new byte[length];
+      ByteBuffer region = this.regions[index].duplicate();
+      region.position(position);
+      region.get(bytes);
+      return bytes;
+    } finally {
+      this.lock.readLock().unlock();
+    }
+  }
+
+  long getLength() {
+    return this.length;
+  }
+
+  /**
+   * Release the mapping once reads in progress have finished. Later reads return null.
+   */
+  void close() {
+    this.lock.writeLock().lock();
+    try {
+      if (this.closed) {
+        return;
+      }
+      this.closed = true;
+      for (int i = 0; i < this.regions.length; i++) {
+        UNMAPPER.unmap(this.regions[i]);
+        this.regions[i] = null;
+      }
+    } finally {
+      this.lock.writeLock().unlock();
+    }
+  }
+
+  /**
+   * Releases a mapping without waiting for it to be garbage collected. Until it is released the
+   * file can not be deleted on Windows and its pages still count against the address space. There
+   * is no public API for this in Java 8, so the JDK internals are looked up reflectively; if they
+   * are missing the mapping is left to the garbage collector.
+   */
+  private static class Unmapper {
+
+    /** Java 9 and later: sun.misc.Unsafe.invokeCleaner(ByteBuffer) */
+    private final Object unsafe;
+    private final Method invokeCleaner;
+
+    /** Java 8: ((sun.nio.ch.DirectBuffer) buffer).cleaner().clean() */
+    private final Method cleaner;
+    private final Method clean;
+
+    private Unmapper(Object unsafe, Method invokeCleaner, Method cleaner, Method clean) {
+      this.unsafe = unsafe;
+      this.invokeCleaner = invokeCleaner;
+      this.cleaner = cleaner;
+      this.clean = clean;
+    }
+
+    static Unmapper create() {
+      try {
+        Class<?> unsafeClass = Class.forName("sun.misc.Unsafe");
+        Method invokeCleaner = unsafeClass.getMethod("invokeCleaner", ByteBuffer.class);
+        Field theUnsafe = unsafeClass.getDeclaredField("theUnsafe");
+        theUnsafe.setAccessible(true);
+        return new Unmapper(theUnsafe.get(null), invokeCleaner, null, null);
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        // not Java 9 or later
+      }
+      try {
+        Method cleaner = Class.forName("sun.nio.ch.DirectBuffer").getMethod("cleaner");
+        Method clean = Class.forName("sun.misc.Cleaner").getMethod("clean");
+        return new Unmapper(null, null, cleaner, clean);
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        return new Unmapper(null, null, null, null);
+      }
+    }
+
+    void unmap(MappedByteBuffer buffer) {
+      try {
+        if (this.invokeCleaner != null) {
+          this.invokeCleaner.invoke(this.unsafe, buffer);
+        } else if (this.cleaner != null) {
+          Object cleaner = this.cleaner.invoke(buffer);
+          if (cleaner != null) {
+            this.clean.invoke(cleaner);
+          }
+        }
+      } catch (ReflectiveOperationException | RuntimeException e) {
+        // leave it to the garbage collector
+      }
+    }
+  }
+}
@@ -16,6 +16,7 @@ package org.apache.geode.internal.cache;
 
 import java.io.BufferedInputStream;
 import java.io.BufferedOutputStream;
+import java.io.ByteArrayInputStream;
 import java.io.DataInput;
 import java.io.DataInputStream;
 import java.io.DataOutput;
@@ -26,9 +27,11 @@ import java.io.FileInputStream;
 import java.io.FileNotFoundException;
 import java.io.FileOutputStream;
 import java.io.IOException;
+import java.io.InputStream;
 import java.io.InterruptedIOException;
 import java.nio.ByteBuffer;
 import java.nio.channels.ClosedChannelException;
+import java.nio.file.Files;
 import java.util.Arrays;
 import java.util.Collection;
 import java.util.Collections;
@@ -42,6 +45,9 @@ import java.util.Map.Entry;
 import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -143,6 +149,11 @@ public class Oplog implements CompactableOplog, Flushable {
   /** The stats for this store */
   private final DiskStoreStats stats;
 
+  /**
+   * Coalesces the flushes of synchronous writes; null unless group commit is on
+   */
+  private final GroupCommit groupCommit;
+
   /** The store that owns this Oplog* */
   private final DiskStoreImpl parent;
 
@@ -553,6 +564,18 @@ public class Oplog implements CompactableOplog, Flushable {
    */
   private boolean doneAppending = false;
 
+  /**
+   * Read-only mapping of the crf that values are faulted in from once doneAppending is set, if
+   * {@link DiskStoreImpl#MMAP_READS} is on.
+   */
+  private volatile MappedOplogFile mappedCrf;
+
+  /**
+   * Set once the crf could not be mapped or has been closed so that it is not mapped (again).
+   * Guarded by lock.
+   */
+  private boolean crfUnmappable = false;
+
   /**
    * Creates new {@code Oplog} for the given region.
    *
@@ -598,6 +621,7 @@ public class Oplog implements CompactableOplog, Flushable {
     setMaxCrfDrfSize();
     this.stats = getParent().getStats();
     this.compactOplogs = getParent().getAutoCompact();
+    this.groupCommit = createGroupCommit();
 
     this.closed = false;
     String n = getParent().getName();
@@ -659,6 +683,7 @@ public class Oplog implements CompactableOplog, Flushable {
     setMaxCrfDrfSize();
     this.stats = prevOplog.stats;
     this.compactOplogs = prevOplog.compactOplogs;
+    this.groupCommit = createGroupCommit();
     // copy over the previous Oplog's data version since data is not being
     // transformed at this point
     this.dataVersion = prevOplog.getDataVersionIfOld();
@@ -859,6 +884,7 @@ public class Oplog implements CompactableOplog, Flushable {
     setMaxCrfDrfSize();
     this.stats = getParent().getStats();
     this.compactOplogs = getParent().getAutoCompact();
+    this.groupCommit = createGroupCommit();
     this.closed = true;
     this.crf.RAFClosed = true;
     this.deleted.set(true);
@@ -866,6 +892,14 @@ public class Oplog implements CompactableOplog, Flushable {
     this.haveRecoveredDrf = false;
   }
 
+  private GroupCommit createGroupCommit() {
+    if (!DiskStoreImpl.GROUP_COMMIT) {
+      return null;
+    }
+    return new GroupCommit(() -> flushAll(false), DiskStoreImpl.GROUP_COMMIT_WINDOW_MICROS,
+        this.stats);
+  }
+
   /**
    * Returns true if added file was crf; false if drf
    */
@@ -1675,6 +1709,55 @@ public class Oplog implements CompactableOplog, Flushable {
    */
   private OplogEntryIdMap skippedKeyBytes;
 
+  /**
+   * The contents of the krf if it is being read ahead of recovery, otherwise null
+   */
+  private volatile Future<byte[]> prefetchedKrf;
+
+  /**
+   * Returns the length of the krf that {@link #prefetchKrf} would read, or 0 if there is none.
+   */
+  long getPrefetchableKrfLength() {
+    File f = getRecoveredKrfFile();
+    if (f == null || !getParent().getDiskInitFile().hasKrf(this.oplogId)) {
+      return 0;
+    }
+    return f.length();
+  }
+
+  /**
+   * Read the krf into memory on the given executor so that key recovery does not wait for the disk
+   * when it gets to this oplog. The bytes are released once the crf has been recovered.
+   */
+  void prefetchKrf(ExecutorService executor) {
+    File f = getRecoveredKrfFile();
+    if (f != null) {
+      this.prefetchedKrf = executor.submit(() -> Files.readAllBytes(f.toPath()));
+    }
+  }
+
+  private File getRecoveredKrfFile() {
+    if (this.crf.f == null || this.drf.f == null) {
+      return null;
+    }
+    return new File(this.drf.f.getParentFile(),
+        oplogSet.getPrefix() + getParent().getName() + "_" + this.oplogId + KRF_FILE_EXT);
+  }
+
+  private InputStream openKrf(File f) throws FileNotFoundException {
+    Future<byte[]> prefetched = this.prefetchedKrf;
+    if (prefetched != null) {
+      try {
+        return new ByteArrayInputStream(prefetched.get());
+      } catch (ExecutionException ignore) {
+        // read it from the file instead, which reports the problem if there still is one
+      } catch (InterruptedException ignore) {
+        Thread.currentThread().interrupt();
+      }
+    }
+    return new FileInputStream(f);
+  }
+
   private boolean readKrf(OplogEntryIdSet deletedIds, boolean recoverValues,
       boolean recoverValuesSync, Set<Oplog> oplogsNeedingValueRecovery, boolean latestOplog) {
     File f = new File(this.diskFile.getPath() + KRF_FILE_EXT);
@@ -1696,9 +1779,9 @@ public class Oplog implements CompactableOplog, Flushable {
       return false;
     }
 
-    FileInputStream fis;
+    InputStream fis;
     try {
-      fis = new FileInputStream(f);
+      fis = openKrf(f);
     } catch (FileNotFoundException ignore) {
       return false;
     }
@@ -1729,7 +1812,7 @@ public class Oplog implements CompactableOplog, Flushable {
           // beginning or this is not a valid file at all. Try reading it as a
           // file in old format
           fis.close();
-          fis = new FileInputStream(f);
+          fis = openKrf(f);
           dis = new DataInputStream(new BufferedInputStream(fis, 1024 * 1024));
           readDiskStoreRecord(dis, f);
         } catch (IllegalStateException ignore) {
@@ -1737,7 +1820,7 @@ public class Oplog implements CompactableOplog, Flushable {
           // is in new format which has a magic seq in the beginning or this is
           // not a valid file at all
           fis.close();
-          fis = new FileInputStream(f);
+          fis = openKrf(f);
           dis = new DataInputStream(new BufferedInputStream(fis, 1024 * 1024));
           readDiskStoreRecord(dis, f);
         }
@@ -2302,6 +2385,7 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       this.kvMap = null;
       this.skippedKeyBytes = null;
+      this.prefetchedKrf = null;
       unlockCompactor();
     }
   }
@@ -3317,6 +3401,7 @@ public class Oplog implements CompactableOplog, Flushable {
     // No need to get the backup lock prior to synchronizing (correct lock order) since the
     // synchronized block does not attempt to get the backup lock (incorrect lock order)
     synchronized (this.lock/* crf */) {
+      closeMappedCrf();
       unpreblow(this.crf, getMaxCrfSize());
       if (!this.crf.RAFClosed) {
         try {
@@ -3577,6 +3662,8 @@ public class Oplog implements CompactableOplog, Flushable {
     DiskId id = entry.getDiskId();
     boolean useNextOplog = false;
     long startPosForSynchOp = -1;
+    boolean useGroupCommit = !async && this.groupCommit != null;
+    long commitTicket = 0;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
       System.out.println("basicCreate KRF_DEBUG");
@@ -3644,7 +3731,10 @@ public class Oplog implements CompactableOplog, Flushable {
           id.setOplogId(getOplogId());
           // do the io while holding lock so that switch can set doneAppending
           // Write the data to the opLog for the synch mode
-          startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+          startPosForSynchOp = writeOpLogBytes(this.crf, async, !useGroupCommit);
+          if (useGroupCommit) {
+            commitTicket = this.groupCommit.append();
+          }
           // if (this.crf.currSize != startPosForSynchOp) {
           // assert false;
           // }
@@ -3700,6 +3790,9 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    if (commitTicket != 0) {
+      this.groupCommit.commit(commitTicket);
+    }
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -4609,6 +4702,8 @@ public class Oplog implements CompactableOplog, Flushable {
     long startPosForSynchOp = -1L;
     int adjustment = 0;
     Oplog emptyOplog = null;
+    boolean useGroupCommit = !async && this.groupCommit != null;
+    long commitTicket = 0;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
       System.out.println("basicModify KRF_DEBUG");
@@ -4639,7 +4734,10 @@ public class Oplog implements CompactableOplog, Flushable {
             long oldOplogId;
             // do the io while holding lock so that switch can set doneAppending
             // Write the data to the opLog for the synch mode
-            startPosForSynchOp = writeOpLogBytes(this.crf, async, true);
+            startPosForSynchOp = writeOpLogBytes(this.crf, async, !useGroupCommit);
+            if (useGroupCommit) {
+              commitTicket = this.groupCommit.append();
+            }
             this.crf.currSize = temp;
             startPosForSynchOp += getOpStateValueOffset();
             if (logger.isTraceEnabled(LogMarker.PERSIST_WRITES)) {
@@ -4710,6 +4808,9 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    if (commitTicket != 0) {
+      this.groupCommit.commit(commitTicket);
+    }
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -5060,6 +5161,8 @@ public class Oplog implements CompactableOplog, Flushable {
     boolean useNextOplog = false;
     long startPosForSynchOp = -1;
     Oplog emptyOplog = null;
+    boolean useGroupCommit = !async && this.groupCommit != null;
+    long commitTicket = 0;
     if (DiskStoreImpl.KRF_DEBUG) {
       // wait for cache close to create krf
       System.out.println("basicRemove KRF_DEBUG");
@@ -5107,7 +5210,10 @@ public class Oplog implements CompactableOplog, Flushable {
             // before we flush the crf.
             // However we can't have removes by async if we are doing a sync write
             // because we might be killed right after we do this write.
-            startPosForSynchOp = writeOpLogBytes(this.drf, async, true);
+            startPosForSynchOp = writeOpLogBytes(this.drf, async, !useGroupCommit);
+            if (useGroupCommit) {
+              commitTicket = this.groupCommit.append();
+            }
             setHasDeletes(true);
             if (logger.isDebugEnabled(LogMarker.PERSIST_WRITES)) {
               logger.debug("basicRemove: id=<{}> key=<{}> drId={} oplog#{}", abs(id.getKeyId()),
@@ -5139,6 +5245,9 @@ public class Oplog implements CompactableOplog, Flushable {
     } finally {
       getParent().getBackupLock().unlock();
     }
+    if (commitTicket != 0) {
+      this.groupCommit.commit(commitTicket);
+    }
     if (useNextOplog) {
       if (LocalRegion.ISSUE_CALLBACKS_TO_CACHE_OBSERVER) {
         CacheObserverHolder.getInstance().afterSwitchingOplog();
@@ -5415,6 +5524,10 @@ public class Oplog implements CompactableOplog, Flushable {
 
   private BytesAndBits attemptGet(DiskRegionView dr, long offsetInOplog, boolean bitOnly,
       int valueLength, byte userBits) throws IOException {
+    BytesAndBits mapped = attemptMappedGet(offsetInOplog, bitOnly, valueLength, userBits);
+    if (mapped != null) {
+      return mapped;
+    }
     boolean didReopen = false;
     boolean accessedInactive = false;
     try {
@@ -5510,6 +5623,73 @@ public class Oplog implements CompactableOplog, Flushable {
     }
   }
 
+  /**
+   * Reads a value from the mapping of the crf, mapping it first if this oplog is no longer being
+   * appended to. Unlike the read from the file, this does not need the oplog lock.
+   *
+   * @param bitOnly true if only the user bits are wanted, in which case the value is not copied
+   *        out of the mapping
+   * @return the value, or null if it has to be read from the file
+   */
+  private BytesAndBits attemptMappedGet(long offsetInOplog, boolean bitOnly, int valueLength,
+      byte userBits) {
+    MappedOplogFile mapping = this.mappedCrf;
+    if (mapping == null) {
+      if (!DiskStoreImpl.MMAP_READS || !this.doneAppending) {
+        return null;
+      }
+      mapping = mapCrf();
+      if (mapping == null) {
+        return null;
+      }
+    }
+    if (bitOnly) {
+      return new BytesAndBits(DiskEntry.LOCAL_INVALID_BYTES, userBits);
+    }
+    byte[] valueBytes = mapping.read(offsetInOplog, valueLength);
+    if (valueBytes == null) {
+      return null;
+    }
+    this.stats.incOplogReads();
+    BytesAndBits bb = new BytesAndBits(valueBytes, userBits);
+    // also set the product version for an older product
+    final Version version = getProductVersionIfOld();
+    if (version != null) {
+      bb.setVersion(version);
+    }
+    return bb;
+  }
+
+  private MappedOplogFile mapCrf() {
+    synchronized (this.lock/* crf */) {
+      if (this.mappedCrf == null && !this.crfUnmappable && this.doneAppending && !this.closed
+          && this.crf.f != null && this.crf.bytesFlushed > 0) {
+        try {
+          this.mappedCrf = MappedOplogFile.map(this.crf.f, this.crf.bytesFlushed);
+        } catch (IOException e) {
+          this.crfUnmappable = true;
+          if (logger.isDebugEnabled()) {
+            logger.debug("Could not map {} for reading, reading it from the file instead",
+                this.crf.f, e);
+          }
+        }
+      }
+      return this.mappedCrf;
+    }
+  }
+
+  /**
+   * Release the mapping of the crf, if any. Must be called while holding lock.
+   */
+  private void closeMappedCrf() {
+    this.crfUnmappable = true;
+    MappedOplogFile mapping = this.mappedCrf;
+    if (mapping != null) {
+      this.mappedCrf = null;
+      mapping.close();
+    }
+  }
+
   /**
    * Extracts the Value byte array & UserBit from the OpLog
    *
@@ -5779,6 +5959,9 @@ public class Oplog implements CompactableOplog, Flushable {
         this.dirHolder.decrementTotalOplogSize(olf.currSize);
         olf.currSize = 0;
       }
+      if (olf == this.crf) {
+        closeMappedCrf();
+      }
       if (olf.f == null)
         return;
       if (!olf.f.exists())
@@ -6256,33 +6439,43 @@ public class Oplog implements CompactableOplog, Flushable {
       // from
       // disk is still valid. That is going to be something like
 
-      synchronized (diskRecoveryStores) {
-        DiskRecoveryStore diskRecoveryStore = diskRecoveryStores.get(diskRegionId);
-        if (diskRecoveryStore == null) {
-          continue;
-        }
+      // the region map must not be replaced while the value is recovered into it
+      Lock copyLock = getParent().getRegionMapCopyReadLock();
+      copyLock.lock();
+      try {
+        DiskRecoveryStore diskRecoveryStore;
+        synchronized (diskRecoveryStores) {
+          diskRecoveryStore = diskRecoveryStores.get(diskRegionId);
+          if (diskRecoveryStore == null) {
+            continue;
+          }
 
-        // Reset the disk region view because it may have changed
-        // due to the region being created.
-        diskRegionView = diskRecoveryStore.getDiskRegionView();
+          // Reset the disk region view because it may have changed
+          // due to the region being created.
+          diskRegionView = diskRecoveryStore.getDiskRegionView();
 
-        if (diskRegionView == null) {
-          continue;
-        }
-        if (diskRecoveryStore.lruLimitExceeded()) {
-          diskRecoveryStores.remove(diskRegionId);
-          continue;
+          if (diskRegionView == null) {
+            continue;
+          }
+          if (diskRecoveryStore.lruLimitExceeded()) {
+            diskRecoveryStores.remove(diskRegionId);
+            continue;
+          }
         }
 
         if (diskRegionView.isEntriesMapIncompatible()) {
           // Refetch the disk entry because it may have changed due to copying
           // an incompatible region map
-          diskEntry = (DiskEntry) diskRecoveryStore.getRegionMap().getEntryInVM(diskEntry.getKey());
+          diskEntry =
+              (DiskEntry) diskRecoveryStore.getRegionMap().getEntryInVM(diskEntry.getKey());
           if (diskEntry == null) {
             continue;
           }
         }
 
+        // Other oplogs may be recovering values at the same time, so the lock on
+        // diskRecoveryStores is not held while reading the value. copyLock keeps the
+        // region map from being replaced underneath us.
         synchronized (diskEntry) {
           // Make sure the entry hasn't been modified
           if (diskEntry.getDiskId() != null && diskEntry.getDiskId().getOplogId() == oplogId) {
@@ -6307,10 +6500,14 @@ public class Oplog implements CompactableOplog, Flushable {
               DiskEntry.Helper.recoverValue(diskEntry, getOplogId(), diskRecoveryStore, in);
             } catch (RegionDestroyedException ignore) {
               // This region has been destroyed, stop recovering from it.
-              diskRecoveryStores.remove(diskRegionId);
+              synchronized (diskRecoveryStores) {
+                diskRecoveryStores.remove(diskRegionId);
+              }
             }
           }
         }
+      } finally {
+        copyLock.unlock();
       }
     }
   }
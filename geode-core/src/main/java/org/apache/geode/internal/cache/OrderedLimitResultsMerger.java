@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.PriorityQueue;
+import java.util.TreeMap;
+
+/**
+ * Merges the ordered result streams of the members taking part in a partitioned region query with
+ * ORDER BY and LIMIT as their chunks arrive, keeping only the first limit results instead of every
+ * member's full result.
+ * <p>
+ * Each member sends its results in order, so once a member sends a result that sorts after the
+ * worst of limit results already kept, nothing more it sends can be part of the answer. Its later
+ * chunks are dropped on arrival. Chunks can arrive out of order, so a chunk that arrives before an
+ * earlier one of the same member is held back until the chunks before it have been merged.
+ */
+class OrderedLimitResultsMerger {
+
+  private final Comparator<Object> comparator;
+
+  private final int limit;
+
+  /**
+   * The best results so far, worst first. guarded.By this
+   */
+  private final PriorityQueue<Object> best;
+
+  /**
+   * guarded.By this
+   */
+  private final Map<Object, SenderState> senders = new HashMap<Object, SenderState>();
+
+  private int droppedChunks;
+
+  /**
+   * @param comparator the order of the results
+   * @param limit the number of results to keep, greater than zero
+   */
+  OrderedLimitResultsMerger(Comparator<Object> comparator, int limit) {
+    this.comparator = comparator;
+    this.limit = limit;
+    this.best = new PriorityQueue<Object>(Math.min(limit, 1024) + 1, comparator.reversed());
+  }
+
+  /**
+   * Merge a chunk of results from sender. The results of the chunk must be in order, and follow
+   * those of the sender's chunks with lower sequence numbers.
+   *
+   * @param sequenceNum the 0-based position of the chunk among the sender's chunks
+   * @return false if sender can not contribute any more results
+   */
+  synchronized boolean merge(Object sender, int sequenceNum, Collection chunk) {
+    SenderState state = this.senders.get(sender);
+    if (state == null) {
+      state = new SenderState();
+      this.senders.put(sender, state);
+    }
+    if (state.finished) {
+      this.droppedChunks++;
+      return false;
+    }
+    if (sequenceNum != state.nextSequenceNum) {
+      state.heldBackChunks.put(sequenceNum, chunk);
+      return true;
+    }
+    while (chunk != null) {
+      if (!mergeChunk(chunk)) {
+        state.finished = true;
+        this.droppedChunks += state.heldBackChunks.size();
+        state.heldBackChunks.clear();
+        return false;
+      }
+      state.nextSequenceNum++;
+      chunk = state.heldBackChunks.remove(state.nextSequenceNum);
+    }
+    return true;
+  }
+
+  /**
+   * @return false if the rest of the chunk, and every later chunk of its sender, sort after the
+   *         best results
+   */
+  private boolean mergeChunk(Collection chunk) {
+    for (Object result : chunk) {
+      if (this.best.size() < this.limit) {
+        this.best.add(result);
+      } else if (this.comparator.compare(result, this.best.peek()) < 0) {
+        this.best.poll();
+        this.best.add(result);
+      } else {
+        return false;
+      }
+    }
+    return true;
+  }
+
+  /**
+   * Returns the best results, in order.
+   */
+  synchronized List<Object> getResults() {
+    // merge whatever is still held back, merging extra results never makes the answer wrong
+    for (SenderState state : this.senders.values()) {
+      for (Collection chunk : state.heldBackChunks.values()) {
+        mergeChunk(chunk);
+      }
+      state.heldBackChunks.clear();
+    }
+    List<Object> results = new ArrayList<Object>(this.best);
+    Collections.sort(results, this.comparator);
+    return results;
+  }
+
+  synchronized int getDroppedChunks() {
+    return this.droppedChunks;
+  }
+
+  private static class SenderState {
+
+    private int nextSequenceNum;
+
+    /**
+     * Chunks that arrived before one with a lower sequence number, by sequence number
+     */
+    private final TreeMap<Integer, Collection> heldBackChunks = new TreeMap<Integer, Collection>();
+
+    /**
+     * Set once the sender's remaining results can not be part of the answer
+     */
+    private boolean finished;
+  }
+}
@@ -97,6 +97,18 @@ class OverflowOplog implements CompactableOplog, Flushable {
    */
   private boolean doneAppending = false;
 
+  /**
+   * Read-only mapping of the crf that values are faulted in from once doneAppending is set, if
+   * {@link DiskStoreImpl#MMAP_READS} is on.
+   */
+  private volatile MappedOplogFile mappedCrf;
+
+  /**
+   * Set once the crf could not be mapped or has been closed so that it is not mapped (again).
+   * Guarded by crf.
+   */
+  private boolean crfUnmappable = false;
+
   private final OplogDiskEntry liveEntries = new OplogDiskEntry();
 
   /**
@@ -370,6 +382,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
   private void basicClose() {
     flushAll();
     synchronized (this.crf) {
+      closeMappedCrf();
       if (!this.crf.RAFClosed) {
         try {
           this.crf.channel.close();
@@ -798,8 +811,12 @@ class OverflowOplog implements CompactableOplog, Flushable {
     return startPos;
   }
 
-  private BytesAndBits attemptGet(DiskRegionView dr, long offsetInOplog, int valueLength,
-      byte userBits) throws IOException {
+  private BytesAndBits attemptGet(DiskRegionView dr, long offsetInOplog, boolean bitOnly,
+      int valueLength, byte userBits) throws IOException {
+    BytesAndBits mapped = attemptMappedGet(offsetInOplog, bitOnly, valueLength, userBits);
+    if (mapped != null) {
+      return mapped;
+    }
     synchronized (this.crf) {
       assert offsetInOplog >= 0;
       RandomAccessFile myRAF = this.crf.raf;
@@ -867,6 +884,69 @@ class OverflowOplog implements CompactableOplog, Flushable {
     return bb;
   }
 
+  /**
+   * Reads a value from the mapping of the crf, mapping it first if this oplog is no longer being
+   * appended to. Unlike the read from the file, this does not need to synchronize on the crf.
+   *
+   * @param bitOnly true if only the user bits are wanted, in which case the value is not copied
+   *        out of the mapping
+   * @return the value, or null if it has to be read from the file
+   */
+  private BytesAndBits attemptMappedGet(long offsetInOplog, boolean bitOnly, int valueLength,
+      byte userBits) {
+    MappedOplogFile mapping = this.mappedCrf;
+    if (mapping == null) {
+      if (!DiskStoreImpl.MMAP_READS || !this.doneAppending) {
+        return null;
+      }
+      mapping = mapCrf();
+      if (mapping == null) {
+        return null;
+      }
+    }
+    if (bitOnly) {
+      return new BytesAndBits(DiskEntry.LOCAL_INVALID_BYTES, userBits);
+    }
+    byte[] valueBytes = mapping.read(offsetInOplog, valueLength);
+    if (valueBytes == null) {
+      return null;
+    }
+    this.stats.incOplogReads();
+    return new BytesAndBits(valueBytes, userBits);
+  }
+
+  private MappedOplogFile mapCrf() {
+    synchronized (this.crf) {
+      if (this.mappedCrf == null && !this.crfUnmappable && this.doneAppending && !this.closed
+          && this.crf.f != null && this.crf.bytesFlushed > 0) {
+        try {
+          this.mappedCrf = MappedOplogFile.map(this.crf.f, this.crf.bytesFlushed);
+        } catch (IOException e) {
+          this.crfUnmappable = true;
+          if (logger.isDebugEnabled()) {
+            logger.debug("Could not map {} for reading, reading it from the file instead",
+                this.crf.f, e);
+          }
+        }
+      }
+      return this.mappedCrf;
+    }
+  }
+
+  /**
+   * Release the mapping of the crf, if any.
+   */
+  private void closeMappedCrf() {
+    synchronized (this.crf) {
+      this.crfUnmappable = true;
+      MappedOplogFile mapping = this.mappedCrf;
+      if (mapping != null) {
+        this.mappedCrf = null;
+        mapping.close();
+      }
+    }
+  }
+
   /**
    * Extracts the Value byte array & UserBit from the OpLog
    *
@@ -897,7 +977,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
           dr.getCancelCriterion().checkCancelInProgress(null);
           boolean interrupted = Thread.interrupted();
           try {
-            bb = attemptGet(dr, offsetInOplog, valueLength, userBits);
+            bb = attemptGet(dr, offsetInOplog, bitOnly, valueLength, userBits);
             break;
           } catch (InterruptedIOException ignore) {
             // bug 39756
@@ -936,6 +1016,7 @@ class OverflowOplog implements CompactableOplog, Flushable {
   }
 
   private void deleteFile() {
+    closeMappedCrf();
     final OplogFile olf = getOLF();
     if (this.maxOplogSize != 0) {
       this.dirHolder.decrementTotalOplogSize(this.maxOplogSize);
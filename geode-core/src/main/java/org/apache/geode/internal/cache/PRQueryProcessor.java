@@ -22,16 +22,23 @@ import java.io.IOException;
 import java.util.ArrayList;
 import java.util.Collection;
 import java.util.Collections;
+import java.util.HashMap;
 import java.util.Iterator;
 import java.util.List;
+import java.util.Map;
 import java.util.concurrent.Callable;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 import java.util.concurrent.Future;
 import java.util.concurrent.RejectedExecutionException;
 import java.util.concurrent.TimeUnit;
 import java.util.concurrent.TimeoutException;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.atomic.AtomicReference;
 
 import org.apache.logging.log4j.Logger;
 
@@ -79,6 +86,31 @@ public class PRQueryProcessor {
   /* For Test purpose */
   public static int TEST_NUM_THREADS = 0;
 
+  /**
+   * If true the local buckets of a query are scanned by a shared fork/join pool instead of by the
+   * PRQueryExecutor thread pool or sequentially.
+   */
+  static final boolean FORK_JOIN =
+      Boolean.getBoolean(DistributionConfig.GEMFIRE_PREFIX + "PRQueryProcessor.forkJoin");
+
+  /* For Test purpose */
+  public static boolean TEST_FORK_JOIN = false;
+
+  /**
+   * The number of threads of the fork/join pool, and the most a single query uses unless its hint
+   * clause asks for fewer or more.
+   */
+  static final int FORK_JOIN_PARALLELISM =
+      getInteger(DistributionConfig.GEMFIRE_PREFIX + "PRQueryProcessor.forkJoinParallelism",
+          Runtime.getRuntime().availableProcessors());
+
+  /**
+   * A hint of the form {@code <hint 'parallelism=4'>} sets the number of threads a query's local
+   * bucket scan may use on each member. The hint travels with the query string, so it reaches the
+   * remote members without any change to the messages.
+   */
+  public static final String PARALLELISM_HINT = "parallelism=";
+
   private PartitionedRegionDataStore _prds;
   private PartitionedRegion pr;
   private final DefaultQuery query;
@@ -132,7 +164,9 @@ public class PRQueryProcessor {
     // ((IndexTrackingQueryObserver)observer).setIndexInfo(resultCollector.getIndexInfoMap());
     // }
 
-    if (NUM_THREADS > 1 || TEST_NUM_THREADS > 1) {
+    if ((FORK_JOIN || TEST_FORK_JOIN) && this._bucketsToQuery.size() > 1) {
+      executeWithForkJoin(resultCollector);
+    } else if (NUM_THREADS > 1 || TEST_NUM_THREADS > 1) {
       executeWithThreadPool(resultCollector);
     } else {
       executeSequentially(resultCollector, this._bucketsToQuery);
@@ -219,6 +253,115 @@ public class PRQueryProcessor {
 
   }
 
+  /**
+   * Scans the buckets on the fork/join pool. Each of the query's workers takes the next bucket not
+   * yet taken, largest first, so one large bucket does not leave the other threads idle at the end
+   * of the scan, and idle pool threads steal work queued by other queries.
+   */
+  private void executeWithForkJoin(Collection<Collection> resultCollector)
+      throws QueryException, InterruptedException, ForceReattemptException {
+    if (Thread.interrupted())
+      throw new InterruptedException();
+
+    final List<Integer> buckets = bucketsLargestFirst();
+    final int parallelism = Math.min(getParallelism(), buckets.size());
+    final AtomicInteger nextBucket = new AtomicInteger();
+    final AtomicReference<Exception> failure = new AtomicReference<Exception>();
+    final AtomicLong busyTime = new AtomicLong();
+    final ForkJoinPool pool = PRQueryExecutor.getForkJoinPool();
+    final long start = this.pr.prStats.startParallelQuery();
+
+    List<ForkJoinTask<?>> workers = new ArrayList<ForkJoinTask<?>>(parallelism);
+    for (int i = 0; i < parallelism; i++) {
+      workers.add(pool.submit(() -> {
+        int index;
+        while (failure.get() == null && (index = nextBucket.getAndIncrement()) < buckets.size()) {
+          long bucketStart = CachePerfStats.getStatTime();
+          try {
+            ExecutionContext context =
+                new QueryExecutionContext(this.parameters, this.pr.getCache(), this.query);
+            context.setBucketList(Collections.singletonList(buckets.get(index)));
+            executeQueryOnBuckets(resultCollector, context);
+          } catch (ForceReattemptException | QueryException | CacheRuntimeException e) {
+            failure.compareAndSet(null, e);
+          } finally {
+            busyTime.addAndGet(CachePerfStats.getStatTime() - bucketStart);
+          }
+        }
+      }));
+    }
+    // bounded like invokeAll on the thread pool
+    long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(300);
+    try {
+      for (ForkJoinTask<?> worker : workers) {
+        worker.get(deadline - System.nanoTime(), TimeUnit.NANOSECONDS);
+      }
+    } catch (TimeoutException e) {
+      throw new InternalGemFireException(
+          LocalizedStrings.PRQueryProcessor_TIMED_OUT_WHILE_EXECUTING_QUERY_TIME_EXCEEDED_0
+              .toLocalizedString(300),
+          e);
+    } catch (ExecutionException ee) {
+      throw new InternalGemFireException(
+          LocalizedStrings.PRQueryProcessor_GOT_UNEXPECTED_EXCEPTION_WHILE_EXECUTING_QUERY_ON_PARTITIONED_REGION_BUCKET
+              .toLocalizedString(),
+          ee.getCause());
+    } finally {
+      // stops the workers taking more buckets if this thread gives up waiting for them
+      nextBucket.set(buckets.size());
+    }
+    this.pr.prStats.endParallelQuery(start, parallelism, busyTime.get());
+
+    Exception e = failure.get();
+    if (e instanceof ForceReattemptException) {
+      throw (ForceReattemptException) e;
+    } else if (e instanceof QueryException) {
+      throw (QueryException) e;
+    } else if (e != null) {
+      throw (CacheRuntimeException) e;
+    }
+
+    CompiledSelect cs = this.query.getSimpleSelect();
+    if (cs != null && (cs.isOrderBy() || cs.isGroupBy())) {
+      ExecutionContext context = new QueryExecutionContext(this.parameters, pr.getCache());
+      int limit = this.query.getLimit(parameters);
+      Collection mergedResults = coalesceOrderedResults(resultCollector, context, cs, limit);
+      resultCollector.clear();
+      resultCollector.add(mergedResults);
+    }
+  }
+
+  /**
+   * Returns the parallelism asked for by the query's hint clause, or the configured one.
+   */
+  int getParallelism() {
+    CompiledSelect cs = this.query.getSimpleSelect();
+    if (cs != null && cs.getHints() != null) {
+      for (String hint : cs.getHints()) {
+        if (hint.startsWith(PARALLELISM_HINT)) {
+          try {
+            return Math.max(1, Integer.parseInt(hint.substring(PARALLELISM_HINT.length()).trim()));
+          } catch (NumberFormatException ignore) {
+            // not a parallelism hint after all
+          }
+        }
+      }
+    }
+    return FORK_JOIN_PARALLELISM;
+  }
+
+  private List<Integer> bucketsLargestFirst() {
+    final PartitionedRegionDataStore dataStore = this.pr.getDataStore();
+    final Map<Integer, Integer> sizes = new HashMap<Integer, Integer>();
+    for (Integer bucketId : this._bucketsToQuery) {
+      BucketRegion bucket = dataStore == null ? null : dataStore.getLocalBucketById(bucketId);
+      sizes.put(bucketId, bucket == null ? 0 : bucket.getRegionMap().size());
+    }
+    List<Integer> buckets = new ArrayList<Integer>(this._bucketsToQuery);
+    buckets.sort((b1, b2) -> Integer.compare(sizes.get(b2), sizes.get(b1)));
+    return buckets;
+  }
+
   /**
    * @throws ForceReattemptException if bucket was moved so caller should try query again
    */
@@ -443,6 +586,8 @@ public class PRQueryProcessor {
 
     private static ExecutorService execService = null;
 
+    private static ForkJoinPool forkJoinPool = null;
+
     /**
      * Closes the executor service. This is called from
      * {@link PartitionedRegion#afterRegionsClosedByCacheClose(InternalCache)}
@@ -451,11 +596,23 @@ public class PRQueryProcessor {
       if (execService != null) {
         execService.shutdown();
       }
+      if (forkJoinPool != null) {
+        forkJoinPool.shutdown();
+      }
     }
 
     static synchronized void shutdownNow() {
       if (execService != null)
         execService.shutdownNow();
+      if (forkJoinPool != null)
+        forkJoinPool.shutdownNow();
+    }
+
+    static synchronized ForkJoinPool getForkJoinPool() {
+      if (forkJoinPool == null || forkJoinPool.isShutdown()) {
+        forkJoinPool = new ForkJoinPool(FORK_JOIN_PARALLELISM);
+      }
+      return forkJoinPool;
     }
 
     static synchronized ExecutorService getExecutorService() {
@@ -76,6 +76,13 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
     public void hook(final int spot) throws RuntimeException;
   }
 
+  /**
+   * Merge the results of ORDER BY ... LIMIT queries as they arrive from the members, so that the
+   * query node holds LIMIT results instead of LIMIT results from every member.
+   */
+  static final boolean STREAMING_ORDER_BY_LIMIT = Boolean.getBoolean(
+      DistributionConfig.GEMFIRE_PREFIX + "PRQueryEvaluator.streamingOrderByLimit");
+
   private static final int MAX_PR_QUERY_RETRIES =
       Integer.getInteger(DistributionConfig.GEMFIRE_PREFIX + "MAX_PR_QUERY_RETRIES", 10).intValue();
 
@@ -96,6 +103,12 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
   // set of members failed to execute query
   private Set<InternalDistributedMember> failedMembers;
 
+  /**
+   * Merges remote results as they arrive instead of keeping them in resultsPerMember, for queries
+   * that qualify when {@link #STREAMING_ORDER_BY_LIMIT} is set. Null otherwise.
+   */
+  private volatile OrderedLimitResultsMerger limitMerger;
+
   /**
    * Construct a PartitionedRegionQueryEvaluator
    *
@@ -191,9 +204,15 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
       objects = sortIncomingData(objects, orderByAttribs);
     }
 
+    OrderedLimitResultsMerger merger = this.limitMerger;
     synchronized (results) {
       if (!QueryMonitor.isLowMemory()) {
-        results.add(objects);
+        if (merger != null && !sortNeeded) {
+          // the member sends one ordered stream, so chunks after the limit are dropped here
+          merger.merge(sender, sequenceNum, objects);
+        } else {
+          results.add(objects);
+        }
       } else {
         if (logger.isDebugEnabled()) {
           logger.debug("query canceled while gathering results, aborting");
@@ -434,6 +453,7 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
     this.node2bucketIds = buildNodeToBucketMap();
     Assert.assertTrue(!this.node2bucketIds.isEmpty(),
         " There are no data stores hosting any of the buckets.");
+    this.limitMerger = createLimitMerger();
 
     boolean needsRetry = true;
     int retry = 0;
@@ -457,7 +477,14 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
           }
           break;
         }
-        Map b2n = buildNodeToBucketMapForBuckets(calculateRetryBuckets());
+        Set<Integer> retryBuckets = calculateRetryBuckets();
+        if (this.limitMerger != null) {
+          // merged results can not be told apart by member, so query every bucket again
+          this.resultsPerMember.clear();
+          this.limitMerger = createLimitMerger();
+          retryBuckets = this.bucketsToQuery;
+        }
+        Map b2n = buildNodeToBucketMapForBuckets(retryBuckets);
         if (th != null) {
           th.hook(2);
         }
@@ -559,6 +586,10 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
       return this.cumulativeResults;
     }
 
+    if (this.limitMerger != null) {
+      return buildLimitMergedResult(cs, limit);
+    }
+
     boolean isGroupByResults = cs.getType() == CompiledValue.GROUP_BY_SELECT;
     if (isGroupByResults) {
       SelectResults baseResults = null;
@@ -786,6 +817,62 @@ public class PartitionedRegionQueryEvaluator extends StreamingPartitionOperation
 
   }
 
+  /**
+   * Returns a merger for the results of this query if it is an ORDER BY query with a LIMIT whose
+   * results can be merged as they arrive, otherwise null.
+   */
+  private OrderedLimitResultsMerger createLimitMerger() throws QueryException {
+    if (!STREAMING_ORDER_BY_LIMIT || this.query == null) {
+      return null;
+    }
+    CompiledSelect cs = this.query.getSimpleSelect();
+    if (cs == null || !cs.isOrderBy() || cs.isDistinct() || cs.isCount()
+        || cs.getType() == CompiledValue.GROUP_BY_SELECT
+        || !this.cumulativeResults.getCollectionType().isOrdered()) {
+      return null;
+    }
+    int limit = this.query.getLimit(this.parameters);
+    if (limit <= 0) {
+      return null;
+    }
+    ObjectType elementType = cs.getElementTypeForOrderByQueries();
+    ExecutionContext context = new QueryExecutionContext(this.parameters, this.pr.cache);
+    final OrderByComparator orderBy =
+        new OrderByComparator(cs.getOrderByAttrs(), elementType, context);
+    Comparator<Object> comparator;
+    if (elementType != null && elementType.isStructType()) {
+      comparator = (o1, o2) -> orderBy.compare(((Struct) o1).getFieldValues(),
+          ((Struct) o2).getFieldValues());
+    } else {
+      comparator = orderBy::compare;
+    }
+    return new OrderedLimitResultsMerger(comparator, limit);
+  }
+
+  /**
+   * Adds the local results, and any that had to be kept per member, to the results merged as they
+   * arrived and puts the first limit of them in the cumulative result set.
+   */
+  private SelectResults buildLimitMergedResult(CompiledSelect cs, int limit) {
+    for (Collection<Collection> memberResults : this.resultsPerMember.values()) {
+      for (Collection res : memberResults) {
+        if (res != null) {
+          // each collection is ordered on its own
+          this.limitMerger.merge(new Object(), 0, res);
+        }
+      }
+    }
+    if (logger.isDebugEnabled()) {
+      logger.debug("Dropped {} chunks of results that sorted after the limit of {}",
+          this.limitMerger.getDroppedChunks(), limit);
+    }
+    ExecutionContext localContext = new QueryExecutionContext(this.parameters, this.pr.cache);
+    this.cumulativeResults =
+        new NWayMergeResults(Collections.singletonList(this.limitMerger.getResults()), false,
+            limit, cs.getOrderByAttrs(), localContext, cs.getElementTypeForOrderByQueries());
+    return this.cumulativeResults;
+  }
+
   /**
    * Generates a map with key as PR node and value as the list as a subset of the bucketIds hosted
    * by the node.
@@ -172,6 +172,11 @@ public class PartitionedRegionStats {
 
   private static final int prMetaDataSentCountId;
 
+  private static final int parallelQueriesCompletedId;
+  private static final int parallelQueryTimeId;
+  private static final int parallelQueryCapacityTimeId;
+  private static final int parallelQueryBusyTimeId;
+
   private static final int localMaxMemoryId;
 
   static {
@@ -418,6 +423,18 @@ public class PartitionedRegionStats {
             f.createLongCounter("prMetaDataSentCount",
                 "total number of times meta data refreshed sent on client's request.", "operation",
                 false),
+            f.createIntCounter("parallelQueriesCompleted",
+                "Total number of queries whose local buckets were scanned in parallel.",
+                "operations"),
+            f.createLongCounter("parallelQueryTime",
+                "Total elapsed time spent scanning local buckets in parallel.", "nanoseconds",
+                false),
+            f.createLongCounter("parallelQueryCapacityTime",
+                "Total elapsed time of parallel bucket scans multiplied by the number of threads each was allowed to use.",
+                "nanoseconds", false),
+            f.createLongCounter("parallelQueryBusyTime",
+                "Total time the threads of parallel bucket scans spent querying buckets. Divided by parallelQueryCapacityTime it gives the parallel efficiency.",
+                "nanoseconds", true),
 
             f.createLongGauge("localMaxMemory",
                 "local max memory in bytes for this region on this member", "bytes")
@@ -525,6 +542,11 @@ public class PartitionedRegionStats {
 
     prMetaDataSentCountId = type.nameToId("prMetaDataSentCount");
 
+    parallelQueriesCompletedId = type.nameToId("parallelQueriesCompleted");
+    parallelQueryTimeId = type.nameToId("parallelQueryTime");
+    parallelQueryCapacityTimeId = type.nameToId("parallelQueryCapacityTime");
+    parallelQueryBusyTimeId = type.nameToId("parallelQueryBusyTime");
+
     localMaxMemoryId = type.nameToId("localMaxMemory");
   }
 
@@ -1195,4 +1217,36 @@ public class PartitionedRegionStats {
   public long getPRMetaDataSentCount() {
     return this.stats.getLong(prMetaDataSentCountId);
   }
+
+  public long startParallelQuery() {
+    return CachePerfStats.getStatTime();
+  }
+
+  /**
+   * @param parallelism the number of threads the scan was allowed to use
+   * @param busyTime the time those threads spent querying buckets
+   */
+  public void endParallelQuery(long start, int parallelism, long busyTime) {
+    long delta = CachePerfStats.getStatTime() - start;
+    this.stats.incInt(parallelQueriesCompletedId, 1);
+    this.stats.incLong(parallelQueryTimeId, delta);
+    this.stats.incLong(parallelQueryCapacityTimeId, delta * parallelism);
+    this.stats.incLong(parallelQueryBusyTimeId, busyTime);
+  }
+
+  public int getParallelQueriesCompleted() {
+    return this.stats.getInt(parallelQueriesCompletedId);
+  }
+
+  public long getParallelQueryTime() {
+    return this.stats.getLong(parallelQueryTimeId);
+  }
+
+  public long getParallelQueryCapacityTime() {
+    return this.stats.getLong(parallelQueryCapacityTimeId);
+  }
+
+  public long getParallelQueryBusyTime() {
+    return this.stats.getLong(parallelQueryBusyTimeId);
+  }
 }
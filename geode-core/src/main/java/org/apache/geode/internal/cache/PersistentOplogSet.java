@@ -26,6 +26,7 @@ import java.util.List;
 import java.util.Map;
 import java.util.Set;
 import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
 import java.util.concurrent.atomic.AtomicBoolean;
 import java.util.concurrent.atomic.AtomicInteger;
 import java.util.concurrent.atomic.AtomicLong;
@@ -337,6 +338,11 @@ public class PersistentOplogSet implements OplogSet {
     }
   }
 
+  /**
+   * The most krf bytes held in memory by read ahead during recovery
+   */
+  private static final long MAX_KRF_PREFETCH_BYTES = 256L * 1024 * 1024;
+
   public void recoverRegionsThatAreReady() {
     // The following sync also prevents concurrent recoveries by multiple regions
     // which is needed currently.
@@ -454,24 +460,65 @@ public class PersistentOplogSet implements OplogSet {
       }
       parent.incDeadRecordCount(deletedIds.size());
       // now figure out live entries
-      latestOplog = true;
-      for (Oplog oplog : oplogSet) {
-        long startOpLogRead = parent.getStats().startOplogRead();
-        long bytesRead = oplog.recoverCrf(deletedIds,
-            // @todo make recoverValues per region
-            recoverValues(), recoverValuesSync(), this.alreadyRecoveredOnce.get(),
-            oplogsNeedingValueRecovery, latestOplog);
-        latestOplog = false;
-        if (!this.alreadyRecoveredOnce.get()) {
-          updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
-        }
-        byteCount += bytesRead;
-        parent.getStats().endOplogRead(startOpLogRead, bytesRead);
+      List<Oplog> oplogs = new ArrayList<Oplog>(oplogSet);
+      ExecutorService krfPrefetcher = null;
+      if (DiskStoreImpl.RECOVERY_THREADS > 1 && oplogs.size() > 1 && !recoverValuesSync()
+          && !parent.isOffline()) {
+        krfPrefetcher =
+            parent.createRecoveryExecutor("Oplog Krf Prefetch", DiskStoreImpl.RECOVERY_THREADS);
+      }
+      long[] prefetchedBytes = new long[oplogs.size()];
+      long totalPrefetchedBytes = 0;
+      int nextPrefetch = 1;
+      int oplogsRecovered = 0;
+      parent.getStats().incOplogsAwaitingRecovery(oplogs.size());
+      try {
+        latestOplog = true;
+        for (int i = 0; i < oplogs.size(); i++) {
+          Oplog oplog = oplogs.get(i);
+          if (krfPrefetcher != null) {
+            // keys must be recovered newest oplog first, but the krfs of the next few
+            // oplogs can be read while this one is being applied
+            while (nextPrefetch < oplogs.size()
+                && nextPrefetch <= i + DiskStoreImpl.RECOVERY_THREADS) {
+              Oplog next = oplogs.get(nextPrefetch);
+              long length = next.getPrefetchableKrfLength();
+              if (length > 0 && length <= MAX_KRF_PREFETCH_BYTES) {
+                if (totalPrefetchedBytes + length > MAX_KRF_PREFETCH_BYTES) {
+                  break;
+                }
+                next.prefetchKrf(krfPrefetcher);
+                prefetchedBytes[nextPrefetch] = length;
+                totalPrefetchedBytes += length;
+              }
+              nextPrefetch++;
+            }
+          }
+          long startOpLogRead = parent.getStats().startOplogRead();
+          long bytesRead = oplog.recoverCrf(deletedIds,
+              // @todo make recoverValues per region
+              recoverValues(), recoverValuesSync(), this.alreadyRecoveredOnce.get(),
+              oplogsNeedingValueRecovery, latestOplog);
+          latestOplog = false;
+          totalPrefetchedBytes -= prefetchedBytes[i];
+          oplogsRecovered++;
+          parent.getStats().incOplogsAwaitingRecovery(-1);
+          if (!this.alreadyRecoveredOnce.get()) {
+            updateOplogEntryId(oplog.getMaxRecoveredOplogEntryId());
+          }
+          byteCount += bytesRead;
+          parent.getStats().endOplogRead(startOpLogRead, bytesRead);
 
-        // Callback to the disk regions to indicate the oplog is recovered
-        // Used for offline export
-        for (DiskRecoveryStore drs : this.currentRecoveryMap.values()) {
-          drs.getDiskRegionView().oplogRecovered(oplog.oplogId);
+          // Callback to the disk regions to indicate the oplog is recovered
+          // Used for offline export
+          for (DiskRecoveryStore drs : this.currentRecoveryMap.values()) {
+            drs.getDiskRegionView().oplogRecovered(oplog.oplogId);
+          }
+        }
+      } finally {
+        parent.getStats().incOplogsAwaitingRecovery(oplogsRecovered - oplogs.size());
+        if (krfPrefetcher != null) {
+          krfPrefetcher.shutdownNow();
         }
       }
       long endOpLogRecovery = System.currentTimeMillis();
@@ -16,6 +16,8 @@ package org.apache.geode.internal.cache;
 
 import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
 
+import java.util.concurrent.atomic.LongAdder;
+
 import org.apache.geode.*;
 import org.apache.geode.distributed.internal.DistributionStats;
 import org.apache.geode.internal.statistics.StatisticsTypeFactoryImpl;
@@ -56,6 +58,11 @@ public class PoolStats {
   private static final int _CONNECTION_WAIT_IN_PROGRESS;
   private static final int _CONNECTION_WAITS;
   private static final int _CONNECTION_WAIT_TIME;
+  private static final int _CONNECTION_BORROWS;
+  private static final int _CONNECTION_BORROW_TIME;
+  private static final int _CONNECTION_BORROW_TIME_50;
+  private static final int _CONNECTION_BORROW_TIME_99;
+  private static final int _CONNECTION_BORROW_TIME_999;
   private static final int connectionsId;
   // private static final int conCountId;
   private static final int poolConnectionsId;
@@ -70,6 +77,9 @@ public class PoolStats {
   private static final int clientOpTimedOutId;
   private static final int clientOpFailedId;
   private static final int clientOpDurationId;
+  private static final int nearCacheHitsId;
+  private static final int nearCacheMissesId;
+  private static final int nearCacheHitRatioId;
 
   static {
     String statName = "PoolStats";
@@ -122,6 +132,21 @@ public class PoolStats {
                 "waits"),
             f.createLongCounter("connectionWaitTime",
                 "Total number of nanoseconds spent waiting for a connection.", "nanoseconds"),
+            f.createLongCounter("connectionBorrows",
+                "Total number of times a thread asked the pool for a connection, whether or not it got one.",
+                "borrows"),
+            f.createLongCounter("connectionBorrowTime",
+                "Total number of nanoseconds spent borrowing connections, including any time spent waiting.",
+                "nanoseconds"),
+            f.createLongGauge("connectionBorrowTime50thPercentile",
+                "Median time to borrow a connection over the last sample interval.",
+                "nanoseconds"),
+            f.createLongGauge("connectionBorrowTime99thPercentile",
+                "99th percentile of the time to borrow a connection over the last sample interval.",
+                "nanoseconds"),
+            f.createLongGauge("connectionBorrowTime999thPercentile",
+                "99.9th percentile of the time to borrow a connection over the last sample interval.",
+                "nanoseconds"),
             f.createIntGauge("clientOpsInProgress", "Current number of clientOps being executed",
                 "clientOps"),
             f.createIntGauge("clientOpSendsInProgress",
@@ -139,7 +164,16 @@ public class PoolStats {
             f.createLongCounter("clientOpSendTime",
                 "Total amount of time, in nanoseconds spent doing clientOp sends", "nanoseconds"),
             f.createLongCounter("clientOpTime",
-                "Total amount of time, in nanoseconds spent doing clientOps", "nanoseconds"),});
+                "Total amount of time, in nanoseconds spent doing clientOps", "nanoseconds"),
+            f.createLongCounter("nearCacheHits",
+                "Total number of reads of near cache regions that found the value locally",
+                "operations"),
+            f.createLongCounter("nearCacheMisses",
+                "Total number of reads of near cache regions that did not find the value locally",
+                "operations"),
+            f.createDoubleGauge("nearCacheHitRatio",
+                "Ratio of the reads of near cache regions that found the value locally",
+                "ratio"),});
 
     // Initialize id fields
     _INITIAL_CONTACTS = _type.nameToId(INITIAL_CONTACTS);
@@ -159,6 +193,11 @@ public class PoolStats {
     _CONNECTION_WAIT_IN_PROGRESS = _type.nameToId("connectionWaitsInProgress");
     _CONNECTION_WAITS = _type.nameToId("connectionWaits");
     _CONNECTION_WAIT_TIME = _type.nameToId("connectionWaitTime");
+    _CONNECTION_BORROWS = _type.nameToId("connectionBorrows");
+    _CONNECTION_BORROW_TIME = _type.nameToId("connectionBorrowTime");
+    _CONNECTION_BORROW_TIME_50 = _type.nameToId("connectionBorrowTime50thPercentile");
+    _CONNECTION_BORROW_TIME_99 = _type.nameToId("connectionBorrowTime99thPercentile");
+    _CONNECTION_BORROW_TIME_999 = _type.nameToId("connectionBorrowTime999thPercentile");
 
     connectionsId = _type.nameToId("connections");
     // conCountId = _type.nameToId("conCount");
@@ -175,6 +214,9 @@ public class PoolStats {
     clientOpTimedOutId = _type.nameToId("clientOpTimeouts");
     clientOpFailedId = _type.nameToId("clientOpFailures");
     clientOpDurationId = _type.nameToId("clientOpTime");
+    nearCacheHitsId = _type.nameToId("nearCacheHits");
+    nearCacheMissesId = _type.nameToId("nearCacheMisses");
+    nearCacheHitRatioId = _type.nameToId("nearCacheHitRatio");
   }
 
   ////////////////////// Instance Fields //////////////////////
@@ -182,10 +224,16 @@ public class PoolStats {
   /** The Statistics object that we delegate most behavior to */
   private final Statistics _stats;
 
+  private final BorrowTimeHistogram borrowTimes = new BorrowTimeHistogram();
+
   /////////////////////// Constructors ///////////////////////
 
   public PoolStats(StatisticsFactory f, String name) {
     this._stats = f.createAtomicStatistics(_type, name);
+    this._stats.setLongSupplier(_CONNECTION_BORROW_TIME_50, () -> borrowTimes.getPercentile(0));
+    this._stats.setLongSupplier(_CONNECTION_BORROW_TIME_99, () -> borrowTimes.getPercentile(1));
+    this._stats.setLongSupplier(_CONNECTION_BORROW_TIME_999, () -> borrowTimes.getPercentile(2));
+    this._stats.setDoubleSupplier(nearCacheHitRatioId, this::getNearCacheHitRatio);
   }
 
   ///////////////////// Instance Methods /////////////////////
@@ -334,6 +382,21 @@ public class PoolStats {
     this._stats.incLong(_CONNECTION_WAIT_TIME, duration);
   }
 
+  public long beginConnectionBorrow() {
+    return getStatTime();
+  }
+
+  public void endConnectionBorrow(long start) {
+    long duration = getStatTime() - start;
+    this._stats.incLong(_CONNECTION_BORROWS, 1);
+    this._stats.incLong(_CONNECTION_BORROW_TIME, duration);
+    this.borrowTimes.record(duration);
+  }
+
+  public long getConnectionBorrows() {
+    return this._stats.getLong(_CONNECTION_BORROWS);
+  }
+
   public void startClientOp() {
     this._stats.incInt(clientOpInProgressId, 1);
     this._stats.incInt(clientOpSendInProgressId, 1);
@@ -364,4 +427,111 @@ public class PoolStats {
     this._stats.incInt(endClientOpId, 1);
     this._stats.incLong(clientOpDurationId, duration);
   }
+
+  public void incNearCacheHits() {
+    this._stats.incLong(nearCacheHitsId, 1);
+  }
+
+  public void incNearCacheMisses() {
+    this._stats.incLong(nearCacheMissesId, 1);
+  }
+
+  public long getNearCacheHits() {
+    return this._stats.getLong(nearCacheHitsId);
+  }
+
+  public long getNearCacheMisses() {
+    return this._stats.getLong(nearCacheMissesId);
+  }
+
+  /**
+   * Returns the ratio of the reads of near cache regions that found the value locally, or 0 if
+   * there were none.
+   */
+  public double getNearCacheHitRatio() {
+    long hits = getNearCacheHits();
+    long reads = hits + getNearCacheMisses();
+    return reads == 0 ? 0 : (double) hits / reads;
+  }
+
+  /**
+   * Log-linear histogram of borrow times, with four buckets per power of two so that a reported
+   * percentile is within 25% of the true value. Borrowing threads only touch striped adders; the
+   * percentiles are computed by the statistics sampler from the borrows recorded since it last
+   * looked.
+   */
+  static class BorrowTimeHistogram {
+    private static final int SUB_BUCKET_BITS = 2;
+    private static final int SUB_BUCKETS = 1 << SUB_BUCKET_BITS;
+    private static final int BUCKETS = (64 - SUB_BUCKET_BITS) * SUB_BUCKETS;
+    private static final double[] PERCENTILES = {0.50, 0.99, 0.999};
+
+    /** Don't recompute more than once per sample, even though each percentile asks separately. */
+    private static final long MIN_RECOMPUTE_INTERVAL = 500 * 1000 * 1000L;
+
+    private final LongAdder[] counts = new LongAdder[BUCKETS];
+    private final long[] previousCounts = new long[BUCKETS];
+    private final long[] percentiles = new long[PERCENTILES.length];
+    private long lastComputed = System.nanoTime() - MIN_RECOMPUTE_INTERVAL;
+
+    BorrowTimeHistogram() {
+      for (int i = 0; i < BUCKETS; i++) {
+        counts[i] = new LongAdder();
+      }
+    }
+
+    void record(long nanos) {
+      counts[bucketOf(nanos)].increment();
+    }
+
+    synchronized long getPercentile(int index) {
+      long now = System.nanoTime();
+      if (now - lastComputed >= MIN_RECOMPUTE_INTERVAL) {
+        lastComputed = now;
+        computePercentiles();
+      }
+      return percentiles[index];
+    }
+
+    private void computePercentiles() {
+      long[] interval = new long[BUCKETS];
+      long total = 0;
+      for (int i = 0; i < BUCKETS; i++) {
+        long count = counts[i].sum();
+        interval[i] = count - previousCounts[i];
+        previousCounts[i] = count;
+        total += interval[i];
+      }
+      for (int p = 0; p < PERCENTILES.length; p++) {
+        percentiles[p] = 0;
+        long rank = (long) Math.ceil(PERCENTILES[p] * total);
+        long seen = 0;
+        for (int i = 0; i < BUCKETS && total > 0; i++) {
+          seen += interval[i];
+          if (seen >= rank) {
+            percentiles[p] = upperBoundOf(i);
+            break;
+          }
+        }
+      }
+    }
+
+    static int bucketOf(long nanos) {
+      if (nanos < SUB_BUCKETS) {
+        return nanos < 0 ? 0 : (int) nanos;
+      }
+      int magnitude = 63 - Long.numberOfLeadingZeros(nanos);
+      int subBucket = (int) (nanos >>> (magnitude - SUB_BUCKET_BITS)) & (SUB_BUCKETS - 1);
+      return (magnitude - SUB_BUCKET_BITS + 1) * SUB_BUCKETS + subBucket;
+    }
+
+    static long upperBoundOf(int bucket) {
+      if (bucket < SUB_BUCKETS) {
+        return bucket;
+      }
+      int shift = bucket / SUB_BUCKETS - 1;
+      long lower = (long) (SUB_BUCKETS + bucket % SUB_BUCKETS) << shift;
+      return lower + (1L << shift) - 1;
+    }
+  }
 }
@@ -443,6 +443,13 @@ public abstract class UserSpecifiedRegionAttributes<K, V> implements RegionAttri
    * @since GemFire 6.5
    */
   public boolean requiresPoolName = false;
+  /**
+   * If set to true then the region is created as a near cache of the servers of its pool.
+   *
+   * @see org.apache.geode.cache.client.ClientRegionShortcut#NEAR_CACHE
+   * @since Geode 1.4
+   */
+  public boolean nearCache = false;
   /**
    * Holds index information. Hoisted up to this class in 7.0
    *
@@ -19,6 +19,7 @@ import org.apache.geode.cache.EvictionAlgorithm;
 import org.apache.geode.internal.cache.BucketRegion;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.cache.InternalRegionArguments;
+import org.apache.geode.internal.cache.LocalRegion;
 import org.apache.geode.internal.cache.PartitionedRegion;
 import org.apache.geode.internal.cache.PlaceHolderDiskRegion;
 import org.apache.geode.internal.lang.SystemPropertyHelper;
@@ -58,6 +59,9 @@ public class EvictionListBuilder {
   public EvictionList create() {
     if (algorithm.isLIFO()) {
       return new LIFOList(getEvictionStats(), getBucketRegion());
+    } else if (algorithm.isLRUEntry() && region instanceof LocalRegion
+        && ((LocalRegion) region).isNearCache()) {
+      return new TinyLFUList(getEvictionStats(), getBucketRegion(), controller);
     } else {
       if (EVICTION_SCAN_ASYNC) {
         return new LRUListWithAsyncSorting(getEvictionStats(), getBucketRegion());
@@ -0,0 +1,128 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Estimates how often keys were accessed recently, using a count-min sketch of 4-bit counters. Each
+ * key is counted in four counters of the table, and its frequency is the smallest of them. Once as
+ * many increments as ten times the table size have been recorded, all counters are halved so that
+ * the estimates favor recent accesses.
+ * <p>
+ * Counters are updated without locking. Increments racing with each other or with the halving may
+ * be lost, which only makes the estimates slightly less accurate.
+ */
+class FrequencySketch {
+
+  private static final long[] SEEDS = {0xc3a5c85c97cb3127L, 0xb492b66fbe98f273L,
+      0x9ae16a3b2f90404fL, 0xcbf29ce484222325L};
+
+  private static final long RESET_MASK = 0x7777777777777777L;
+
+  private static final int MAXIMUM_TABLE_SIZE = 1 << 24;
+
+  /** the counters, sixteen per long */
+  private final AtomicLongArray table;
+
+  private final int tableMask;
+
+  private final int sampleSize;
+
+  private final AtomicInteger size = new AtomicInteger();
+
+  /**
+   * Creates a sketch suited to estimating the frequencies of the given number of keys.
+   */
+  FrequencySketch(long expectedKeys) {
+    int tableSize = 16;
+    while (tableSize < expectedKeys && tableSize < MAXIMUM_TABLE_SIZE) {
+      tableSize <<= 1;
+    }
+    this.table = new AtomicLongArray(tableSize);
+    this.tableMask = tableSize - 1;
+    this.sampleSize = tableSize * 10;
+  }
+
+  /**
+   * Returns the estimated number of recent accesses of the given key, from 0 to 15.
+   */
+  int frequency(Object key) {
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    int frequency = Integer.MAX_VALUE;
+    for (int i = 0; i < 4; i++) {
+      int index = indexOf(hash, i);
+      int count = (int) ((this.table.get(index) >>> ((start + i) << 2)) & 0xfL);
+      frequency = Math.min(frequency, count);
+    }
+    return frequency;
+  }
+
+  /**
+   * Records an access of the given key.
+   */
+  void increment(Object key) {
+    int hash = spread(key.hashCode());
+    int start = (hash & 3) << 2;
+    boolean added = false;
+    for (int i = 0; i < 4; i++) {
+      added |= incrementAt(indexOf(hash, i), start + i);
+    }
+    if (added && this.size.incrementAndGet() == this.sampleSize) {
+      reset();
+    }
+  }
+
+  private boolean incrementAt(int index, int counter) {
+    int offset = counter << 2;
+    long mask = 0xfL << offset;
+    while (true) {
+      long value = this.table.get(index);
+      if ((value & mask) == mask) {
+        return false;
+      }
+      if (this.table.compareAndSet(index, value, value + (1L << offset))) {
+        return true;
+      }
+    }
+  }
+
+  /**
+   * Halves every counter so that older accesses count less than recent ones.
+   */
+  private void reset() {
+    for (int i = 0; i < this.table.length(); i++) {
+      long value;
+      do {
+        value = this.table.get(i);
+      } while (!this.table.compareAndSet(i, value, (value >>> 1) & RESET_MASK));
+    }
+    this.size.set(this.sampleSize / 2);
+  }
+
+  private int indexOf(int hash, int i) {
+    long h = (SEEDS[i] + hash) * SEEDS[i];
+    h += h >>> 32;
+    return ((int) h) & this.tableMask;
+  }
+
+  private static int spread(int hash) {
+    int x = ((hash >>> 16) ^ hash) * 0x45d9f3b;
+    x = ((x >>> 16) ^ x) * 0x45d9f3b;
+    return (x >>> 16) ^ x;
+  }
+}
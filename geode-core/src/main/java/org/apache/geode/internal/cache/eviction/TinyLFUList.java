@@ -0,0 +1,208 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import java.util.Collections;
+import java.util.IdentityHashMap;
+import java.util.Set;
+
+import org.apache.logging.log4j.Logger;
+
+import org.apache.geode.internal.cache.BucketRegion;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.internal.cache.versions.RegionVersionVector;
+import org.apache.geode.internal.logging.LogService;
+import org.apache.geode.internal.logging.log4j.LogMarker;
+
+/**
+ * An eviction list for near cache regions implementing the W-TinyLFU policy. New entries are added
+ * to a small admission window. Once the region is full, the oldest entry of the window competes
+ * with the entry the main list would evict, and the one whose key was read less often recently is
+ * evicted. This keeps keys read often in the region when many keys are read only once.
+ * <p>
+ * How often keys are read is estimated by a {@link FrequencySketch}, which is told of reads by
+ * {@link #recordAccess(Object)}. The main list is scanned like {@link LRUListWithSyncSorting}:
+ * entries used since they were last considered are given another chance.
+ */
+public class TinyLFUList extends AbstractEvictionList {
+
+  private static final Logger logger = LogService.getLogger();
+
+  /** the percentage of the entry limit kept in the admission window */
+  private static final int WINDOW_PERCENTAGE = 1;
+
+  private final EvictionController controller;
+
+  private final FrequencySketch sketch;
+
+  private final EvictionNode windowHead = new GuardNode();
+
+  private final EvictionNode windowTail = new GuardNode();
+
+  /** the nodes in the admission window, guarded by this */
+  private final Set<EvictionNode> window =
+      Collections.newSetFromMap(new IdentityHashMap<EvictionNode, Boolean>());
+
+  TinyLFUList(InternalEvictionStatistics stats, BucketRegion region,
+      EvictionController controller) {
+    super(stats, region);
+    this.controller = controller;
+    this.sketch = new FrequencySketch(controller.getLimit());
+    initEmptyWindow();
+  }
+
+  private synchronized void initEmptyWindow() {
+    this.window.clear();
+    this.windowHead.setNext(this.windowTail);
+    this.windowTail.setPrevious(this.windowHead);
+  }
+
+  /**
+   * Records a read of the given key.
+   */
+  public void recordAccess(Object key) {
+    this.sketch.increment(key);
+  }
+
+  /**
+   * Adds a new eviction node for the entry to the tail of the admission window. Until the region is
+   * full, the oldest node of a full window is moved to the main list without competing.
+   */
+  @Override
+  public synchronized void appendEntry(EvictionNode evictionNode) {
+    if (evictionNode.next() != null) {
+      // already in the list
+      return;
+    }
+    linkLast(this.windowTail, evictionNode);
+    this.window.add(evictionNode);
+    incrementSize();
+    if (this.window.size() > getWindowLimit() && size() <= this.controller.getLimit()) {
+      EvictionNode oldest = this.windowHead.next();
+      unlinkEntry(oldest);
+      linkLast(this.tail, oldest);
+      incrementSize();
+    }
+  }
+
+  private long getWindowLimit() {
+    return Math.max(1, this.controller.getLimit() * WINDOW_PERCENTAGE / 100);
+  }
+
+  private void linkLast(EvictionNode last, EvictionNode evictionNode) {
+    evictionNode.setNext(last);
+    last.previous().setNext(evictionNode);
+    evictionNode.setPrevious(last.previous());
+    last.setPrevious(evictionNode);
+  }
+
+  @Override
+  protected synchronized void unlinkEntry(EvictionNode evictionNode) {
+    super.unlinkEntry(evictionNode);
+    this.window.remove(evictionNode);
+  }
+
+  @Override
+  public void clear(RegionVersionVector regionVersionVector) {
+    synchronized (this) {
+      super.clear(regionVersionVector);
+      if (regionVersionVector == null) {
+        initEmptyWindow();
+      }
+    }
+  }
+
+  @Override
+  public EvictableEntry getEvictableEntry() {
+    long numEvals = 0;
+    for (;;) {
+      EvictionNode aNode = selectEvictionNode();
+      if (aNode == null) {
+        this.stats.incEvaluations(numEvals);
+        return null;
+      }
+      numEvals++;
+      if (!isEvictable(aNode)) {
+        continue;
+      }
+      if (logger.isTraceEnabled(LogMarker.LRU_CLOCK)) {
+        logger.trace(LogMarker.LRU_CLOCK, "TinyLFU returning {}", aNode);
+      }
+      this.stats.incEvaluations(numEvals);
+      return (EvictableEntry) aNode;
+    }
+  }
+
+  /**
+   * Unlinks and returns the node to evict next, or null if the list is empty. The oldest node of
+   * the window is admitted to the main list if its key was read more often than the key of the
+   * main list's victim, in which case the victim is returned instead.
+   */
+  private synchronized EvictionNode selectEvictionNode() {
+    EvictionNode candidate = this.windowHead.next();
+    EvictionNode victim = selectMainVictim();
+    if (victim == null) {
+      if (candidate == this.windowTail) {
+        return null;
+      }
+      unlinkEntry(candidate);
+      return candidate;
+    }
+    if (candidate == this.windowTail || this.window.size() <= getWindowLimit()) {
+      unlinkEntry(victim);
+      return victim;
+    }
+    if (frequency(candidate) > frequency(victim)) {
+      unlinkEntry(candidate);
+      linkLast(this.tail, candidate);
+      incrementSize();
+      unlinkEntry(victim);
+      return victim;
+    }
+    unlinkEntry(candidate);
+    return candidate;
+  }
+
+  /**
+   * Returns the least recently used node of the main list without unlinking it, giving nodes used
+   * since they were last considered another chance.
+   */
+  private EvictionNode selectMainVictim() {
+    int remaining = size() - this.window.size();
+    for (;;) {
+      EvictionNode aNode = this.head.next();
+      if (aNode == this.tail) {
+        return null;
+      }
+      if (!aNode.isRecentlyUsed() || remaining-- <= 0) {
+        return aNode;
+      }
+      aNode.unsetRecentlyUsed();
+      super.unlinkEntry(aNode);
+      linkLast(this.tail, aNode);
+      incrementSize();
+    }
+  }
+
+  private int frequency(EvictionNode evictionNode) {
+    Object key = ((RegionEntry) evictionNode).getKey();
+    return key == null ? 0 : this.sketch.frequency(key);
+  }
+
+  @Override
+  public void incrementRecentlyUsed() {
+    // nothing needed
+  }
+}
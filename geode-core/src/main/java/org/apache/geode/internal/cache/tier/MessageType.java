@@ -382,10 +382,17 @@ public class MessageType {
   public static final int PUT_ALL_WITH_CALLBACK = 108;
 
   public static final int REMOVE_ALL = 109;
+
+  /**
+   * A batch of messages sent to a client's subscription connection in one message
+   *
+   * @since Geode 1.4
+   */
+  public static final int CLIENT_EVENT_BATCH = 110;
   /**
    * Must be equal to last valid message id.
    */
-  private static final int LAST_VALID_MESSAGE_ID = REMOVE_ALL;
+  private static final int LAST_VALID_MESSAGE_ID = CLIENT_EVENT_BATCH;
 
 
   public static boolean validate(int messageType) {
@@ -605,6 +612,8 @@ public class MessageType {
         return "PUT_ALL_WITH_CALLBACK";
       case REMOVE_ALL:
         return "REMOVE_ALL";
+      case CLIENT_EVENT_BATCH:
+        return "CLIENT_EVENT_BATCH";
       default:
         return Integer.toString(type);
     }
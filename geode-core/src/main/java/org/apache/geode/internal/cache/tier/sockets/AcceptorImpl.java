@@ -91,6 +91,7 @@ import org.apache.geode.internal.security.SecurableCommunicationChannel;
 import org.apache.geode.internal.security.SecurityService;
 import org.apache.geode.internal.tcp.ConnectionTable;
 import org.apache.geode.internal.util.ArrayUtils;
+import org.apache.geode.internal.util.concurrent.VirtualThreads;
 
 /**
  * Implements the acceptor thread on the bridge server. Accepts connections from the edge and starts
@@ -109,6 +110,7 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
   protected final CacheServerStats stats;
   private final int maxConnections;
   private final int maxThreads;
+  private final boolean useVirtualThreads;
 
   private final ThreadPoolExecutor pool;
   /**
@@ -206,6 +208,14 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
   private final int acceptTimeout =
       Integer.getInteger(ACCEPT_TIMEOUT_PROPERTY_NAME, DEFAULT_ACCEPT_TIMEOUT_MS).intValue();
 
+  /**
+   * The name of a system property that makes the cache server run each client connection on its own
+   * virtual thread, when the JVM supports them. A connection blocked reading from its socket then
+   * no longer holds a platform thread, so max-threads and the selector are not used.
+   */
+  public static final String VIRTUAL_THREADS_PROPERTY_NAME =
+      DistributionConfig.GEMFIRE_PREFIX + "CacheServer.VIRTUAL_THREADS";
+
   /**
    * The mininum value of max-connections
    */
@@ -358,6 +368,21 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
           tmp_maxThreads = DEPRECATED_SELECTOR_POOL_SIZE;
         }
       }
+      boolean tmp_useVirtualThreads = false;
+      if (Boolean.getBoolean(VIRTUAL_THREADS_PROPERTY_NAME)) {
+        if (VirtualThreads.isSupported()) {
+          if (tmp_maxThreads > 0) {
+            logger.info("Ignoring max-threads {} because {} is set", tmp_maxThreads,
+                VIRTUAL_THREADS_PROPERTY_NAME);
+          }
+          tmp_useVirtualThreads = true;
+          tmp_maxThreads = 0;
+        } else {
+          logger.warn("Ignoring {} because this JVM does not support virtual threads",
+              VIRTUAL_THREADS_PROPERTY_NAME);
+        }
+      }
+      this.useVirtualThreads = tmp_useVirtualThreads;
       if (tmp_maxThreads < 0) {
         tmp_maxThreads = 0;
       } else if (tmp_maxThreads > this.maxConnections) {
@@ -649,6 +674,9 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
         return new Thread(socketThreadGroup, r, tName);
       }
     };
+    if (this.useVirtualThreads) {
+      socketThreadFactory = createVirtualThreadFactory(gName + " Virtual Thread ");
+    }
     try {
       if (isSelector()) {
         return new PooledExecutorWithDMStats(new LinkedBlockingQueue(), this.maxThreads,
@@ -664,6 +692,35 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
     }
   }
 
+  /**
+   * Create a factory for the virtual threads that run ServerConnections. Virtual threads cannot
+   * belong to a LoggingThreadGroup, so uncaught exceptions are logged here instead.
+   */
+  private ThreadFactory createVirtualThreadFactory(String namePrefix) {
+    final ThreadFactory virtualThreadFactory = VirtualThreads.createFactory(namePrefix);
+    return new ThreadFactory() {
+      @Override
+      public Thread newThread(final Runnable command) {
+        getStats().incConnectionThreadsCreated();
+        Runnable r = new Runnable() {
+          public void run() {
+            try {
+              command.run();
+            } catch (CancelException e) { // bug 39463
+              // ignore
+            } catch (RuntimeException | Error e) {
+              logger.fatal("Uncaught exception in {}", Thread.currentThread().getName(), e);
+              throw e;
+            } finally {
+              ConnectionTable.releaseThreadsSockets();
+            }
+          }
+        };
+        return virtualThreadFactory.newThread(r);
+      }
+    };
+  }
+
   public long getAcceptorId() {
     return this.acceptorId;
   }
@@ -679,6 +736,13 @@ public class AcceptorImpl implements Acceptor, Runnable, CommBufferPool {
     return this.maxThreads > 0;
   }
 
+  /**
+   * Returns true if each client connection is served by its own virtual thread.
+   */
+  public boolean isUsingVirtualThreads() {
+    return this.useVirtualThreads;
+  }
+
   /**
    * This system property is only used if max-threads == 0. This is for 5.0.2 backwards
    * compatibility.
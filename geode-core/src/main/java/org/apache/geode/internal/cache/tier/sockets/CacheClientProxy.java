@@ -20,6 +20,7 @@ import java.io.IOException;
 import java.net.Socket;
 import java.net.SocketException;
 import java.nio.ByteBuffer;
+import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Date;
@@ -65,11 +66,14 @@ import org.apache.geode.cache.operations.RegionDestroyOperationContext;
 import org.apache.geode.cache.query.CqException;
 import org.apache.geode.cache.query.internal.cq.CqService;
 import org.apache.geode.cache.query.internal.cq.InternalCqQuery;
+import org.apache.geode.compression.Compressor;
+import org.apache.geode.compression.SnappyCompressor;
 import org.apache.geode.distributed.DistributedMember;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.DistributionManager;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.i18n.StringId;
+import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.SystemTimer;
 import org.apache.geode.internal.SystemTimer.SystemTimerTask;
 import org.apache.geode.internal.Version;
@@ -92,6 +96,7 @@ import org.apache.geode.internal.cache.ha.HARegionQueue;
 import org.apache.geode.internal.cache.ha.HARegionQueueAttributes;
 import org.apache.geode.internal.cache.ha.HARegionQueueStats;
 import org.apache.geode.internal.cache.tier.InterestType;
+import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.internal.cache.tier.sockets.ClientUpdateMessageImpl.CqNameToOp;
 import org.apache.geode.internal.cache.tier.sockets.command.Get70;
 import org.apache.geode.internal.cache.versions.VersionTag;
@@ -193,6 +198,27 @@ public class CacheClientProxy implements ClientSession {
   protected static final int MAXIMUM_SHUTDOWN_PEEKS = Integer
       .getInteger(DistributionConfig.GEMFIRE_PREFIX + "MAXIMUM_SHUTDOWN_PEEKS", 50).intValue();
 
+  /**
+   * The system property setting the maximum number of queued messages sent to a client in one
+   * {@link MessageType#CLIENT_EVENT_BATCH} message. Messages are sent one at a time if this is 1 or
+   * less, which is the default.
+   */
+  static final String EVENT_BATCH_SIZE_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "CacheClientProxy.EVENT_BATCH_SIZE";
+
+  /**
+   * The system property setting the number of bytes of batched messages after which the following
+   * messages are sent in a new {@link MessageType#CLIENT_EVENT_BATCH} message
+   */
+  static final String EVENT_BATCH_MAX_BYTES_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "CacheClientProxy.EVENT_BATCH_MAX_BYTES";
+
+  /**
+   * The system property that, if true, causes batched messages to be compressed
+   */
+  static final String COMPRESS_EVENT_BATCHES_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "CacheClientProxy.COMPRESS_EVENT_BATCHES";
+
   /**
    * The number of milliseconds to wait for an offering to the message queue
    */
@@ -2236,6 +2262,20 @@ public class CacheClientProxy implements ClientSession {
     private final ReadWriteLock socketLock = new ReentrantReadWriteLock();
 
     private final Lock socketWriteLock = socketLock.writeLock();
+
+    /**
+     * The maximum number of messages sent to the client in one batch, or 1 if messages are not
+     * batched
+     */
+    private final int eventBatchSize;
+
+    private final int eventBatchMaxBytes;
+
+    /** The compressor of batched messages, or null if they are not compressed */
+    private final Compressor eventBatchCompressor;
+
+    /** A buffer to copy message parts through when they are batched */
+    private final ByteBuffer eventBatchBuffer;
     // /**
     // * A boolean verifying whether a warning has already been issued if the
     // * message queue has reached its capacity.
@@ -2257,6 +2297,16 @@ public class CacheClientProxy implements ClientSession {
 
       this._proxy = proxy;
 
+      if (canBatchEvents(proxy.clientVersion, proxy.proxyID)) {
+        this.eventBatchSize = Integer.getInteger(EVENT_BATCH_SIZE_PROPERTY, 1);
+      } else {
+        this.eventBatchSize = 1;
+      }
+      this.eventBatchMaxBytes = Integer.getInteger(EVENT_BATCH_MAX_BYTES_PROPERTY, 1024 * 1024);
+      this.eventBatchCompressor = Boolean.getBoolean(COMPRESS_EVENT_BATCHES_PROPERTY)
+          ? SnappyCompressor.getDefaultInstance() : null;
+      this.eventBatchBuffer = this.eventBatchSize > 1 ? ByteBuffer.allocate(4096) : null;
+
       // Create the event conflator
       // this._eventConflator = new BridgeEventConflator
 
@@ -2459,6 +2509,7 @@ public class CacheClientProxy implements ClientSession {
       }
 
       ClientMessage clientMessage = null;
+      List batch = Collections.emptyList();
       while (!isStopped()) {
         // SystemFailure.checkFailure(); DM's stopper does this
         if (this._proxy._cache.getCancelCriterion().isCancelInProgress()) {
@@ -2487,7 +2538,16 @@ public class CacheClientProxy implements ClientSession {
             waitForResumption();
           }
           try {
-            clientMessage = (ClientMessage) this._messageQueue.peek();
+            // Peek the messages already queued without waiting for more, and wait for a message
+            // only if there are none
+            if (this.eventBatchSize > 1) {
+              batch = this._messageQueue.peek(this.eventBatchSize, -1);
+            }
+            if (batch.isEmpty()) {
+              clientMessage = (ClientMessage) this._messageQueue.peek();
+            } else if (batch.size() == 1) {
+              clientMessage = (ClientMessage) batch.get(0);
+            }
           } catch (RegionDestroyedException skipped) {
             break;
           }
@@ -2495,7 +2555,19 @@ public class CacheClientProxy implements ClientSession {
           if (isStopped()) {
             break;
           }
-          if (clientMessage != null) {
+          if (batch.size() > 1) {
+            long start = getStatistics().startTime();
+            boolean isDispatched = dispatchBatch(batch);
+            getStatistics().endMessages(start, batch.size());
+            if (isDispatched) {
+              this._messageQueue.remove();
+              for (Object message : batch) {
+                if (message instanceof ClientMarkerMessageImpl) {
+                  getProxy().markerEnqueued = false;
+                }
+              }
+            }
+          } else if (clientMessage != null) {
             // Process the message
             long start = getStatistics().startTime();
             //// BUGFIX for BUG#38206 and BUG#37791
@@ -2511,8 +2583,10 @@ public class CacheClientProxy implements ClientSession {
             this._messageQueue.remove();
           }
           clientMessage = null;
+          batch = Collections.emptyList();
         } catch (MessageTooLargeException e) {
-          logger.warn("Message too large to send to client: {}, {}", clientMessage, e.getMessage());
+          logger.warn("Message too large to send to client: {}, {}",
+              clientMessage != null ? clientMessage : batch, e.getMessage());
         } catch (IOException e) {
           // Added the synchronization below to ensure that exception handling
           // does not occur while stopping the dispatcher and vice versa.
@@ -2708,34 +2782,7 @@ public class CacheClientProxy implements ClientSession {
       if (logger.isTraceEnabled(LogMarker.BRIDGE_SERVER)) {
         logger.trace(LogMarker.BRIDGE_SERVER, "Dispatching {}", clientMessage);
       }
-      Message message = null;
-
-      // byte[] latestValue =
-      // this._eventConflator.getLatestValue(clientMessage);
-
-      if (clientMessage instanceof ClientUpdateMessage) {
-        byte[] latestValue = (byte[]) ((ClientUpdateMessage) clientMessage).getValue();
-        if (logger.isTraceEnabled()) {
-          StringBuilder msg = new StringBuilder(100);
-          msg.append(this).append(": Using latest value: ").append(Arrays.toString(latestValue));
-          if (((ClientUpdateMessage) clientMessage).valueIsObject()) {
-            if (latestValue != null) {
-              msg.append(" (").append(deserialize(latestValue)).append(")");
-            }
-            msg.append(" for ").append(clientMessage);
-          }
-          logger.trace(msg.toString());
-        }
-
-        message = ((ClientUpdateMessageImpl) clientMessage).getMessage(getProxy(), latestValue);
-
-        if (AFTER_MESSAGE_CREATION_FLAG) {
-          ClientServerObserver bo = ClientServerObserverHolder.getInstance();
-          bo.afterMessageCreation(message);
-        }
-      } else {
-        message = clientMessage.getMessage(getProxy(), true /* notify */);
-      }
+      Message message = createMessage(clientMessage);
 
       // //////////////////////////////
       // TEST CODE BEGIN (Throws exception to test closing proxy)
@@ -2783,6 +2830,154 @@ public class CacheClientProxy implements ClientSession {
       return isDispatched;
     }
 
+    /**
+     * Returns whether messages can be sent to a client in {@link MessageType#CLIENT_EVENT_BATCH}
+     * messages. Older clients can not read batches, and durable queues must be peeked one message
+     * at a time to track which messages the client has acknowledged.
+     */
+    static boolean canBatchEvents(Version clientVersion, ClientProxyMembershipID proxyID) {
+      return clientVersion.compareTo(Version.GEODE_140) >= 0 && !proxyID.isDurable();
+    }
+
+    /**
+     * Sends messages to the client attached to this proxy in as few
+     * {@link MessageType#CLIENT_EVENT_BATCH} messages as {@link #eventBatchMaxBytes} allows, which
+     * are written to the socket one after the other while holding its lock. A message larger than
+     * {@link #eventBatchMaxBytes} is sent on its own, as it would be without batching.
+     *
+     * @param clientMessages the <code>ClientMessage</code>s to send to the client
+     * @return whether the messages were sent, which they are not if this proxy is paused
+     */
+    protected boolean dispatchBatch(List<?> clientMessages) throws IOException {
+      if (this._proxy.isPaused()) {
+        if (logger.isDebugEnabled()) {
+          logger.debug("Message Dispatcher of a Paused CCProxy is trying to dispatch messages");
+        }
+        return false;
+      }
+      List<Message> messages = new ArrayList<>(clientMessages.size());
+      for (Object clientMessage : clientMessages) {
+        if (logger.isTraceEnabled(LogMarker.BRIDGE_SERVER)) {
+          logger.trace(LogMarker.BRIDGE_SERVER, "Dispatching {} in a batch", clientMessage);
+        }
+        Message message = createMessage((ClientMessage) clientMessage);
+        if (message != null) {
+          messages.add(message);
+        }
+      }
+      messages = createBatches(messages, this.eventBatchMaxBytes, this.eventBatchCompressor,
+          this.eventBatchBuffer, getProxy().getVersion());
+
+      this.socketWriteLock.lock();
+      try {
+        for (Message message : messages) {
+          message.setComms(getSocket(), getCommBuffer(), getStatistics());
+          message.send();
+        }
+        getProxy().resetPingCounter();
+      } finally {
+        this.socketWriteLock.unlock();
+      }
+      if (logger.isTraceEnabled()) {
+        logger.trace("{}: Dispatched {} messages in {} sends", this, clientMessages.size(),
+            messages.size());
+      }
+      for (int i = 0; i < clientMessages.size(); i++) {
+        this._messageQueue.getStatistics().incEventsDispatched();
+      }
+      return true;
+    }
+
+    /**
+     * Packs messages, in order, into {@link MessageType#CLIENT_EVENT_BATCH} messages of at most
+     * maxBytes before compression. The parts of the packed messages are cleared.
+     *
+     * @param compressor the compressor of the batches, or null if they are not compressed
+     * @param buffer the buffer to copy message parts through
+     * @return the messages to send, which are the batches and the messages larger than maxBytes
+     */
+    static List<Message> createBatches(List<Message> messages, int maxBytes,
+        Compressor compressor, ByteBuffer buffer, Version version) throws IOException {
+      List<Message> batches = new ArrayList<>();
+      HeapDataOutputStream payload = null;
+      int numberOfMessages = 0;
+      for (Message message : messages) {
+        int length = message.getBatchedLength();
+        if (payload != null && payload.size() + length > maxBytes) {
+          batches.add(createBatchMessage(numberOfMessages, payload, compressor, version));
+          payload = null;
+          numberOfMessages = 0;
+        }
+        if (length > maxBytes) {
+          // sent on its own, as it would be without batching
+          batches.add(message);
+          continue;
+        }
+        if (payload == null) {
+          payload = new HeapDataOutputStream(Version.CURRENT);
+        }
+        try {
+          message.writeTo(payload, buffer);
+        } finally {
+          message.clearParts();
+        }
+        numberOfMessages++;
+      }
+      if (payload != null) {
+        batches.add(createBatchMessage(numberOfMessages, payload, compressor, version));
+      }
+      return batches;
+    }
+
+    private static Message createBatchMessage(int numberOfMessages, HeapDataOutputStream payload,
+        Compressor compressor, Version version) {
+      byte[] bytes = payload.toByteArray();
+      payload.close();
+      boolean compressed = compressor != null;
+      if (compressed) {
+        bytes = compressor.compress(bytes);
+      }
+      Message message = new Message(3, version);
+      message.setMessageType(MessageType.CLIENT_EVENT_BATCH);
+      message.setTransactionId(0);
+      message.addIntPart(numberOfMessages);
+      message.addObjPart(compressed);
+      message.addBytesPart(bytes);
+      return message;
+    }
+
+    private Message createMessage(ClientMessage clientMessage) throws IOException {
+      Message message = null;
+
+      // byte[] latestValue =
+      // this._eventConflator.getLatestValue(clientMessage);
+
+      if (clientMessage instanceof ClientUpdateMessage) {
+        byte[] latestValue = (byte[]) ((ClientUpdateMessage) clientMessage).getValue();
+        if (logger.isTraceEnabled()) {
+          StringBuilder msg = new StringBuilder(100);
+          msg.append(this).append(": Using latest value: ").append(Arrays.toString(latestValue));
+          if (((ClientUpdateMessage) clientMessage).valueIsObject()) {
+            if (latestValue != null) {
+              msg.append(" (").append(deserialize(latestValue)).append(")");
+            }
+            msg.append(" for ").append(clientMessage);
+          }
+          logger.trace(msg.toString());
+        }
+
+        message = ((ClientUpdateMessageImpl) clientMessage).getMessage(getProxy(), latestValue);
+
+        if (AFTER_MESSAGE_CREATION_FLAG) {
+          ClientServerObserver bo = ClientServerObserverHolder.getInstance();
+          bo.afterMessageCreation(message);
+        }
+      } else {
+        message = clientMessage.getMessage(getProxy(), true /* notify */);
+      }
+      return message;
+    }
+
     private void sendMessage(Message message) throws IOException {
       if (message == null) {
         return;
@@ -353,6 +353,20 @@ public class CacheClientProxyStats implements MessageStats {
     this._stats.incLong(_messageProcessingTimeId, elapsed);
   }
 
+  /**
+   * Increments the "messagesProcessed" stat by the number of messages sent together and the
+   * "messageProcessingTime" stat by the time it took to send them all.
+   *
+   * @param start The start of the messages (which is decremented from the current time to determine
+   *        the message processing time).
+   * @param numberOfMessages The number of messages sent together
+   */
+  public void endMessages(long start, int numberOfMessages) {
+    long ts = DistributionStats.getStatTime();
+    this._stats.incInt(_messagesProcessedId, numberOfMessages);
+    this._stats.incLong(_messageProcessingTimeId, ts - start);
+  }
+
   /**
    * Increments the "deltaMessagesSent" stats.
    */
@@ -54,6 +54,7 @@ import org.apache.geode.cache.client.internal.GetEventValueOp;
 import org.apache.geode.cache.client.internal.PoolImpl;
 import org.apache.geode.cache.client.internal.QueueManager;
 import org.apache.geode.cache.query.internal.cq.CqService;
+import org.apache.geode.compression.SnappyCompressor;
 import org.apache.geode.distributed.DistributedSystem;
 import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.DistributionManager;
@@ -1612,94 +1613,10 @@ public class CacheClientUpdater extends Thread implements ClientUpdater, Disconn
             break;
           }
 
-          // If the message is a ping, ignore it
-          if (clientMessage.getMessageType() == MessageType.SERVER_TO_CLIENT_PING) {
-            if (isDebugEnabled) {
-              logger.debug("{}: Received ping", this);
-            }
-            continue;
-          }
-
-          boolean isDeltaSent = false;
-          boolean isCreateOrUpdate = clientMessage.getMessageType() == MessageType.LOCAL_CREATE
-              || clientMessage.getMessageType() == MessageType.LOCAL_UPDATE;
-          if (isCreateOrUpdate) {
-            isDeltaSent = (Boolean) clientMessage.getPart(2).getObject();
-          }
-
-          // extract the eventId and verify if it is a duplicate event
-          // if it is a duplicate event, ignore
-          // @since GemFire 5.1
-          int numberOfParts = clientMessage.getNumberOfParts();
-          Part eid = clientMessage.getPart(numberOfParts - 1);
-
-          // TODO the message handling methods also deserialized the eventID - inefficient
-          EventID eventId = (EventID) eid.getObject();
-
-          // no need to verify if the instantiator msg is duplicate or not
-          if (clientMessage.getMessageType() != MessageType.REGISTER_INSTANTIATORS
-              && clientMessage.getMessageType() != MessageType.REGISTER_DATASERIALIZERS) {
-            if (this.qManager.getState().verifyIfDuplicate(eventId,
-                !(this.isDurableClient || isDeltaSent))) {
-              continue;
-            }
-          }
-
-          if (logger.isTraceEnabled(LogMarker.BRIDGE_SERVER)) {
-            logger.trace(LogMarker.BRIDGE_SERVER, "Processing event with id {}",
-                eventId.expensiveToString());
-          }
-
-          this.isOpCompleted = true;
-
-          // Process the message
-          switch (clientMessage.getMessageType()) {
-            case MessageType.LOCAL_CREATE:
-            case MessageType.LOCAL_UPDATE:
-              handleUpdate(clientMessage);
-              break;
-            case MessageType.LOCAL_INVALIDATE:
-              handleInvalidate(clientMessage);
-              break;
-            case MessageType.LOCAL_DESTROY:
-              handleDestroy(clientMessage);
-              break;
-            case MessageType.LOCAL_DESTROY_REGION:
-              handleDestroyRegion(clientMessage);
-              break;
-            case MessageType.CLEAR_REGION:
-              handleClearRegion(clientMessage);
-              break;
-            case MessageType.REGISTER_INSTANTIATORS:
-              handleRegisterInstantiator(clientMessage, eventId);
-              break;
-            case MessageType.REGISTER_DATASERIALIZERS:
-              handleRegisterDataSerializer(clientMessage, eventId);
-              break;
-            case MessageType.CLIENT_MARKER:
-              handleMarker(clientMessage);
-              break;
-            case MessageType.INVALIDATE_REGION:
-              handleInvalidateRegion(clientMessage);
-              break;
-            case MessageType.CLIENT_REGISTER_INTEREST:
-              handleRegisterInterest(clientMessage);
-              break;
-            case MessageType.CLIENT_UNREGISTER_INTEREST:
-              handleUnregisterInterest(clientMessage);
-              break;
-            case MessageType.TOMBSTONE_OPERATION:
-              handleTombstoneOperation(clientMessage);
-              break;
-            default:
-              logger.warn(LocalizedMessage.create(
-                  LocalizedStrings.CacheClientUpdater_0_RECEIVED_AN_UNSUPPORTED_MESSAGE_TYPE_1,
-                  new Object[] {this, MessageType.getString(clientMessage.getMessageType())}));
-              break;
-          }
-
-          if (this.isOpCompleted && (this.isDurableClient || isDeltaSent)) {
-            this.qManager.getState().verifyIfDuplicate(eventId, true);
+          if (clientMessage.getMessageType() == MessageType.CLIENT_EVENT_BATCH) {
+            processBatch(clientMessage);
+          } else {
+            processMessage(clientMessage);
           }
 
           // TODO we should maintain the client's "live" view of the server
@@ -1773,6 +1690,138 @@ public class CacheClientUpdater extends Thread implements ClientUpdater, Disconn
     }
   }
 
+  /**
+   * Processes a message received from the server other than a batch of messages.
+   */
+  private void processMessage(Message clientMessage) throws IOException, ClassNotFoundException {
+    final boolean isDebugEnabled = logger.isDebugEnabled();
+
+    // If the message is a ping, ignore it
+    if (clientMessage.getMessageType() == MessageType.SERVER_TO_CLIENT_PING) {
+      if (isDebugEnabled) {
+        logger.debug("{}: Received ping", this);
+      }
+      return;
+    }
+
+    boolean isDeltaSent = false;
+    boolean isCreateOrUpdate = clientMessage.getMessageType() == MessageType.LOCAL_CREATE
+        || clientMessage.getMessageType() == MessageType.LOCAL_UPDATE;
+    if (isCreateOrUpdate) {
+      isDeltaSent = (Boolean) clientMessage.getPart(2).getObject();
+    }
+
+    // extract the eventId and verify if it is a duplicate event
+    // if it is a duplicate event, ignore
+    // @since GemFire 5.1
+    int numberOfParts = clientMessage.getNumberOfParts();
+    Part eid = clientMessage.getPart(numberOfParts - 1);
+
+    // TODO the message handling methods also deserialized the eventID - inefficient
+    EventID eventId = (EventID) eid.getObject();
+
+    // no need to verify if the instantiator msg is duplicate or not
+    if (clientMessage.getMessageType() != MessageType.REGISTER_INSTANTIATORS
+        && clientMessage.getMessageType() != MessageType.REGISTER_DATASERIALIZERS) {
+      if (this.qManager.getState().verifyIfDuplicate(eventId,
+          !(this.isDurableClient || isDeltaSent))) {
+        return;
+      }
+    }
+
+    if (logger.isTraceEnabled(LogMarker.BRIDGE_SERVER)) {
+      logger.trace(LogMarker.BRIDGE_SERVER, "Processing event with id {}",
+          eventId.expensiveToString());
+    }
+
+    this.isOpCompleted = true;
+
+    // Process the message
+    switch (clientMessage.getMessageType()) {
+      case MessageType.LOCAL_CREATE:
+      case MessageType.LOCAL_UPDATE:
+        handleUpdate(clientMessage);
+        break;
+      case MessageType.LOCAL_INVALIDATE:
+        handleInvalidate(clientMessage);
+        break;
+      case MessageType.LOCAL_DESTROY:
+        handleDestroy(clientMessage);
+        break;
+      case MessageType.LOCAL_DESTROY_REGION:
+        handleDestroyRegion(clientMessage);
+        break;
+      case MessageType.CLEAR_REGION:
+        handleClearRegion(clientMessage);
+        break;
+      case MessageType.REGISTER_INSTANTIATORS:
+        handleRegisterInstantiator(clientMessage, eventId);
+        break;
+      case MessageType.REGISTER_DATASERIALIZERS:
+        handleRegisterDataSerializer(clientMessage, eventId);
+        break;
+      case MessageType.CLIENT_MARKER:
+        handleMarker(clientMessage);
+        break;
+      case MessageType.INVALIDATE_REGION:
+        handleInvalidateRegion(clientMessage);
+        break;
+      case MessageType.CLIENT_REGISTER_INTEREST:
+        handleRegisterInterest(clientMessage);
+        break;
+      case MessageType.CLIENT_UNREGISTER_INTEREST:
+        handleUnregisterInterest(clientMessage);
+        break;
+      case MessageType.TOMBSTONE_OPERATION:
+        handleTombstoneOperation(clientMessage);
+        break;
+      default:
+        logger.warn(LocalizedMessage.create(
+            LocalizedStrings.CacheClientUpdater_0_RECEIVED_AN_UNSUPPORTED_MESSAGE_TYPE_1,
+            new Object[] {this, MessageType.getString(clientMessage.getMessageType())}));
+        break;
+    }
+
+    if (this.isOpCompleted && (this.isDurableClient || isDeltaSent)) {
+      this.qManager.getState().verifyIfDuplicate(eventId, true);
+    }
+  }
+
+  /**
+   * Processes in order the messages the server sent in a {@link MessageType#CLIENT_EVENT_BATCH}
+   * message.
+   */
+  private void processBatch(Message batchMessage) throws IOException, ClassNotFoundException {
+    int numberOfMessages = batchMessage.getPart(0).getInt();
+    if (logger.isDebugEnabled()) {
+      logger.debug("{}: Received a batch of {} messages", this, numberOfMessages);
+    }
+    DataInputStream in = readBatchPayload(batchMessage);
+    Message message = new Message(2, Version.CURRENT);
+    try {
+      for (int i = 0; i < numberOfMessages && !quitting(); i++) {
+        message.readFrom(in);
+        processMessage(message);
+      }
+    } finally {
+      message.clearParts();
+    }
+  }
+
+  /**
+   * Returns the messages of a {@link MessageType#CLIENT_EVENT_BATCH} message, decompressed if the
+   * server compressed them, to be read one after the other with {@link Message#readFrom}.
+   */
+  static DataInputStream readBatchPayload(Message batchMessage)
+      throws IOException, ClassNotFoundException {
+    boolean compressed = (Boolean) batchMessage.getPart(1).getObject();
+    byte[] payload = batchMessage.getPart(2).getSerializedForm();
+    if (compressed) {
+      payload = SnappyCompressor.getDefaultInstance().decompress(payload);
+    }
+    return new DataInputStream(new ByteArrayInputStream(payload));
+  }
+
   /**
    * Conditionally print a warning describing the failure
    * <p>
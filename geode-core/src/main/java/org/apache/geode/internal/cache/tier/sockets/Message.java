@@ -14,6 +14,7 @@
  */
 package org.apache.geode.internal.cache.tier.sockets;
 
+import java.io.DataInput;
 import java.io.EOFException;
 import java.io.IOException;
 import java.io.InputStream;
@@ -21,6 +22,8 @@ import java.io.OutputStream;
 import java.net.Socket;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 import java.util.concurrent.Semaphore;
@@ -592,11 +595,16 @@ public class Message {
 
         commBuffer.clear();
         packHeaderInfoForSending(msgLen, securityPart != null);
+        GatheringWrite gatheringWrite = null;
         for (int i = 0; i < partsToTransmit; i++) {
           Part part = i == this.numberOfParts ? securityPart : this.partsList[i];
 
           if (commBuffer.remaining() < PART_HEADER_SIZE) {
-            flushBuffer();
+            if (gatheringWrite != null) {
+              gatheringWrite.write();
+            } else {
+              flushBuffer();
+            }
           }
 
           int partLen = part.getLength();
@@ -604,19 +612,28 @@ public class Message {
           commBuffer.put(part.getTypeCode());
           if (partLen <= commBuffer.remaining()) {
             part.writeTo(commBuffer);
-          } else {
-            flushBuffer();
-            if (this.socketChannel != null) {
+          } else if (this.socketChannel != null) {
+            if (gatheringWrite == null) {
+              gatheringWrite = new GatheringWrite(commBuffer);
+            }
+            if (!gatheringWrite.add(part)) {
+              gatheringWrite.write();
               part.writeTo(this.socketChannel, commBuffer);
-            } else {
-              part.writeTo(this.outputStream, commBuffer);
+              if (this.messageStats != null) {
+                this.messageStats.incSentBytes(partLen);
+              }
             }
+          } else {
+            flushBuffer();
+            part.writeTo(this.outputStream, commBuffer);
             if (this.messageStats != null) {
               this.messageStats.incSentBytes(partLen);
             }
           }
         }
-        if (commBuffer.position() != 0) {
+        if (gatheringWrite != null) {
+          gatheringWrite.write();
+        } else if (commBuffer.position() != 0) {
           flushBuffer();
         }
         this.messageModified = false;
@@ -647,6 +664,80 @@ public class Message {
     cb.clear();
   }
 
+  /**
+   * Writes a message to the socket channel with gathering writes, so that parts too large for the
+   * comm buffer are written from the buffers holding them rather than copied to the comm buffer
+   * piece by piece. The comm buffer still holds the message header, the part headers and the parts
+   * that fit in it, and the part buffers are written in between.
+   */
+  private class GatheringWrite {
+    private final ByteBuffer commBuffer;
+
+    private final List<ByteBuffer> buffers = new ArrayList<>();
+
+    private final List<Part> parts = new ArrayList<>();
+
+    /** position of the first byte in the comm buffer that has not been added to the buffers */
+    private int commBufferStart;
+
+    GatheringWrite(ByteBuffer commBuffer) {
+      this.commBuffer = commBuffer;
+    }
+
+    /**
+     * Adds a part to be written after what has been put in the comm buffer so far.
+     *
+     * @return false, having added nothing, if the contents of the part are not held in buffers
+     */
+    boolean add(Part part) {
+      int numBuffers = this.buffers.size();
+      addCommBuffer();
+      if (!part.addBuffersTo(this.buffers)) {
+        this.buffers.subList(numBuffers, this.buffers.size()).clear();
+        return false;
+      }
+      this.parts.add(part);
+      this.commBufferStart = this.commBuffer.position();
+      return true;
+    }
+
+    private void addCommBuffer() {
+      if (this.commBuffer.position() > this.commBufferStart) {
+        ByteBuffer pending = this.commBuffer.duplicate();
+        pending.limit(pending.position());
+        pending.position(this.commBufferStart);
+        this.buffers.add(pending);
+      }
+    }
+
+    /**
+     * Writes the parts added so far and what follows them in the comm buffer, and clears the comm
+     * buffer.
+     */
+    void write() throws IOException {
+      addCommBuffer();
+      ByteBuffer[] toWrite = this.buffers.toArray(new ByteBuffer[this.buffers.size()]);
+      long bytesWritten = 0;
+      int offset = 0;
+      while (offset < toWrite.length) {
+        bytesWritten += socketChannel.write(toWrite, offset, toWrite.length - offset);
+        while (offset < toWrite.length && !toWrite[offset].hasRemaining()) {
+          offset++;
+        }
+      }
+      if (messageStats != null) {
+        messageStats.incSentBytes(bytesWritten);
+      }
+      for (Part part : this.parts) {
+        part.buffersWritten();
+      }
+      this.buffers.clear();
+      this.parts.clear();
+      this.commBuffer.clear();
+      this.commBufferStart = 0;
+    }
+  }
+
   private void read() throws IOException {
     clearParts();
     // TODO: for server changes make sure sc is not null as this class also used by client
@@ -886,21 +977,17 @@ public class Message {
         // now we need to read partLen - alreadyReadBytes off the wire
         int off = alreadyReadBytes;
         int remaining = partLen - off;
-        while (remaining > 0) {
-          if (this.socketChannel != null) {
-            int bytesThisTime = remaining;
-            cb.clear();
-            if (bytesThisTime > cb.capacity()) {
-              bytesThisTime = cb.capacity();
-            }
-            cb.limit(bytesThisTime);
-            int res = this.socketChannel.read(cb);
+        if (remaining > 0 && this.socketChannel != null) {
+          // scatter the rest of the part straight into its byte array, and what follows it in the
+          // message into the comm buffer
+          ByteBuffer partBuffer = ByteBuffer.wrap(partBytes, off, remaining);
+          cb.clear();
+          cb.limit(Math.min(cb.capacity(), bytesRemaining - remaining));
+          ByteBuffer[] buffers = {partBuffer, cb};
+          while (partBuffer.hasRemaining()) {
+            long res = this.socketChannel.read(buffers);
             if (res != -1) {
-              cb.flip();
               bytesRemaining -= res;
-              remaining -= res;
-              cb.get(partBytes, off, res);
-              off += res;
               if (this.messageStats != null) {
                 this.messageStats.incReceivedBytes(res);
               }
@@ -909,7 +996,10 @@ public class Message {
                   LocalizedStrings.Message_THE_CONNECTION_HAS_BEEN_RESET_WHILE_READING_A_PART
                       .toLocalizedString());
             }
-          } else {
+          }
+          cb.flip();
+        } else {
+          while (remaining > 0) {
             int res = this.inputStream.read(partBytes, off, remaining);
             if (res != -1) {
               bytesRemaining -= res;
@@ -1125,4 +1215,66 @@ public class Message {
     recv();
   }
 
+  /**
+   * Writes the type and parts of this message to the given stream instead of its socket, so that it
+   * can be sent to a client within a {@link MessageType#CLIENT_EVENT_BATCH} message. The message is
+   * read back by {@link #readFrom(DataInput)}.
+   *
+   * @param buffer the buffer to copy parts through that are not held in a byte array
+   */
+  void writeTo(HeapDataOutputStream out, ByteBuffer buffer) throws IOException {
+    out.writeInt(this.messageType);
+    out.writeInt(this.numberOfParts);
+    for (int i = 0; i < this.numberOfParts; i++) {
+      Part part = this.partsList[i];
+      out.writeInt(part.getLength());
+      out.writeByte(part.getTypeCode());
+      buffer.clear();
+      part.writeTo(out, buffer);
+      HeapDataOutputStream.flushStream(out, buffer);
+    }
+  }
+
+  /**
+   * Returns the number of bytes {@link #writeTo(HeapDataOutputStream, ByteBuffer)} writes for this
+   * message
+   */
+  int getBatchedLength() {
+    // the type and the number of parts, then the length and type code of each part
+    int length = 8;
+    for (int i = 0; i < this.numberOfParts; i++) {
+      length += 5 + this.partsList[i].getLength();
+    }
+    return length;
+  }
+
+  /**
+   * Replaces the type and parts of this message with those of a message written by
+   * {@link #writeTo(HeapDataOutputStream, ByteBuffer)}.
+   */
+  void readFrom(DataInput in) throws IOException {
+    clearParts();
+    int type = in.readInt();
+    if (!MessageType.validate(type)) {
+      throw new IOException(LocalizedStrings.Message_INVALID_MESSAGE_TYPE_0_WHILE_READING_HEADER
+          .toLocalizedString(type));
+    }
+    this.messageType = type;
+    int numParts = in.readInt();
+    if (numParts < 0) {
+      throw new IOException("Invalid number of parts " + numParts + " in batched message");
+    }
+    setNumberOfParts(numParts);
+    for (int i = 0; i < numParts; i++) {
+      int partLength = in.readInt();
+      if (partLength < 0) {
+        throw new IOException("Invalid part length " + partLength + " in batched message");
+      }
+      byte typeCode = in.readByte();
+      byte[] partBytes = new byte[partLength];
+      in.readFully(partBytes);
+      this.partsList[i].init(partBytes, typeCode);
+    }
+  }
+
 }
@@ -18,6 +18,8 @@ import java.io.IOException;
 import java.io.OutputStream;
 import java.nio.ByteBuffer;
 import java.nio.channels.SocketChannel;
+import java.util.Collections;
+import java.util.List;
 import java.util.Map;
 import java.util.concurrent.ConcurrentHashMap;
 
@@ -416,6 +418,45 @@ public class Part {
     }
   }
 
+  /**
+   * Adds the buffers holding the contents of this part to the specified list, so that they can be
+   * written to a socket channel with a gathering write instead of being copied to the comm buffer
+   * first. {@link #buffersWritten()} must be called once they have been written.
+   *
+   * @return false, having added nothing, if the contents of this part are not held in buffers
+   */
+  boolean addBuffersTo(List<ByteBuffer> buffers) {
+    if (getLength() == 0) {
+      return true;
+    }
+    if (this.part instanceof byte[]) {
+      buffers.add(ByteBuffer.wrap((byte[]) this.part));
+    } else if (this.part instanceof StoredObject) {
+      ByteBuffer bb = ((StoredObject) this.part).createDirectByteBuffer();
+      if (bb == null) {
+        return false;
+      }
+      buffers.add(bb);
+    } else {
+      HeapDataOutputStream hdos = (HeapDataOutputStream) this.part;
+      hdos.finishWriting();
+      ByteBuffer[] chunks = new ByteBuffer[hdos.getByteBufferCount()];
+      hdos.fillByteBufferArray(chunks, 0);
+      Collections.addAll(buffers, chunks);
+    }
+    return true;
+  }
+
+  /**
+   * Prepares this part to be sent again after the buffers added by {@link #addBuffersTo(List)} have
+   * been written.
+   */
+  void buffersWritten() {
+    if (this.part instanceof HeapDataOutputStream) {
+      ((HeapDataOutputStream) this.part).rewind();
+    }
+  }
+
   private static String typeCodeToString(byte c) {
     switch (c) {
       case BYTE_CODE:
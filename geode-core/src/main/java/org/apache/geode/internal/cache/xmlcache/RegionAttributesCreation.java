@@ -276,6 +276,7 @@ public class RegionAttributesCreation extends UserSpecifiedRegionAttributes
     if (attrs instanceof UserSpecifiedRegionAttributes) {
       UserSpecifiedRegionAttributes nonDefault = (UserSpecifiedRegionAttributes) attrs;
       this.requiresPoolName = nonDefault.requiresPoolName;
+      this.nearCache = nonDefault.nearCache;
       if (!defaults) {
         // Selectively set has* fields to true, propagating those non-default
         // (aka user specified) fields as such
@@ -1161,6 +1162,7 @@ public class RegionAttributesCreation extends UserSpecifiedRegionAttributes
           }
         }
       }
+      this.nearCache = parentWithHas.nearCache;
     }
 
     // Inherit attributes that are not overridden
@@ -23,6 +23,9 @@ import java.nio.channels.SocketChannel;
 import java.nio.charset.CharacterCodingException;
 import java.nio.charset.Charset;
 import java.nio.charset.CharsetDecoder;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
 
 import org.apache.geode.internal.memcached.commands.AbstractCommand;
 import org.apache.geode.internal.memcached.commands.ClientError;
@@ -68,6 +71,17 @@ public class RequestReader {
 
   private CharBuffer commandBuffer = CharBuffer.allocate(11); // no command exceeds 9 chars
 
+  /**
+   * The longest ASCII command line accepted by {@link #readBufferedCommand(ByteBuffer)}
+   */
+  static final int MAX_ASCII_LINE_LENGTH = 64 * 1024;
+
+  /**
+   * ASCII commands whose command line is followed by a data block
+   */
+  private static final Set<String> ASCII_STORAGE_COMMANDS =
+      new HashSet<String>(Arrays.asList("set", "add", "replace", "append", "prepend", "cas"));
+
   public RequestReader(Socket socket, Protocol protocol) {
     buffer = ByteBuffer.allocate(getBufferSize(socket.getChannel()));
     // set position to limit so that first read attempt
@@ -77,6 +91,16 @@ public class RequestReader {
     this.protocol = protocol;
   }
 
+  /**
+   * Create a reader for a non-blocking channel. The caller does the reading and hands the bytes to
+   * {@link #readBufferedCommand(ByteBuffer)}.
+   */
+  public RequestReader(SocketChannel channel, Protocol protocol) {
+    this.buffer = ByteBuffer.allocate(0);
+    this.socket = channel.socket();
+    this.protocol = protocol;
+  }
+
   public Command readCommand() throws IOException {
     if (protocol == Protocol.ASCII) {
       return readAsciiCommand();
@@ -167,6 +191,91 @@ public class RequestReader {
     return Command.valueOf(readCommand(buffer));
   }
 
+  /**
+   * Take the next request from bytes already read from a non-blocking channel. Clients may pipeline
+   * requests, so input can hold several; each call consumes one and makes it the buffer returned by
+   * {@link #getRequest()}. The request is a view of input, so it must be processed before input is
+   * compacted.
+   *
+   * @return the command, or null if input does not yet hold a complete request, in which case input
+   *         is left untouched
+   */
+  public Command readBufferedCommand(ByteBuffer input) throws IOException {
+    int length = getRequestLength(input, this.protocol);
+    if (length < 0) {
+      return null;
+    }
+    ByteBuffer request = input.slice();
+    request.limit(length);
+    input.position(input.position() + length);
+    this.buffer = request;
+    if (this.protocol == Protocol.ASCII) {
+      return Command.valueOf(readCommand(request));
+    }
+    if (request.get(0) != REQUEST_MAGIC) {
+      throw new IllegalStateException("Not a valid request, magic byte incorrect");
+    }
+    return Command.getCommandFromOpCode(request.get(POSITION_OPCODE));
+  }
+
+  /**
+   * Returns the length of the request at the position of input, or -1 if input does not hold all
+   * of it yet.
+   */
+  static int getRequestLength(ByteBuffer input, Protocol protocol) {
+    int start = input.position();
+    int available = input.remaining();
+    if (protocol == Protocol.BINARY) {
+      if (available < HEADER_LENGTH) {
+        return -1;
+      }
+      int bodyLength = input.getInt(start + AbstractCommand.TOTAL_BODY_LENGTH_INDEX);
+      if (bodyLength < 0) {
+        throw new IllegalStateException("Not a valid request, negative body length");
+      }
+      int length = HEADER_LENGTH + bodyLength;
+      return available < length ? -1 : length;
+    }
+    int lineLength = -1;
+    for (int i = start; i < input.limit(); i++) {
+      if (input.get(i) == '\n') {
+        lineLength = i - start + 1;
+        break;
+      }
+    }
+    if (lineLength < 0) {
+      if (available > MAX_ASCII_LINE_LENGTH) {
+        throw new IllegalStateException("command line too long");
+      }
+      return -1;
+    }
+    int dataLength = getAsciiDataLength(input, start, lineLength);
+    // the data block is terminated by \r\n
+    int length = dataLength < 0 ? lineLength : lineLength + dataLength + 2;
+    return available < length ? -1 : length;
+  }
+
+  /**
+   * Returns the length of the data block announced by a storage command line, or -1 if the line
+   * has no data block. Malformed lines are left for the command to reject.
+   */
+  private static int getAsciiDataLength(ByteBuffer input, int start, int lineLength) {
+    byte[] line = new byte[lineLength];
+    for (int i = 0; i < lineLength; i++) {
+      line[i] = input.get(start + i);
+    }
+    String[] elements = new String(line, charsetASCII).trim().split(" ");
+    if (elements.length < 5 || !ASCII_STORAGE_COMMANDS.contains(elements[0].toLowerCase())) {
+      return -1;
+    }
+    try {
+      int dataLength = Integer.parseInt(elements[4]);
+      return dataLength < 0 ? -1 : dataLength;
+    } catch (NumberFormatException e) {
+      return -1;
+    }
+  }
+
   private String readCommand(ByteBuffer buffer) throws CharacterCodingException {
     commandBuffer.clear();
     asciiDecoder.get().decode(buffer, commandBuffer, false);
@@ -257,6 +366,18 @@ public class RequestReader {
   }
 
   public void sendReply(ByteBuffer reply) throws IOException {
+    prepareReply(reply);
+    SocketChannel channel = this.socket.getChannel();
+    if (channel == null || !channel.isOpen()) {
+      throw new IllegalStateException("cannot write to channel");
+    }
+    channel.write(reply);
+  }
+
+  /**
+   * Fill in the parts of a reply that echo the current request
+   */
+  public void prepareReply(ByteBuffer reply) {
     // for binary set the response opCode
     if (this.protocol == Protocol.BINARY) {
       reply.rewind();
@@ -267,11 +388,6 @@ public class RequestReader {
             .finer("sending reply:" + reply + " " + Command.buffertoString(reply));
       }
     }
-    SocketChannel channel = this.socket.getChannel();
-    if (channel == null || !channel.isOpen()) {
-      throw new IllegalStateException("cannot write to channel");
-    }
-    channel.write(reply);
   }
 
   public void sendException(Exception e) {
@@ -280,12 +396,18 @@ public class RequestReader {
       throw new IllegalStateException("cannot write to channel");
     }
     try {
-      if (e instanceof ClientError) {
-        channel.write(charsetASCII.encode(Reply.CLIENT_ERROR.toString()));
-      } else {
-        channel.write(charsetASCII.encode(Reply.ERROR.toString()));
-      }
+      channel.write(getExceptionReply(e));
     } catch (IOException ex) {
     }
   }
+
+  /**
+   * Returns the reply telling the client that its request failed with e
+   */
+  public ByteBuffer getExceptionReply(Exception e) {
+    if (e instanceof ClientError) {
+      return charsetASCII.encode(Reply.CLIENT_ERROR.toString());
+    }
+    return charsetASCII.encode(Reply.ERROR.toString());
+  }
 }
@@ -0,0 +1,283 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.memcached;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.Channel;
+import java.nio.channels.ClosedSelectorException;
+import java.nio.channels.SelectionKey;
+import java.nio.channels.Selector;
+import java.nio.channels.SocketChannel;
+import java.util.Iterator;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+
+import org.apache.geode.LogWriter;
+import org.apache.geode.cache.Cache;
+import org.apache.geode.cache.CacheClosedException;
+import org.apache.geode.internal.memcached.commands.ClientError;
+import org.apache.geode.memcached.GemFireMemcachedServer;
+import org.apache.geode.memcached.GemFireMemcachedServer.Protocol;
+
+/**
+ * Serves memcached clients over non-blocking channels for {@link GemFireMemcachedServer}. Each loop
+ * owns one selector thread and any number of connections, so idle clients cost a few kilobytes of
+ * buffer instead of a thread.
+ *
+ * Everything a read returns is parsed before anything is written: clients that pipeline requests
+ * get all of their replies in a single write. A client that stops reading its replies is not read
+ * from until they have been flushed.
+ *
+ * Commands run on the loop thread, so a slow cache operation delays the other connections of the
+ * same loop. The server spreads connections over several loops to limit that.
+ */
+public class SelectorLoop implements Runnable {
+
+  /**
+   * Initial size of the per-connection read and write buffers. They grow to fit large requests and
+   * replies and shrink back once those are done.
+   */
+  private static final int BUFFER_SIZE = 4096;
+
+  private final Cache cache;
+
+  private final Protocol protocol;
+
+  private final Selector selector;
+
+  private final Queue<SocketChannel> newChannels = new ConcurrentLinkedQueue<SocketChannel>();
+
+  private final Thread thread;
+
+  private volatile boolean running = true;
+
+  private final LogWriter logger;
+
+  public SelectorLoop(String name, Cache cache, Protocol protocol) throws IOException {
+    this.cache = cache;
+    this.protocol = protocol;
+    this.logger = cache.getLogger();
+    ConnectionHandler.initLogger(cache);
+    this.selector = Selector.open();
+    this.thread = new Thread(this, name);
+    this.thread.setDaemon(true);
+  }
+
+  public void start() {
+    this.thread.start();
+  }
+
+  /**
+   * Hand a newly accepted client to this loop
+   */
+  public void register(SocketChannel channel) throws IOException {
+    channel.configureBlocking(false);
+    this.newChannels.add(channel);
+    this.selector.wakeup();
+  }
+
+  /**
+   * Stop the loop and close all of its connections
+   */
+  public void shutdown() {
+    this.running = false;
+    this.selector.wakeup();
+  }
+
+  @Override
+  public void run() {
+    try {
+      while (this.running) {
+        this.selector.select();
+        registerNewChannels();
+        Iterator<SelectionKey> it = this.selector.selectedKeys().iterator();
+        while (it.hasNext()) {
+          SelectionKey key = it.next();
+          it.remove();
+          Connection connection = (Connection) key.attachment();
+          try {
+            if (key.isValid() && key.isWritable()) {
+              connection.flush();
+            }
+            if (key.isValid() && key.isReadable()) {
+              connection.read();
+            }
+          } catch (IOException e) {
+            connection.close();
+          } catch (CacheClosedException e) {
+            connection.close();
+            this.running = false;
+          }
+        }
+      }
+    } catch (IOException | ClosedSelectorException e) {
+      this.logger.warning("memcached selector loop " + this.thread.getName() + " failed", e);
+    } finally {
+      closeAll();
+    }
+    this.logger.fine("memcached selector loop " + this.thread.getName() + " terminating");
+  }
+
+  private void registerNewChannels() {
+    SocketChannel channel;
+    while ((channel = this.newChannels.poll()) != null) {
+      try {
+        SelectionKey key = channel.register(this.selector, SelectionKey.OP_READ);
+        key.attach(new Connection(channel, key));
+      } catch (IOException e) {
+        closeQuietly(channel);
+      }
+    }
+  }
+
+  private void closeAll() {
+    SocketChannel channel;
+    while ((channel = this.newChannels.poll()) != null) {
+      closeQuietly(channel);
+    }
+    try {
+      for (SelectionKey key : this.selector.keys()) {
+        closeQuietly(key.channel());
+      }
+      this.selector.close();
+    } catch (IOException | ClosedSelectorException e) {
+      // ignore
+    }
+  }
+
+  private static void closeQuietly(Channel channel) {
+    try {
+      channel.close();
+    } catch (IOException e) {
+      // ignore
+    }
+  }
+
+  /**
+   * The state of one client connection
+   */
+  private class Connection {
+
+    private final SocketChannel channel;
+
+    private final SelectionKey key;
+
+    private final RequestReader reader;
+
+    private ByteBuffer input = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private ByteBuffer output = ByteBuffer.allocate(BUFFER_SIZE);
+
+    private boolean closeWhenFlushed;
+
+    Connection(SocketChannel channel, SelectionKey key) {
+      this.channel = channel;
+      this.key = key;
+      this.reader = new RequestReader(channel, protocol);
+    }
+
+    void read() throws IOException {
+      if (!this.input.hasRemaining()) {
+        this.input = grow(this.input, this.input.capacity() * 2);
+      }
+      int bytesRead = this.channel.read(this.input);
+      if (bytesRead == -1) {
+        close();
+        return;
+      }
+      this.input.flip();
+      try {
+        processRequests();
+      } catch (IllegalStateException e) {
+        // the stream can not be parsed any further
+        logger.info("closing memcached connection " + this.channel + ": " + e.getMessage());
+        close();
+        return;
+      }
+      this.input.compact();
+      if (this.input.position() == 0 && this.input.capacity() > BUFFER_SIZE) {
+        this.input = ByteBuffer.allocate(BUFFER_SIZE);
+      }
+      flush();
+    }
+
+    private void processRequests() throws IOException {
+      while (!this.closeWhenFlushed) {
+        Command command;
+        try {
+          command = this.reader.readBufferedCommand(this.input);
+          if (command == null) {
+            return;
+          }
+          if (logger.fineEnabled()) {
+            logger.fine("processing command:" + command);
+          }
+          ByteBuffer reply = command.getCommandProcessor().processCommand(this.reader, protocol,
+              cache);
+          if (reply != null) {
+            this.reader.prepareReply(reply);
+            append(reply);
+          }
+          if (command == Command.QUIT || command == Command.QUITQ) {
+            this.closeWhenFlushed = true;
+          }
+        } catch (ClientError e) {
+          append(this.reader.getExceptionReply(e));
+        } catch (IllegalArgumentException e) {
+          // thrown by Command.valueOf() when there is no matching command
+          append(this.reader.getExceptionReply(e));
+        }
+      }
+    }
+
+    private void append(ByteBuffer reply) {
+      if (this.output.remaining() < reply.remaining()) {
+        this.output = grow(this.output, this.output.position() + reply.remaining());
+      }
+      this.output.put(reply);
+    }
+
+    void flush() throws IOException {
+      this.output.flip();
+      this.channel.write(this.output);
+      boolean flushed = !this.output.hasRemaining();
+      this.output.compact();
+      if (!flushed) {
+        // stop reading until the client has taken its replies
+        this.key.interestOps(SelectionKey.OP_WRITE);
+      } else if (this.closeWhenFlushed) {
+        close();
+      } else {
+        if (this.output.capacity() > BUFFER_SIZE) {
+          this.output = ByteBuffer.allocate(BUFFER_SIZE);
+        }
+        this.key.interestOps(SelectionKey.OP_READ);
+      }
+    }
+
+    private ByteBuffer grow(ByteBuffer buffer, int minCapacity) {
+      ByteBuffer bigger = ByteBuffer.allocate(Math.max(minCapacity, buffer.capacity() * 2));
+      buffer.flip();
+      bigger.put(buffer);
+      return bigger;
+    }
+
+    void close() {
+      this.key.cancel();
+      closeQuietly(this.channel);
+    }
+  }
+}
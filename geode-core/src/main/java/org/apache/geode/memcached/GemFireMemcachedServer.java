@@ -22,6 +22,7 @@ import java.net.Socket;
 import java.net.UnknownHostException;
 import java.nio.channels.ClosedByInterruptException;
 import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
 import java.util.concurrent.CountDownLatch;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -33,9 +34,11 @@ import org.apache.geode.cache.Cache;
 import org.apache.geode.cache.CacheFactory;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.distributed.internal.DistributionConfig;
 import org.apache.geode.distributed.internal.InternalDistributedSystem;
 import org.apache.geode.internal.cache.GemFireCacheImpl;
 import org.apache.geode.internal.memcached.ConnectionHandler;
+import org.apache.geode.internal.memcached.SelectorLoop;
 import org.apache.geode.internal.net.SocketCreator;
 
 /**
@@ -47,6 +50,12 @@ import org.apache.geode.internal.net.SocketCreator;
  * <p>
  * "gemcached" region is {@link RegionShortcut#PARTITION} by default, though a cache.xml can be
  * provided to override region attributes.
+ * <p>
+ * By default each client connection is served by its own thread. When the number of selector
+ * threads is positive the server instead multiplexes all connections over that many non-blocking
+ * selector loops, which lets one server handle tens of thousands of mostly idle clients. The number
+ * can be passed to the constructor or set with the {@value #SELECTOR_THREADS_PROPERTY} system
+ * property.
  *
  * This class has a Main method that can be used to start the server.
  *
@@ -85,6 +94,28 @@ public class GemFireMemcachedServer {
 
   private final int DEFAULT_PORT = 11212;
 
+  /**
+   * Name of the system property that sets the number of selector threads used when a constructor
+   * without that argument is used. Zero, the default, means one thread per client connection.
+   */
+  public static final String SELECTOR_THREADS_PROPERTY =
+      DistributionConfig.GEMFIRE_PREFIX + "memcached.SELECTOR_THREADS";
+
+  /**
+   * the number of selector loops to spread client connections over, or zero for a thread per client
+   */
+  private final int selectorThreads;
+
+  /**
+   * the selector loops, null if each client gets its own thread
+   */
+  private SelectorLoop[] selectorLoops;
+
+  /**
+   * the selector loop the next client will be handed to
+   */
+  private int nextSelectorLoop;
+
   /**
    * the thread executor pool to handle requests from clients. We create one thread for each client.
    */
@@ -128,6 +159,7 @@ public class GemFireMemcachedServer {
       this.serverPort = port;
     }
     this.protocol = Protocol.ASCII;
+    this.selectorThreads = Integer.getInteger(SELECTOR_THREADS_PROPERTY, 0);
   }
 
   /**
@@ -140,6 +172,26 @@ public class GemFireMemcachedServer {
    * @see Protocol
    */
   public GemFireMemcachedServer(String bindAddress, int port, Protocol protocol) {
+    this(bindAddress, port, protocol, Integer.getInteger(SELECTOR_THREADS_PROPERTY, 0));
+  }
+
+  /**
+   * Create an instance of the server. to start the server {@link #start()} must be called.
+   *
+   * @param bindAddress the address on which the server listens for new memcached client
+   *        connections.
+   * @param port the port on which the server listens for new memcached client connections.
+   * @param protocol the protocol that this server should understand
+   * @param selectorThreads the number of non-blocking selector threads to serve all client
+   *        connections with, or zero to serve each connection with its own thread
+   * @see Protocol
+   */
+  public GemFireMemcachedServer(String bindAddress, int port, Protocol protocol,
+      int selectorThreads) {
+    if (selectorThreads < 0) {
+      throw new IllegalArgumentException(
+          "selectorThreads " + selectorThreads + " must be greater than or equal to 0");
+    }
     this.bindAddress = bindAddress;
     if (port <= 0) {
       this.serverPort = DEFAULT_PORT;
@@ -147,6 +199,7 @@ public class GemFireMemcachedServer {
       this.serverPort = port;
     }
     this.protocol = protocol;
+    this.selectorThreads = selectorThreads;
   }
 
   /**
@@ -181,6 +234,13 @@ public class GemFireMemcachedServer {
     if (logger.fineEnabled()) {
       logger.fine("GemFireMemcachedServer configured socket buffer size:" + getSocketBufferSize());
     }
+    if (this.selectorThreads > 0) {
+      this.selectorLoops = new SelectorLoop[this.selectorThreads];
+      for (int i = 0; i < this.selectorThreads; i++) {
+        this.selectorLoops[i] = new SelectorLoop("Gemcached-Selector-" + i, cache, protocol);
+        this.selectorLoops[i].start();
+      }
+    }
     final CountDownLatch latch = new CountDownLatch(1);
     acceptor = new Thread(new Runnable() {
       public void run() {
@@ -223,6 +283,22 @@ public class GemFireMemcachedServer {
   }
 
   private void handleNewClient(Socket s) {
+    if (this.selectorLoops != null) {
+      SocketChannel channel = s.getChannel();
+      // only called from the acceptor thread
+      SelectorLoop loop = this.selectorLoops[this.nextSelectorLoop];
+      this.nextSelectorLoop = (this.nextSelectorLoop + 1) % this.selectorLoops.length;
+      try {
+        loop.register(channel);
+      } catch (IOException e) {
+        logger.info("could not register memcached client " + s, e);
+        try {
+          s.close();
+        } catch (IOException ignore) {
+        }
+      }
+      return;
+    }
     ConnectionHandler connHandler = new ConnectionHandler(s, cache, protocol);
     executor.execute(connHandler);
   }
@@ -235,6 +311,11 @@ public class GemFireMemcachedServer {
       this.acceptor.interrupt();
     }
     this.executor.shutdownNow();
+    if (this.selectorLoops != null) {
+      for (SelectorLoop loop : this.selectorLoops) {
+        loop.shutdown();
+      }
+    }
     this.cache.close();
   }
 
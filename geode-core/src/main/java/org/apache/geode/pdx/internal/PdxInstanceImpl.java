@@ -590,6 +590,11 @@ public class PdxInstanceImpl extends PdxReaderImpl
     return super.readField(fieldName);
   }
 
+  @Override
+  protected synchronized Object readField(PdxField ft) {
+    return super.readField(ft);
+  }
+
   @Override
   protected synchronized Object basicGetObject() {
     DMStats stats = InternalDataSerializer.getDMStats(null);
@@ -629,6 +634,20 @@ public class PdxInstanceImpl extends PdxReaderImpl
     return getUnmodifiableReader(fieldName).readRawField(fieldName);
   }
 
+  /**
+   * Like {@link #getRawField(String)} for a field already looked up in this instance's PdxType, so
+   * the query engine reads it without finding the field by name again.
+   */
+  public Object getRawField(PdxField field) {
+    PdxType type = getPdxType();
+    PdxReaderImpl reader = getUnmodifiableReader(field.getFieldName());
+    if (reader.getPdxType() != type) {
+      // pending writes were flushed into a new type with different field positions
+      return reader.readRawField(field.getFieldName());
+    }
+    return reader.readRawField(field);
+  }
+
   public Object getDefaultValueIfFieldExistsInAnyPdxVersions(String fieldName, String className)
       throws FieldNotFoundInPdxVersion {
     PdxType pdxType =
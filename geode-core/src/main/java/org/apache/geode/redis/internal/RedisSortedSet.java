@@ -0,0 +1,602 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.util.AbstractMap;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ThreadLocalRandom;
+
+import org.apache.geode.DataSerializable;
+import org.apache.geode.DataSerializer;
+import org.apache.geode.Delta;
+import org.apache.geode.InvalidDeltaException;
+
+/**
+ * The value stored for every {@link RedisDataType#REDIS_SORTEDSET} key. Members are kept in a hash
+ * map for score lookups and in an indexable skip list, ordered by score and then by member, for
+ * rank and range lookups. This is the same layout Redis uses for its own sorted sets, so every
+ * command runs in O(log(N)) plus the size of its result instead of scanning a Region with a query.
+ * <p>
+ * The set is a {@link Delta}: only the members added or removed since the last distribution are
+ * sent to other members. Operations are idempotent, so a member seeing one twice is harmless. If
+ * the pending operations outgrow the set itself they are dropped and the full value is sent
+ * instead.
+ * <p>
+ * Commands modify the stored set in place while holding its key's lock and then put it, inside a
+ * transaction they modify a {@link #copy()} instead. All methods are synchronized on the set.
+ */
+public class RedisSortedSet implements DataSerializable, Delta {
+
+  private static final long serialVersionUID = -2547683520359207254L;
+
+  private static final int MAX_LEVEL = 32;
+
+  private static final double LEVEL_PROBABILITY = 0.25;
+
+  /**
+   * Pending delta operations are always allowed to grow to at least this size
+   */
+  private static final int MIN_PENDING_DELTA_OPS = 64;
+
+  private final HashMap<ByteArrayWrapper, Node> members = new HashMap<>();
+
+  private final Node header = new Node(null, 0, MAX_LEVEL);
+
+  private int level = 1;
+
+  /**
+   * Members changed since the last {@link #toDelta(DataOutput)}, mapped to their new score or to
+   * null if they were removed
+   */
+  private transient LinkedHashMap<ByteArrayWrapper, Double> pendingDeltaOps =
+      new LinkedHashMap<>();
+
+  /**
+   * Set when {@link #pendingDeltaOps} overflowed, the next distribution has to send the full value
+   */
+  private transient boolean pendingDeltaOverflow;
+
+  /**
+   * Empty constructor for serialization
+   */
+  public RedisSortedSet() {}
+
+  /**
+   * @return A copy of the set without any pending delta operations
+   */
+  public synchronized RedisSortedSet copy() {
+    RedisSortedSet copy = new RedisSortedSet();
+    for (Node node = this.header.next[0]; node != null; node = node.next[0]) {
+      copy.members.put(node.member, copy.insert(node.member, node.score));
+    }
+    return copy;
+  }
+
+  public synchronized int size() {
+    return this.members.size();
+  }
+
+  /**
+   * @return The score of the member or null if it is not in the set
+   */
+  public synchronized Double getScore(ByteArrayWrapper member) {
+    Node node = this.members.get(member);
+    return node == null ? null : node.score;
+  }
+
+  /**
+   * Adds the member or updates its score
+   *
+   * @return True if the member was added, false if it was already in the set
+   */
+  public synchronized boolean add(ByteArrayWrapper member, double score) {
+    Node node = this.members.get(member);
+    if (node != null && node.score == score) {
+      return false;
+    }
+    if (node != null) {
+      delete(node);
+    }
+    this.members.put(member, insert(member, score));
+    recordDeltaOp(member, score);
+    return node == null;
+  }
+
+  /**
+   * @return True if the member was removed, false if it was not in the set
+   */
+  public synchronized boolean remove(ByteArrayWrapper member) {
+    Node node = this.members.remove(member);
+    if (node == null) {
+      return false;
+    }
+    delete(node);
+    recordDeltaOp(member, null);
+    return true;
+  }
+
+  /**
+   * @param reverse True to rank from the highest score
+   * @return The zero based rank of the member or -1 if it is not in the set
+   */
+  public synchronized int rank(ByteArrayWrapper member, boolean reverse) {
+    Node node = this.members.get(member);
+    if (node == null) {
+      return -1;
+    }
+    int rank = rankOf(node);
+    return reverse ? this.members.size() - rank - 1 : rank;
+  }
+
+  /**
+   * @param start Zero based rank of the first element, must be within the set
+   * @param stop Zero based rank of the last element, inclusive
+   * @param reverse True to rank from the highest score
+   * @return The members with their scores, in rank order
+   */
+  public synchronized List<Map.Entry<ByteArrayWrapper, DoubleWrapper>> rangeByRank(int start,
+      int stop, boolean reverse) {
+    List<Map.Entry<ByteArrayWrapper, DoubleWrapper>> result = new ArrayList<>(stop - start + 1);
+    if (reverse) {
+      Node node = nodeByRank(this.members.size() - start - 1);
+      for (int i = start; i <= stop && node != null; i++, node = node.backward) {
+        result.add(node.toEntry());
+      }
+    } else {
+      Node node = nodeByRank(start);
+      for (int i = start; i <= stop && node != null; i++, node = node.next[0]) {
+        result.add(node.toEntry());
+      }
+    }
+    return result;
+  }
+
+  /**
+   * @param offset Number of matching elements to skip
+   * @param limit Maximum number of elements to return, negative for no limit
+   * @return The members with a score in the range and their scores, in ascending order or in
+   *         descending order if reverse is set
+   */
+  public synchronized List<Map.Entry<ByteArrayWrapper, DoubleWrapper>> rangeByScore(double min,
+      boolean minInclusive, double max, boolean maxInclusive, boolean reverse, int offset,
+      int limit) {
+    ScoreRange range = new ScoreRange(min, minInclusive, max, maxInclusive);
+    List<Map.Entry<ByteArrayWrapper, DoubleWrapper>> result = new ArrayList<>();
+    Node node = reverse ? lastInRange(range) : firstInRange(range);
+    while (node != null && offset > 0) {
+      node = reverse ? node.backward : node.next[0];
+      offset--;
+    }
+    while (node != null && limit != 0 && range.contains(node)) {
+      result.add(node.toEntry());
+      node = reverse ? node.backward : node.next[0];
+      limit--;
+    }
+    return result;
+  }
+
+  public synchronized int countByScore(double min, boolean minInclusive, double max,
+      boolean maxInclusive) {
+    return count(new ScoreRange(min, minInclusive, max, maxInclusive));
+  }
+
+  /**
+   * Lexicographical ranges assume all members have the same score, as Redis does. Otherwise the
+   * result follows the score order of the set.
+   *
+   * @param min The minimum member or null for no minimum
+   * @param max The maximum member or null for no maximum
+   * @param offset Number of matching elements to skip
+   * @param limit Maximum number of elements to return, negative for no limit
+   * @return The members in the range
+   */
+  public synchronized List<ByteArrayWrapper> rangeByLex(ByteArrayWrapper min,
+      boolean minInclusive, ByteArrayWrapper max, boolean maxInclusive, int offset, int limit) {
+    LexRange range = new LexRange(min, minInclusive, max, maxInclusive);
+    List<ByteArrayWrapper> result = new ArrayList<>();
+    Node node = firstInRange(range);
+    while (node != null && offset > 0) {
+      node = node.next[0];
+      offset--;
+    }
+    while (node != null && limit != 0 && range.contains(node)) {
+      result.add(node.member);
+      node = node.next[0];
+      limit--;
+    }
+    return result;
+  }
+
+  /**
+   * @see #rangeByLex(ByteArrayWrapper, boolean, ByteArrayWrapper, boolean, int, int)
+   */
+  public synchronized int countByLex(ByteArrayWrapper min, boolean minInclusive,
+      ByteArrayWrapper max, boolean maxInclusive) {
+    return count(new LexRange(min, minInclusive, max, maxInclusive));
+  }
+
+  /**
+   * @param start Zero based rank of the first element to remove, must be within the set
+   * @param stop Zero based rank of the last element to remove, inclusive
+   * @return The number of members removed
+   */
+  public synchronized int removeRangeByRank(int start, int stop) {
+    List<ByteArrayWrapper> removed = new ArrayList<>(stop - start + 1);
+    Node node = nodeByRank(start);
+    for (int i = start; i <= stop && node != null; i++, node = node.next[0]) {
+      removed.add(node.member);
+    }
+    return removeAll(removed);
+  }
+
+  /**
+   * @return The number of members removed
+   */
+  public synchronized int removeRangeByScore(double min, boolean minInclusive, double max,
+      boolean maxInclusive) {
+    return removeRange(new ScoreRange(min, minInclusive, max, maxInclusive));
+  }
+
+  /**
+   * @see #rangeByLex(ByteArrayWrapper, boolean, ByteArrayWrapper, boolean, int, int)
+   * @return The number of members removed
+   */
+  public synchronized int removeRangeByLex(ByteArrayWrapper min, boolean minInclusive,
+      ByteArrayWrapper max, boolean maxInclusive) {
+    return removeRange(new LexRange(min, minInclusive, max, maxInclusive));
+  }
+
+  /**
+   * @return A snapshot of all members with their scores, in ascending order
+   */
+  public synchronized List<Map.Entry<ByteArrayWrapper, DoubleWrapper>> entries() {
+    List<Map.Entry<ByteArrayWrapper, DoubleWrapper>> result = new ArrayList<>(this.members.size());
+    for (Node node = this.header.next[0]; node != null; node = node.next[0]) {
+      result.add(node.toEntry());
+    }
+    return result;
+  }
+
+  @Override
+  public synchronized void toData(DataOutput out) throws IOException {
+    DataSerializer.writePrimitiveInt(this.members.size(), out);
+    for (Node node = this.header.next[0]; node != null; node = node.next[0]) {
+      DataSerializer.writeByteArray(node.member.toBytes(), out);
+      DataSerializer.writePrimitiveDouble(node.score, out);
+    }
+    // the full value covers the operations dropped on overflow, record deltas again from here
+    this.pendingDeltaOverflow = false;
+  }
+
+  @Override
+  public synchronized void fromData(DataInput in) throws IOException, ClassNotFoundException {
+    int size = DataSerializer.readPrimitiveInt(in);
+    for (int i = 0; i < size; i++) {
+      ByteArrayWrapper member = new ByteArrayWrapper(DataSerializer.readByteArray(in));
+      double score = DataSerializer.readPrimitiveDouble(in);
+      this.members.put(member, insert(member, score));
+    }
+  }
+
+  @Override
+  public synchronized boolean hasDelta() {
+    return !this.pendingDeltaOverflow && !this.pendingDeltaOps.isEmpty();
+  }
+
+  @Override
+  public synchronized void toDelta(DataOutput out) throws IOException {
+    DataSerializer.writePrimitiveInt(this.pendingDeltaOps.size(), out);
+    for (Map.Entry<ByteArrayWrapper, Double> op : this.pendingDeltaOps.entrySet()) {
+      DataSerializer.writeByteArray(op.getKey().toBytes(), out);
+      Double score = op.getValue();
+      DataSerializer.writePrimitiveBoolean(score != null, out);
+      if (score != null) {
+        DataSerializer.writePrimitiveDouble(score, out);
+      }
+    }
+    this.pendingDeltaOps.clear();
+  }
+
+  @Override
+  public synchronized void fromDelta(DataInput in) throws IOException, InvalidDeltaException {
+    int size = DataSerializer.readPrimitiveInt(in);
+    for (int i = 0; i < size; i++) {
+      ByteArrayWrapper member = new ByteArrayWrapper(DataSerializer.readByteArray(in));
+      boolean added = DataSerializer.readPrimitiveBoolean(in);
+      Node node = this.members.remove(member);
+      if (node != null) {
+        delete(node);
+      }
+      if (added) {
+        this.members.put(member, insert(member, DataSerializer.readPrimitiveDouble(in)));
+      }
+    }
+  }
+
+  private void recordDeltaOp(ByteArrayWrapper member, Double score) {
+    if (this.pendingDeltaOverflow) {
+      return;
+    }
+    // Operations are only drained when the set is distributed, which never happens without peers
+    this.pendingDeltaOps.remove(member);
+    this.pendingDeltaOps.put(member, score);
+    if (this.pendingDeltaOps.size() > Math.max(MIN_PENDING_DELTA_OPS, this.members.size())) {
+      this.pendingDeltaOps.clear();
+      this.pendingDeltaOverflow = true;
+    }
+  }
+
+  private int removeRange(Range range) {
+    List<ByteArrayWrapper> removed = new ArrayList<>();
+    for (Node node = firstInRange(range); node != null && range.contains(node); node =
+        node.next[0]) {
+      removed.add(node.member);
+    }
+    return removeAll(removed);
+  }
+
+  private int removeAll(List<ByteArrayWrapper> removed) {
+    for (ByteArrayWrapper member : removed) {
+      remove(member);
+    }
+    return removed.size();
+  }
+
+  private int count(Range range) {
+    Node first = firstInRange(range);
+    if (first == null || !range.contains(first)) {
+      return 0;
+    }
+    Node last = lastInRange(range);
+    return rankOf(last) - rankOf(first) + 1;
+  }
+
+  private static int compare(Node node, double score, ByteArrayWrapper member) {
+    int result = Double.compare(node.score, score);
+    return result != 0 ? result : node.member.compareTo(member);
+  }
+
+  private static int randomLevel() {
+    int level = 1;
+    ThreadLocalRandom random = ThreadLocalRandom.current();
+    while (level < MAX_LEVEL && random.nextDouble() < LEVEL_PROBABILITY) {
+      level++;
+    }
+    return level;
+  }
+
+  private Node insert(ByteArrayWrapper member, double score) {
+    Node[] update = new Node[MAX_LEVEL];
+    int[] rank = new int[MAX_LEVEL];
+    Node x = this.header;
+    for (int i = this.level - 1; i >= 0; i--) {
+      rank[i] = i == this.level - 1 ? 0 : rank[i + 1];
+      while (x.next[i] != null && compare(x.next[i], score, member) < 0) {
+        rank[i] += x.span[i];
+        x = x.next[i];
+      }
+      update[i] = x;
+    }
+    // members already holds every node but the one being inserted
+    int length = this.members.size();
+    int newLevel = randomLevel();
+    if (newLevel > this.level) {
+      for (int i = this.level; i < newLevel; i++) {
+        rank[i] = 0;
+        update[i] = this.header;
+        this.header.span[i] = length;
+      }
+      this.level = newLevel;
+    }
+    x = new Node(member, score, newLevel);
+    for (int i = 0; i < newLevel; i++) {
+      x.next[i] = update[i].next[i];
+      update[i].next[i] = x;
+      x.span[i] = update[i].span[i] - (rank[0] - rank[i]);
+      update[i].span[i] = rank[0] - rank[i] + 1;
+    }
+    for (int i = newLevel; i < this.level; i++) {
+      update[i].span[i]++;
+    }
+    x.backward = update[0] == this.header ? null : update[0];
+    if (x.next[0] != null) {
+      x.next[0].backward = x;
+    }
+    return x;
+  }
+
+  private void delete(Node node) {
+    Node[] update = new Node[MAX_LEVEL];
+    Node x = this.header;
+    for (int i = this.level - 1; i >= 0; i--) {
+      while (x.next[i] != null && compare(x.next[i], node.score, node.member) < 0) {
+        x = x.next[i];
+      }
+      update[i] = x;
+    }
+    for (int i = 0; i < this.level; i++) {
+      if (update[i].next[i] == node) {
+        update[i].span[i] += node.span[i] - 1;
+        update[i].next[i] = node.next[i];
+      } else {
+        update[i].span[i]--;
+      }
+    }
+    if (node.next[0] != null) {
+      node.next[0].backward = node.backward;
+    }
+    while (this.level > 1 && this.header.next[this.level - 1] == null) {
+      this.level--;
+    }
+  }
+
+  /**
+   * @return The zero based rank of a node in the list
+   */
+  private int rankOf(Node node) {
+    int rank = 0;
+    Node x = this.header;
+    for (int i = this.level - 1; i >= 0; i--) {
+      while (x.next[i] != null && compare(x.next[i], node.score, node.member) <= 0) {
+        rank += x.span[i];
+        x = x.next[i];
+      }
+      if (x == node) {
+        return rank - 1;
+      }
+    }
+    throw new IllegalStateException("Node is not in the sorted set");
+  }
+
+  /**
+   * @return The node with the given zero based rank or null if out of range
+   */
+  private Node nodeByRank(int rank) {
+    if (rank < 0 || rank >= this.members.size()) {
+      return null;
+    }
+    int traversed = 0;
+    Node x = this.header;
+    for (int i = this.level - 1; i >= 0; i--) {
+      while (x.next[i] != null && traversed + x.span[i] <= rank + 1) {
+        traversed += x.span[i];
+        x = x.next[i];
+      }
+      if (traversed == rank + 1) {
+        return x;
+      }
+    }
+    return null;
+  }
+
+  /**
+   * @return The first node above the minimum of the range, the caller has to check the maximum
+   */
+  private Node firstInRange(Range range) {
+    Node x = this.header;
+    for (int i = this.level - 1; i >= 0; i--) {
+      while (x.next[i] != null && !range.isAboveMin(x.next[i])) {
+        x = x.next[i];
+      }
+    }
+    return x.next[0];
+  }
+
+  /**
+   * @return The last node in the range or null if there is none
+   */
+  private Node lastInRange(Range range) {
+    Node x = this.header;
+    for (int i = this.level - 1; i >= 0; i--) {
+      while (x.next[i] != null && range.isBelowMax(x.next[i])) {
+        x = x.next[i];
+      }
+    }
+    return x != this.header && range.contains(x) ? x : null;
+  }
+
+  private static class Node {
+    private final ByteArrayWrapper member;
+    private final double score;
+    private final Node[] next;
+    private final int[] span;
+    private Node backward;
+
+    private Node(ByteArrayWrapper member, double score, int level) {
+      this.member = member;
+      this.score = score;
+      this.next = new Node[level];
+      this.span = new int[level];
+    }
+
+    private Map.Entry<ByteArrayWrapper, DoubleWrapper> toEntry() {
+      return new AbstractMap.SimpleImmutableEntry<>(this.member, new DoubleWrapper(this.score));
+    }
+  }
+
+  private abstract static class Range {
+    abstract boolean isAboveMin(Node node);
+
+    abstract boolean isBelowMax(Node node);
+
+    boolean contains(Node node) {
+      return isAboveMin(node) && isBelowMax(node);
+    }
+  }
+
+  private static class ScoreRange extends Range {
+    private final double min;
+    private final boolean minInclusive;
+    private final double max;
+    private final boolean maxInclusive;
+
+    private ScoreRange(double min, boolean minInclusive, double max, boolean maxInclusive) {
+      this.min = min;
+      this.minInclusive = minInclusive;
+      this.max = max;
+      this.maxInclusive = maxInclusive;
+    }
+
+    @Override
+    boolean isAboveMin(Node node) {
+      return this.minInclusive ? node.score >= this.min : node.score > this.min;
+    }
+
+    @Override
+    boolean isBelowMax(Node node) {
+      return this.maxInclusive ? node.score <= this.max : node.score < this.max;
+    }
+  }
+
+  private static class LexRange extends Range {
+    private final ByteArrayWrapper min;
+    private final boolean minInclusive;
+    private final ByteArrayWrapper max;
+    private final boolean maxInclusive;
+
+    private LexRange(ByteArrayWrapper min, boolean minInclusive, ByteArrayWrapper max,
+        boolean maxInclusive) {
+      this.min = min;
+      this.minInclusive = minInclusive;
+      this.max = max;
+      this.maxInclusive = maxInclusive;
+    }
+
+    @Override
+    boolean isAboveMin(Node node) {
+      if (this.min == null) {
+        return true;
+      }
+      int result = node.member.compareTo(this.min);
+      return this.minInclusive ? result >= 0 : result > 0;
+    }
+
+    @Override
+    boolean isBelowMax(Node node) {
+      if (this.max == null) {
+        return true;
+      }
+      int result = node.member.compareTo(this.max);
+      return this.maxInclusive ? result <= 0 : result < 0;
+    }
+  }
+}
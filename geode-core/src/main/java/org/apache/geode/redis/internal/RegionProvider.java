@@ -32,9 +32,6 @@ import org.apache.geode.cache.CacheTransactionManager;
 import org.apache.geode.cache.Region;
 import org.apache.geode.cache.RegionShortcut;
 import org.apache.geode.cache.TransactionId;
-import org.apache.geode.cache.query.IndexExistsException;
-import org.apache.geode.cache.query.IndexInvalidException;
-import org.apache.geode.cache.query.IndexNameConflictException;
 import org.apache.geode.cache.query.Query;
 import org.apache.geode.cache.query.QueryInvalidException;
 import org.apache.geode.cache.query.QueryService;
@@ -47,7 +44,6 @@ import org.apache.geode.management.internal.cli.commands.CreateRegionCommand;
 import org.apache.geode.redis.GeodeRedisServer;
 import org.apache.geode.redis.internal.executor.ExpirationExecutor;
 import org.apache.geode.redis.internal.executor.ListQuery;
-import org.apache.geode.redis.internal.executor.SortedSetQuery;
 
 /**
  * This class stands between {@link Executor} and {@link Cache#getRegion(String)}. This is needed
@@ -78,6 +74,12 @@ public class RegionProvider implements Closeable {
    */
   private final Region<ByteArrayWrapper, HyperLogLogPlus> hLLRegion;
 
+  /**
+   * This is the {@link RedisDataType#REDIS_SORTEDSET} {@link Region}. This is the Region that
+   * stores all sorted set contents
+   */
+  private final Region<ByteArrayWrapper, RedisSortedSet> sortedSetsRegion;
+
   private final Cache cache;
   private final QueryService queryService;
   private final ConcurrentMap<ByteArrayWrapper, Map<Enum<?>, Query>> preparedQueries =
@@ -88,16 +90,26 @@ public class RegionProvider implements Closeable {
   private static final CreateRegionCommand createRegionCmd = new CreateRegionCommand();
   private final ConcurrentHashMap<String, Lock> locks;
 
+  /**
+   * Serializes the commands modifying a sorted set on this server, striped by key so that locks
+   * never have to be created or removed with the keys
+   */
+  private static final int SORTED_SET_LOCK_STRIPES = 64;
+  private final Lock[] sortedSetLocks = new Lock[SORTED_SET_LOCK_STRIPES];
+
   public RegionProvider(Region<ByteArrayWrapper, ByteArrayWrapper> stringsRegion,
       Region<ByteArrayWrapper, HyperLogLogPlus> hLLRegion,
+      Region<ByteArrayWrapper, RedisSortedSet> sortedSetsRegion,
       Region<String, RedisDataType> redisMetaRegion,
       ConcurrentMap<ByteArrayWrapper, ScheduledFuture<?>> expirationsMap,
       ScheduledExecutorService expirationExecutor, RegionShortcut defaultShortcut) {
-    if (stringsRegion == null || hLLRegion == null || redisMetaRegion == null)
+    if (stringsRegion == null || hLLRegion == null || sortedSetsRegion == null
+        || redisMetaRegion == null)
       throw new NullPointerException();
     this.regions = new ConcurrentHashMap<>();
     this.stringsRegion = stringsRegion;
     this.hLLRegion = hLLRegion;
+    this.sortedSetsRegion = sortedSetsRegion;
     this.redisMetaRegion = redisMetaRegion;
     this.cache = GemFireCacheImpl.getInstance();
     this.queryService = cache.getQueryService();
@@ -105,6 +117,9 @@ public class RegionProvider implements Closeable {
     this.expirationExecutor = expirationExecutor;
     this.defaultRegionType = defaultShortcut;
     this.locks = new ConcurrentHashMap<>();
+    for (int i = 0; i < this.sortedSetLocks.length; i++) {
+      this.sortedSetLocks[i] = new ReentrantLock();
+    }
   }
 
   public boolean existsKey(ByteArrayWrapper key) {
@@ -175,7 +190,7 @@ public class RegionProvider implements Closeable {
       return false;
     Lock lock = this.locks.get(key.toString());
     try {
-      if (lock != null) {// Strings/hlls will not have locks
+      if (lock != null) {// Strings/hlls/sorted sets will not have locks
         lock.lock();
       }
       metaRemoveEntry(key);
@@ -184,6 +199,8 @@ public class RegionProvider implements Closeable {
           return this.stringsRegion.remove(key) != null;
         } else if (type == RedisDataType.REDIS_HLL) {
           return this.hLLRegion.remove(key) != null;
+        } else if (type == RedisDataType.REDIS_SORTEDSET) {
+          return this.sortedSetsRegion.remove(key) != null;
         } else {
           return destroyRegion(key, type);
         }
@@ -210,7 +227,7 @@ public class RegionProvider implements Closeable {
   }
 
   public void createRemoteRegionReferenceLocally(ByteArrayWrapper key, RedisDataType type) {
-    if (type == null || type == RedisDataType.REDIS_STRING || type == RedisDataType.REDIS_HLL)
+    if (type == null || !isRegionType(type))
       return;
     Region<?, ?> r = this.regions.get(key);
     if (r != null)
@@ -237,12 +254,6 @@ public class RegionProvider implements Closeable {
 
           if (type == RedisDataType.REDIS_LIST) {
             doInitializeList(key, r);
-          } else if (type == RedisDataType.REDIS_SORTEDSET) {
-            try {
-              doInitializeSortedSet(key, r);
-            } catch (RegionNotFoundException | IndexInvalidException e) {
-              // ignore
-            }
           }
           this.regions.put(key, r);
         }
@@ -290,12 +301,6 @@ public class RegionProvider implements Closeable {
               try {
                 if (type == RedisDataType.REDIS_LIST) {
                   doInitializeList(key, r);
-                } else if (type == RedisDataType.REDIS_SORTEDSET) {
-                  try {
-                    doInitializeSortedSet(key, r);
-                  } catch (RegionNotFoundException | IndexInvalidException e) {
-                    concurrentCreateDestroyException = e;
-                  }
                 }
               } catch (QueryInvalidException e) {
                 if (e.getCause() instanceof RegionNotFoundException) {
@@ -354,25 +359,6 @@ public class RegionProvider implements Closeable {
     this.regions.remove(key);
   }
 
-  private void doInitializeSortedSet(ByteArrayWrapper key, Region<?, ?> r)
-      throws RegionNotFoundException, IndexInvalidException {
-    String fullpath = r.getFullPath();
-    try {
-      queryService.createIndex("scoreIndex", "entry.value.score",
-          r.getFullPath() + ".entrySet entry");
-      queryService.createIndex("scoreIndex2", "value.score", r.getFullPath() + ".values value");
-    } catch (IndexNameConflictException | IndexExistsException | UnsupportedOperationException e) {
-      // ignore, these indexes already exist or unsupported but make sure prepared queries are made
-    }
-    HashMap<Enum<?>, Query> queryList = new HashMap<>();
-    for (SortedSetQuery lq : SortedSetQuery.values()) {
-      String queryString = lq.getQueryString(fullpath);
-      Query query = this.queryService.newQuery(queryString);
-      queryList.put(lq, query);
-    }
-    this.preparedQueries.put(key, queryList);
-  }
-
   private void doInitializeList(ByteArrayWrapper key, Region r) {
     r.put("head", 0);
     r.put("tail", 0);
@@ -418,13 +404,6 @@ public class RegionProvider implements Closeable {
 
   public Query getQuery(ByteArrayWrapper key, Enum<?> query) {
     return this.preparedQueries.get(key).get(query);
-    /*
-     * if (query instanceof ListQuery) { return
-     * this.queryService.newQuery(((ListQuery)query).getQueryString(this.regions.get(key).
-     * getFullPath())); } else { return
-     * this.queryService.newQuery(((SortedSetQuery)query).getQueryString(this.regions.get(key).
-     * getFullPath())); }
-     */
   }
 
   /**
@@ -457,6 +436,29 @@ public class RegionProvider implements Closeable {
     return this.hLLRegion;
   }
 
+  public Region<ByteArrayWrapper, RedisSortedSet> getSortedSetsRegion() {
+    return this.sortedSetsRegion;
+  }
+
+  /**
+   * @return The lock held while modifying the sorted set stored for the key
+   */
+  public Lock getSortedSetLock(ByteArrayWrapper key) {
+    return this.sortedSetLocks[(key.hashCode() & Integer.MAX_VALUE) % SORTED_SET_LOCK_STRIPES];
+  }
+
+  /**
+   * Strings, HyperLogLogs and sorted sets are stored as values of a shared {@link Region}, all
+   * other data types get a Region of their own
+   *
+   * @param type Type to check
+   * @return True if keys of this type are backed by their own Region
+   */
+  public static boolean isRegionType(RedisDataType type) {
+    return type != RedisDataType.REDIS_STRING && type != RedisDataType.REDIS_HLL
+        && type != RedisDataType.REDIS_SORTEDSET && type != RedisDataType.REDIS_PROTECTED;
+  }
+
   private RedisDataType getRedisDataType(String key) {
     return this.redisMetaRegion.get(key);
   }
@@ -14,30 +14,84 @@
  */
 package org.apache.geode.redis.internal.executor.sortedset;
 
-import org.apache.geode.cache.Region;
+import java.util.concurrent.locks.Lock;
+
 import org.apache.geode.redis.internal.ByteArrayWrapper;
-import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisDataTypeMismatchException;
+import org.apache.geode.redis.internal.RedisSortedSet;
 import org.apache.geode.redis.internal.executor.AbstractExecutor;
 
 public abstract class SortedSetExecutor extends AbstractExecutor {
 
-  @Override
-  protected Region<ByteArrayWrapper, DoubleWrapper> getOrCreateRegion(
-      ExecutionHandlerContext context, ByteArrayWrapper key, RedisDataType type) {
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, DoubleWrapper> r = (Region<ByteArrayWrapper, DoubleWrapper>) context
-        .getRegionProvider().getOrCreateRegion(key, type, context);
-    return r;
+  protected RedisSortedSet getSortedSet(ExecutionHandlerContext context, ByteArrayWrapper key) {
+    return context.getRegionProvider().getSortedSetsRegion().get(key);
+  }
+
+  /**
+   * Locks the key against the other commands modifying its sorted set on this server. The lock has
+   * to be held from {@link #getSortedSetForUpdate(ExecutionHandlerContext, ByteArrayWrapper)} until
+   * the set is stored, otherwise concurrent commands would overwrite each other's changes.
+   *
+   * @return The lock to release once the command is done
+   */
+  protected Lock lockSortedSet(ExecutionHandlerContext context, ByteArrayWrapper key) {
+    Lock lock = context.getRegionProvider().getSortedSetLock(key);
+    lock.lock();
+    return lock;
+  }
+
+  /**
+   * Returns the sorted set to modify and then store with
+   * {@link #updateSortedSet(ExecutionHandlerContext, ByteArrayWrapper, RedisSortedSet)}, with the
+   * key locked by {@link #lockSortedSet(ExecutionHandlerContext, ByteArrayWrapper)}. The stored set
+   * is modified in place so that the put only distributes the change. Inside a transaction a copy
+   * is modified instead, so that a rollback leaves the stored set as it was.
+   *
+   * @return The sorted set or null if there is none
+   */
+  protected RedisSortedSet getSortedSetForUpdate(ExecutionHandlerContext context,
+      ByteArrayWrapper key) {
+    RedisSortedSet sortedSet = getSortedSet(context, key);
+    if (sortedSet != null && context.hasTransaction()) {
+      return sortedSet.copy();
+    }
+    return sortedSet;
   }
 
-  protected Region<ByteArrayWrapper, DoubleWrapper> getRegion(ExecutionHandlerContext context,
+  /**
+   * @return The sorted set, or a new empty one, to modify and then store
+   * @see #getSortedSetForUpdate(ExecutionHandlerContext, ByteArrayWrapper)
+   */
+  protected RedisSortedSet getOrCreateSortedSet(ExecutionHandlerContext context,
       ByteArrayWrapper key) {
-    @SuppressWarnings("unchecked")
-    Region<ByteArrayWrapper, DoubleWrapper> r =
-        (Region<ByteArrayWrapper, DoubleWrapper>) context.getRegionProvider().getRegion(key);
-    return r;
+    checkAndSetDataType(key, context);
+    RedisSortedSet sortedSet = getSortedSetForUpdate(context, key);
+    return sortedSet != null ? sortedSet : new RedisSortedSet();
+  }
+
+  /**
+   * Stores a modified sorted set, only the changes made to it are distributed. An empty set removes
+   * the key.
+   */
+  protected void updateSortedSet(ExecutionHandlerContext context, ByteArrayWrapper key,
+      RedisSortedSet sortedSet) {
+    if (sortedSet.size() == 0) {
+      context.getRegionProvider().removeKey(key, RedisDataType.REDIS_SORTEDSET);
+    } else {
+      context.getRegionProvider().getSortedSetsRegion().put(key, sortedSet);
+    }
+  }
+
+  private void checkAndSetDataType(ByteArrayWrapper key, ExecutionHandlerContext context) {
+    Object oldVal =
+        context.getRegionProvider().metaPutIfAbsent(key, RedisDataType.REDIS_SORTEDSET);
+    if (oldVal == RedisDataType.REDIS_PROTECTED)
+      throw new RedisDataTypeMismatchException("The key name \"" + key + "\" is protected");
+    if (oldVal != null && oldVal != RedisDataType.REDIS_SORTEDSET)
+      throw new RedisDataTypeMismatchException(
+          "The key name \"" + key + "\" is already used by a " + oldVal.toString());
   }
 
 }
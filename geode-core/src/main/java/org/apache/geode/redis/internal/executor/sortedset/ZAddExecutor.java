@@ -14,18 +14,16 @@
  */
 package org.apache.geode.redis.internal.executor.sortedset;
 
-import java.util.HashMap;
+import java.util.ArrayList;
 import java.util.List;
-import java.util.Map;
+import java.util.concurrent.locks.Lock;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
-import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
-import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 
 public class ZAddExecutor extends SortedSetExecutor {
 
@@ -42,32 +40,13 @@ public class ZAddExecutor extends SortedSetExecutor {
     }
 
     ByteArrayWrapper key = command.getKey();
-    int numberOfAdds = 0;
-
-    if (commandElems.size() > 4) {
-      Map<ByteArrayWrapper, DoubleWrapper> map = new HashMap<ByteArrayWrapper, DoubleWrapper>();
-      for (int i = 2; i < commandElems.size(); i++) {
-        byte[] scoreArray = commandElems.get(i++);
-        byte[] memberArray = commandElems.get(i);
 
-        Double score;
-        try {
-          score = Coder.bytesToDouble(scoreArray);
-        } catch (NumberFormatException e) {
-          command.setResponse(
-              Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_NOT_NUMERICAL));
-          return;
-        }
+    List<ByteArrayWrapper> members = new ArrayList<ByteArrayWrapper>();
+    List<Double> scores = new ArrayList<Double>();
+    for (int i = 2; i < commandElems.size(); i++) {
+      byte[] scoreArray = commandElems.get(i++);
+      byte[] memberArray = commandElems.get(i);
 
-        map.put(new ByteArrayWrapper(memberArray), new DoubleWrapper(score));
-        numberOfAdds++;
-      }
-      Region<ByteArrayWrapper, DoubleWrapper> keyRegion =
-          getOrCreateRegion(context, key, RedisDataType.REDIS_SORTEDSET);
-      keyRegion.putAll(map);
-    } else {
-      byte[] scoreArray = commandElems.get(2);
-      byte[] memberArray = commandElems.get(3);
       Double score;
       try {
         score = Coder.bytesToDouble(scoreArray);
@@ -76,12 +55,22 @@ public class ZAddExecutor extends SortedSetExecutor {
             Coder.getErrorResponse(context.getByteBufAllocator(), ERROR_NOT_NUMERICAL));
         return;
       }
-      Region<ByteArrayWrapper, DoubleWrapper> keyRegion =
-          getOrCreateRegion(context, key, RedisDataType.REDIS_SORTEDSET);
-      Object oldVal = keyRegion.put(new ByteArrayWrapper(memberArray), new DoubleWrapper(score));
 
-      if (oldVal == null)
-        numberOfAdds = 1;
+      members.add(new ByteArrayWrapper(memberArray));
+      scores.add(score);
+    }
+
+    int numberOfAdds = 0;
+    Lock lock = lockSortedSet(context, key);
+    try {
+      RedisSortedSet sortedSet = getOrCreateSortedSet(context, key);
+      for (int i = 0; i < members.size(); i++) {
+        if (sortedSet.add(members.get(i), scores.get(i)))
+          numberOfAdds++;
+      }
+      updateSortedSet(context, key, sortedSet);
+    } finally {
+      lock.unlock();
     }
 
     command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), numberOfAdds));
@@ -15,15 +15,15 @@
 package org.apache.geode.redis.internal.executor.sortedset;
 
 import java.util.List;
+import java.util.concurrent.locks.Lock;
 
-import org.apache.geode.cache.Region;
 import org.apache.geode.redis.internal.ByteArrayWrapper;
 import org.apache.geode.redis.internal.Coder;
 import org.apache.geode.redis.internal.Command;
-import org.apache.geode.redis.internal.DoubleWrapper;
 import org.apache.geode.redis.internal.ExecutionHandlerContext;
 import org.apache.geode.redis.internal.RedisConstants.ArityDef;
 import org.apache.geode.redis.internal.RedisDataType;
+import org.apache.geode.redis.internal.RedisSortedSet;
 
 public class ZRemExecutor extends SortedSetExecutor {
 
@@ -39,24 +39,27 @@ public class ZRemExecutor extends SortedSetExecutor {
     ByteArrayWrapper key = command.getKey();
 
     checkDataType(key, RedisDataType.REDIS_SORTEDSET, context);
-    Region<ByteArrayWrapper, DoubleWrapper> keyRegion = getRegion(context, key);
-
-    if (keyRegion == null) {
-      command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), 0));
-      return;
-    }
-
     int numDeletedMembers = 0;
+    Lock lock = lockSortedSet(context, key);
+    try {
+      RedisSortedSet sortedSet = getSortedSetForUpdate(context, key);
+
+      if (sortedSet == null) {
+        command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), 0));
+        return;
+      }
 
-    for (int i = 2; i < commandElems.size(); i++) {
-      byte[] memberArray = commandElems.get(i);
-      ByteArrayWrapper member = new ByteArrayWrapper(memberArray);
-      Object oldVal = keyRegion.remove(member);
-      if (oldVal != null)
-        numDeletedMembers++;
+      for (int i = 2; i < commandElems.size(); i++) {
+        byte[] memberArray = commandElems.get(i);
+        ByteArrayWrapper member = new ByteArrayWrapper(memberArray);
+        if (sortedSet.remove(member))
+          numDeletedMembers++;
+      }
+      if (numDeletedMembers > 0)
+        updateSortedSet(context, key, sortedSet);
+    } finally {
+      lock.unlock();
     }
-    if (keyRegion.isEmpty())
-      context.getRegionProvider().removeKey(key);
     command.setResponse(Coder.getIntegerResponse(context.getByteBufAllocator(), numDeletedMembers));
   }
 }
@@ -77,6 +77,7 @@ import org.apache.geode.cache.query.Query;
 import org.apache.geode.cache.query.QueryException;
 import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.internal.index.AsyncIndexUpdater;
 import org.apache.geode.cache.query.internal.index.IndexManager;
 import org.apache.geode.cache.util.CacheListenerAdapter;
 import org.apache.geode.cache.util.TransactionListenerAdapter;
@@ -6600,9 +6601,9 @@ public class TXJUnitTest {
       assertEquals(3, index0.getStatistics().getNumberOfKeys());
       assertEquals(3, index0.getStatistics().getNumberOfValues());
       aIregion.put("qkey2", val2);
-      final IndexManager.IndexUpdaterThread upThread =
-          ((AbstractRegion) aIregion).getIndexManager().getUpdaterThread();
-      while (!upThread.isDone()) {
+      final AsyncIndexUpdater asyncUpdater =
+          ((AbstractRegion) aIregion).getIndexManager().getAsyncIndexUpdater();
+      while (!asyncUpdater.isDone()) {
         pause(20);
       }
       // @todo asif: for some reason the value returned by getNumberOfKeys is unstable.
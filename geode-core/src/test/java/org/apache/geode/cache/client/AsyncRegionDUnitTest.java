@@ -0,0 +1,261 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.awaitility.Awaitility.await;
+
+import java.io.Serializable;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.Properties;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CountDownLatch;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.CacheLoader;
+import org.apache.geode.cache.CacheTransactionManager;
+import org.apache.geode.cache.LoaderHelper;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.client.internal.MultiplexedConnections;
+import org.apache.geode.cache.execute.Function;
+import org.apache.geode.cache.execute.FunctionContext;
+import org.apache.geode.cache.execute.FunctionService;
+import org.apache.geode.cache.execute.RegionFunctionContext;
+import org.apache.geode.test.dunit.rules.ClientVM;
+import org.apache.geode.test.dunit.rules.ClusterStartupRule;
+import org.apache.geode.test.dunit.rules.MemberVM;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.DistributedTest;
+
+@Category({DistributedTest.class, ClientServerTest.class})
+public class AsyncRegionDUnitTest {
+
+  private static final String REGION_NAME = "region";
+
+  private static final String MULTIPLEXED_POOL_NAME = "multiplexed";
+
+  private static CompletableFuture<String> inFlightGet;
+
+  @Rule
+  public ClusterStartupRule cluster = new ClusterStartupRule();
+
+  private MemberVM server;
+
+  private ClientVM client;
+
+  private int serverPort;
+
+  @Before
+  public void setUp() throws Exception {
+    server = cluster.startServerVM(0);
+    server.invoke(() -> {
+      ClusterStartupRule.getCache().createRegionFactory(RegionShortcut.REPLICATE)
+          .create(REGION_NAME);
+      FunctionService.registerFunction(new GetValuesFunction());
+    });
+    serverPort = server.getPort();
+    int port = serverPort;
+    client = cluster.startClientVM(1, new Properties(),
+        (Serializable & Consumer<ClientCacheFactory>) cacheFactory -> cacheFactory
+            .addPoolServer("localhost", port));
+  }
+
+  @Test
+  public void operationsAreCompletedOnPoolWithMultiplexedConnections() {
+    int port = serverPort;
+    client.invoke(() -> {
+      createMultiplexedPool(port);
+      verifyOperations(createProxyRegion(MULTIPLEXED_POOL_NAME));
+    });
+  }
+
+  @Test
+  public void operationsAreCompletedOnPoolWithoutMultiplexedConnections() {
+    client.invoke(() -> {
+      verifyOperations(createProxyRegion(null));
+    });
+  }
+
+  @Test
+  public void regionWithLocalStorageIsRejected() {
+    client.invoke(() -> {
+      ClientCache cache = ClusterStartupRule.getClientCache();
+      Region<String, String> region = cache.<String, String>createClientRegionFactory(
+          ClientRegionShortcut.CACHING_PROXY).create(REGION_NAME);
+
+      assertThatThrownBy(() -> cache.getAsyncRegion(region))
+          .isInstanceOf(IllegalArgumentException.class);
+    });
+  }
+
+  @Test
+  public void operationInTransactionIsRejected() {
+    client.invoke(() -> {
+      AsyncRegion<String, String> asyncRegion =
+          ClusterStartupRule.getClientCache().getAsyncRegion(createProxyRegion(null));
+      CacheTransactionManager txManager =
+          ClusterStartupRule.getClientCache().getCacheTransactionManager();
+      txManager.begin();
+      try {
+        assertThatThrownBy(() -> asyncRegion.getAsync("key"))
+            .isInstanceOf(IllegalStateException.class);
+        assertThatThrownBy(() -> asyncRegion.putAsync("key", "value"))
+            .isInstanceOf(IllegalStateException.class);
+      } finally {
+        txManager.rollback();
+      }
+    });
+  }
+
+  @Test
+  public void operationInFlightIsCompletedWhenPoolIsClosed() {
+    server.invoke(() -> {
+      BlockingLoader.release = new CountDownLatch(1);
+      BlockingLoader.loading = new CountDownLatch(1);
+      ClusterStartupRule.getCache().getRegion(REGION_NAME).getAttributesMutator()
+          .setCacheLoader(new BlockingLoader());
+    });
+    int port = serverPort;
+    client.invoke(() -> {
+      createMultiplexedPool(port);
+      AsyncRegion<String, String> asyncRegion = ClusterStartupRule.getClientCache()
+          .getAsyncRegion(createProxyRegion(MULTIPLEXED_POOL_NAME));
+      inFlightGet = asyncRegion.getAsync("key");
+    });
+
+    try {
+      server.invoke(() -> {
+        assertThat(BlockingLoader.loading.await(30, SECONDS)).isTrue();
+      });
+
+      client.invoke(() -> {
+        assertThat(inFlightGet).isNotDone();
+        ClusterStartupRule.getClientCache().close();
+
+        await().atMost(30, SECONDS).until(inFlightGet::isDone);
+        assertThat(inFlightGet).isCompletedExceptionally();
+      });
+    } finally {
+      server.invoke(() -> BlockingLoader.release.countDown());
+    }
+  }
+
+  private static void createMultiplexedPool(int serverPort) {
+    System.setProperty(MultiplexedConnections.CONNECTIONS_PROPERTY, "2");
+    try {
+      PoolManager.createFactory().addServer("localhost", serverPort)
+          .create(MULTIPLEXED_POOL_NAME);
+    } finally {
+      System.clearProperty(MultiplexedConnections.CONNECTIONS_PROPERTY);
+    }
+  }
+
+  private static Region<String, String> createProxyRegion(String poolName) {
+    ClientRegionFactory<String, String> regionFactory = ClusterStartupRule.getClientCache()
+        .createClientRegionFactory(ClientRegionShortcut.PROXY);
+    if (poolName != null) {
+      regionFactory.setPoolName(poolName);
+    }
+    return regionFactory.create(REGION_NAME);
+  }
+
+  private static void verifyOperations(Region<String, String> region) throws Exception {
+    AsyncRegion<String, String> asyncRegion =
+        ClusterStartupRule.getClientCache().getAsyncRegion(region);
+    assertThat(asyncRegion.getRegion()).isSameAs(region);
+
+    asyncRegion.putAsync("key1", "value1").get(30, SECONDS);
+    assertThat(region.get("key1")).isEqualTo("value1");
+    region.put("key2", "value2");
+
+    assertThat(asyncRegion.getAsync("key2").get(30, SECONDS)).isEqualTo("value2");
+    assertThat(asyncRegion.getAsync("missing").get(30, SECONDS)).isNull();
+
+    Map<String, String> expected = new HashMap<>();
+    expected.put("key1", "value1");
+    expected.put("key2", "value2");
+    expected.put("missing", null);
+    assertThat(asyncRegion.getAllAsync(Arrays.asList("key1", "key2", "missing")).get(30, SECONDS))
+        .isEqualTo(expected);
+
+    assertThat(asyncRegion.executeFunctionAsync(GetValuesFunction.ID,
+        Collections.singleton("key1"), null).get(30, SECONDS))
+            .isEqualTo(Collections.singletonList("value1"));
+  }
+
+  /**
+   * Returns the values of the keys of its filter
+   */
+  private static class GetValuesFunction implements Function<Object> {
+
+    private static final String ID = "AsyncRegionDUnitTest.GetValuesFunction";
+
+    @Override
+    public void execute(FunctionContext<Object> context) {
+      RegionFunctionContext regionContext = (RegionFunctionContext) context;
+      Region<Object, Object> region = regionContext.getDataSet();
+      Iterator<?> keys = regionContext.getFilter().iterator();
+      while (keys.hasNext()) {
+        Object value = region.get(keys.next());
+        if (keys.hasNext()) {
+          context.getResultSender().sendResult(value);
+        } else {
+          context.getResultSender().lastResult(value);
+        }
+      }
+    }
+
+    @Override
+    public String getId() {
+      return ID;
+    }
+  }
+
+  /**
+   * Keeps a load in progress until released
+   */
+  private static class BlockingLoader implements CacheLoader<Object, Object> {
+
+    private static CountDownLatch loading;
+
+    private static CountDownLatch release;
+
+    @Override
+    public Object load(LoaderHelper<Object, Object> helper) {
+      loading.countDown();
+      try {
+        release.await(60, SECONDS);
+      } catch (InterruptedException e) {
+        Thread.currentThread().interrupt();
+      }
+      return "loaded";
+    }
+
+    @Override
+    public void close() {}
+  }
+}
@@ -0,0 +1,123 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.io.Serializable;
+import java.util.Properties;
+import java.util.function.Consumer;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.PoolStats;
+import org.apache.geode.test.dunit.rules.ClientVM;
+import org.apache.geode.test.dunit.rules.ClusterStartupRule;
+import org.apache.geode.test.dunit.rules.MemberVM;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.DistributedTest;
+
+@Category({DistributedTest.class, ClientServerTest.class})
+public class NearCacheDUnitTest {
+
+  private static final String REGION_NAME = "region";
+
+  @Rule
+  public ClusterStartupRule cluster = new ClusterStartupRule();
+
+  private MemberVM server;
+
+  private ClientVM client;
+
+  @Before
+  public void setUp() throws Exception {
+    server = cluster.startServerVM(0);
+    server.invoke(() -> {
+      ClusterStartupRule.getCache().createRegionFactory(RegionShortcut.REPLICATE)
+          .create(REGION_NAME);
+    });
+    int serverPort = server.getPort();
+    client = cluster.startClientVM(1, new Properties(),
+        (Serializable & Consumer<ClientCacheFactory>) cacheFactory -> cacheFactory
+            .setPoolSubscriptionEnabled(true).addPoolServer("localhost", serverPort));
+    client.invoke(() -> {
+      ClusterStartupRule.getClientCache()
+          .createClientRegionFactory(ClientRegionShortcut.NEAR_CACHE).create(REGION_NAME);
+    });
+  }
+
+  @Test
+  public void updateOnServerInvalidatesEntryWhichIsFetchedAgainWhenRead() {
+    server.invoke(() -> {
+      getServerRegion().put("key", "value1");
+    });
+    client.invoke(() -> {
+      Region<String, String> region = getClientRegion();
+      assertThat(region.get("key")).isEqualTo("value1");
+      assertThat(region.containsValueForKey("key")).isTrue();
+    });
+
+    server.invoke(() -> {
+      getServerRegion().put("key", "value2");
+    });
+    client.invoke(() -> {
+      Region<String, String> region = getClientRegion();
+      // the update is received as an invalidation, the new value is not sent
+      await().atMost(30, SECONDS).until(() -> !region.containsValueForKey("key"));
+      assertThat(region.containsKey("key")).isTrue();
+
+      assertThat(region.get("key")).isEqualTo("value2");
+      assertThat(region.containsValueForKey("key")).isTrue();
+    });
+  }
+
+  @Test
+  public void readsAreCountedAsHitsAndMissesInPoolStats() {
+    server.invoke(() -> {
+      Region<String, String> region = getServerRegion();
+      region.put("key1", "value1");
+      region.put("key2", "value2");
+    });
+
+    client.invoke(() -> {
+      Region<String, String> region = getClientRegion();
+      region.get("key1");
+      region.get("key1");
+      region.get("key1");
+      region.get("key2");
+
+      PoolStats stats = ((LocalRegion) region).getServerProxy().getPool().getStats();
+      assertThat(stats.getNearCacheMisses()).isEqualTo(2);
+      assertThat(stats.getNearCacheHits()).isEqualTo(2);
+      assertThat(stats.getNearCacheHitRatio()).isEqualTo(0.5);
+    });
+  }
+
+  private static Region<String, String> getServerRegion() {
+    return ClusterStartupRule.getCache().getRegion(REGION_NAME);
+  }
+
+  private static Region<String, String> getClientRegion() {
+    return ClusterStartupRule.getClientCache().getRegion(REGION_NAME);
+  }
+}
@@ -0,0 +1,241 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.doAnswer;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.net.InetAddress;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.client.internal.pooling.ConnectionDestroyedException;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.cache.tier.sockets.Message;
+import org.apache.geode.internal.cache.tier.sockets.MessageStats;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category({IntegrationTest.class, ClientServerTest.class})
+public class MultiplexedConnectionIntegrationTest {
+
+  private static final int BUFFER_SIZE = 1000;
+
+  private static final String FAIL = "fail";
+
+  private static final String CLOSE = "close";
+
+  private ServerSocket serverSocket;
+
+  private Socket clientSocket;
+
+  private Socket serverSideSocket;
+
+  private ExecutorService executor;
+
+  private AtomicBoolean destroyed;
+
+  private MultiplexedConnection connection;
+
+  @Before
+  public void setUp() throws Exception {
+    serverSocket = new ServerSocket(0, 50, InetAddress.getLoopbackAddress());
+    clientSocket = new Socket(InetAddress.getLoopbackAddress(), serverSocket.getLocalPort());
+    serverSideSocket = serverSocket.accept();
+    executor = Executors.newCachedThreadPool();
+    executor.submit(this::echoRequests);
+
+    destroyed = new AtomicBoolean();
+    Connection exclusiveConnection = mock(Connection.class);
+    when(exclusiveConnection.getSocket()).thenReturn(clientSocket);
+    when(exclusiveConnection.getInputStream()).thenReturn(clientSocket.getInputStream());
+    when(exclusiveConnection.getOutputStream()).thenReturn(clientSocket.getOutputStream());
+    when(exclusiveConnection.getCommBuffer()).thenReturn(ByteBuffer.allocate(BUFFER_SIZE));
+    when(exclusiveConnection.getStats()).thenReturn(mock(ConnectionStats.class));
+    when(exclusiveConnection.getEndpoint()).thenReturn(mock(Endpoint.class));
+    when(exclusiveConnection.getServer())
+        .thenReturn(new ServerLocation("localhost", serverSocket.getLocalPort()));
+    when(exclusiveConnection.isDestroyed()).thenAnswer(invocation -> destroyed.get());
+    doAnswer(invocation -> {
+      destroyed.set(true);
+      clientSocket.close();
+      return null;
+    }).when(exclusiveConnection).destroy();
+    connection = new MultiplexedConnection(exclusiveConnection, executor);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    executor.shutdownNow();
+    clientSocket.close();
+    serverSideSocket.close();
+    serverSocket.close();
+  }
+
+  @Test
+  public void concurrentOpsReceiveTheirOwnResponses() throws Exception {
+    List<Future<?>> futures = new ArrayList<>();
+    for (int i = 0; i < 10; i++) {
+      String prefix = "thread" + i + "-";
+      futures.add(executor.submit(() -> {
+        for (int j = 0; j < 100; j++) {
+          String value = prefix + j;
+          assertThat(connection.execute(new EchoOp(value))).isEqualTo(value);
+        }
+        return null;
+      }));
+    }
+    for (Future<?> future : futures) {
+      future.get(30, TimeUnit.SECONDS);
+    }
+
+    assertThat(connection.getPendingResponses()).isEqualTo(0);
+    assertThat(connection.isDestroyed()).isFalse();
+  }
+
+  @Test
+  public void asyncOpsAreCompletedWithTheirOwnResponses() throws Exception {
+    Future<?> syncOps = executor.submit(() -> {
+      for (int j = 0; j < 100; j++) {
+        String value = "sync-" + j;
+        assertThat(connection.execute(new EchoOp(value))).isEqualTo(value);
+      }
+      return null;
+    });
+    List<CompletableFuture<Object>> futures = new ArrayList<>();
+    for (int i = 0; i < 500; i++) {
+      futures.add(connection.executeAsync(new EchoOp("async-" + i)));
+    }
+    syncOps.get(30, TimeUnit.SECONDS);
+    for (int i = 0; i < futures.size(); i++) {
+      assertThat(futures.get(i).get(30, TimeUnit.SECONDS)).isEqualTo("async-" + i);
+    }
+
+    assertThat(connection.getPendingResponses()).isEqualTo(0);
+    assertThat(connection.isDestroyed()).isFalse();
+  }
+
+  @Test
+  public void asyncOpsAreFailedWhenTheConnectionIsLost() throws Exception {
+    CompletableFuture<Object> failed = connection.executeAsync(new EchoOp(FAIL));
+    CompletableFuture<Object> lost = connection.executeAsync(new EchoOp(CLOSE));
+
+    assertThatThrownBy(() -> failed.get(30, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(IllegalStateException.class);
+    assertThatThrownBy(() -> lost.get(30, TimeUnit.SECONDS))
+        .hasCauseInstanceOf(ConnectionDestroyedException.class);
+    assertThat(connection.isDestroyed()).isTrue();
+  }
+
+  @Test
+  public void exceptionFromResponseKeepsTheConnection() throws Exception {
+    assertThatThrownBy(() -> connection.execute(new EchoOp(FAIL)))
+        .isInstanceOf(IllegalStateException.class);
+
+    assertThat(connection.isDestroyed()).isFalse();
+    assertThat(connection.execute(new EchoOp("value"))).isEqualTo("value");
+  }
+
+  @Test
+  public void opIsFailedWhenTheConnectionIsLost() throws Exception {
+    assertThatThrownBy(() -> connection.execute(new EchoOp(CLOSE)))
+        .isInstanceOf(ConnectionDestroyedException.class);
+
+    assertThat(connection.isDestroyed()).isTrue();
+    assertThatThrownBy(() -> connection.execute(new EchoOp("value")))
+        .isInstanceOf(ConnectionDestroyedException.class);
+  }
+
+  /**
+   * Replies to each request with its first part, in the order the requests were received.
+   */
+  private Void echoRequests() throws Exception {
+    ByteBuffer buffer = ByteBuffer.allocate(BUFFER_SIZE);
+    while (true) {
+      Message request = new Message(1, Version.CURRENT);
+      request.setComms(serverSideSocket, serverSideSocket.getInputStream(),
+          serverSideSocket.getOutputStream(), buffer, mock(MessageStats.class));
+      request.recv();
+      String value = request.getPart(0).getString();
+      if (CLOSE.equals(value)) {
+        serverSideSocket.close();
+        return null;
+      }
+      Message response = new Message(1, Version.CURRENT);
+      response.setMessageType(MessageType.RESPONSE);
+      response.addStringPart(value);
+      response.setComms(serverSideSocket, serverSideSocket.getInputStream(),
+          serverSideSocket.getOutputStream(), buffer, mock(MessageStats.class));
+      response.send();
+    }
+  }
+
+  private static class EchoOp extends AbstractOp {
+
+    EchoOp(String value) {
+      super(MessageType.PUT, 1);
+      getMessage().addStringPart(value);
+    }
+
+    @Override
+    public boolean isMultiplexable() {
+      return true;
+    }
+
+    @Override
+    protected Object processResponse(Message msg) throws Exception {
+      String value = msg.getPart(0).getString();
+      if (FAIL.equals(value)) {
+        throw new IllegalStateException(value);
+      }
+      return value;
+    }
+
+    @Override
+    protected boolean isErrorResponse(int msgType) {
+      return false;
+    }
+
+    @Override
+    protected long startAttempt(ConnectionStats stats) {
+      return 0;
+    }
+
+    @Override
+    protected void endSendAttempt(ConnectionStats stats, long start) {}
+
+    @Override
+    protected void endAttempt(ConnectionStats stats, long start) {}
+  }
+}
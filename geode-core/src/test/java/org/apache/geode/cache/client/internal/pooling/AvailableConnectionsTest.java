@@ -0,0 +1,151 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.client.internal.pooling;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.client.internal.Connection;
+import org.apache.geode.cache.client.internal.Endpoint;
+import org.apache.geode.distributed.internal.ServerLocation;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class AvailableConnectionsTest {
+
+  private final ServerLocation server1 = new ServerLocation("localhost", 1);
+  private final ServerLocation server2 = new ServerLocation("localhost", 2);
+
+  private final AvailableConnections available = new AvailableConnections();
+
+  private static PooledConnection connectionTo(ServerLocation server) {
+    Endpoint endpoint = mock(Endpoint.class);
+    when(endpoint.getLocation()).thenReturn(server);
+    Connection connection = mock(Connection.class);
+    when(connection.getEndpoint()).thenReturn(endpoint);
+    return new PooledConnection(null, connection);
+  }
+
+  @Test
+  public void pollReturnsMostRecentlyOfferedConnection() {
+    PooledConnection first = connectionTo(server1);
+    PooledConnection second = connectionTo(server1);
+    available.offer(first);
+    available.offer(second);
+
+    assertThat(available.poll()).isSameAs(second);
+    assertThat(available.poll()).isSameAs(first);
+    assertThat(available.poll()).isNull();
+  }
+
+  @Test
+  public void pollPrefersServerThisThreadUsedLast() {
+    PooledConnection to1 = connectionTo(server1);
+    PooledConnection to2 = connectionTo(server2);
+    available.offer(to1);
+    available.offer(to2);
+
+    PooledConnection borrowed = available.poll();
+    for (int i = 0; i < 10; i++) {
+      available.offer(borrowed);
+      assertThat(available.poll()).isSameAs(borrowed);
+    }
+    assertThat(available.poll()).isNotNull().isNotSameAs(borrowed);
+  }
+
+  @Test
+  public void pollByServerOnlyReturnsThatServer() {
+    PooledConnection to1 = connectionTo(server1);
+    available.offer(to1);
+    available.offer(connectionTo(server2));
+
+    assertThat(available.poll(server1)).isSameAs(to1);
+    assertThat(available.poll(server1)).isNull();
+    assertThat(available.poll(new ServerLocation("localhost", 3))).isNull();
+    assertThat(available.getAll()).hasSize(1);
+  }
+
+  @Test
+  public void pollExcludingSkipsExcludedServers() {
+    PooledConnection to2 = connectionTo(server2);
+    available.offer(connectionTo(server1));
+    available.offer(to2);
+
+    assertThat(available.pollExcluding(Collections.singleton(server1))).isSameAs(to2);
+    assertThat(available.pollExcluding(Collections.singleton(server1))).isNull();
+  }
+
+  @Test
+  public void removeAllAndRemoveDestroyed() {
+    PooledConnection bad = connectionTo(server1);
+    PooledConnection destroyed = connectionTo(server2);
+    PooledConnection good = connectionTo(server2);
+    available.offer(bad);
+    available.offer(destroyed);
+    available.offer(good);
+
+    available.removeAll(Collections.singleton(bad));
+    destroyed.setShouldDestroy();
+    available.removeDestroyed();
+
+    assertThat(available.getAll()).containsExactly(good);
+  }
+
+  @Test
+  public void concurrentPollAndOfferNeverShareAConnection() throws Exception {
+    final int connections = 8;
+    for (int i = 0; i < connections; i++) {
+      available.offer(connectionTo(i % 2 == 0 ? server1 : server2));
+    }
+    final Set<PooledConnection> inUse = ConcurrentHashMap.newKeySet();
+    final AtomicInteger failures = new AtomicInteger();
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int t = 0; t < 16; t++) {
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < 10000; i++) {
+          PooledConnection connection = available.poll();
+          if (connection == null) {
+            continue;
+          }
+          if (!inUse.add(connection)) {
+            failures.incrementAndGet();
+          }
+          inUse.remove(connection);
+          available.offer(connection);
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(failures.get()).isZero();
+    assertThat(available.getAll()).hasSize(connections);
+  }
+}
@@ -0,0 +1,125 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.EntryDestroyedException;
+import org.apache.geode.cache.query.NameNotFoundException;
+import org.apache.geode.cache.query.QueryInvocationTargetException;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class AttributeDescriptorJUnitTest {
+
+  private final List<String> authorizedMethods = new ArrayList<String>();
+
+  private final MethodInvocationAuthorizer authorizer =
+      (method, target) -> authorizedMethods.add(method.getName());
+
+  @Test
+  public void readsPublicFieldGetterAndMethod() throws Exception {
+    Holder holder = new Holder();
+
+    assertThat(read("count", holder)).isEqualTo(3);
+    assertThat(read("name", holder)).isEqualTo("holder");
+    assertThat(read("size", holder)).isEqualTo(42L);
+    assertThat(read("shared", holder)).isEqualTo("shared");
+    assertThat(authorizedMethods).containsExactly("getName", "size", "getShared");
+  }
+
+  @Test
+  public void readsUndefinedFromNullTarget() throws Exception {
+    assertThat(read("name", null)).isSameAs(QueryService.UNDEFINED);
+  }
+
+  @Test
+  public void throwsNameNotFoundForMissingAttribute() throws Exception {
+    assertThatThrownBy(() -> read("missing", new Holder()))
+        .isInstanceOf(NameNotFoundException.class);
+  }
+
+  @Test
+  public void wrapsExceptionThrownByGetter() throws Exception {
+    assertThatThrownBy(() -> read("broken", new Holder()))
+        .isInstanceOf(QueryInvocationTargetException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void readsUndefinedWhenEntryIsDestroyed() throws Exception {
+    assertThat(read("destroyed", new Holder())).isSameAs(QueryService.UNDEFINED);
+  }
+
+  @Test
+  public void dispatchesMethodWithConvertedArguments() throws Exception {
+    MethodDispatch dispatch = new MethodDispatch(authorizer, Holder.class, "add",
+        Arrays.asList(Integer.class, Integer.class));
+
+    assertThat(dispatch.invoke(new Holder(), Arrays.asList(2, 5))).isEqualTo(7L);
+    assertThat(authorizedMethods).containsExactly("add");
+  }
+
+  @Test
+  public void dispatchWrapsExceptionThrownByMethod() throws Exception {
+    MethodDispatch dispatch =
+        new MethodDispatch(authorizer, Holder.class, "getBroken", new ArrayList());
+
+    assertThatThrownBy(() -> dispatch.invoke(new Holder(), new ArrayList()))
+        .isInstanceOf(QueryInvocationTargetException.class)
+        .hasCauseInstanceOf(IllegalStateException.class);
+  }
+
+  private Object read(String attribute, Object target) throws Exception {
+    return new AttributeDescriptor(authorizer, attribute).read(target);
+  }
+
+  private static class Holder {
+    public int count = 3;
+
+    public String getName() {
+      return "holder";
+    }
+
+    public long size() {
+      return 42;
+    }
+
+    public static String getShared() {
+      return "shared";
+    }
+
+    public Object getBroken() {
+      throw new IllegalStateException();
+    }
+
+    public Object getDestroyed() {
+      throw new EntryDestroyedException("destroyed");
+    }
+
+    public long add(long a, int b) {
+      return a + b;
+    }
+  }
+}
@@ -0,0 +1,126 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Matchers.any;
+import static org.mockito.Matchers.anyBoolean;
+import static org.mockito.Matchers.eq;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.never;
+import static org.mockito.Mockito.verify;
+import static org.mockito.Mockito.when;
+
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.junit.After;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.query.QueryExecutionLowMemoryException;
+import org.apache.geode.cache.query.QueryExecutionTimeoutException;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class QueryMonitorJUnitTest {
+
+  private QueryMonitor monitor;
+
+  private Thread monitoringThread;
+
+  @After
+  public void tearDown() throws Exception {
+    monitor.stopMonitoring();
+    monitoringThread.join(TimeUnit.SECONDS.toMillis(30));
+  }
+
+  @Test
+  public void cancelsQueryRunningLongerThanMaxTime() throws Exception {
+    startMonitor(10);
+    DefaultQuery query = createQuery();
+
+    monitor.monitorQueryThread(Thread.currentThread(), query);
+    Awaitility.await().atMost(30, TimeUnit.SECONDS)
+        .until(() -> assertThatThrownBy(QueryMonitor::isQueryExecutionCanceled)
+            .isInstanceOf(QueryExecutionCanceledException.class));
+    monitor.stopMonitoringQueryThread(Thread.currentThread(), query);
+
+    verify(query).setCanceled(eq(true), any(QueryExecutionTimeoutException.class));
+    assertThat(monitor.getQueryMonitorThreadCount()).isEqualTo(0);
+    QueryMonitor.isQueryExecutionCanceled();
+  }
+
+  @Test
+  public void doesNotCancelCompletedQuery() throws Exception {
+    startMonitor(TimeUnit.HOURS.toMillis(1));
+    DefaultQuery query = createQuery();
+
+    monitor.monitorQueryThread(Thread.currentThread(), query);
+    assertThat(monitor.getQueryMonitorThreadCount()).isEqualTo(1);
+    monitor.stopMonitoringQueryThread(Thread.currentThread(), query);
+
+    Awaitility.await().atMost(30, TimeUnit.SECONDS)
+        .until(() -> assertThat(monitor.getQueryMonitorThreadCount()).isEqualTo(0));
+    verify(query, never()).setCanceled(anyBoolean(), any());
+  }
+
+  @Test
+  public void monitorsNestedQueriesOfAThread() throws Exception {
+    startMonitor(TimeUnit.HOURS.toMillis(1));
+    DefaultQuery outer = createQuery();
+    DefaultQuery inner = createQuery();
+
+    monitor.monitorQueryThread(Thread.currentThread(), outer);
+    monitor.monitorQueryThread(Thread.currentThread(), inner);
+    monitor.stopMonitoringQueryThread(Thread.currentThread(), inner);
+    Awaitility.await().atMost(30, TimeUnit.SECONDS)
+        .until(() -> assertThat(monitor.getQueryMonitorThreadCount()).isEqualTo(1));
+
+    monitor.stopMonitoringQueryThread(Thread.currentThread(), outer);
+    Awaitility.await().atMost(30, TimeUnit.SECONDS)
+        .until(() -> assertThat(monitor.getQueryMonitorThreadCount()).isEqualTo(0));
+  }
+
+  @Test
+  public void cancelsAllQueriesDueToMemory() throws Exception {
+    startMonitor(TimeUnit.HOURS.toMillis(1));
+    DefaultQuery query = createQuery();
+
+    monitor.monitorQueryThread(Thread.currentThread(), query);
+    monitor.cancelAllQueriesDueToMemory();
+
+    verify(query).setCanceled(eq(true), any(QueryExecutionLowMemoryException.class));
+    assertThat(monitor.getQueryMonitorThreadCount()).isEqualTo(0);
+    assertThatThrownBy(QueryMonitor::isQueryExecutionCanceled)
+        .isInstanceOf(QueryExecutionCanceledException.class);
+    monitor.stopMonitoringQueryThread(Thread.currentThread(), query);
+  }
+
+  private void startMonitor(long maxQueryExecutionTime) {
+    monitor = new QueryMonitor(maxQueryExecutionTime);
+    monitoringThread = new Thread(monitor, "QueryMonitor Thread");
+    monitoringThread.setDaemon(true);
+    monitoringThread.start();
+  }
+
+  private DefaultQuery createQuery() {
+    DefaultQuery query = mock(DefaultQuery.class);
+    when(query.getQueryCompletedForMonitoring()).thenReturn(new boolean[] {false});
+    when(query.getQueryString()).thenReturn("select * from /region");
+    return query;
+  }
+}
@@ -0,0 +1,150 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.CacheUtils;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.internal.cache.CachePerfStats;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class QueryResultCacheIntegrationTest {
+
+  private static final String QUERY = "select * from /portfolios p where p.ID < $1";
+
+  private QueryService queryService;
+
+  private Region portfolios;
+
+  private Region others;
+
+  private CachePerfStats stats;
+
+  @Before
+  public void setUp() throws Exception {
+    System.setProperty(QueryResultCache.CACHED_REGIONS_PROPERTY, "portfolios,asyncIndexed");
+    CacheUtils.startCache();
+    portfolios = CacheUtils.createRegion("portfolios", Portfolio.class);
+    others = CacheUtils.createRegion("others", Portfolio.class);
+    for (int i = 0; i < 100; i++) {
+      portfolios.put("" + i, new Portfolio(i));
+      others.put("" + i, new Portfolio(i));
+    }
+    queryService = CacheUtils.getQueryService();
+    stats = CacheUtils.getCache().getCachePerfStats();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    CacheUtils.closeCache();
+    System.clearProperty(QueryResultCache.CACHED_REGIONS_PROPERTY);
+  }
+
+  @Test
+  public void repeatedQueryIsAnsweredFromCache() throws Exception {
+    SelectResults first = execute(QUERY, 10);
+    SelectResults second = execute(QUERY, 10);
+
+    assertThat(second).hasSize(10).containsExactlyInAnyOrderElementsOf(first);
+    assertThat(stats.getQueryResultCacheMisses()).isEqualTo(1);
+    assertThat(stats.getQueryResultCacheHits()).isEqualTo(1);
+    assertThat(CacheUtils.getCache().getQueryResultCache().size()).isEqualTo(1);
+  }
+
+  @Test
+  public void cachedResultCanNotBeModified() throws Exception {
+    SelectResults first = execute(QUERY, 10);
+
+    assertThatThrownBy(() -> first.clear()).isInstanceOf(UnsupportedOperationException.class);
+    assertThatThrownBy(() -> execute(QUERY, 10).remove(first.iterator().next()))
+        .isInstanceOf(UnsupportedOperationException.class);
+    assertThat(execute(QUERY, 10)).hasSize(10);
+    assertThat(stats.getQueryResultCacheHits()).isEqualTo(2);
+  }
+
+  @Test
+  public void bindParametersAreKeptApart() throws Exception {
+    assertThat(execute(QUERY, 10)).hasSize(10);
+    assertThat(execute(QUERY, 20)).hasSize(20);
+
+    assertThat(stats.getQueryResultCacheHits()).isEqualTo(0);
+    assertThat(stats.getQueryResultCacheMisses()).isEqualTo(2);
+  }
+
+  @Test
+  public void modificationInvalidatesCachedResult() throws Exception {
+    assertThat(execute(QUERY, 10)).hasSize(10);
+
+    portfolios.put("new", new Portfolio(-1));
+    assertThat(execute(QUERY, 10)).hasSize(11);
+
+    portfolios.destroy("new");
+    assertThat(execute(QUERY, 10)).hasSize(10);
+
+    portfolios.clear();
+    assertThat(execute(QUERY, 10)).isEmpty();
+
+    assertThat(stats.getQueryResultCacheHits()).isEqualTo(0);
+  }
+
+  @Test
+  public void queryOnRegionThatIsNotCachedIsEvaluated() throws Exception {
+    String query = "select * from /others p where p.ID < 10";
+    SelectResults first = execute(query);
+    SelectResults second = execute(query);
+
+    assertThat(second).hasSize(10).isNotSameAs(first);
+    assertThat(stats.getQueryResultCacheHits()).isEqualTo(0);
+    assertThat(stats.getQueryResultCacheMisses()).isEqualTo(0);
+  }
+
+  @Test
+  public void queryOnRegionWithAsynchronousIndexMaintenanceIsEvaluated() throws Exception {
+    Region asyncIndexed = CacheUtils.createRegion("asyncIndexed", Portfolio.class, false);
+    for (int i = 0; i < 100; i++) {
+      asyncIndexed.put("" + i, new Portfolio(i));
+    }
+    String query = "select * from /asyncIndexed p where p.ID < 10";
+    execute(query);
+    execute(query);
+
+    assertThat(stats.getQueryResultCacheHits()).isEqualTo(0);
+    assertThat(stats.getQueryResultCacheMisses()).isEqualTo(0);
+  }
+
+  @Test
+  public void joinIsCachedOnlyIfAllRegionsAreCached() throws Exception {
+    String query = "select * from /portfolios p, /others o where p.ID = o.ID and p.ID < 5";
+    execute(query);
+    execute(query);
+
+    assertThat(stats.getQueryResultCacheHits()).isEqualTo(0);
+  }
+
+  private SelectResults execute(String query, Object... parameters) throws Exception {
+    return (SelectResults) queryService.newQuery(query).execute(parameters);
+  }
+}
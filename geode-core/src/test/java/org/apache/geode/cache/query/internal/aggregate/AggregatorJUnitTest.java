@@ -22,6 +22,7 @@ import java.util.Set;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import org.apache.geode.cache.query.QueryService;
 import org.apache.geode.test.junit.categories.UnitTest;
 
 @Category(UnitTest.class)
@@ -202,4 +203,74 @@ public class AggregatorJUnitTest {
     assertEquals(1, ((Integer) min.terminate()).intValue());
   }
 
+  @Test
+  public void testSumBlock() throws Exception {
+    Sum sum = new Sum();
+    Object[] values = new Object[] {new Integer(5), new Integer(6), null, new Long(10),
+        new Double(0.5), QueryService.UNDEFINED, new Integer(100)};
+    sum.accumulateBlock(values, 0, 6);
+    sum.accumulate(new Integer(4));
+    assertEquals(25.5, ((Number) sum.terminate()).doubleValue(), 0);
+  }
+
+  @Test
+  public void testSumBlockOverflowingLong() throws Exception {
+    Sum sum = new Sum();
+    sum.accumulateBlock(new Object[] {Long.MAX_VALUE, Long.MAX_VALUE, -Long.MAX_VALUE}, 0, 3);
+    assertEquals((double) Long.MAX_VALUE, ((Number) sum.terminate()).doubleValue(), 0);
+  }
+
+  @Test
+  public void testAvgBlock() throws Exception {
+    Object[] values = new Object[] {new Integer(1), new Integer(2), null, new Integer(3),
+        new Integer(4), QueryService.UNDEFINED, new Integer(5)};
+
+    Avg avg = new Avg();
+    avg.accumulateBlock(values, 0, 4);
+    avg.accumulateBlock(values, 4, values.length);
+    assertEquals(3, ((Number) avg.terminate()).intValue());
+
+    AvgBucketNode abn = new AvgBucketNode();
+    abn.accumulateBlock(values, 0, values.length);
+    Object[] arr = (Object[]) abn.terminate();
+    assertEquals(5, ((Integer) arr[0]).intValue());
+    assertEquals(15, ((Number) arr[1]).intValue());
+
+    AvgPRQueryNode apqn = new AvgPRQueryNode();
+    apqn.accumulateBlock(new Object[] {new Object[] {new Integer(7), new Double(43)},
+        new Object[] {new Integer(5), new Double(273.86)}}, 0, 2);
+    float expected = (43 + 273.86f) / 12.0f;
+    assertEquals(expected, ((Number) apqn.terminate()).floatValue(), 0);
+  }
+
+  @Test
+  public void testCountBlock() throws Exception {
+    Count count = new Count();
+    count.accumulateBlock(new Object[] {new Integer(5), null, "a", QueryService.UNDEFINED}, 0, 4);
+    assertEquals(2, ((Number) count.terminate()).intValue());
+
+    CountPRQueryNode countPrQ = new CountPRQueryNode();
+    countPrQ.accumulateBlock(new Object[] {new Integer(5), new Integer(6), new Integer(7)}, 1, 3);
+    assertEquals(13, ((Number) countPrQ.terminate()).intValue());
+  }
+
+  @Test
+  public void testMaxMinBlock() throws Exception {
+    Object[] values = new Object[] {new Integer(5), null, new Integer(-2), new Integer(9)};
+
+    MaxMin max = new MaxMin(true);
+    max.accumulateBlock(values, 0, values.length);
+    assertEquals(9, ((Number) max.terminate()).intValue());
+
+    MaxMin min = new MaxMin(false);
+    min.accumulateBlock(values, 0, 3);
+    assertEquals(-2, ((Number) min.terminate()).intValue());
+  }
+
+  @Test
+  public void testDistinctBlock() throws Exception {
+    SumDistinct sum = new SumDistinct();
+    sum.accumulateBlock(new Object[] {new Integer(5), new Integer(5), new Integer(6), null}, 0, 4);
+    assertEquals(11, ((Number) sum.terminate()).intValue());
+  }
 }
@@ -0,0 +1,139 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.Collections;
+import java.util.concurrent.TimeUnit;
+
+import org.awaitility.Awaitility;
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.CacheUtils;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.cache.query.internal.DefaultQuery;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class AsyncIndexMaintenanceIntegrationTest {
+
+  private Region region;
+
+  private QueryService queryService;
+
+  private Index idIndex;
+
+  private Index statusIndex;
+
+  private AsyncIndexUpdater asyncUpdater;
+
+  @Before
+  public void setUp() throws Exception {
+    CacheUtils.startCache();
+    region = CacheUtils.createRegion("portfolios", Portfolio.class, false);
+    queryService = CacheUtils.getQueryService();
+    idIndex = queryService.createIndex("idIndex", "p.ID", "/portfolios p");
+    statusIndex = queryService.createIndex("statusIndex", "p.status", "/portfolios p");
+    queryService.createIndex("pkidIndex", "p.pkid", "/portfolios p");
+    asyncUpdater = ((LocalRegion) region).getIndexManager().getAsyncIndexUpdater();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    CacheUtils.closeCache();
+  }
+
+  @Test
+  public void indexesCatchUpWithPuts() throws Exception {
+    for (int i = 0; i < 1000; i++) {
+      region.put("" + i, new Portfolio(i));
+    }
+
+    Awaitility.await().atMost(30, TimeUnit.SECONDS)
+        .until(() -> assertThat(asyncUpdater.isDone()).isTrue());
+    assertThat(idIndex.getStatistics().getNumberOfValues()).isEqualTo(1000);
+    assertThat(statusIndex.getStatistics().getNumberOfValues()).isEqualTo(1000);
+  }
+
+  @Test
+  public void queryWaitingForIndexMaintenanceSeesEveryOperation() throws Exception {
+    for (int i = 0; i < 1000; i++) {
+      region.put("" + i, new Portfolio(i));
+    }
+    for (int i = 0; i < 100; i++) {
+      region.put("" + i, new Portfolio(i + 1000));
+    }
+    region.destroy("999");
+
+    DefaultQuery query =
+        (DefaultQuery) queryService.newQuery("select * from /portfolios p where p.ID < 100");
+    query.setWaitForIndexMaintenance(true);
+    SelectResults results = (SelectResults) query.execute();
+
+    assertThat(results).isEmpty();
+    assertThat(asyncUpdater.isDone()).isTrue();
+    assertThat(idIndex.getStatistics().getNumberOfValues()).isEqualTo(999);
+    assertThat(idIndex.getStatistics().getNumberOfKeys()).isEqualTo(999);
+  }
+
+  @Test
+  public void otherIndexesAreMaintainedAfterIndexIsRemoved() throws Exception {
+    queryService.removeIndex(statusIndex);
+    for (int i = 0; i < 100; i++) {
+      region.put("" + i, new Portfolio(i));
+    }
+
+    Awaitility.await().atMost(30, TimeUnit.SECONDS)
+        .until(() -> assertThat(asyncUpdater.isDone()).isTrue());
+    assertThat(idIndex.getStatistics().getNumberOfValues()).isEqualTo(100);
+  }
+  @Test
+  public void removalOfIncompleteUpdateIsNotAppliedWithLaterUpdate() throws Exception {
+    region.put("0", new Portfolio(0));
+    region.put("1", new Portfolio(1));
+    IndexManager indexManager = ((LocalRegion) region).getIndexManager();
+    RegionEntry entry = ((LocalRegion) region).getRegionEntry("0");
+
+    // an update of entry 0 that fails after its old value was queued for removal
+    indexManager.waitForIndexInit();
+    try {
+      synchronized (entry) {
+        asyncUpdater.addUpdate(entry, IndexManager.REMOVE_ENTRY, IndexProtocol.BEFORE_UPDATE_OP,
+            Collections.singletonList((IndexProtocol) idIndex));
+      }
+    } finally {
+      indexManager.countDownIndexUpdaters();
+    }
+    region.put("1", new Portfolio(2));
+
+    DefaultQuery query =
+        (DefaultQuery) queryService.newQuery("select * from /portfolios p where p.ID = 0");
+    query.setWaitForIndexMaintenance(true);
+    SelectResults results = (SelectResults) query.execute();
+
+    assertThat(results).hasSize(1);
+    assertThat(idIndex.getStatistics().getNumberOfValues()).isEqualTo(2);
+  }
+}
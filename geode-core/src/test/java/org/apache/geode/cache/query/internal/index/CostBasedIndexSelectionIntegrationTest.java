@@ -0,0 +1,120 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.CacheUtils;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.cache.query.internal.QueryObserverAdapter;
+import org.apache.geode.cache.query.internal.QueryObserverHolder;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class CostBasedIndexSelectionIntegrationTest {
+
+  private QueryService queryService;
+
+  private IndexLookupObserver observer;
+
+  @Before
+  public void setUp() throws Exception {
+    IndexManager.COST_BASED_INDEX_SELECTION = true;
+    CacheUtils.startCache();
+    Region region = CacheUtils.createRegion("portfolios", Portfolio.class);
+    for (int i = 0; i < 1000; i++) {
+      region.put("" + i, new Portfolio(i));
+    }
+    queryService = CacheUtils.getQueryService();
+    queryService.createIndex("idIndex", "p.ID", "/portfolios p");
+    queryService.createIndex("statusIndex", "p.status", "/portfolios p");
+    queryService.createIndex("typeIndex", "p.type", "/portfolios p");
+    observer = new IndexLookupObserver();
+    QueryObserverHolder.setInstance(observer);
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    QueryObserverHolder.reset();
+    CacheUtils.closeCache();
+    IndexManager.COST_BASED_INDEX_SELECTION = false;
+  }
+
+  @Test
+  public void selectiveRangeDrivesInsteadOfUnselectiveEquality() throws Exception {
+    SelectResults results = execute(
+        "select * from /portfolios p where p.status = 'active' and p.ID < 20");
+
+    assertThat(results).hasSize(10);
+    assertThat(observer.indexesUsed).containsExactly("idIndex");
+  }
+
+  @Test
+  public void cheapIndexesAreIntersected() throws Exception {
+    SelectResults results =
+        execute("select * from /portfolios p where p.type = 'type0' and p.ID < 100");
+
+    assertThat(results).hasSize(34);
+    assertThat(observer.indexesUsed).containsExactlyInAnyOrder("idIndex", "typeIndex");
+  }
+
+  @Test
+  public void regionIsScannedWhenIndexMatchesMostOfIt() throws Exception {
+    SelectResults results = execute("select * from /portfolios p where p.ID >= 0");
+
+    assertThat(results).hasSize(1000);
+    assertThat(observer.indexesUsed).isEmpty();
+  }
+
+  @Test
+  public void closedRangeIsEstimatedFromHistogram() throws Exception {
+    SelectResults results = execute(
+        "select * from /portfolios p where p.ID > 100 and p.ID <= 110 and p.status = 'active'");
+
+    assertThat(results).hasSize(5);
+    assertThat(observer.indexesUsed).containsExactly("idIndex");
+  }
+
+  private SelectResults execute(String query) throws Exception {
+    return (SelectResults) queryService.newQuery(query).execute();
+  }
+
+  private static class IndexLookupObserver extends QueryObserverAdapter {
+    final Set<String> indexesUsed = new HashSet<String>();
+
+    @Override
+    public void beforeIndexLookup(Index index, int oper, Object key) {
+      indexesUsed.add(index.getName());
+    }
+
+    @Override
+    public void beforeIndexLookup(Index index, int lowerBoundOperator, Object lowerBoundKey,
+        int upperBoundOperator, Object upperBoundKey, Set NotEqualKeys) {
+      indexesUsed.add(index.getName());
+    }
+  }
+}
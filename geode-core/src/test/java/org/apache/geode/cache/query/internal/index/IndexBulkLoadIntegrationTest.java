@@ -0,0 +1,105 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.CacheUtils;
+import org.apache.geode.cache.query.Index;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.Portfolio;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category(IntegrationTest.class)
+public class IndexBulkLoadIntegrationTest {
+
+  private Region region;
+
+  private QueryService queryService;
+
+  private Index index;
+
+  private IndexManager indexManager;
+
+  @Before
+  public void setUp() throws Exception {
+    CacheUtils.startCache();
+    region = CacheUtils.createRegion("portfolios", Portfolio.class);
+    queryService = CacheUtils.getQueryService();
+    index = queryService.createIndex("idIndex", "p.ID", "/portfolios p");
+    indexManager = ((LocalRegion) region).getIndexManager();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    CacheUtils.closeCache();
+  }
+
+  @Test
+  public void indexIsBuiltWhenBulkLoadFinishes() throws Exception {
+    indexManager.startBulkLoad();
+    for (int i = 0; i < 1000; i++) {
+      region.put("" + i, new Portfolio(i));
+    }
+    region.destroy("0");
+    assertThat(index.getStatistics().getNumberOfValues()).isEqualTo(0);
+
+    indexManager.finishBulkLoad();
+
+    assertThat(index.getStatistics().getNumberOfValues()).isEqualTo(999);
+    assertThat(index.getStatistics().getNumberOfKeys()).isEqualTo(999);
+    SelectResults results = (SelectResults) queryService
+        .newQuery("select * from /portfolios p where p.ID < 10").execute();
+    assertThat(results).hasSize(9);
+
+    region.put("1000", new Portfolio(1000));
+    assertThat(index.getStatistics().getNumberOfValues()).isEqualTo(1000);
+  }
+
+  @Test
+  public void bulkLoadIsNotStartedOnRegionWithEntries() throws Exception {
+    region.put("0", new Portfolio(0));
+
+    indexManager.startBulkLoad();
+    region.put("1", new Portfolio(1));
+
+    assertThat(index.getStatistics().getNumberOfValues()).isEqualTo(2);
+    indexManager.finishBulkLoad();
+    assertThat(index.getStatistics().getNumberOfValues()).isEqualTo(2);
+  }
+
+  @Test
+  public void indexCreatedOnRegionKeepsEntriesOfEveryKey() throws Exception {
+    for (int i = 0; i < 10000; i++) {
+      region.put("" + i, new Portfolio(i % 100));
+    }
+
+    Index statusIndex = queryService.createIndex("statusIndex", "p.status", "/portfolios p");
+    Index pkidIndex = queryService.createIndex("pkidIndex", "p.pkid", "/portfolios p");
+
+    assertThat(statusIndex.getStatistics().getNumberOfKeys()).isEqualTo(2);
+    assertThat(statusIndex.getStatistics().getNumberOfValues()).isEqualTo(10000);
+    assertThat(pkidIndex.getStatistics().getNumberOfKeys()).isEqualTo(100);
+    assertThat(pkidIndex.getStatistics().getNumberOfValues()).isEqualTo(10000);
+  }
+}
@@ -0,0 +1,107 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.within;
+
+import java.util.Arrays;
+import java.util.TreeMap;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class KeyHistogramTest {
+
+  private final KeyHistogram histogram = new KeyHistogram();
+
+  @Test
+  public void needsRebuildBeforeFirstBuilt() {
+    assertThat(histogram.needsRebuild()).isTrue();
+    assertThat(histogram.estimateLessThan(1)).isEqualTo(-1);
+    assertThat(histogram.getTotal()).isEqualTo(-1);
+  }
+
+  @Test
+  public void estimatesUniformKeys() {
+    histogram.rebuild(keys(0, 1000));
+
+    assertThat(histogram.needsRebuild()).isFalse();
+    assertThat(histogram.getTotal()).isEqualTo(1000);
+    assertThat((double) histogram.estimateLessThan(250)).isCloseTo(250, within(20.0));
+    assertThat((double) histogram.estimateBetween(100, 200)).isCloseTo(100, within(20.0));
+    assertThat(histogram.estimateLessThan(-5)).isEqualTo(0);
+    assertThat(histogram.estimateLessThan(5000)).isEqualTo(1000);
+  }
+
+  @Test
+  public void countsEntriesOfEveryValueOfAKey() {
+    TreeMap<Object, Object> keysToEntries = new TreeMap<Object, Object>();
+    keysToEntries.put(1, Arrays.asList("a", "b", "c"));
+    keysToEntries.put(100, "d");
+
+    histogram.rebuild(keysToEntries);
+
+    assertThat(histogram.getTotal()).isEqualTo(4);
+    assertThat(histogram.estimateLessThan(50)).isEqualTo(3);
+  }
+
+  @Test
+  public void followsAddsAndRemovesWithinBounds() {
+    histogram.rebuild(keys(0, 100));
+    for (int i = 0; i < 100; i++) {
+      histogram.add(10);
+      histogram.remove(i);
+    }
+
+    assertThat(histogram.getTotal()).isEqualTo(100);
+    assertThat((double) histogram.estimateBetween(9, 12)).isCloseTo(100, within(5.0));
+    assertThat(histogram.needsRebuild()).isFalse();
+  }
+
+  @Test
+  public void needsRebuildOnceManyKeysAreOutOfBounds() {
+    histogram.rebuild(keys(0, 100));
+    for (int i = 100; i < 110; i++) {
+      histogram.add(i);
+    }
+    assertThat(histogram.needsRebuild()).isFalse();
+
+    for (int i = 110; i < 150; i++) {
+      histogram.add(i);
+    }
+    assertThat(histogram.needsRebuild()).isTrue();
+  }
+
+  @Test
+  public void ignoresKeysThatAreNotNumbers() {
+    histogram.rebuild(keys(0, 10));
+    histogram.add("text");
+    histogram.add(null);
+
+    assertThat(histogram.getTotal()).isEqualTo(10);
+  }
+
+  private static TreeMap<Object, Object> keys(int from, int to) {
+    TreeMap<Object, Object> keysToEntries = new TreeMap<Object, Object>();
+    for (int i = from; i < to; i++) {
+      keysToEntries.put(i, "entry" + i);
+    }
+    return keysToEntries;
+  }
+}
@@ -0,0 +1,204 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.internal.index;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Matchers.any;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Set;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.QueryService;
+import org.apache.geode.cache.query.internal.index.AbstractIndex.InternalIndexStatistics;
+import org.apache.geode.cache.query.internal.index.IndexStore.IndexStoreEntry;
+import org.apache.geode.internal.cache.GemFireCacheImpl;
+import org.apache.geode.internal.cache.LocalRegion;
+import org.apache.geode.internal.cache.RegionEntry;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class PackedIndexStoreJUnitTest {
+
+  private Region region;
+  private GemFireCacheImpl actualInstance;
+  private PackedIndexStore store;
+
+  @Before
+  public void setup() {
+    region = mock(LocalRegion.class);
+    actualInstance = GemFireCacheImpl.setInstanceForTests(mock(GemFireCacheImpl.class));
+    store = new PackedIndexStore(region, mock(InternalIndexStatistics.class));
+    store.setIndexOnValues(true);
+  }
+
+  @After
+  public void teardown() {
+    GemFireCacheImpl.setInstanceForTests(actualInstance);
+  }
+
+  @Test
+  public void iteratesRangesOfManyKeysInOrder() throws Exception {
+    for (int i = 999; i >= 0; i--) {
+      store.addMapping(i, createRegionEntry(i));
+    }
+
+    assertThat(store.size()).isEqualTo(1000);
+    assertThat(keys(store.iterator(null))).hasSize(1000).isSorted();
+    assertThat(keys(store.iterator(100, false, 200, true, null))).hasSize(100).startsWith(101)
+        .endsWith(200);
+    assertThat(keys(store.descendingIterator(null, false, 10, false, null)))
+        .containsExactly(9, 8, 7, 6, 5, 4, 3, 2, 1, 0);
+    assertThat(keys(store.iterator(990.5, true, null))).containsExactly(991, 992, 993, 994, 995,
+        996, 997, 998, 999);
+  }
+
+  @Test
+  public void keepsAllEntriesOfAKey() throws Exception {
+    for (int i = 0; i < 500; i++) {
+      store.addMapping(i % 2 == 0 ? "even" : "odd", createRegionEntry(i));
+    }
+
+    assertThat(store.size()).isEqualTo(2);
+    assertThat(store.size("even")).isEqualTo(250);
+    assertThat(keys(store.get("odd"))).hasSize(250);
+    assertThat(keys(store.iterator(null))).hasSize(500);
+  }
+
+  @Test
+  public void keepsTheTypeOfKeys() throws Exception {
+    store.addMapping(1, createRegionEntry(1));
+    store.addMapping(2L, createRegionEntry(2));
+
+    assertThat(keys(store.iterator(null))).containsExactly(1, 2L);
+    assertThat(store.size(1L)).isEqualTo(1);
+    assertThat(store.size(2.0)).isEqualTo(1);
+  }
+
+  @Test
+  public void mergesKeysOfOtherTypesInOrder() throws Exception {
+    store.addMapping(1, createRegionEntry(1));
+    store.addMapping(2.5, createRegionEntry(2));
+    store.addMapping(3, createRegionEntry(3));
+    store.addMapping(IndexManager.NULL, createRegionEntry(4));
+
+    assertThat(keys(store.iterator(null))).containsExactly(1, 2.5, 3);
+    assertThat(keys(store.descendingIterator(null))).containsExactly(3, 2.5, 1);
+    assertThat(keys(store.iterator(2, true, 3, false, null))).containsExactly(2.5);
+    assertThat(keys(store.get(IndexManager.NULL))).containsExactly(IndexManager.NULL);
+    assertThat(store.size()).isEqualTo(4);
+  }
+
+  @Test
+  public void skipsKeysToRemove() throws Exception {
+    for (int i = 0; i < 10; i++) {
+      store.addMapping(i, createRegionEntry(i));
+    }
+    Set keysToRemove = new HashSet();
+    keysToRemove.add(3);
+    keysToRemove.add("4");
+
+    assertThat(keys(store.iterator(keysToRemove))).hasSize(9).doesNotContain(3);
+  }
+
+  @Test
+  public void canAddObjectWithUndefinedKey() throws Exception {
+    store.addMapping(QueryService.UNDEFINED, createRegionEntry(0));
+
+    assertThat(keys(store.get(QueryService.UNDEFINED))).hasSize(1);
+    assertThat(keys(store.iterator(null))).isEmpty();
+  }
+
+  @Test
+  public void removesEntryProvidedTheWrongKey() throws Exception {
+    RegionEntry entry1 = createRegionEntry(1);
+    RegionEntry entry2 = createRegionEntry(2);
+    store.addMapping("1", entry1);
+    store.addMapping("2", entry2);
+
+    store.removeMapping("1", entry2);
+
+    assertThat(keys(store.iterator(null))).containsExactly("1");
+  }
+
+  @Test
+  public void updateMovesEntryBetweenKeysOfDifferentTypes() throws Exception {
+    RegionEntry entry = createRegionEntry(1);
+    store.addMapping(1, entry);
+
+    store.updateMapping("one", 1, entry, null);
+    assertThat(keys(store.iterator(null))).containsExactly("one");
+
+    store.updateMapping(1.5, "one", entry, null);
+    assertThat(keys(store.iterator(null))).containsExactly(1.5);
+
+    store.updateMapping(1L, 1.5, entry, null);
+    store.updateMapping(1, 1L, entry, null);
+    assertThat(keys(store.iterator(null))).containsExactly(1L);
+  }
+
+  @Test
+  public void keysIteratorReturnsEveryKeyOnce() throws Exception {
+    for (int i = 0; i < 300; i++) {
+      store.addMapping(i / 3, createRegionEntry(i));
+    }
+    store.addMapping(IndexManager.NULL, createRegionEntry(-1));
+
+    List<Object> keys = new ArrayList<Object>();
+    Iterator<IndexStoreEntry> iterator = store.getKeysIterator();
+    while (iterator.hasNext()) {
+      keys.add(iterator.next().getDeserializedKey());
+    }
+
+    assertThat(keys).hasSize(100).isSorted();
+  }
+
+  @Test
+  public void clearRemovesAllKeys() throws Exception {
+    store.addMapping(1, createRegionEntry(1));
+    store.addMapping("1", createRegionEntry(2));
+    store.addMapping(1.5, createRegionEntry(3));
+
+    store.clear();
+
+    assertThat(store.size()).isEqualTo(0);
+    assertThat(keys(store.iterator(null))).isEmpty();
+  }
+
+  private List<Object> keys(Iterator<IndexStoreEntry> iterator) {
+    List<Object> keys = new ArrayList<Object>();
+    while (iterator.hasNext()) {
+      keys.add(iterator.next().getDeserializedKey());
+    }
+    return keys;
+  }
+
+  private RegionEntry createRegionEntry(Object key) {
+    RegionEntry mockEntry = mock(RegionEntry.class);
+    when(mockEntry.getValue(any())).thenReturn(new Object());
+    when(mockEntry.getKey()).thenReturn(key);
+    return mockEntry;
+  }
+}
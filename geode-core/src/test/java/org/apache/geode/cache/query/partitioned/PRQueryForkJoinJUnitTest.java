@@ -0,0 +1,100 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.cache.query.partitioned;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.List;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.query.SelectResults;
+import org.apache.geode.cache.query.data.PortfolioData;
+import org.apache.geode.internal.cache.CachePerfStats;
+import org.apache.geode.internal.cache.PRQueryProcessor;
+import org.apache.geode.internal.cache.PartitionedRegion;
+import org.apache.geode.internal.cache.PartitionedRegionStats;
+import org.apache.geode.internal.cache.PartitionedRegionTestHelper;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+/**
+ * Verifies queries on a PartitionedRegion whose local buckets are scanned by the fork/join pool.
+ */
+@Category(IntegrationTest.class)
+public class PRQueryForkJoinJUnitTest {
+
+  private Region region;
+
+  @Before
+  public void setUp() throws Exception {
+    region = PartitionedRegionTestHelper.createPartitionedRegion("portfolios", "100", 0);
+    for (int j = 0; j < 100; j++) {
+      region.put(j, new PortfolioData(j));
+    }
+    PRQueryProcessor.TEST_FORK_JOIN = true;
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    PRQueryProcessor.TEST_FORK_JOIN = false;
+    region.close();
+  }
+
+  @Test
+  public void queryScansEveryBucket() throws Exception {
+    int before = ((PartitionedRegion) region).getPrStats().getParallelQueriesCompleted();
+
+    SelectResults results = region.query("ID > 5 and ID <= 15");
+
+    assertThat(results).hasSize(10);
+    assertThat(((PartitionedRegion) region).getPrStats().getParallelQueriesCompleted())
+        .isGreaterThan(before);
+  }
+
+  @Test
+  public void orderByWithLimitIsMergedAcrossBuckets() throws Exception {
+    SelectResults results = (SelectResults) region.getCache().getQueryService()
+        .newQuery("select p.ID from /portfolios p where p.ID >= 10 order by p.ID desc limit 5")
+        .execute();
+
+    assertThat((List<Object>) results.asList()).containsExactly(99, 98, 97, 96, 95);
+  }
+
+  @Test
+  public void parallelismHintIsHonored() throws Exception {
+    PartitionedRegionStats stats = ((PartitionedRegion) region).getPrStats();
+    CachePerfStats.enableClockStats = true;
+    try {
+      long timeBefore = stats.getParallelQueryTime();
+      long capacityTimeBefore = stats.getParallelQueryCapacityTime();
+
+      SelectResults results = (SelectResults) region.getCache().getQueryService()
+          .newQuery("<hint 'parallelism=2'> select p from /portfolios p where p.ID < 20")
+          .execute();
+
+      assertThat(results).hasSize(20);
+      // the capacity time is the elapsed time multiplied by the parallelism of the scan
+      long time = stats.getParallelQueryTime() - timeBefore;
+      assertThat(time).isGreaterThan(0);
+      assertThat(stats.getParallelQueryCapacityTime() - capacityTimeBefore).isEqualTo(2 * time);
+    } finally {
+      CachePerfStats.enableClockStats = false;
+    }
+  }
+}
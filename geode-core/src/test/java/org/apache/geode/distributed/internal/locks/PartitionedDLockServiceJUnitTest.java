@@ -0,0 +1,145 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.distributed.internal.locks;
+
+import static org.apache.geode.distributed.ConfigurationProperties.LOCATORS;
+import static org.apache.geode.distributed.ConfigurationProperties.MCAST_PORT;
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.HashSet;
+import java.util.Properties;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicBoolean;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.distributed.DistributedLockService;
+import org.apache.geode.distributed.DistributedSystem;
+import org.apache.geode.distributed.internal.InternalDistributedSystem;
+import org.apache.geode.test.junit.categories.DLockTest;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category({IntegrationTest.class, DLockTest.class})
+public class PartitionedDLockServiceJUnitTest {
+
+  private InternalDistributedSystem system;
+
+  private PartitionedDLockService service;
+
+  @Before
+  public void setUp() {
+    Properties properties = new Properties();
+    properties.setProperty(MCAST_PORT, "0");
+    properties.setProperty(LOCATORS, "");
+    system = (InternalDistributedSystem) DistributedSystem.connect(properties);
+    service = PartitionedDLockService.create("partitioned", system, 4);
+  }
+
+  @After
+  public void tearDown() {
+    if (service != null && !service.isDestroyed()) {
+      service.destroy();
+    }
+    system.disconnect();
+  }
+
+  @Test
+  public void partitionsAreSeparateServices() {
+    for (int i = 0; i < 4; i++) {
+      assertThat(DistributedLockService.getServiceNamed("partitioned#" + i))
+          .isSameAs(service.getPartition(i));
+    }
+  }
+
+  @Test
+  public void namesAreSpreadOverPartitions() {
+    Set<Integer> partitions = new HashSet<Integer>();
+    for (int i = 0; i < 100; i++) {
+      int partition = service.getPartitionIndex("lock" + i);
+      assertThat(partition).isBetween(0, 3);
+      partitions.add(partition);
+    }
+    assertThat(partitions).hasSize(4);
+  }
+
+  @Test
+  public void lockIsHeldInItsPartitionOnly() {
+    String name = "lock";
+    DLockService owner = service.getPartition(service.getPartitionIndex(name));
+
+    assertThat(service.lock(name, -1, -1)).isTrue();
+    assertThat(service.isHeldByCurrentThread(name)).isTrue();
+    assertThat(owner.isHeldByCurrentThread(name)).isTrue();
+    for (int i = 0; i < 4; i++) {
+      if (service.getPartition(i) != owner) {
+        assertThat(service.getPartition(i).isHeldByCurrentThread(name)).isFalse();
+      }
+    }
+
+    service.unlock(name);
+    assertThat(service.isHeldByCurrentThread(name)).isFalse();
+  }
+
+  @Test
+  public void lockIsExclusiveAcrossThreads() throws Exception {
+    AtomicBoolean acquiredByOther = new AtomicBoolean(true);
+    assertThat(service.lock("lock", -1, -1)).isTrue();
+
+    Thread other = new Thread(() -> acquiredByOther.set(service.lock("lock", 0, -1)));
+    other.start();
+    other.join();
+
+    assertThat(acquiredByOther.get()).isFalse();
+    service.unlock("lock");
+  }
+
+  @Test
+  public void suspendLockingSuspendsEveryPartition() {
+    assertThat(service.suspendLocking(-1)).isTrue();
+    assertThat(service.isLockingSuspendedByCurrentThread()).isTrue();
+    for (int i = 0; i < 4; i++) {
+      assertThat(service.getPartition(i).isLockingSuspendedByCurrentThread()).isTrue();
+    }
+
+    service.resumeLocking();
+    assertThat(service.isLockingSuspendedByCurrentThread()).isFalse();
+    for (int i = 0; i < 4; i++) {
+      assertThat(service.getPartition(i).isLockingSuspendedByCurrentThread()).isFalse();
+    }
+  }
+
+  @Test
+  public void memberThatLocksFirstIsGrantorOfEveryPartition() {
+    for (int i = 0; i < 4; i++) {
+      service.lock("lock" + i, -1, -1);
+      service.unlock("lock" + i);
+    }
+    service.becomeLockGrantor(0);
+
+    assertThat(service.isLockGrantor(0)).isTrue();
+    assertThat(service.isLockGrantor()).isTrue();
+  }
+
+  @Test
+  public void destroyDestroysEveryPartition() {
+    service.destroy();
+
+    assertThat(service.isDestroyed()).isTrue();
+    assertThat(DistributedLockService.getServiceNamed("partitioned#0")).isNull();
+  }
+}
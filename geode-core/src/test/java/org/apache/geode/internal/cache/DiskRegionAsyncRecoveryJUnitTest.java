@@ -21,6 +21,7 @@ import static org.junit.Assert.fail;
 
 import java.io.File;
 import java.io.IOException;
+import java.util.Arrays;
 import java.util.HashSet;
 import java.util.Set;
 import java.util.concurrent.CountDownLatch;
@@ -443,6 +444,44 @@ public class DiskRegionAsyncRecoveryJUnitTest extends DiskRegionTestingBase {
     checkEntries(region, 0, 50, "A");
   }
 
+  @Test
+  public void testValuesSpreadOverManyOplogsAreRecovered() throws InterruptedException {
+    Region region = createRegion();
+    Region region2 = createRegion("region2");
+    char[] padding = new char[20000];
+    Arrays.fill(padding, 'x');
+    String valueA = "A" + new String(padding);
+    String valueB = "B" + new String(padding);
+
+    // with a one megabyte max oplog size this writes several oplogs, and the
+    // newer values of the first entries are in a later oplog than the older ones
+    putEntries(region, 0, 100, valueA);
+    putEntries(region2, 0, 100, valueA);
+    putEntries(region, 0, 20, valueB);
+
+    cache.close();
+
+    cache = createCache();
+
+    final CountDownLatch recoveryDone = new CountDownLatch(1);
+    DiskStoreObserver.setInstance(new DiskStoreObserver() {
+      @Override
+      public void afterAsyncValueRecovery(DiskStoreImpl store) {
+        recoveryDone.countDown();
+      }
+    });
+    region = createRegion();
+    region2 = createRegion("region2");
+    assertTrue(recoveryDone.await(60, TimeUnit.SECONDS));
+
+    DiskStoreStats stats = ((DiskStoreImpl) cache.findDiskStore("store")).getStats();
+    assertEquals(0, stats.getOplogsAwaitingRecovery());
+    assertEquals(0, stats.getOplogsAwaitingValueRecovery());
+    checkEntriesInMemory(region, 0, 20, valueB, true);
+    checkEntriesInMemory(region, 20, 100, valueA, true);
+    checkEntries(region2, 0, 100, valueA);
+  }
+
   /**
    * Validate that values are, or are not, in memory
    */
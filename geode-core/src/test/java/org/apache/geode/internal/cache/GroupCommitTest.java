@@ -0,0 +1,114 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+import static org.mockito.Mockito.mock;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class GroupCommitTest {
+
+  private final Object oplogLock = new Object();
+  private final AtomicInteger flushes = new AtomicInteger();
+  private long buffered;
+  private volatile long durable;
+
+  private void flush() {
+    synchronized (this.oplogLock) {
+      this.durable = this.buffered;
+    }
+    this.flushes.incrementAndGet();
+    try {
+      Thread.sleep(1);
+    } catch (InterruptedException e) {
+      Thread.currentThread().interrupt();
+    }
+  }
+
+  @Test
+  public void commitFlushesOnlyUncommittedRecords() {
+    GroupCommit groupCommit = new GroupCommit(this::flush, 0, mock(DiskStoreStats.class));
+
+    long ticket = groupCommit.append();
+    groupCommit.commit(ticket);
+    groupCommit.commit(ticket);
+
+    assertThat(this.flushes.get()).isEqualTo(1);
+    assertThat(groupCommit.getCommitted()).isEqualTo(ticket);
+  }
+
+  @Test
+  public void concurrentWritersShareFlushes() throws Exception {
+    GroupCommit groupCommit = new GroupCommit(this::flush, 100, mock(DiskStoreStats.class));
+    final int writers = 8;
+    final int recordsPerWriter = 200;
+    final AtomicInteger notDurable = new AtomicInteger();
+    List<Thread> threads = new ArrayList<Thread>();
+    for (int t = 0; t < writers; t++) {
+      threads.add(new Thread(() -> {
+        for (int i = 0; i < recordsPerWriter; i++) {
+          long record;
+          long ticket;
+          synchronized (this.oplogLock) {
+            record = ++this.buffered;
+            ticket = groupCommit.append();
+          }
+          groupCommit.commit(ticket);
+          if (this.durable < record) {
+            notDurable.incrementAndGet();
+          }
+        }
+      }));
+    }
+    for (Thread thread : threads) {
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+
+    assertThat(notDurable.get()).isZero();
+    assertThat(groupCommit.getCommitted()).isEqualTo(writers * recordsPerWriter);
+    assertThat(this.flushes.get()).isLessThan(writers * recordsPerWriter);
+  }
+
+  @Test
+  public void failedFlushIsRetriedByNextCommit() {
+    AtomicInteger attempts = new AtomicInteger();
+    GroupCommit groupCommit = new GroupCommit(() -> {
+      if (attempts.incrementAndGet() == 1) {
+        throw new IllegalStateException("disk failure");
+      }
+    }, 0, mock(DiskStoreStats.class));
+
+    long ticket = groupCommit.append();
+    assertThatThrownBy(() -> groupCommit.commit(ticket)).isInstanceOf(IllegalStateException.class);
+    assertThat(groupCommit.getCommitted()).isZero();
+
+    groupCommit.commit(ticket);
+    assertThat(groupCommit.getCommitted()).isEqualTo(ticket);
+    assertThat(attempts.get()).isEqualTo(2);
+  }
+}
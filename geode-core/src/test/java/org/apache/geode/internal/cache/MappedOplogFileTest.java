@@ -0,0 +1,91 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.File;
+import java.nio.file.Files;
+import java.util.Arrays;
+
+import org.junit.Before;
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+import org.junit.rules.TemporaryFolder;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class MappedOplogFileTest {
+
+  @Rule
+  public TemporaryFolder temporaryFolder = new TemporaryFolder();
+
+  private File file;
+
+  private byte[] contents;
+
+  @Before
+  public void setUp() throws Exception {
+    this.contents = new byte[10000];
+    for (int i = 0; i < this.contents.length; i++) {
+      this.contents[i] = (byte) i;
+    }
+    this.file = this.temporaryFolder.newFile("test.crf");
+    Files.write(this.file.toPath(), this.contents);
+  }
+
+  @Test
+  public void readCopiesBytesAtOffset() throws Exception {
+    MappedOplogFile mapping = MappedOplogFile.map(this.file, this.contents.length);
+
+    assertThat(mapping.read(1234, 100)).isEqualTo(Arrays.copyOfRange(this.contents, 1234, 1334));
+    assertThat(mapping.read(0, this.contents.length)).isEqualTo(this.contents);
+    assertThat(mapping.read(this.contents.length, 0)).isEmpty();
+    mapping.close();
+  }
+
+  @Test
+  public void readOutsideMappedLengthReturnsNull() throws Exception {
+    MappedOplogFile mapping = MappedOplogFile.map(this.file, 5000);
+
+    assertThat(mapping.getLength()).isEqualTo(5000);
+    assertThat(mapping.read(4990, 11)).isNull();
+    assertThat(mapping.read(-1, 1)).isNull();
+    assertThat(mapping.read(4990, 10)).isEqualTo(Arrays.copyOfRange(this.contents, 4990, 5000));
+    mapping.close();
+  }
+
+  @Test
+  public void readSpanningRegionsReturnsNull() throws Exception {
+    MappedOplogFile mapping = MappedOplogFile.map(this.file, this.contents.length, 4096);
+
+    assertThat(mapping.read(4090, 10)).isNull();
+    assertThat(mapping.read(4086, 10)).isEqualTo(Arrays.copyOfRange(this.contents, 4086, 4096));
+    assertThat(mapping.read(9000, 1000)).isEqualTo(Arrays.copyOfRange(this.contents, 9000, 10000));
+    mapping.close();
+  }
+
+  @Test
+  public void readAfterCloseReturnsNull() throws Exception {
+    MappedOplogFile mapping = MappedOplogFile.map(this.file, this.contents.length);
+    mapping.close();
+    mapping.close();
+
+    assertThat(mapping.read(0, 10)).isNull();
+    assertThat(this.file.delete()).isTrue();
+  }
+}
@@ -0,0 +1,135 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class OrderedLimitResultsMergerTest {
+
+  private final OrderedLimitResultsMerger merger =
+      new OrderedLimitResultsMerger((o1, o2) -> ((Integer) o1).compareTo((Integer) o2), 3);
+
+  @Test
+  public void keepsFirstLimitResultsInOrder() {
+    merger.merge("a", 0, Arrays.asList(2, 5, 9));
+    merger.merge("b", 0, Arrays.asList(1, 6));
+    merger.merge("c", 0, Arrays.asList(3));
+
+    assertThat(merger.getResults()).containsExactly(1, 2, 3);
+  }
+
+  @Test
+  public void senderIsFinishedOnceItsResultsSortAfterTheLimit() {
+    assertThat(merger.merge("a", 0, Arrays.asList(1, 2, 3))).isTrue();
+    assertThat(merger.merge("b", 0, Arrays.asList(0, 4))).isFalse();
+    assertThat(merger.merge("b", 1, Arrays.asList(5))).isFalse();
+    assertThat(merger.merge("a", 1, Arrays.asList(4))).isFalse();
+
+    assertThat(merger.getDroppedChunks()).isEqualTo(1);
+    assertThat(merger.getResults()).containsExactly(0, 1, 2);
+  }
+
+  @Test
+  public void chunkArrivingBeforeAnEarlierOneIsHeldBack() {
+    assertThat(merger.merge("a", 0, Arrays.asList(5, 6, 7))).isTrue();
+    // the later chunk of b sorts after the best results but must not finish b
+    assertThat(merger.merge("b", 1, Arrays.asList(8, 9))).isTrue();
+    assertThat(merger.merge("b", 0, Arrays.asList(1, 2))).isFalse();
+    assertThat(merger.merge("b", 2, Arrays.asList(10))).isFalse();
+
+    assertThat(merger.getDroppedChunks()).isEqualTo(1);
+    assertThat(merger.getResults()).containsExactly(1, 2, 5);
+  }
+
+  @Test
+  public void heldBackChunksAreMergedInSequence() {
+    assertThat(merger.merge("a", 2, Arrays.asList(7, 8))).isTrue();
+    assertThat(merger.merge("a", 1, Arrays.asList(3, 4))).isTrue();
+    assertThat(merger.merge("b", 0, Arrays.asList(5, 6))).isTrue();
+
+    // merged in sequence, a's last chunk sorts after the best results and finishes a
+    assertThat(merger.merge("a", 0, Arrays.asList(1, 2))).isFalse();
+    assertThat(merger.getResults()).containsExactly(1, 2, 3);
+  }
+
+  @Test
+  public void matchesSortingEverythingForRandomStreamsArrivingOutOfOrder() {
+    Random random = new Random(23);
+    OrderedLimitResultsMerger merger =
+        new OrderedLimitResultsMerger((o1, o2) -> ((Integer) o1).compareTo((Integer) o2), 100);
+    List<Integer> all = new ArrayList<Integer>();
+    List<int[]> chunks = new ArrayList<int[]>();
+    List<List<Integer>> streams = new ArrayList<List<Integer>>();
+    for (int s = 0; s < 10; s++) {
+      List<Integer> stream = new ArrayList<Integer>();
+      for (int i = 0; i < 150; i++) {
+        stream.add(random.nextInt(1000));
+      }
+      Collections.sort(stream);
+      all.addAll(stream);
+      streams.add(stream);
+      for (int chunk = 0; chunk < 15; chunk++) {
+        chunks.add(new int[] {s, chunk});
+      }
+    }
+    Collections.shuffle(chunks, random);
+    for (int[] chunk : chunks) {
+      merger.merge(chunk[0], chunk[1],
+          streams.get(chunk[0]).subList(chunk[1] * 10, chunk[1] * 10 + 10));
+    }
+    Collections.sort(all);
+
+    assertThat(merger.getResults()).isEqualTo(all.subList(0, 100));
+  }
+
+  @Test
+  public void matchesSortingEverythingForRandomStreams() {
+    Random random = new Random(17);
+    OrderedLimitResultsMerger merger =
+        new OrderedLimitResultsMerger((o1, o2) -> ((Integer) o1).compareTo((Integer) o2), 100);
+    List<Integer> all = new ArrayList<Integer>();
+    List<List<Integer>> streams = new ArrayList<List<Integer>>();
+    for (int s = 0; s < 10; s++) {
+      List<Integer> stream = new ArrayList<Integer>();
+      for (int i = 0; i < 150; i++) {
+        stream.add(random.nextInt(1000));
+      }
+      Collections.sort(stream);
+      all.addAll(stream);
+      streams.add(stream);
+    }
+    for (int chunk = 0; chunk < 15; chunk++) {
+      for (int s = 0; s < streams.size(); s++) {
+        merger.merge(s, chunk, streams.get(s).subList(chunk * 10, chunk * 10 + 10));
+      }
+    }
+    Collections.sort(all);
+
+    assertThat(merger.getResults()).isEqualTo(all.subList(0, 100));
+    assertThat(merger.getDroppedChunks()).isGreaterThan(0);
+  }
+}
@@ -0,0 +1,50 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.PoolStats.BorrowTimeHistogram;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class PoolStatsTest {
+
+  @Test
+  public void bucketUpperBoundIsWithinAQuarterOfValue() {
+    for (long value = 0; value < 1000000; value = value * 3 / 2 + 1) {
+      long upperBound = BorrowTimeHistogram.upperBoundOf(BorrowTimeHistogram.bucketOf(value));
+      assertThat(upperBound).isGreaterThanOrEqualTo(value);
+      assertThat(upperBound).isLessThanOrEqualTo(value + value / 4);
+    }
+    assertThat(BorrowTimeHistogram.upperBoundOf(BorrowTimeHistogram.bucketOf(Long.MAX_VALUE)))
+        .isEqualTo(Long.MAX_VALUE);
+  }
+
+  @Test
+  public void percentilesAreWithinBucketPrecision() {
+    BorrowTimeHistogram histogram = new BorrowTimeHistogram();
+    for (int i = 1; i <= 1000; i++) {
+      histogram.record(i * 1000L);
+    }
+
+    assertThat(histogram.getPercentile(0)).isBetween(500000L, 625000L);
+    assertThat(histogram.getPercentile(1)).isBetween(990000L, 1250000L);
+    assertThat(histogram.getPercentile(2)).isBetween(999000L, 1250000L);
+  }
+}
@@ -0,0 +1,60 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class FrequencySketchTest {
+
+  @Test
+  public void frequencyCountsIncrements() throws Exception {
+    FrequencySketch sketch = new FrequencySketch(10);
+    for (int i = 0; i < 5; i++) {
+      sketch.increment("key");
+    }
+
+    assertThat(sketch.frequency("key")).isEqualTo(5);
+    assertThat(sketch.frequency("other")).isZero();
+  }
+
+  @Test
+  public void frequencyIsAtMostFifteen() throws Exception {
+    FrequencySketch sketch = new FrequencySketch(10);
+    for (int i = 0; i < 20; i++) {
+      sketch.increment("key");
+    }
+
+    assertThat(sketch.frequency("key")).isEqualTo(15);
+  }
+
+  @Test
+  public void frequencyIsHalvedAfterManyIncrements() throws Exception {
+    FrequencySketch sketch = new FrequencySketch(16);
+    for (int i = 0; i < 15; i++) {
+      sketch.increment("key");
+    }
+    for (int i = 0; i < 200; i++) {
+      sketch.increment("other" + i);
+    }
+
+    assertThat(sketch.frequency("key")).isLessThan(15);
+  }
+}
@@ -74,7 +74,7 @@ class LRUTestEntry implements EvictableEntry {
 
   @Override
   public Object getKey() {
-    return null;
+    return id;
   }
 
   @Override
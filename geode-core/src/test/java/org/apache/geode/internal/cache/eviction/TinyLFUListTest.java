@@ -0,0 +1,111 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.eviction;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.cache.RegionEntryContext;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class TinyLFUListTest {
+
+  private static final int LIMIT = 10;
+
+  private TinyLFUList list;
+
+  private LRUTestEntry[] entries;
+
+  @Before
+  public void setup() {
+    EvictionController controller = mock(EvictionController.class);
+    when(controller.getLimit()).thenReturn((long) LIMIT);
+    list = new TinyLFUList(mock(InternalEvictionStatistics.class), null, controller);
+    entries = new LRUTestEntry[LIMIT + 1];
+    for (int i = 0; i < entries.length; i++) {
+      entries[i] = new LRUTestEntry(i);
+    }
+    for (int i = 0; i < LIMIT; i++) {
+      list.appendEntry(entries[i]);
+    }
+  }
+
+  @Test
+  public void evictingFromEmptyList() throws Exception {
+    TinyLFUList emptyList = new TinyLFUList(mock(InternalEvictionStatistics.class), null,
+        mock(EvictionController.class));
+
+    assertThat(emptyList.getEvictableEntry()).isNull();
+    assertThat(emptyList.size()).isZero();
+  }
+
+  @Test
+  public void newEntryIsEvictedBeforeFrequentlyReadEntry() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      list.recordAccess(0);
+    }
+    list.appendEntry(entries[LIMIT]);
+
+    assertThat(list.getEvictableEntry()).isSameAs(entries[LIMIT - 1]);
+    assertThat(list.size()).isEqualTo(LIMIT);
+  }
+
+  @Test
+  public void frequentlyReadNewEntryIsAdmitted() throws Exception {
+    for (int i = 0; i < 5; i++) {
+      list.recordAccess(LIMIT - 1);
+    }
+    list.appendEntry(entries[LIMIT]);
+
+    assertThat(list.getEvictableEntry()).isSameAs(entries[0]);
+    assertThat(list.getEvictableEntry()).isSameAs(entries[1]);
+    assertThat(list.size()).isEqualTo(LIMIT - 1);
+  }
+
+  @Test
+  public void recentlyUsedEntryIsGivenAnotherChance() throws Exception {
+    entries[0].setRecentlyUsed(mock(RegionEntryContext.class));
+    list.recordAccess(LIMIT - 1);
+    list.appendEntry(entries[LIMIT]);
+
+    assertThat(list.getEvictableEntry()).isSameAs(entries[1]);
+    assertThat(entries[0].isRecentlyUsed()).isFalse();
+  }
+
+  @Test
+  public void evictsEveryEntry() throws Exception {
+    for (int i = 0; i < LIMIT; i++) {
+      assertThat(list.getEvictableEntry()).isNotNull();
+    }
+
+    assertThat(list.getEvictableEntry()).isNull();
+    assertThat(list.size()).isZero();
+  }
+
+  @Test
+  public void destroyedEntryIsRemovedFromTheWindow() throws Exception {
+    list.destroyEntry(entries[LIMIT - 1]);
+    list.appendEntry(entries[LIMIT]);
+
+    assertThat(list.size()).isEqualTo(LIMIT);
+    assertThat(entries[LIMIT - 1].next()).isNull();
+  }
+}
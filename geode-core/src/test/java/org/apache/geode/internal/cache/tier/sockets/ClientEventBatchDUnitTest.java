@@ -0,0 +1,115 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static java.util.concurrent.TimeUnit.SECONDS;
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.awaitility.Awaitility.await;
+
+import java.io.Serializable;
+import java.util.List;
+import java.util.Properties;
+import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.function.Consumer;
+
+import org.junit.Rule;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.cache.EntryEvent;
+import org.apache.geode.cache.Region;
+import org.apache.geode.cache.RegionShortcut;
+import org.apache.geode.cache.client.ClientCacheFactory;
+import org.apache.geode.cache.client.ClientRegionShortcut;
+import org.apache.geode.cache.util.CacheListenerAdapter;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.test.dunit.rules.ClientVM;
+import org.apache.geode.test.dunit.rules.ClusterStartupRule;
+import org.apache.geode.test.dunit.rules.MemberVM;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.DistributedTest;
+
+/**
+ * Sends events to a client in {@link MessageType#CLIENT_EVENT_BATCH} messages and checks that the
+ * client applies all of them in order.
+ */
+@Category({DistributedTest.class, ClientServerTest.class})
+public class ClientEventBatchDUnitTest {
+
+  private static final String REGION_NAME = "region";
+
+  private static final int NUMBER_OF_EVENTS = 1000;
+
+  private static final List<Integer> receivedValues = new CopyOnWriteArrayList<>();
+
+  @Rule
+  public ClusterStartupRule cluster = new ClusterStartupRule();
+
+  @Test
+  public void batchedEventsAreReceivedInOrder() throws Exception {
+    sendAndReceiveEvents(false);
+  }
+
+  @Test
+  public void compressedBatchedEventsAreReceivedInOrder() throws Exception {
+    sendAndReceiveEvents(true);
+  }
+
+  private void sendAndReceiveEvents(boolean compress) throws Exception {
+    MemberVM server = cluster.startServerVM(0);
+    server.invoke(() -> {
+      System.setProperty(CacheClientProxy.EVENT_BATCH_SIZE_PROPERTY, "100");
+      System.setProperty(CacheClientProxy.EVENT_BATCH_MAX_BYTES_PROPERTY, "1000");
+      System.setProperty(CacheClientProxy.COMPRESS_EVENT_BATCHES_PROPERTY,
+          String.valueOf(compress));
+      ClusterStartupRule.getCache().createRegionFactory(RegionShortcut.REPLICATE)
+          .create(REGION_NAME);
+    });
+    int serverPort = server.getPort();
+    ClientVM client = cluster.startClientVM(1, new Properties(),
+        (Serializable & Consumer<ClientCacheFactory>) cacheFactory -> cacheFactory
+            .setPoolSubscriptionEnabled(true).addPoolServer("localhost", serverPort));
+    client.invoke(() -> {
+      receivedValues.clear();
+      Region<Integer, Integer> region = ClusterStartupRule.getClientCache()
+          .<Integer, Integer>createClientRegionFactory(ClientRegionShortcut.CACHING_PROXY)
+          .addCacheListener(new ReceivedValuesListener()).create(REGION_NAME);
+      region.registerInterest("ALL_KEYS");
+    });
+
+    server.invoke(() -> {
+      Region<Integer, Integer> region = ClusterStartupRule.getCache().getRegion(REGION_NAME);
+      for (int i = 0; i < NUMBER_OF_EVENTS; i++) {
+        region.put(i, i);
+      }
+    });
+
+    client.invoke(() -> {
+      await().atMost(60, SECONDS).until(() -> receivedValues.size() == NUMBER_OF_EVENTS);
+      for (int i = 0; i < NUMBER_OF_EVENTS; i++) {
+        assertThat(receivedValues.get(i)).isEqualTo(i);
+      }
+      assertThat(ClusterStartupRule.getClientCache().getRegion(REGION_NAME))
+          .hasSize(NUMBER_OF_EVENTS);
+    });
+  }
+
+  private static class ReceivedValuesListener extends CacheListenerAdapter<Integer, Integer> {
+    @Override
+    public void afterCreate(EntryEvent<Integer, Integer> event) {
+      receivedValues.add(event.getNewValue());
+    }
+  }
+}
@@ -0,0 +1,134 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+import static org.mockito.Mockito.when;
+
+import java.io.DataInputStream;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.compression.Compressor;
+import org.apache.geode.compression.SnappyCompressor;
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.internal.cache.tier.sockets.CacheClientProxy.MessageDispatcher;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category({UnitTest.class, ClientServerTest.class})
+public class MessageDispatcherJUnitTest {
+
+  @Test
+  public void eventsAreBatchedOnlyForCurrentNonDurableClients() {
+    ClientProxyMembershipID nonDurable = mock(ClientProxyMembershipID.class);
+    ClientProxyMembershipID durable = mock(ClientProxyMembershipID.class);
+    when(durable.isDurable()).thenReturn(true);
+
+    assertThat(MessageDispatcher.canBatchEvents(Version.GEODE_140, nonDurable)).isTrue();
+    assertThat(MessageDispatcher.canBatchEvents(Version.GEODE_140, durable)).isFalse();
+    assertThat(MessageDispatcher.canBatchEvents(Version.GEODE_130, nonDurable)).isFalse();
+  }
+
+  @Test
+  public void messagesAreReadBackFromBatchInOrder() throws Exception {
+    List<Message> batches = createBatches(Arrays.asList("a", "b", "c"), 1024, null);
+
+    assertThat(batches).hasSize(1);
+    assertThat(batches.get(0).getMessageType()).isEqualTo(MessageType.CLIENT_EVENT_BATCH);
+    assertThat(batches.get(0).getPart(1).getObject()).isEqualTo(false);
+    assertThat(readBatch(batches.get(0))).containsExactly("a", "b", "c");
+  }
+
+  @Test
+  public void compressedBatchIsReadBack() throws Exception {
+    List<String> values = new ArrayList<>();
+    for (int i = 0; i < 100; i++) {
+      values.add("value");
+    }
+    List<Message> batches =
+        createBatches(values, 1024 * 1024, SnappyCompressor.getDefaultInstance());
+
+    assertThat(batches).hasSize(1);
+    Message batch = batches.get(0);
+    assertThat(batch.getPart(1).getObject()).isEqualTo(true);
+    assertThat(batch.getPart(2).getLength()).isLessThan(values.size() * "value".length());
+    assertThat(readBatch(batch)).isEqualTo(values);
+  }
+
+  @Test
+  public void batchIsCutBeforeExceedingMaxBytes() throws Exception {
+    int maxBytes = 2 * createMessage("a").getBatchedLength();
+
+    List<Message> batches = createBatches(Arrays.asList("a", "b", "c"), maxBytes, null);
+
+    assertThat(batches).hasSize(2);
+    assertThat(batches.get(0).getPart(2).getLength()).isEqualTo(maxBytes);
+    assertThat(readBatch(batches.get(0))).containsExactly("a", "b");
+    assertThat(readBatch(batches.get(1))).containsExactly("c");
+  }
+
+  @Test
+  public void messageLargerThanMaxBytesIsSentOnItsOwn() throws Exception {
+    String large = new String(new char[100]).replace('\0', 'x');
+    int maxBytes = 2 * createMessage("a").getBatchedLength();
+
+    List<Message> batches = createBatches(Arrays.asList("a", large, "b"), maxBytes, null);
+
+    assertThat(batches).hasSize(3);
+    assertThat(readBatch(batches.get(0))).containsExactly("a");
+    assertThat(batches.get(1).getMessageType()).isEqualTo(MessageType.LOCAL_UPDATE);
+    assertThat(batches.get(1).getPart(0).getString()).isEqualTo(large);
+    assertThat(readBatch(batches.get(2))).containsExactly("b");
+  }
+
+  private static Message createMessage(String value) {
+    Message message = new Message(1, Version.CURRENT);
+    message.setMessageType(MessageType.LOCAL_UPDATE);
+    message.addStringPart(value);
+    return message;
+  }
+
+  private static List<Message> createBatches(List<String> values, int maxBytes,
+      Compressor compressor) throws Exception {
+    List<Message> messages = new ArrayList<>();
+    for (String value : values) {
+      messages.add(createMessage(value));
+    }
+    return MessageDispatcher.createBatches(messages, maxBytes, compressor, ByteBuffer.allocate(16),
+        Version.CURRENT);
+  }
+
+  private static List<String> readBatch(Message batch) throws Exception {
+    assertThat(batch.getMessageType()).isEqualTo(MessageType.CLIENT_EVENT_BATCH);
+    DataInputStream in = CacheClientUpdater.readBatchPayload(batch);
+    List<String> values = new ArrayList<>();
+    Message message = new Message(1, Version.CURRENT);
+    for (int i = 0; i < batch.getPart(0).getInt(); i++) {
+      message.readFrom(in);
+      assertThat(message.getMessageType()).isEqualTo(MessageType.LOCAL_UPDATE);
+      values.add(message.getPart(0).getString());
+    }
+    assertThat(in.available()).isEqualTo(0);
+    return values;
+  }
+}
@@ -17,6 +17,8 @@ package org.apache.geode.internal.cache.tier.sockets;
 import static org.junit.Assert.*;
 import static org.mockito.Mockito.*;
 
+import java.io.ByteArrayInputStream;
+import java.io.DataInputStream;
 import java.net.Socket;
 import java.nio.ByteBuffer;
 
@@ -24,7 +26,9 @@ import org.junit.Before;
 import org.junit.Test;
 import org.junit.experimental.categories.Category;
 
+import org.apache.geode.internal.HeapDataOutputStream;
 import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.MessageType;
 import org.apache.geode.test.junit.categories.ClientServerTest;
 import org.apache.geode.test.junit.categories.UnitTest;
 
@@ -112,4 +116,31 @@ public class MessageJUnitTest {
     verify(mockPart1, times(2)).clear();
   }
 
+  @Test
+  public void messageWrittenForBatchIsReadBack() throws Exception {
+    this.message.setMessageType(MessageType.LOCAL_UPDATE);
+    this.message.setNumberOfParts(4);
+    this.message.addStringPart("region");
+    this.message.addIntPart(5);
+    this.message.addObjPart("value");
+    this.message.addBytesPart(new byte[0]);
+    HeapDataOutputStream out = new HeapDataOutputStream(Version.CURRENT);
+    this.message.writeTo(out, ByteBuffer.allocate(16));
+    assertEquals(out.size(), this.message.getBatchedLength());
+    this.message.writeTo(out, ByteBuffer.allocate(16));
+
+    DataInputStream in = new DataInputStream(new ByteArrayInputStream(out.toByteArray()));
+    for (int i = 0; i < 2; i++) {
+      Message received = new Message(2, Version.CURRENT);
+      received.readFrom(in);
+      assertEquals(MessageType.LOCAL_UPDATE, received.getMessageType());
+      assertEquals(4, received.getNumberOfParts());
+      assertEquals("region", received.getPart(0).getString());
+      assertEquals(5, received.getPart(1).getInt());
+      assertEquals("value", received.getPart(2).getObject());
+      assertEquals(0, received.getPart(3).getLength());
+    }
+    assertEquals(0, in.available());
+  }
+
 }
@@ -0,0 +1,161 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.cache.tier.sockets;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.mockito.Mockito.mock;
+
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.nio.ByteBuffer;
+import java.nio.channels.ServerSocketChannel;
+import java.nio.channels.SocketChannel;
+import java.util.Arrays;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import org.junit.After;
+import org.junit.Before;
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.internal.Version;
+import org.apache.geode.internal.cache.tier.MessageType;
+import org.apache.geode.test.junit.categories.ClientServerTest;
+import org.apache.geode.test.junit.categories.IntegrationTest;
+
+@Category({IntegrationTest.class, ClientServerTest.class})
+public class MessageSocketChannelIntegrationTest {
+
+  private static final int BUFFER_SIZE = 1000;
+
+  private ServerSocketChannel serverChannel;
+
+  private SocketChannel senderChannel;
+
+  private SocketChannel receiverChannel;
+
+  private ExecutorService executor;
+
+  @Before
+  public void setUp() throws Exception {
+    serverChannel = ServerSocketChannel.open();
+    serverChannel.socket().bind(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0));
+    senderChannel = SocketChannel.open(serverChannel.socket().getLocalSocketAddress());
+    receiverChannel = serverChannel.accept();
+    executor = Executors.newSingleThreadExecutor();
+  }
+
+  @After
+  public void tearDown() throws Exception {
+    executor.shutdownNow();
+    senderChannel.close();
+    receiverChannel.close();
+    serverChannel.close();
+  }
+
+  @Test
+  public void largePartsAreSentAndReceivedWithoutTheCommBuffer() throws Exception {
+    byte[] bytes = createBytes(100000);
+    char[] chars = new char[50000];
+    Arrays.fill(chars, 'v');
+    String value = new String(chars);
+
+    Message sent = createMessage(4);
+    sent.addStringPart("key");
+    sent.addBytesPart(bytes);
+    sent.addObjPart(value);
+    sent.addIntPart(7);
+    Message received = sendAndReceive(sent, 4);
+
+    assertThat(received.getMessageType()).isEqualTo(MessageType.PUT);
+    assertThat(received.getPart(0).getString()).isEqualTo("key");
+    assertThat(received.getPart(1).getSerializedForm()).isEqualTo(bytes);
+    assertThat(received.getPart(2).getObject()).isEqualTo(value);
+    assertThat(received.getPart(3).getInt()).isEqualTo(7);
+  }
+
+  @Test
+  public void partHeadersSpanningCommBufferBoundariesAreKept() throws Exception {
+    int numParts = 20;
+    Message sent = createMessage(numParts);
+    for (int i = 0; i < numParts; i++) {
+      sent.addBytesPart(createBytes(i % 2 == 0 ? BUFFER_SIZE * 3 + i : 90 + i));
+    }
+    Message received = sendAndReceive(sent, numParts);
+
+    for (int i = 0; i < numParts; i++) {
+      assertThat(received.getPart(i).getSerializedForm())
+          .isEqualTo(createBytes(i % 2 == 0 ? BUFFER_SIZE * 3 + i : 90 + i));
+    }
+  }
+
+  @Test
+  public void messageCanBeSentAgain() throws Exception {
+    char[] chars = new char[5000];
+    Arrays.fill(chars, 'v');
+    String value = new String(chars);
+    Message sent = createMessage(1);
+    sent.addObjPart(value);
+
+    Future<?> sending = executor.submit(() -> {
+      sent.send(false);
+      sent.send(false);
+      return null;
+    });
+    Message first = receive(1);
+    Message second = receive(1);
+    sending.get(30, TimeUnit.SECONDS);
+
+    assertThat(first.getPart(0).getObject()).isEqualTo(value);
+    assertThat(second.getPart(0).getObject()).isEqualTo(value);
+  }
+
+  private Message createMessage(int numParts) throws Exception {
+    Message message = new Message(numParts, Version.CURRENT);
+    message.setMessageType(MessageType.PUT);
+    message.setComms(senderChannel.socket(), ByteBuffer.allocate(BUFFER_SIZE),
+        mock(MessageStats.class));
+    return message;
+  }
+
+  private Message sendAndReceive(Message message, int numParts) throws Exception {
+    Future<?> sending = executor.submit(() -> {
+      message.send();
+      return null;
+    });
+    Message received = receive(numParts);
+    sending.get(30, TimeUnit.SECONDS);
+    return received;
+  }
+
+  private Message receive(int numParts) throws Exception {
+    Message message = new Message(numParts, Version.CURRENT);
+    message.setComms(receiverChannel.socket(), ByteBuffer.allocate(BUFFER_SIZE),
+        mock(MessageStats.class));
+    message.recv();
+    return message;
+  }
+
+  private static byte[] createBytes(int length) {
+    byte[] bytes = new byte[length];
+    for (int i = 0; i < length; i++) {
+      bytes[i] = (byte) (i * 31 + length);
+    }
+    return bytes;
+  }
+}
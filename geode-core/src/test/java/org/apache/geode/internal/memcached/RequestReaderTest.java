@@ -0,0 +1,85 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.memcached;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.assertj.core.api.Assertions.assertThatThrownBy;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.memcached.GemFireMemcachedServer.Protocol;
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class RequestReaderTest {
+
+  private static ByteBuffer ascii(String requests) {
+    return ByteBuffer.wrap(requests.getBytes(StandardCharsets.US_ASCII));
+  }
+
+  private static ByteBuffer binary(int bodyLength, int available) {
+    ByteBuffer buffer = ByteBuffer.allocate(available);
+    buffer.put(0, (byte) 0x80);
+    buffer.putInt(8, bodyLength);
+    return buffer;
+  }
+
+  @Test
+  public void asciiRetrievalRequestEndsWithTheLine() {
+    assertThat(RequestReader.getRequestLength(ascii("get key\r\nget other\r\n"), Protocol.ASCII))
+        .isEqualTo(9);
+  }
+
+  @Test
+  public void asciiStorageRequestIncludesTheDataBlock() {
+    ByteBuffer input = ascii("set key 0 0 5\r\nvalue\r\nget key\r\n");
+
+    assertThat(RequestReader.getRequestLength(input, Protocol.ASCII)).isEqualTo(22);
+    input.position(22);
+    assertThat(RequestReader.getRequestLength(input, Protocol.ASCII)).isEqualTo(9);
+  }
+
+  @Test
+  public void incompleteAsciiRequestIsNotFramed() {
+    assertThat(RequestReader.getRequestLength(ascii("get ke"), Protocol.ASCII)).isEqualTo(-1);
+    assertThat(RequestReader.getRequestLength(ascii("set key 0 0 5\r\nval"), Protocol.ASCII))
+        .isEqualTo(-1);
+  }
+
+  @Test
+  public void overlongAsciiLineIsRejected() {
+    ByteBuffer input = ByteBuffer.allocate(RequestReader.MAX_ASCII_LINE_LENGTH + 1);
+
+    assertThatThrownBy(() -> RequestReader.getRequestLength(input, Protocol.ASCII))
+        .isInstanceOf(IllegalStateException.class);
+  }
+
+  @Test
+  public void binaryRequestIsHeaderPlusBody() {
+    assertThat(RequestReader.getRequestLength(binary(10, 40), Protocol.BINARY)).isEqualTo(34);
+    assertThat(RequestReader.getRequestLength(binary(10, 30), Protocol.BINARY)).isEqualTo(-1);
+    assertThat(RequestReader.getRequestLength(binary(0, 20), Protocol.BINARY)).isEqualTo(-1);
+  }
+
+  @Test
+  public void negativeBinaryBodyLengthIsRejected() {
+    assertThatThrownBy(() -> RequestReader.getRequestLength(binary(-1, 24), Protocol.BINARY))
+        .isInstanceOf(IllegalStateException.class);
+  }
+}
@@ -0,0 +1,53 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.internal.util.concurrent;
+
+import static org.assertj.core.api.Assertions.assertThat;
+import static org.junit.Assume.assumeTrue;
+
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicReference;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class VirtualThreadsTest {
+
+  @Test
+  public void createFactoryReturnsNullOnlyWhenUnsupported() {
+    ThreadFactory factory = VirtualThreads.createFactory("test ");
+
+    assertThat(factory != null).isEqualTo(VirtualThreads.isSupported());
+  }
+
+  @Test
+  public void factoryThreadsRunWithPrefixedNames() throws Exception {
+    assumeTrue(VirtualThreads.isSupported());
+    ThreadFactory factory = VirtualThreads.createFactory("test ");
+    AtomicReference<String> name = new AtomicReference<String>();
+
+    Thread first = factory.newThread(() -> name.set(Thread.currentThread().getName()));
+    first.start();
+    first.join();
+    Thread second = factory.newThread(() -> {
+    });
+
+    assertThat(name.get()).isEqualTo("test 0");
+    assertThat(second.getName()).isEqualTo("test 1");
+  }
+}
@@ -55,7 +55,7 @@ public class GemcachedDevelopmentJUnitTest {
   public void setUp() throws Exception {
     System.setProperty(DistributionConfig.GEMFIRE_PREFIX + MCAST_PORT, "0");
     PORT = AvailablePort.getRandomAvailablePort(AvailablePort.SOCKET);
-    this.server = new GemFireMemcachedServer("", PORT, getProtocol());
+    this.server = new GemFireMemcachedServer("", PORT, getProtocol(), getSelectorThreads());
     server.start();
     logger.addHandler(new StreamHandler());
   }
@@ -70,6 +70,10 @@ public class GemcachedDevelopmentJUnitTest {
     return Protocol.ASCII;
   }
 
+  protected int getSelectorThreads() {
+    return 0;
+  }
+
   @Test
   public void testPutGet() throws Exception {
     MemcachedClient client = createMemcachedClient();
@@ -185,6 +185,32 @@ public class SortedSetsJUnitTest {
     assertEquals(infResult, Double.valueOf(Double.POSITIVE_INFINITY));
   }
 
+  @Test
+  public void concurrentZAddsAreAllStored() throws Exception {
+    String key = randString();
+    int membersPerClient = 1000;
+    runConcurrently(2, client -> {
+      for (int i = 0; i < membersPerClient; i++) {
+        client.jedis.zadd(key, i, client.id + "-" + i);
+      }
+    });
+
+    assertEquals(Long.valueOf(2 * membersPerClient), jedis.zcard(key));
+  }
+
+  @Test
+  public void concurrentZIncrBysAreAllApplied() throws Exception {
+    String key = randString();
+    int incrementsPerClient = 500;
+    runConcurrently(2, client -> {
+      for (int i = 0; i < incrementsPerClient; i++) {
+        client.jedis.zincrby(key, 1, "member");
+      }
+    });
+
+    assertEquals(2.0 * incrementsPerClient, jedis.zscore(key, "member"), 0.0);
+  }
+
   public void testZRangeByScore() {
     Double min;
     Double max;
@@ -402,6 +428,42 @@ public class SortedSetsJUnitTest {
     }
   }
 
+  private interface ClientTask {
+    void run(Client client);
+  }
+
+  private static class Client {
+    private final int id;
+    private final Jedis jedis = new Jedis("localhost", port, 10000000);
+
+    private Client(int id) {
+      this.id = id;
+    }
+  }
+
+  private void runConcurrently(int numberOfClients, ClientTask task) throws Exception {
+    List<Thread> threads = new ArrayList<>();
+    List<Throwable> failures = Collections.synchronizedList(new ArrayList<>());
+    for (int i = 0; i < numberOfClients; i++) {
+      Client client = new Client(i);
+      Thread thread = new Thread(() -> {
+        try {
+          task.run(client);
+        } catch (Throwable t) {
+          failures.add(t);
+        } finally {
+          client.jedis.close();
+        }
+      });
+      threads.add(thread);
+      thread.start();
+    }
+    for (Thread thread : threads) {
+      thread.join();
+    }
+    assertEquals(Collections.emptyList(), failures);
+  }
+
   private String randString() {
     return Long.toHexString(Double.doubleToLongBits(Math.random()));
   }
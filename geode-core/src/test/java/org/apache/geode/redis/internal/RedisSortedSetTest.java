@@ -0,0 +1,193 @@
+/*
+ * Licensed to the Apache Software Foundation (ASF) under one or more contributor license
+ * agreements. See the NOTICE file distributed with this work for additional information regarding
+ * copyright ownership. The ASF licenses this file to You under the Apache License, Version 2.0 (the
+ * "License"); you may not use this file except in compliance with the License. You may obtain a
+ * copy of the License at
+ *
+ * http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software distributed under the License
+ * is distributed on an "AS IS" BASIS, WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express
+ * or implied. See the License for the specific language governing permissions and limitations under
+ * the License.
+ */
+package org.apache.geode.redis.internal;
+
+import static org.assertj.core.api.Assertions.assertThat;
+
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+
+import org.junit.Test;
+import org.junit.experimental.categories.Category;
+
+import org.apache.geode.test.junit.categories.UnitTest;
+
+@Category(UnitTest.class)
+public class RedisSortedSetTest {
+
+  private static final Comparator<Map.Entry<ByteArrayWrapper, Double>> ORDER =
+      Comparator.comparing((Map.Entry<ByteArrayWrapper, Double> e) -> e.getValue())
+          .thenComparing(Map.Entry::getKey);
+
+  private static ByteArrayWrapper member(String name) {
+    return Coder.stringToByteArrayWrapper(name);
+  }
+
+  @Test
+  public void addReturnsWhetherMemberIsNew() {
+    RedisSortedSet set = new RedisSortedSet();
+
+    assertThat(set.add(member("a"), 1)).isTrue();
+    assertThat(set.add(member("a"), 2)).isFalse();
+    assertThat(set.getScore(member("a"))).isEqualTo(2);
+    assertThat(set.remove(member("a"))).isTrue();
+    assertThat(set.remove(member("a"))).isFalse();
+    assertThat(set.size()).isZero();
+  }
+
+  @Test
+  public void ranksAndRangesMatchSortedModel() {
+    RedisSortedSet set = new RedisSortedSet();
+    Map<ByteArrayWrapper, Double> model = new HashMap<>();
+    Random random = new Random(0);
+
+    for (int i = 0; i < 5000; i++) {
+      ByteArrayWrapper member = member("m" + random.nextInt(500));
+      if (random.nextInt(4) == 0) {
+        assertThat(set.remove(member)).isEqualTo(model.remove(member) != null);
+      } else {
+        double score = random.nextInt(50);
+        assertThat(set.add(member, score)).isEqualTo(model.put(member, score) == null);
+      }
+    }
+
+    List<Map.Entry<ByteArrayWrapper, Double>> sorted = new ArrayList<>(model.entrySet());
+    Collections.sort(sorted, ORDER);
+    assertThat(set.size()).isEqualTo(sorted.size());
+    for (int rank = 0; rank < sorted.size(); rank++) {
+      ByteArrayWrapper member = sorted.get(rank).getKey();
+      assertThat(set.rank(member, false)).isEqualTo(rank);
+      assertThat(set.rank(member, true)).isEqualTo(sorted.size() - rank - 1);
+    }
+
+    List<ByteArrayWrapper> expected = new ArrayList<>();
+    for (Map.Entry<ByteArrayWrapper, Double> entry : sorted) {
+      if (entry.getValue() > 10 && entry.getValue() <= 20) {
+        expected.add(entry.getKey());
+      }
+    }
+    assertThat(keys(set.rangeByScore(10, false, 20, true, false, 0, -1))).isEqualTo(expected);
+    assertThat(set.countByScore(10, false, 20, true)).isEqualTo(expected.size());
+    assertThat(keys(set.rangeByScore(10, false, 20, true, false, 2, 3)))
+        .isEqualTo(expected.subList(2, 5));
+    Collections.reverse(expected);
+    assertThat(keys(set.rangeByScore(10, false, 20, true, true, 0, -1))).isEqualTo(expected);
+
+    assertThat(keys(set.rangeByRank(3, 7, false))).isEqualTo(keys(sorted.subList(3, 8)));
+  }
+
+  @Test
+  public void lexRangesUseMemberOrder() {
+    RedisSortedSet set = new RedisSortedSet();
+    for (String name : new String[] {"a", "b", "c", "d", "e"}) {
+      set.add(member(name), 0);
+    }
+
+    assertThat(set.rangeByLex(member("b"), true, member("d"), false, 0, -1))
+        .containsExactly(member("b"), member("c"));
+    assertThat(set.rangeByLex(null, true, member("c"), true, 1, 1)).containsExactly(member("b"));
+    assertThat(set.countByLex(member("b"), false, null, true)).isEqualTo(3);
+    assertThat(set.removeRangeByLex(member("b"), false, null, true)).isEqualTo(3);
+    assertThat(set.size()).isEqualTo(2);
+  }
+
+  @Test
+  public void removeRanges() {
+    RedisSortedSet set = new RedisSortedSet();
+    for (int i = 0; i < 10; i++) {
+      set.add(member("m" + i), i);
+    }
+
+    assertThat(set.removeRangeByRank(0, 2)).isEqualTo(3);
+    assertThat(set.removeRangeByScore(5, true, 7, false)).isEqualTo(2);
+    assertThat(keys(set.entries())).containsExactly(member("m3"), member("m4"), member("m7"),
+        member("m8"), member("m9"));
+  }
+
+  @Test
+  public void deltaAppliesChangesToCopy() throws Exception {
+    RedisSortedSet set = new RedisSortedSet();
+    for (int i = 0; i < 10; i++) {
+      set.add(member("m" + i), i);
+    }
+    RedisSortedSet copy = new RedisSortedSet();
+    ByteArrayOutputStream bytes = new ByteArrayOutputStream();
+    set.toData(new DataOutputStream(bytes));
+    copy.fromData(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+    set.toDelta(new DataOutputStream(new ByteArrayOutputStream()));
+
+    set.add(member("m1"), 20);
+    set.remove(member("m2"));
+    set.add(member("new"), 5);
+    assertThat(set.hasDelta()).isTrue();
+    bytes = new ByteArrayOutputStream();
+    set.toDelta(new DataOutputStream(bytes));
+    copy.fromDelta(new DataInputStream(new ByteArrayInputStream(bytes.toByteArray())));
+
+    assertThat(set.hasDelta()).isFalse();
+    assertThat(copy.hasDelta()).isFalse();
+    assertThat(keys(copy.entries())).isEqualTo(keys(set.entries()));
+  }
+
+  @Test
+  public void pendingDeltaIsDroppedWhenLargerThanSet() {
+    RedisSortedSet set = new RedisSortedSet();
+    for (int i = 0; i < 1000; i++) {
+      set.add(member("m" + i), i);
+      set.remove(member("m" + i));
+    }
+
+    assertThat(set.hasDelta()).isFalse();
+    set.add(member("a"), 1);
+    assertThat(set.hasDelta()).isFalse();
+    set.toData(new DataOutputStream(new ByteArrayOutputStream()));
+    set.add(member("b"), 2);
+    assertThat(set.hasDelta()).isTrue();
+  }
+
+  @Test
+  public void copyHasSameMembersAndNoPendingDelta() {
+    RedisSortedSet set = new RedisSortedSet();
+    for (int i = 0; i < 10; i++) {
+      set.add(member("m" + i), i);
+    }
+
+    RedisSortedSet copy = set.copy();
+    assertThat(copy.hasDelta()).isFalse();
+    assertThat(keys(copy.entries())).isEqualTo(keys(set.entries()));
+
+    copy.remove(member("m0"));
+    assertThat(copy.hasDelta()).isTrue();
+    assertThat(set.size()).isEqualTo(10);
+    assertThat(set.rank(member("m0"), false)).isEqualTo(0);
+  }
+
+  private static List<ByteArrayWrapper> keys(List<? extends Map.Entry<ByteArrayWrapper, ?>> list) {
+    List<ByteArrayWrapper> keys = new ArrayList<>(list.size());
+    for (Map.Entry<ByteArrayWrapper, ?> entry : list) {
+      keys.add(entry.getKey());
+    }
+    return keys;
+  }
+}